@@ -0,0 +1,71 @@
+package tech.kayys.gamelan.core.orchestration;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.mutiny.Uni;
+import tech.kayys.gamelan.engine.run.RunUpdate;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * RunUpdateDebouncer - at most one orchestration pass per run at a time
+ *
+ * Updates that arrive while a pass for the same run is in flight are merged
+ * into a single follow-up pass. The pass reports the run version it worked
+ * from; a pending update at or below that version was already covered and is
+ * dropped instead of triggering another pass.
+ */
+public class RunUpdateDebouncer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunUpdateDebouncer.class);
+
+    private final Function<RunUpdate, Uni<Long>> pass;
+    private final Map<WorkflowRunId, RunUpdate> pending = new ConcurrentHashMap<>();
+    private final Set<WorkflowRunId> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param pass orchestration pass for a run, completing with the run version
+     *             it observed
+     */
+    public RunUpdateDebouncer(Function<RunUpdate, Uni<Long>> pass) {
+        this.pass = pass;
+    }
+
+    public void submit(RunUpdate update) {
+        pending.merge(update.runId(), update, RunUpdate::merge);
+        if (inFlight.add(update.runId())) {
+            next(update.runId());
+        }
+    }
+
+    private void next(WorkflowRunId runId) {
+        RunUpdate update = pending.remove(runId);
+        if (update == null) {
+            inFlight.remove(runId);
+            // An update may have been queued after remove() but before the release
+            if (pending.containsKey(runId) && inFlight.add(runId)) {
+                next(runId);
+            }
+            return;
+        }
+
+        Uni.createFrom().deferred(() -> pass.apply(update))
+                .subscribe().with(
+                        observedVersion -> {
+                            pending.computeIfPresent(runId,
+                                    (id, queued) -> observedVersion != null && queued.version() <= observedVersion
+                                            ? null
+                                            : queued);
+                            next(runId);
+                        },
+                        error -> {
+                            LOG.error("Orchestration pass failed for run {}", runId.value(), error);
+                            next(runId);
+                        });
+    }
+}
@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 
 import io.quarkus.vertx.ConsumeEvent;
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
 import tech.kayys.gamelan.core.engine.WorkflowEngine;
 import tech.kayys.gamelan.core.node.DefaultNodeExecutionContext;
 import tech.kayys.gamelan.engine.context.EngineContext;
@@ -28,6 +29,7 @@ import tech.kayys.gamelan.engine.node.NodeId;
 import tech.kayys.gamelan.engine.node.NodeResult;
 import tech.kayys.gamelan.engine.repository.WorkflowRunRepository;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunUpdate;
 import tech.kayys.gamelan.engine.tenant.TenantId;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionService;
@@ -68,21 +70,45 @@ public class WorkflowOrchestrator {
         @Inject
         CompensationService compensationService;
 
+        private final RunUpdateDebouncer updates = new RunUpdateDebouncer(this::orchestrate);
+
         /**
-         * Listens to workflow run updates and triggers node execution
+         * Listens to workflow run updates and triggers node execution. Updates
+         * arriving while a pass for the same run is in flight are merged into one
+         * follow-up pass.
          */
         @ConsumeEvent("gamelan.runs.v1.updated")
-        public Uni<Void> onWorkflowRunUpdated(String runIdValue) {
-                LOG.info("Workflow run updated: {}", runIdValue);
+        public void onWorkflowRunUpdated(JsonObject message) {
+                RunUpdate update = message.mapTo(RunUpdate.class);
+                LOG.info("Workflow run updated: {} (version {}, changed nodes {})",
+                                update.runId().value(), update.version(), update.changedNodes());
+                updates.submit(update);
+        }
 
-                WorkflowRunId runId = WorkflowRunId.of(runIdValue);
+        /**
+         * One orchestration pass. The run is loaded once and every pending node
+         * of the pass is checked and started against that load.
+         *
+         * @return the run version the pass worked from
+         */
+        Uni<Long> orchestrate(RunUpdate update) {
+                WorkflowRunId runId = update.runId();
+                String runIdValue = runId.value();
 
                 return runRepository.findById(runId)
                                 .onItem().ifNull()
                                 .failWith(() -> new GamelanException(
                                                 ErrorCode.RUN_NOT_FOUND,
                                                 "Run not found: " + runIdValue))
-                                .chain(run -> {
+                                .chain(run -> orchestrateRun(run).replaceWith(run.getVersion()));
+        }
+
+        private Uni<Void> orchestrateRun(WorkflowRun run) {
+                WorkflowRunId runId = run.getId();
+                String runIdValue = runId.value();
+
+                return Uni.createFrom().voidItem()
+                                .chain(() -> {
                                         // Handle compensation if workflow is compensating
                                         if (run.getStatus() == RunStatus.COMPENSATING) {
                                                 LOG.info("Workflow {} is compensating, triggering compensation coordinator",
@@ -178,22 +204,16 @@ public class WorkflowOrchestrator {
                 LOG.info("Executing node {} (type: {}) for run {}",
                                 nodeId.value(), nodeDef.type(), run.getId().value());
 
-                // Atomic node start with idempotency check
-                return runManager.getRun(run.getId(), run.getTenantId())
-                                .chain(freshRun -> {
-                                        // Check if node is already started or completed (idempotency)
-                                        NodeExecution freshExec = freshRun.getNodeExecution(nodeId);
-                                        if (freshExec.getStatus() != NodeExecutionStatus.PENDING
-                                                        || freshExec.isCompleted()) {
-                                                LOG.debug("Node {} already started or completed (status: {}), skipping execution",
-                                                                nodeId.value(), freshExec.getStatus());
-                                                return Uni.createFrom().voidItem();
-                                        }
+                // Idempotency check against the pass's load of the run; passes for the
+                // same run never overlap, so the load is current for this pass
+                if (nodeExec.getStatus() != NodeExecutionStatus.PENDING || nodeExec.isCompleted()) {
+                        LOG.debug("Node {} already started or completed (status: {}), skipping execution",
+                                        nodeId.value(), nodeExec.getStatus());
+                        return Uni.createFrom().voidItem();
+                }
+                run.startNode(nodeId, nodeExec.getAttempt());
 
-                                        // Mark node as started atomically
-                                        freshRun.startNode(nodeId, nodeExec.getAttempt());
-                                        return Uni.createFrom().item(freshRun);
-                                })
+                return Uni.createFrom().voidItem()
                                 .chain(() -> {
                                         // Prepare node inputs from workflow context
                                         Map<String, Object> nodeInputs = prepareNodeInputs(run, nodeDef);
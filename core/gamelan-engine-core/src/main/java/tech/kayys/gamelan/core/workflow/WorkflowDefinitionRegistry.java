@@ -12,12 +12,15 @@ import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import tech.kayys.gamelan.engine.tenant.TenantId;
+import tech.kayys.gamelan.engine.workflow.CompiledWorkflowPlan;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinition;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
 import tech.kayys.gamelan.engine.repository.WorkflowDefinitionRepository;
 
 /**
- * Registry for workflow definitions with caching
+ * Registry for workflow definitions with caching.
+ * Each cached definition is compiled once into a {@link CompiledWorkflowPlan}
+ * that runs and the execution engine share.
  */
 @ApplicationScoped
 public class WorkflowDefinitionRegistry {
@@ -30,6 +33,9 @@ public class WorkflowDefinitionRegistry {
     // In-memory cache
     private final Map<String, WorkflowDefinition> cache = new java.util.concurrent.ConcurrentHashMap<>();
 
+    // Compiled plans, keyed like the definition cache
+    private final Map<String, CompiledWorkflowPlan> plans = new java.util.concurrent.ConcurrentHashMap<>();
+
     /**
      * Get workflow definition by ID
      */
@@ -57,12 +63,35 @@ public class WorkflowDefinitionRegistry {
 
                     // Cache it
                     cache.put(cacheKey, definition);
+                    plans.put(cacheKey, CompiledWorkflowPlan.compile(definition));
                     LOG.debug("Loaded and cached definition: {}", id.value());
 
                     return definition;
                 });
     }
 
+    /**
+     * Get the compiled plan for a definition previously returned by this
+     * registry. Definitions that are not cached are compiled on demand.
+     */
+    public CompiledWorkflowPlan getPlan(WorkflowDefinition definition) {
+        String cacheKey = definition.tenantId().value() + ":" + definition.id().value();
+        CompiledWorkflowPlan plan = plans.get(cacheKey);
+        if (plan != null && plan.definition() == definition) {
+            return plan;
+        }
+        return CompiledWorkflowPlan.compile(definition);
+    }
+
+    /**
+     * Get compiled plan by definition ID
+     */
+    public Uni<CompiledWorkflowPlan> getPlan(
+            WorkflowDefinitionId id,
+            TenantId tenantId) {
+        return getDefinition(id, tenantId).map(this::getPlan);
+    }
+
     /**
      * Register a new workflow definition
      */
@@ -85,6 +114,7 @@ public class WorkflowDefinitionRegistry {
                     // Update cache
                     String cacheKey = tenantId.value() + ":" + saved.id().value();
                     cache.put(cacheKey, saved);
+                    plans.put(cacheKey, CompiledWorkflowPlan.compile(saved));
 
                     LOG.info("Registered workflow definition: {}", saved.id().value());
                     return saved;
@@ -116,6 +146,7 @@ public class WorkflowDefinitionRegistry {
     public void invalidateCache(WorkflowDefinitionId id, TenantId tenantId) {
         String cacheKey = tenantId.value() + ":" + id.value();
         cache.remove(cacheKey);
+        plans.remove(cacheKey);
         LOG.debug("Invalidated cache for: {}", id.value());
     }
 
@@ -124,6 +155,7 @@ public class WorkflowDefinitionRegistry {
      */
     public void clearCache() {
         cache.clear();
+        plans.clear();
         LOG.info("Cleared definition cache");
     }
 }
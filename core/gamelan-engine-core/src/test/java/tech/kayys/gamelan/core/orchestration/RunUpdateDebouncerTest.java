@@ -0,0 +1,78 @@
+package tech.kayys.gamelan.core.orchestration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunUpdate;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RunUpdateDebouncerTest {
+
+    private final WorkflowRunId runId = WorkflowRunId.of("run-1");
+    private final List<RunUpdate> passes = new ArrayList<>();
+    private final List<UniEmitter<? super Long>> inFlight = new ArrayList<>();
+
+    private final RunUpdateDebouncer debouncer = new RunUpdateDebouncer(update -> {
+        passes.add(update);
+        return Uni.createFrom().emitter(inFlight::add);
+    });
+
+    @Test
+    void mergesUpdatesArrivingDuringAPass() {
+        debouncer.submit(update(1, "a"));
+        debouncer.submit(update(2, "b"));
+        debouncer.submit(update(3, "c"));
+        assertEquals(1, passes.size());
+
+        // The first pass saw version 1 only, so one follow-up pass covers the rest
+        inFlight.get(0).complete(1L);
+        assertEquals(2, passes.size());
+        assertEquals(3, passes.get(1).version());
+        assertEquals(List.of(NodeId.of("b"), NodeId.of("c")), passes.get(1).changedNodes());
+
+        inFlight.get(1).complete(3L);
+        assertEquals(2, passes.size());
+    }
+
+    @Test
+    void dropsUpdatesAlreadyCoveredByThePass() {
+        debouncer.submit(update(1, "a"));
+        debouncer.submit(update(2, "b"));
+
+        // The pass loaded the run after the second update was committed
+        inFlight.get(0).complete(2L);
+        assertEquals(1, passes.size());
+
+        debouncer.submit(update(3, "c"));
+        assertEquals(2, passes.size());
+    }
+
+    @Test
+    void keepsGoingAfterAFailedPass() {
+        debouncer.submit(update(1, "a"));
+        debouncer.submit(update(2, "b"));
+
+        inFlight.get(0).fail(new IllegalStateException("boom"));
+        assertEquals(2, passes.size());
+    }
+
+    @Test
+    void mergeKeepsNewestVersionAndUnionOfNodes() {
+        RunUpdate merged = update(5, "a").merge(update(4, "b"));
+
+        assertEquals(5, merged.version());
+        assertEquals(List.of(NodeId.of("a"), NodeId.of("b")), merged.changedNodes());
+    }
+
+    private RunUpdate update(long version, String node) {
+        return new RunUpdate(runId, version, RunStatus.RUNNING, List.of(NodeId.of(node)));
+    }
+}
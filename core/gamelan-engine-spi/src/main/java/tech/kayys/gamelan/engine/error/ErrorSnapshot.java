@@ -1,9 +1,11 @@
 package tech.kayys.gamelan.engine.error;
 
 import java.util.Objects;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 public class ErrorSnapshot {
     private final String code;
     private final String message;
@@ -1,5 +1,6 @@
 package tech.kayys.gamelan.engine.event;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import io.smallrye.mutiny.Uni;
@@ -32,6 +33,51 @@ public interface EventStore {
                         WorkflowRunId runId,
                         long afterVersion);
 
+        /**
+         * Get at most {@code limit} events after a specific version, in
+         * sequence order. Stores should push the limit down to their query;
+         * the default reads everything after the version and truncates.
+         */
+        default Uni<List<ExecutionEvent>> getEventsAfterVersion(
+                        WorkflowRunId runId,
+                        long afterVersion,
+                        int limit) {
+                return getEventsAfterVersion(runId, afterVersion)
+                                .map(events -> events.size() > limit ? events.subList(0, limit) : events);
+        }
+
+        /**
+         * Get events after a specific version together with their sequence
+         * numbers. The default assumes the stream has no gaps, numbering the
+         * events from {@code afterVersion + 1}; stores should return the
+         * sequence numbers they actually recorded.
+         */
+        default Uni<List<SequencedEvent>> getSequencedEventsAfterVersion(
+                        WorkflowRunId runId,
+                        long afterVersion) {
+                return getEventsAfterVersion(runId, afterVersion)
+                                .map(events -> {
+                                        List<SequencedEvent> sequenced = new ArrayList<>(events.size());
+                                        for (int i = 0; i < events.size(); i++) {
+                                                sequenced.add(new SequencedEvent(afterVersion + i + 1, events.get(i)));
+                                        }
+                                        return sequenced;
+                                });
+        }
+
+        /**
+         * Get at most {@code limit} events after a specific version with their
+         * sequence numbers. Stores should push the limit down to their query;
+         * the default reads everything after the version and truncates.
+         */
+        default Uni<List<SequencedEvent>> getSequencedEventsAfterVersion(
+                        WorkflowRunId runId,
+                        long afterVersion,
+                        int limit) {
+                return getSequencedEventsAfterVersion(runId, afterVersion)
+                                .map(events -> events.size() > limit ? events.subList(0, limit) : events);
+        }
+
         /**
          * Get events by type
          */
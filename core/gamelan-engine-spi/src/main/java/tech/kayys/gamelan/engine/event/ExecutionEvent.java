@@ -21,6 +21,7 @@ public sealed interface ExecutionEvent permits
         WorkflowFailedEvent,
         WorkflowCancelledEvent,
         CompensationStartedEvent,
+        NodeCompensatedEvent,
         CompensationCompletedEvent,
         CompensationFailedEvent,
         GenericExecutionEvent {
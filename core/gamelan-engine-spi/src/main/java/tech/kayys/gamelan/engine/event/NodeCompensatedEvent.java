@@ -0,0 +1,20 @@
+package tech.kayys.gamelan.engine.event;
+
+import java.time.Instant;
+
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+public record NodeCompensatedEvent(
+        String eventId,
+        WorkflowRunId runId,
+        TenantId tenantId,
+        NodeId nodeId,
+        Instant occurredAt) implements ExecutionEvent {
+
+    @Override
+    public String eventType() {
+        return "NodeCompensated";
+    }
+}
@@ -0,0 +1,9 @@
+package tech.kayys.gamelan.engine.event;
+
+/**
+ * A stored event with the sequence number it was recorded under
+ */
+public record SequencedEvent(
+        long sequence,
+        ExecutionEvent event) {
+}
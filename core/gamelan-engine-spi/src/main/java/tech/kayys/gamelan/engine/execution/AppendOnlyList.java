@@ -0,0 +1,101 @@
+package tech.kayys.gamelan.engine.execution;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * AppendOnlyList - immutable list whose appends share structure
+ *
+ * Versions derived from one another by {@link #append} share one backing
+ * array and each sees only the prefix up to its own size. Appending to the
+ * newest version writes the next slot in amortized O(1); appending to an
+ * older version, whose next slot is already taken, copies its prefix first.
+ * Slots are never overwritten, so every version stays valid.
+ */
+final class AppendOnlyList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final AppendOnlyList<?> EMPTY = new AppendOnlyList<>(new Store(new Object[0], 0), 0);
+
+    private final Store store;
+    private final int size;
+
+    private AppendOnlyList(Store store, int size) {
+        this.store = store;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> AppendOnlyList<E> empty() {
+        return (AppendOnlyList<E>) EMPTY;
+    }
+
+    /**
+     * The list itself if it already is one, else a copy of its elements
+     */
+    @SuppressWarnings("unchecked")
+    static <E> AppendOnlyList<E> copyOf(Collection<? extends E> elements) {
+        if (elements == null || elements.isEmpty()) {
+            return empty();
+        }
+        if (elements instanceof AppendOnlyList<?> list) {
+            return (AppendOnlyList<E>) list;
+        }
+        Object[] items = elements.toArray();
+        return new AppendOnlyList<>(new Store(items, items.length), items.length);
+    }
+
+    AppendOnlyList<E> append(E element) {
+        if (store.claim(size, element)) {
+            return new AppendOnlyList<>(store, size + 1);
+        }
+        // Someone already appended to this version: fork
+        Object[] items = Arrays.copyOf(store.items, Math.max(8, size * 2));
+        items[size] = element;
+        return new AppendOnlyList<>(new Store(items, size + 1), size + 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) store.items[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private static final class Store {
+
+        // Replaced, never mutated below count, after a slot is written
+        volatile Object[] items;
+        private int count;
+
+        Store(Object[] items, int count) {
+            this.items = items;
+            this.count = count;
+        }
+
+        /**
+         * Write {@code element} at {@code index} if that is the next free slot
+         */
+        synchronized boolean claim(int index, Object element) {
+            if (count != index) {
+                return false;
+            }
+            Object[] current = items;
+            if (index == current.length) {
+                current = Arrays.copyOf(current, Math.max(8, index * 2));
+            }
+            current[index] = element;
+            // Publish the slot with the array
+            items = current;
+            count = index + 1;
+            return true;
+        }
+    }
+}
@@ -29,9 +29,10 @@ public class ExecutionHistory {
     private final Instant created;
     private final Instant lastUpdated;
 
-    private final List<ExecutionEventHistory> events;
-    private final List<NodeExecutionRecord> nodeExecutions;
-    private final List<StateTransition> stateTransitions;
+    // Appends share structure with earlier versions of the history
+    private final AppendOnlyList<ExecutionEventHistory> events;
+    private final AppendOnlyList<NodeExecutionRecord> nodeExecutions;
+    private final AppendOnlyList<StateTransition> stateTransitions;
 
     private final Map<Instant, Map<String, Object>> inputSnapshots;
     private final Map<Instant, Map<String, Object>> outputSnapshots;
@@ -61,9 +62,9 @@ public class ExecutionHistory {
         this.tenantId = tenantId;
         this.created = created != null ? created : Instant.now();
         this.lastUpdated = lastUpdated != null ? lastUpdated : Instant.now();
-        this.events = events != null ? Collections.unmodifiableList(events) : List.of();
-        this.nodeExecutions = nodeExecutions != null ? Collections.unmodifiableList(nodeExecutions) : List.of();
-        this.stateTransitions = stateTransitions != null ? Collections.unmodifiableList(stateTransitions) : List.of();
+        this.events = AppendOnlyList.copyOf(events);
+        this.nodeExecutions = AppendOnlyList.copyOf(nodeExecutions);
+        this.stateTransitions = AppendOnlyList.copyOf(stateTransitions);
         this.inputSnapshots = inputSnapshots != null ? Collections.unmodifiableMap(inputSnapshots) : Map.of();
         this.outputSnapshots = outputSnapshots != null ? Collections.unmodifiableMap(outputSnapshots) : Map.of();
         this.statistics = statistics != null ? statistics : ExecutionStatistics.empty();
@@ -166,7 +167,7 @@ public class ExecutionHistory {
                 .stateTransitions(new ArrayList<>())
                 .inputSnapshots(new LinkedHashMap<>())
                 .outputSnapshots(new LinkedHashMap<>())
-                .statistics(ExecutionStatistics.empty())
+                .statistics(ExecutionStatistics.builder().totalEvents(historyEvents.size()).build())
                 .metadata(Map.of("source", "domain-events"))
                 .build();
     }
@@ -211,27 +212,39 @@ public class ExecutionHistory {
                 .build();
     }
 
+    /**
+     * A new history with the event appended. Amortized O(1): the event list
+     * and everything else are shared with this history, not copied.
+     */
     public ExecutionHistory addEvent(ExecutionEventHistory event) {
-        List<ExecutionEventHistory> newEvents = new ArrayList<>(this.events);
-        newEvents.add(event);
-
         return this.toBuilder()
-                .events(newEvents)
+                .events(events.append(event))
+                .statistics(statistics.merge(event))
                 .lastUpdated(Instant.now())
                 .build();
     }
 
+    /**
+     * A new history with the node execution appended, see {@link #addEvent}
+     */
     public ExecutionHistory addNodeExecution(NodeExecutionRecord record) {
-        List<NodeExecutionRecord> newExecutions = new ArrayList<>(this.nodeExecutions);
-        newExecutions.add(record);
-
         return this.toBuilder()
-                .nodeExecutions(newExecutions)
+                .nodeExecutions(nodeExecutions.append(record))
                 .statistics(statistics.merge(record))
                 .lastUpdated(Instant.now())
                 .build();
     }
 
+    /**
+     * A new history with the state transition appended, see {@link #addEvent}
+     */
+    public ExecutionHistory addStateTransition(StateTransition transition) {
+        return this.toBuilder()
+                .stateTransitions(stateTransitions.append(transition))
+                .lastUpdated(Instant.now())
+                .build();
+    }
+
     public Optional<StateTransition> getLastStateTransition() {
         if (stateTransitions.isEmpty()) {
             return Optional.empty();
@@ -571,48 +584,50 @@ public class ExecutionHistory {
             return builder().build();
         }
 
+        /**
+         * Statistics with one more node execution. Only the counters the
+         * record touches change; the per-type maps are copied at the size of
+         * the number of node types, independent of the history length.
+         */
         public ExecutionStatistics merge(NodeExecutionRecord record) {
-            Map<String, Integer> newNodeTypeCounts = new HashMap<>(nodeTypeCounts);
-            Map<String, Duration> newNodeTypeDurations = new HashMap<>(nodeTypeDurations);
-
             String nodeType = record.getMetadata() != null
                     ? (String) record.getMetadata().getOrDefault("nodeType", "unknown")
                     : "unknown";
-
-            newNodeTypeCounts.put(nodeType, newNodeTypeCounts.getOrDefault(nodeType, 0) + 1);
-
-            Duration currentDuration = newNodeTypeDurations.getOrDefault(nodeType, Duration.ZERO);
             Duration recordDuration = record.getDuration() != null ? record.getDuration() : Duration.ZERO;
-            newNodeTypeDurations.put(nodeType, currentDuration.plus(recordDuration));
+            NodeExecutionStatus status = record.getStatus();
 
             int newTotalNodeExecutions = totalNodeExecutions + 1;
-            int newCompletedNodes = completedNodes + (record.getStatus() == NodeExecutionStatus.COMPLETED ? 1 : 0);
-            int newFailedNodes = failedNodes + (record.getStatus() == NodeExecutionStatus.FAILED ? 1 : 0);
-            int newWaitingNodes = waitingNodes + (record.getStatus() == NodeExecutionStatus.WAITING ? 1 : 0);
-            int newRetriedNodes = retriedNodes + (record.getAttempt() > 1 ? 1 : 0);
-
             Duration newTotalExecutionTime = totalExecutionTime.plus(recordDuration);
-            Duration newAverageNodeExecutionTime = newTotalNodeExecutions > 0
-                    ? newTotalExecutionTime.dividedBy(newTotalNodeExecutions)
-                    : Duration.ZERO;
-
-            return this.toBuilder()
-                    .totalNodeExecutions(newTotalNodeExecutions)
-                    .completedNodes(newCompletedNodes)
-                    .failedNodes(newFailedNodes)
-                    .waitingNodes(newWaitingNodes)
-                    .retriedNodes(newRetriedNodes)
-                    .totalExecutionTime(newTotalExecutionTime)
-                    .averageNodeExecutionTime(newAverageNodeExecutionTime)
-                    .nodeTypeCounts(newNodeTypeCounts)
-                    .nodeTypeDurations(newNodeTypeDurations)
-                    .build();
-        }
 
+            return new ExecutionStatistics(
+                    totalEvents,
+                    newTotalNodeExecutions,
+                    completedNodes + (status == NodeExecutionStatus.COMPLETED ? 1 : 0),
+                    failedNodes + (status == NodeExecutionStatus.FAILED ? 1 : 0),
+                    waitingNodes + (status == NodeExecutionStatus.WAITING ? 1 : 0),
+                    retriedNodes + (record.getAttempt() > 1 ? 1 : 0),
+                    newTotalExecutionTime,
+                    newTotalExecutionTime.dividedBy(newTotalNodeExecutions),
+                    with(nodeTypeCounts, nodeType, nodeTypeCounts.getOrDefault(nodeType, 0) + 1),
+                    with(nodeTypeDurations, nodeType,
+                            nodeTypeDurations.getOrDefault(nodeType, Duration.ZERO).plus(recordDuration)),
+                    metrics);
+        }
+
+        /**
+         * Statistics with one more event; everything else is shared
+         */
         public ExecutionStatistics merge(ExecutionEventHistory event) {
-            return this.toBuilder()
-                    .totalEvents(totalEvents + 1)
-                    .build();
+            return new ExecutionStatistics(totalEvents + 1, totalNodeExecutions, completedNodes, failedNodes,
+                    waitingNodes, retriedNodes, totalExecutionTime, averageNodeExecutionTime,
+                    nodeTypeCounts, nodeTypeDurations, metrics);
+        }
+
+        private static <V> Map<String, V> with(Map<String, V> map, String key, V value) {
+            Map<String, V> copy = new HashMap<>(Math.max(4, (map.size() + 1) * 2));
+            copy.putAll(map);
+            copy.put(key, value);
+            return copy;
         }
 
         public double getSuccessRate() {
@@ -1,8 +1,10 @@
 package tech.kayys.gamelan.engine.execution;
 
+import java.util.List;
 import java.util.Map;
 
 import io.smallrye.mutiny.Uni;
+import tech.kayys.gamelan.engine.event.SequencedEvent;
 import tech.kayys.gamelan.engine.node.NodeId;
 import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
 
@@ -14,5 +16,11 @@ public interface ExecutionHistoryRepository {
 
     Uni<ExecutionHistory> load(WorkflowRunId runId);
 
+    /**
+     * Events after the given sequence number, at most {@code limit}, with the
+     * contract of {@link HistoryEventSource}
+     */
+    Uni<List<SequencedEvent>> eventsAfter(WorkflowRunId runId, long afterSequence, int limit);
+
     Uni<Boolean> isNodeResultProcessed(WorkflowRunId runId, NodeId nodeId, int attempt);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package tech.kayys.gamelan.engine.execution;
+
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
+
+/**
+ * An event of a run's history with its sequence number, usable as a cursor
+ */
+public record HistoryEntry(long sequence, ExecutionEvent event) {
+}
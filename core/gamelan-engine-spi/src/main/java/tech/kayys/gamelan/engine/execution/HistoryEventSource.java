@@ -0,0 +1,19 @@
+package tech.kayys.gamelan.engine.execution;
+
+import java.util.List;
+
+import io.smallrye.mutiny.Uni;
+import tech.kayys.gamelan.engine.event.SequencedEvent;
+
+/**
+ * Bounded reads from a run's event stream, for {@link HistoryPager}
+ *
+ * Events come in sequence order, each with the sequence number it was stored
+ * under, all greater than {@code afterSequence}. Fewer than {@code limit}
+ * events means the end of the stream was reached.
+ */
+@FunctionalInterface
+public interface HistoryEventSource {
+
+    Uni<List<SequencedEvent>> eventsAfter(long afterSequence, int limit);
+}
@@ -0,0 +1,23 @@
+package tech.kayys.gamelan.engine.execution;
+
+import java.util.List;
+
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * One page of a cursor read of a run's history
+ *
+ * @param nextCursor pass as {@code afterSequence} to read the next page; it
+ *                   can be past the last entry when filtered events were skipped
+ * @param hasMore    false once the end of the history was reached
+ */
+public record HistoryPage(
+        WorkflowRunId runId,
+        List<HistoryEntry> entries,
+        long nextCursor,
+        boolean hasMore) {
+
+    public HistoryPage {
+        entries = List.copyOf(entries);
+    }
+}
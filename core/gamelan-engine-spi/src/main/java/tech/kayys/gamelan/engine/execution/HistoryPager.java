@@ -0,0 +1,78 @@
+package tech.kayys.gamelan.engine.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import tech.kayys.gamelan.engine.event.SequencedEvent;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * History Pager - cursor pages and streams over a {@link HistoryEventSource}
+ *
+ * The source is read in bounded chunks, so neither a page nor a stream ever
+ * holds more than one chunk of the run's history. Filters are applied while
+ * scanning; a page stops after {@link #MAX_SCAN} events even if it is not
+ * full, so a selective filter on a long history still answers quickly and
+ * the caller continues from {@link HistoryPage#nextCursor()}.
+ */
+public final class HistoryPager {
+
+    static final int SCAN_CHUNK = 500;
+    static final int MAX_SCAN = 20_000;
+
+    private HistoryPager() {
+    }
+
+    public static Uni<HistoryPage> page(WorkflowRunId runId, HistoryEventSource source, HistoryQuery query) {
+        return scan(runId, source, query, query.afterSequence(), new ArrayList<>(), 0);
+    }
+
+    /**
+     * Every matching event after the cursor, read one page of
+     * {@code query.limit()} at a time as the subscriber requests them. The
+     * stream completes at the current end of the history.
+     */
+    public static Multi<HistoryEntry> stream(WorkflowRunId runId, HistoryEventSource source, HistoryQuery query) {
+        return Multi.createBy().repeating()
+                .uni(() -> new AtomicReference<>(query),
+                        cursor -> page(runId, source, cursor.get())
+                                .invoke(page -> cursor.set(cursor.get().withAfterSequence(page.nextCursor()))))
+                // The last page is still emitted
+                .whilst(HistoryPage::hasMore)
+                .onItem().transformToIterable(HistoryPage::entries);
+    }
+
+    private static Uni<HistoryPage> scan(
+            WorkflowRunId runId,
+            HistoryEventSource source,
+            HistoryQuery query,
+            long cursor,
+            List<HistoryEntry> entries,
+            int scanned) {
+        int wanted = query.limit() - entries.size();
+        // One extra event tells a full page from the end of the history
+        int chunk = query.isFiltered() ? Math.max(SCAN_CHUNK, wanted + 1) : wanted + 1;
+        return source.eventsAfter(cursor, chunk).flatMap(events -> {
+            long position = cursor;
+            for (SequencedEvent event : events) {
+                if (entries.size() == query.limit()) {
+                    return Uni.createFrom().item(new HistoryPage(runId, entries, position, true));
+                }
+                position = event.sequence();
+                if (query.matches(event.event())) {
+                    entries.add(new HistoryEntry(position, event.event()));
+                }
+            }
+            if (events.size() < chunk) {
+                return Uni.createFrom().item(new HistoryPage(runId, entries, position, false));
+            }
+            if (entries.size() == query.limit() || scanned + events.size() >= MAX_SCAN) {
+                return Uni.createFrom().item(new HistoryPage(runId, entries, position, true));
+            }
+            return scan(runId, source, query, position, entries, scanned + events.size());
+        });
+    }
+}
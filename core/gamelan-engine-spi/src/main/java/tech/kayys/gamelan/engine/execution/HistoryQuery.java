@@ -0,0 +1,75 @@
+package tech.kayys.gamelan.engine.execution;
+
+import java.time.Instant;
+import java.util.Set;
+
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
+
+/**
+ * History Query - one cursor read of a run's history
+ *
+ * Events are numbered by their sequence in the run's event stream, starting
+ * at 1. A query returns events after {@code afterSequence}, optionally
+ * restricted to some event types and an occurrence time range, at most
+ * {@code limit} of them.
+ *
+ * @param afterSequence cursor, 0 reads from the start
+ * @param eventTypes    event types to keep, empty keeps all
+ * @param from          inclusive lower bound on occurredAt, null if open
+ * @param to            exclusive upper bound on occurredAt, null if open
+ * @param limit         page size, capped at {@link #MAX_LIMIT}
+ */
+public record HistoryQuery(
+        long afterSequence,
+        Set<String> eventTypes,
+        Instant from,
+        Instant to,
+        int limit) {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public HistoryQuery {
+        if (afterSequence < 0) {
+            throw new GamelanException(ErrorCode.VALIDATION_FAILED,
+                    "History cursor cannot be negative: " + afterSequence);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new GamelanException(ErrorCode.VALIDATION_FAILED,
+                    "History time range is empty: " + from + " - " + to);
+        }
+        eventTypes = eventTypes != null ? Set.copyOf(eventTypes) : Set.of();
+        limit = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Unfiltered read after the given cursor
+     */
+    public static HistoryQuery after(long afterSequence) {
+        return new HistoryQuery(afterSequence, Set.of(), null, null, DEFAULT_LIMIT);
+    }
+
+    /**
+     * The same query, continued after another cursor
+     */
+    public HistoryQuery withAfterSequence(long sequence) {
+        return new HistoryQuery(sequence, eventTypes, from, to, limit);
+    }
+
+    public boolean isFiltered() {
+        return !eventTypes.isEmpty() || from != null || to != null;
+    }
+
+    public boolean matches(ExecutionEvent event) {
+        if (!eventTypes.isEmpty() && !eventTypes.contains(event.eventType())) {
+            return false;
+        }
+        Instant occurredAt = event.occurredAt();
+        if (from != null && (occurredAt == null || occurredAt.isBefore(from))) {
+            return false;
+        }
+        return to == null || (occurredAt != null && occurredAt.isBefore(to));
+    }
+}
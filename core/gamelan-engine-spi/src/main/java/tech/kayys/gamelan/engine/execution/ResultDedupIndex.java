@@ -0,0 +1,25 @@
+package tech.kayys.gamelan.engine.execution;
+
+import io.smallrye.mutiny.Uni;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Result Dedup Index - remembers which node results were already accepted
+ *
+ * Backs ExecutionHistoryRepository#isNodeResultProcessed. Entries only need
+ * to outlive redeliveries of the same result: once a node has moved past an
+ * attempt, the run itself rejects a late duplicate, so implementations are
+ * free to expire entries.
+ */
+public interface ResultDedupIndex {
+
+    /**
+     * Record the result and report whether it had been recorded before. The
+     * check and the mark are atomic, so of two concurrent callers exactly one
+     * sees {@code false}.
+     *
+     * @return true if the result is a duplicate
+     */
+    Uni<Boolean> checkAndMark(WorkflowRunId runId, NodeId nodeId, int attempt);
+}
@@ -0,0 +1,114 @@
+package tech.kayys.gamelan.engine.execution;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Result Dedup Key - 128-bit MurmurHash3 of (run, node, attempt)
+ *
+ * Two longs instead of a concatenated string: a fixed 32 bytes per entry in
+ * memory and 32 hex characters as a Redis key, with a collision chance that
+ * is negligible at any realistic number of results.
+ */
+public record ResultDedupKey(long high, long low) {
+
+    // 0xFF never occurs in UTF-8, so the fields cannot run into each other
+    private static final byte SEPARATOR = (byte) 0xFF;
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    public static ResultDedupKey of(WorkflowRunId runId, NodeId nodeId, int attempt) {
+        byte[] run = runId.value().getBytes(StandardCharsets.UTF_8);
+        byte[] node = nodeId.value().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(run.length + node.length + 2 + Integer.BYTES)
+                .put(run)
+                .put(SEPARATOR)
+                .put(node)
+                .put(SEPARATOR)
+                .putInt(attempt);
+        return hash(buffer.array());
+    }
+
+    /**
+     * Hex form, for stores keyed by string
+     */
+    public String toHex() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    /**
+     * MurmurHash3 x64 128-bit, seed 0
+     */
+    static ResultDedupKey hash(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        int blocks = data.length / 16;
+        long h1 = 0;
+        long h2 = 0;
+
+        for (int i = 0; i < blocks; i++) {
+            long k1 = buffer.getLong(i * 16);
+            long k2 = buffer.getLong(i * 16 + 8);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        for (int i = data.length - 1; i >= tail; i--) {
+            long b = data[i] & 0xFFL;
+            int offset = i - tail;
+            if (offset >= 8) {
+                k2 |= b << ((offset - 8) * 8);
+            } else {
+                k1 |= b << (offset * 8);
+            }
+        }
+        h2 ^= mixK2(k2);
+        h1 ^= mixK1(k1);
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new ResultDedupKey(h1, h2);
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -88,6 +88,28 @@ public class NodeExecution {
         return new NodeExecution(nodeId, definition);
     }
 
+    /**
+     * Rebuild an execution from persisted state (snapshots)
+     */
+    public static NodeExecution restore(
+            NodeId nodeId,
+            NodeDefinition definition,
+            NodeExecutionStatus status,
+            int attempt,
+            Instant startedAt,
+            Instant completedAt,
+            Map<String, Object> output,
+            ErrorInfo lastError) {
+        NodeExecution execution = new NodeExecution(nodeId, definition);
+        execution.status = status;
+        execution.attempt = attempt;
+        execution.startedAt = startedAt;
+        execution.completedAt = completedAt;
+        execution.setOutput(output);
+        execution.lastError = lastError;
+        return execution;
+    }
+
     public void start(int attempt) {
         this.status = NodeExecutionStatus.RUNNING;
         this.attempt = attempt;
@@ -3,6 +3,7 @@ package tech.kayys.gamelan.engine.node;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Objects;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -11,6 +12,7 @@ import tech.kayys.gamelan.engine.error.ErrorSnapshot;
 /**
  * Node Execution Snapshot - Nested in WorkflowRunEntity
  */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 public class NodeExecutionSnapshot {
     private final String nodeId;
     private final String status;
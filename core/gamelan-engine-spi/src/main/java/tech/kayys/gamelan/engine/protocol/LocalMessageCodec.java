@@ -0,0 +1,63 @@
+package tech.kayys.gamelan.engine.protocol;
+
+import java.util.function.UnaryOperator;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.Json;
+
+/**
+ * Local Message Codec - passes domain records over the Vert.x event bus by
+ * reference
+ *
+ * Inside one JVM the consumer receives {@code transform(body)}, which is the
+ * body itself or an immutable copy of it, so no Jackson round trip happens.
+ * The wire methods fall back to JSON and only run if the bus is clustered.
+ */
+public final class LocalMessageCodec<T> implements MessageCodec<T, T> {
+
+    private final String name;
+    private final Class<? extends T> wireType;
+    private final UnaryOperator<T> localCopy;
+
+    /**
+     * @param name      codec name, used in DeliveryOptions
+     * @param wireType  concrete type decoded from the wire
+     * @param localCopy copy handed to local consumers
+     */
+    public LocalMessageCodec(String name, Class<? extends T> wireType, UnaryOperator<T> localCopy) {
+        this.name = name;
+        this.wireType = wireType;
+        this.localCopy = localCopy;
+    }
+
+    @Override
+    public void encodeToWire(Buffer buffer, T body) {
+        Buffer json = Json.encodeToBuffer(body);
+        buffer.appendInt(json.length());
+        buffer.appendBuffer(json);
+    }
+
+    @Override
+    public T decodeFromWire(int pos, Buffer buffer) {
+        int length = buffer.getInt(pos);
+        int start = pos + Integer.BYTES;
+        return Json.decodeValue(buffer.slice(start, start + length), wireType);
+    }
+
+    @Override
+    public T transform(T body) {
+        return body != null ? localCopy.apply(body) : null;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        // User codec
+        return -1;
+    }
+}
@@ -0,0 +1,104 @@
+package tech.kayys.gamelan.engine.protocol;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import tech.kayys.gamelan.engine.executor.ExecutorInfo;
+import tech.kayys.gamelan.engine.node.DefaultNodeExecutionResult;
+import tech.kayys.gamelan.engine.node.NodeExecutionResult;
+import tech.kayys.gamelan.engine.node.NodeExecutionTask;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunSnapshot;
+
+/**
+ * Local Message Codecs - event bus codecs shared by the engine and the local
+ * executor SDK
+ *
+ * Both sides register the same codecs on the same bus, whichever comes first
+ * wins. Senders pick a codec by name through {@link #deliveryOptions(String)}.
+ *
+ * Tasks and executor info carry maps the sender keeps using (the plan's node
+ * configuration, the registry's metadata), so consumers get an unmodifiable
+ * copy of those. Results and snapshots are built per message and handed over
+ * as-is.
+ */
+public final class LocalMessageCodecs {
+
+    public static final String TASK = "gamelan.local.node-execution-task";
+    public static final String TASK_BATCH = "gamelan.local.task-batch";
+    public static final String RESULT = "gamelan.local.node-execution-result";
+    public static final String EXECUTOR_INFO = "gamelan.local.executor-info";
+    public static final String RUN_SNAPSHOT = "gamelan.local.workflow-run-snapshot";
+
+    private static final List<LocalMessageCodec<?>> CODECS = List.of(
+            new LocalMessageCodec<NodeExecutionTask>(TASK, NodeExecutionTask.class, LocalMessageCodecs::copyOf),
+            new LocalMessageCodec<TaskBatch>(TASK_BATCH, TaskBatch.class, LocalMessageCodecs::copyOf),
+            new LocalMessageCodec<NodeExecutionResult>(RESULT, DefaultNodeExecutionResult.class,
+                    UnaryOperator.identity()),
+            new LocalMessageCodec<ExecutorInfo>(EXECUTOR_INFO, ExecutorInfo.class, LocalMessageCodecs::copyOf),
+            new LocalMessageCodec<WorkflowRunSnapshot>(RUN_SNAPSHOT, WorkflowRunSnapshot.class,
+                    UnaryOperator.identity()));
+
+    private LocalMessageCodecs() {
+    }
+
+    /**
+     * Register all codecs on the bus. Safe to call more than once and from
+     * more than one component.
+     */
+    public static synchronized void register(EventBus eventBus) {
+        for (LocalMessageCodec<?> codec : CODECS) {
+            try {
+                eventBus.registerCodec(codec);
+            } catch (IllegalStateException alreadyRegistered) {
+                // Registered by the other side of the bus
+            }
+        }
+    }
+
+    public static DeliveryOptions deliveryOptions(String codecName) {
+        return new DeliveryOptions().setCodecName(codecName);
+    }
+
+    static LocalMessageCodec<?> codec(String name) {
+        return CODECS.stream()
+                .filter(codec -> codec.name().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    static NodeExecutionTask copyOf(NodeExecutionTask task) {
+        return new NodeExecutionTask(
+                task.runId(),
+                task.nodeId(),
+                task.attempt(),
+                task.token(),
+                unmodifiableCopy(task.context()),
+                task.retryPolicy());
+    }
+
+    static TaskBatch copyOf(TaskBatch batch) {
+        return new TaskBatch(
+                batch.executorId(),
+                batch.tasks().stream().map(LocalMessageCodecs::copyOf).toList());
+    }
+
+    static ExecutorInfo copyOf(ExecutorInfo info) {
+        return new ExecutorInfo(
+                info.executorId(),
+                info.executorType(),
+                info.communicationType(),
+                info.endpoint(),
+                info.timeout(),
+                unmodifiableCopy(info.metadata()));
+    }
+
+    // Map.copyOf rejects null values, which configurations may hold
+    private static <K, V> Map<K, V> unmodifiableCopy(Map<K, V> map) {
+        return map != null ? Collections.unmodifiableMap(new HashMap<>(map)) : null;
+    }
+}
@@ -0,0 +1,11 @@
+package tech.kayys.gamelan.engine.protocol;
+
+import java.util.List;
+
+import tech.kayys.gamelan.engine.node.NodeExecutionTask;
+
+/**
+ * Task Batch - tasks for one executor, sent as a single event bus message
+ */
+public record TaskBatch(String executorId, List<NodeExecutionTask> tasks) {
+}
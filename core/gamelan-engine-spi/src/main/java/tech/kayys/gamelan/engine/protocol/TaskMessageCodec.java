@@ -0,0 +1,271 @@
+package tech.kayys.gamelan.engine.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.node.NodeExecutionTask;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Task Message Codec - compact binary form of a dispatched task, shared by the
+ * Kafka dispatcher and the Kafka executor consumers
+ *
+ * Layout, version 1:
+ *
+ * <pre>
+ * magic (1) | version (1) | attempt (varint) | token expiry, epoch ms (8)
+ * | runId | nodeId | token | targetExecutor | context (JSON, rest of record)
+ * </pre>
+ *
+ * Strings are a varint byte length followed by UTF-8; an empty context is
+ * zero bytes. The magic byte can not start a JSON text, so {@link #decode}
+ * also reads the JSON task messages sent before the binary format existed.
+ *
+ * Encoding goes through a per-thread buffer that is reused across messages;
+ * the only allocation per message is the returned array.
+ */
+public final class TaskMessageCodec {
+
+    static final byte MAGIC = (byte) 0xA7;
+    static final byte VERSION = 1;
+
+    /** Expiry assumed for JSON messages, which do not carry one */
+    private static final Duration LEGACY_TOKEN_VALIDITY = Duration.ofHours(1);
+
+    /** Buffers that grew past this are not kept for the next message */
+    private static final int MAX_POOLED_BYTES = 64 * 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final TypeReference<Map<String, Object>> CONTEXT_TYPE = new TypeReference<>() {
+    };
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private TaskMessageCodec() {
+    }
+
+    /**
+     * Encode {@code task} for {@code targetExecutor}
+     */
+    public static byte[] encode(NodeExecutionTask task, String targetExecutor) {
+        Buffer buffer = BUFFER.get();
+        buffer.reset();
+        try {
+            buffer.write(MAGIC);
+            buffer.write(VERSION);
+            buffer.writeVarint(task.attempt());
+            buffer.writeLong(task.token().expiresAt().toEpochMilli());
+            buffer.writeString(task.runId().value());
+            buffer.writeString(task.nodeId().value());
+            buffer.writeString(task.token().value());
+            buffer.writeString(targetExecutor);
+            if (task.context() != null && !task.context().isEmpty()) {
+                MAPPER.writeValue(buffer, task.context());
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode task context", e);
+        } finally {
+            if (buffer.capacity() > MAX_POOLED_BYTES) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    /**
+     * Decode a task message, binary or JSON
+     */
+    public static NodeExecutionTask decode(byte[] payload) {
+        if (payload.length == 0) {
+            throw new IllegalArgumentException("Empty task message");
+        }
+        if (payload[0] != MAGIC) {
+            return decodeJson(payload);
+        }
+        Reader reader = new Reader(payload);
+        reader.position = 1;
+        byte version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported task message version: " + version);
+        }
+        int attempt = reader.readVarint();
+        Instant expiresAt = Instant.ofEpochMilli(reader.readLong());
+        WorkflowRunId runId = WorkflowRunId.of(reader.readString());
+        NodeId nodeId = NodeId.of(reader.readString());
+        String token = reader.readString();
+        reader.readString(); // target executor, routing only
+        Map<String, Object> context = reader.position < payload.length
+                ? readContext(payload, reader.position, payload.length - reader.position)
+                : Map.of();
+        return new NodeExecutionTask(runId, nodeId, attempt,
+                new ExecutionToken(token, runId, nodeId, attempt, expiresAt), context, null);
+    }
+
+    private static NodeExecutionTask decodeJson(byte[] payload) {
+        JsonNode message;
+        try {
+            message = MAPPER.readTree(payload);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed task message", e);
+        }
+        WorkflowRunId runId = WorkflowRunId.of(message.path("runId").asText());
+        NodeId nodeId = NodeId.of(message.path("nodeId").asText());
+        int attempt = message.path("attempt").asInt();
+        // The dispatcher's message calls it token, the protocol module's executionToken
+        JsonNode token = message.hasNonNull("token") ? message.get("token") : message.path("executionToken");
+        Map<String, Object> context = message.hasNonNull("context")
+                ? MAPPER.convertValue(message.get("context"), CONTEXT_TYPE)
+                : Map.of();
+        return new NodeExecutionTask(runId, nodeId, attempt,
+                new ExecutionToken(token.asText(), runId, nodeId, attempt,
+                        Instant.now().plus(LEGACY_TOKEN_VALIDITY)),
+                context, null);
+    }
+
+    private static Map<String, Object> readContext(byte[] payload, int offset, int length) {
+        try {
+            return MAPPER.readValue(payload, offset, length, CONTEXT_TYPE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed task context", e);
+        }
+    }
+
+    /**
+     * Growable byte buffer; Jackson writes the context straight into it
+     */
+    private static final class Buffer extends OutputStream {
+
+        private byte[] bytes = new byte[512];
+        private int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        int capacity() {
+            return bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        @Override
+        public void write(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, bytes, size, len);
+            size += len;
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeString(String value) {
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) >= 0x80) {
+                    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                    writeVarint(utf8.length);
+                    write(utf8, 0, utf8.length);
+                    return;
+                }
+            }
+            // Identifiers and tokens are ASCII: copy the chars without an intermediate array
+            writeVarint(length);
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                bytes[size++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte readByte() {
+            require(1);
+            return bytes[position++];
+        }
+
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in task message");
+        }
+
+        long readLong() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        String readString() {
+            int length = readVarint();
+            if (length < 0) {
+                throw new IllegalArgumentException("Malformed string length in task message");
+            }
+            require(length);
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private void require(int length) {
+            if (length > bytes.length - position) {
+                throw new IllegalArgumentException("Truncated task message");
+            }
+        }
+    }
+}
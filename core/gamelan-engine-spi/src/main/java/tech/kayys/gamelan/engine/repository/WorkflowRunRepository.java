@@ -5,7 +5,10 @@ import java.util.List;
 import io.smallrye.mutiny.Uni;
 import tech.kayys.gamelan.engine.callback.CallbackRegistration;
 import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.run.RunQuery;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunStatusCount;
+import tech.kayys.gamelan.engine.run.RunSummaryPage;
 import tech.kayys.gamelan.engine.tenant.TenantId;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
 import tech.kayys.gamelan.engine.workflow.WorkflowRun;
@@ -40,6 +43,14 @@ public interface WorkflowRunRepository {
 
     Uni<WorkflowRun> findById(WorkflowRunId id, TenantId tenantId);
 
+    /**
+     * Whether the run exists and belongs to the tenant. The default loads the
+     * run; stores should only look the row up.
+     */
+    default Uni<Boolean> exists(WorkflowRunId id, TenantId tenantId) {
+        return findById(id, tenantId).map(run -> run != null);
+    }
+
     <T> Uni<T> withLock(WorkflowRunId runId, java.util.function.Function<WorkflowRun, Uni<T>> action);
 
     Uni<WorkflowRunSnapshot> snapshot(WorkflowRunId runId, TenantId tenantId);
@@ -51,10 +62,30 @@ public interface WorkflowRunRepository {
             int page,
             int size);
 
+    /**
+     * One keyset page of run summaries, newest first, read without loading
+     * the runs themselves
+     */
+    Uni<RunSummaryPage> querySummaries(RunQuery query);
+
     Uni<Long> countActiveRuns(TenantId tenantId);
 
+    /**
+     * Run counts of every tenant and status that has runs, read from the
+     * maintained counters rather than by scanning the runs
+     */
+    Uni<List<RunStatusCount>> countRunsByStatus();
+
+    /**
+     * @deprecated execution tokens are signed and verify without storage
+     */
+    @Deprecated
     Uni<Void> storeToken(ExecutionToken token);
 
+    /**
+     * @deprecated execution tokens are signed and verify without storage
+     */
+    @Deprecated
     Uni<Boolean> validateToken(ExecutionToken token);
 
     Uni<Void> storeCallback(CallbackRegistration callback);
@@ -0,0 +1,125 @@
+package tech.kayys.gamelan.engine.run;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Run Query - keyset-paginated listing of a tenant's runs
+ *
+ * Runs are listed newest first, ordered by {@code (createdAt, runId)}. A page
+ * continues strictly after the position of the last run of the previous
+ * page, so reading deep pages costs the same as reading the first one and
+ * runs created meanwhile do not shift later pages.
+ *
+ * The cursor handed to clients ({@link #toCursor()}) carries the position
+ * together with the filters, so a client only passes the cursor back.
+ */
+public record RunQuery(
+        TenantId tenantId,
+        WorkflowDefinitionId definitionId,
+        RunStatus status,
+        Instant afterCreatedAt,
+        WorkflowRunId afterRunId,
+        int limit) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final String CURSOR_VERSION = "1";
+
+    public RunQuery {
+        Objects.requireNonNull(tenantId, "tenantId");
+        if ((afterCreatedAt == null) != (afterRunId == null)) {
+            throw new GamelanException(ErrorCode.VALIDATION_FAILED,
+                    "Run query position needs both createdAt and runId");
+        }
+        limit = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * The first page of a listing
+     */
+    public static RunQuery first(TenantId tenantId, WorkflowDefinitionId definitionId, RunStatus status, int limit) {
+        return new RunQuery(tenantId, definitionId, status, null, null, limit);
+    }
+
+    /**
+     * The first page, or the page a client cursor points to. Filters given
+     * along with a cursor must match the ones it was issued for, and a cursor
+     * never crosses tenants.
+     */
+    public static RunQuery of(
+            TenantId tenantId,
+            WorkflowDefinitionId definitionId,
+            RunStatus status,
+            String cursor,
+            int limit) {
+        if (cursor == null || cursor.isBlank()) {
+            return first(tenantId, definitionId, status, limit);
+        }
+        RunQuery decoded = fromCursor(cursor, limit);
+        if (!decoded.tenantId.equals(tenantId)
+                || (definitionId != null && !definitionId.equals(decoded.definitionId))
+                || (status != null && status != decoded.status)) {
+            throw new GamelanException(ErrorCode.VALIDATION_FAILED,
+                    "Run cursor was issued for a different query");
+        }
+        return decoded;
+    }
+
+    /**
+     * The same query, continued after the given run
+     */
+    public RunQuery after(RunSummary last) {
+        return new RunQuery(tenantId, definitionId, status, last.createdAt(), last.runId(), limit);
+    }
+
+    public boolean isFirstPage() {
+        return afterRunId == null;
+    }
+
+    public String toCursor() {
+        String raw = String.join("\n",
+                CURSOR_VERSION,
+                tenantId.value(),
+                definitionId != null ? definitionId.value() : "",
+                status != null ? status.name() : "",
+                afterCreatedAt != null ? afterCreatedAt.getEpochSecond() + "." + afterCreatedAt.getNano() : "",
+                afterRunId != null ? afterRunId.value() : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static RunQuery fromCursor(String cursor, int limit) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", -1);
+            if (parts.length != 6 || !CURSOR_VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("unexpected cursor layout");
+            }
+            Instant createdAt = null;
+            if (!parts[4].isEmpty()) {
+                int dot = parts[4].indexOf('.');
+                createdAt = Instant.ofEpochSecond(
+                        Long.parseLong(parts[4].substring(0, dot)),
+                        Long.parseLong(parts[4].substring(dot + 1)));
+            }
+            return new RunQuery(
+                    TenantId.of(parts[1]),
+                    parts[2].isEmpty() ? null : WorkflowDefinitionId.of(parts[2]),
+                    parts[3].isEmpty() ? null : RunStatus.valueOf(parts[3]),
+                    createdAt,
+                    parts[5].isEmpty() ? null : WorkflowRunId.of(parts[5]),
+                    limit);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new GamelanException(ErrorCode.VALIDATION_FAILED, "Malformed run cursor", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package tech.kayys.gamelan.engine.run;
+
+import tech.kayys.gamelan.engine.tenant.TenantId;
+
+/**
+ * Run Status Count - how many runs of a tenant are in a status
+ */
+public record RunStatusCount(
+        TenantId tenantId,
+        RunStatus status,
+        long count) {
+}
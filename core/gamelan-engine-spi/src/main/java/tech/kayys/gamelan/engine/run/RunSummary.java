@@ -0,0 +1,24 @@
+package tech.kayys.gamelan.engine.run;
+
+import java.time.Instant;
+
+import tech.kayys.gamelan.engine.tenant.TenantId;
+import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Run Summary - the queryable columns of a run, without its state
+ *
+ * What run listings return: it is read straight from the run index, so no
+ * run has to be loaded or rebuilt from its events to list it.
+ */
+public record RunSummary(
+        WorkflowRunId runId,
+        TenantId tenantId,
+        WorkflowDefinitionId definitionId,
+        String definitionVersion,
+        RunStatus status,
+        Instant createdAt,
+        Instant startedAt,
+        Instant completedAt) {
+}
@@ -0,0 +1,21 @@
+package tech.kayys.gamelan.engine.run;
+
+import java.util.List;
+
+/**
+ * One page of a keyset run query
+ *
+ * @param nextCursor opaque cursor of the next page, null on the last page
+ */
+public record RunSummaryPage(
+        List<RunSummary> runs,
+        String nextCursor) {
+
+    public RunSummaryPage {
+        runs = List.copyOf(runs);
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
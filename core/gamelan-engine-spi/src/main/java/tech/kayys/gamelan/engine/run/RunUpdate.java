@@ -0,0 +1,62 @@
+package tech.kayys.gamelan.engine.run;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
+import tech.kayys.gamelan.engine.event.NodeCompletedEvent;
+import tech.kayys.gamelan.engine.event.NodeFailedEvent;
+import tech.kayys.gamelan.engine.event.NodeScheduledEvent;
+import tech.kayys.gamelan.engine.event.NodeStartedEvent;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRun;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Run Update - Orchestration signal published on gamelan.runs.v1.updated
+ *
+ * Carries the run version the change was committed at and the nodes it
+ * touched, so listeners can skip updates they have already seen and merge
+ * bursts of updates into one.
+ */
+public record RunUpdate(
+        WorkflowRunId runId,
+        long version,
+        RunStatus status,
+        List<NodeId> changedNodes) {
+
+    public RunUpdate {
+        changedNodes = changedNodes != null ? List.copyOf(changedNodes) : List.of();
+    }
+
+    /**
+     * Update for a run whose {@code events} were just committed
+     */
+    public static RunUpdate of(WorkflowRun run, List<ExecutionEvent> events) {
+        Set<NodeId> changed = new LinkedHashSet<>();
+        for (ExecutionEvent event : events) {
+            switch (event) {
+                case NodeScheduledEvent e -> changed.add(e.nodeId());
+                case NodeStartedEvent e -> changed.add(e.nodeId());
+                case NodeCompletedEvent e -> changed.add(e.nodeId());
+                case NodeFailedEvent e -> changed.add(e.nodeId());
+                default -> {
+                }
+            }
+        }
+        return new RunUpdate(run.getId(), run.getVersion(), run.getStatus(), new ArrayList<>(changed));
+    }
+
+    /**
+     * Combine with a later update of the same run: newest version and status,
+     * union of the changed nodes
+     */
+    public RunUpdate merge(RunUpdate other) {
+        RunUpdate newer = other.version >= version ? other : this;
+        Set<NodeId> changed = new LinkedHashSet<>(changedNodes);
+        changed.addAll(other.changedNodes);
+        return new RunUpdate(runId, newer.version, newer.status, new ArrayList<>(changed));
+    }
+}
@@ -0,0 +1,267 @@
+package tech.kayys.gamelan.engine.workflow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import tech.kayys.gamelan.engine.node.NodeDefinition;
+import tech.kayys.gamelan.engine.node.NodeId;
+
+/**
+ * Compiled Workflow Plan - Int-indexed execution view of a WorkflowDefinition
+ *
+ * Built once per definition and shared by every run of it. Nodes get dense
+ * indices in definition order; the dependency graph is stored CSR-style
+ * (offset + target arrays) in both directions, so the hot path works on int
+ * indices and bitsets instead of NodeId hash lookups.
+ *
+ * Dependencies that reference a node missing from the definition are not part
+ * of the graph but still count towards {@link #dependencyCount(int)}, so such
+ * nodes never become ready.
+ *
+ * Immutable and thread-safe after construction.
+ */
+public final class CompiledWorkflowPlan {
+
+    private final WorkflowDefinition definition;
+    private final NodeDefinition[] nodes;
+    private final NodeId[] nodeIds;
+    private final Map<NodeId, Integer> indexById;
+
+    // CSR adjacency: successors of i are successors[successorOffsets[i] .. successorOffsets[i+1])
+    private final int[] successorOffsets;
+    private final int[] successors;
+    private final int[] predecessorOffsets;
+    private final int[] predecessors;
+    private final int[] dependencyCounts;
+
+    private final int[] topologicalOrder;
+    private final int[] topologicalRank;
+    private final List<NodeId> topologicalNodeIds;
+
+    private final BitSet startNodes;
+    private final BitSet endNodes;
+    private final BitSet criticalNodes;
+
+    private CompiledWorkflowPlan(WorkflowDefinition definition) {
+        this.definition = definition;
+
+        List<NodeDefinition> nodeList = definition.nodes();
+        int size = nodeList.size();
+
+        this.nodes = nodeList.toArray(new NodeDefinition[0]);
+        this.nodeIds = new NodeId[size];
+        this.indexById = new HashMap<>(Math.max(16, size * 2));
+        this.startNodes = new BitSet(size);
+        this.endNodes = new BitSet(size);
+        this.criticalNodes = new BitSet(size);
+        this.dependencyCounts = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            NodeDefinition node = nodes[i];
+            nodeIds[i] = node.id();
+            indexById.putIfAbsent(node.id(), i);
+            if (node.dependsOn().isEmpty()) {
+                startNodes.set(i);
+            }
+            if (node.transitions().isEmpty()) {
+                endNodes.set(i);
+            }
+            if (node.isCritical()) {
+                criticalNodes.set(i);
+            }
+        }
+
+        // Count resolved edges in both directions
+        int[] outDegree = new int[size];
+        int[] inDegree = new int[size];
+        int edgeCount = 0;
+        for (int i = 0; i < size; i++) {
+            List<NodeId> deps = nodes[i].dependsOn();
+            dependencyCounts[i] = deps.size();
+            for (NodeId dep : deps) {
+                Integer from = indexById.get(dep);
+                if (from != null) {
+                    outDegree[from]++;
+                    inDegree[i]++;
+                    edgeCount++;
+                }
+            }
+        }
+
+        this.successorOffsets = prefixSums(outDegree);
+        this.predecessorOffsets = prefixSums(inDegree);
+        this.successors = new int[edgeCount];
+        this.predecessors = new int[edgeCount];
+
+        int[] successorFill = new int[size];
+        int[] predecessorFill = new int[size];
+        for (int i = 0; i < size; i++) {
+            for (NodeId dep : nodes[i].dependsOn()) {
+                Integer from = indexById.get(dep);
+                if (from != null) {
+                    successors[successorOffsets[from] + successorFill[from]++] = i;
+                    predecessors[predecessorOffsets[i] + predecessorFill[i]++] = from;
+                }
+            }
+        }
+
+        // Kahn's algorithm; nodes on a cycle are left out of the order
+        int[] remaining = inDegree.clone();
+        int[] order = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if (remaining[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int current = order[head++];
+            for (int k = successorOffsets[current]; k < successorOffsets[current + 1]; k++) {
+                int child = successors[k];
+                if (--remaining[child] == 0) {
+                    order[tail++] = child;
+                }
+            }
+        }
+
+        this.topologicalOrder = Arrays.copyOf(order, tail);
+        this.topologicalRank = new int[size];
+        Arrays.fill(topologicalRank, Integer.MAX_VALUE);
+        List<NodeId> ordered = new ArrayList<>(tail);
+        for (int rank = 0; rank < tail; rank++) {
+            topologicalRank[topologicalOrder[rank]] = rank;
+            ordered.add(nodeIds[topologicalOrder[rank]]);
+        }
+        this.topologicalNodeIds = Collections.unmodifiableList(ordered);
+    }
+
+    /**
+     * Compile a definition. Callers should cache the result per definition,
+     * see WorkflowDefinitionRegistry.
+     */
+    public static CompiledWorkflowPlan compile(WorkflowDefinition definition) {
+        return new CompiledWorkflowPlan(Objects.requireNonNull(definition, "WorkflowDefinition cannot be null"));
+    }
+
+    private static int[] prefixSums(int[] degrees) {
+        int[] offsets = new int[degrees.length + 1];
+        for (int i = 0; i < degrees.length; i++) {
+            offsets[i + 1] = offsets[i] + degrees[i];
+        }
+        return offsets;
+    }
+
+    // ==================== NODE ACCESS ====================
+
+    public WorkflowDefinition definition() {
+        return definition;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Dense index of a node, or -1 if the node is not part of the definition
+     */
+    public int indexOf(NodeId nodeId) {
+        Integer index = indexById.get(nodeId);
+        return index != null ? index : -1;
+    }
+
+    public NodeId nodeId(int index) {
+        return nodeIds[index];
+    }
+
+    public NodeDefinition node(int index) {
+        return nodes[index];
+    }
+
+    public Optional<NodeDefinition> findNode(NodeId nodeId) {
+        int index = indexOf(nodeId);
+        return index >= 0 ? Optional.of(nodes[index]) : Optional.empty();
+    }
+
+    // ==================== GRAPH ====================
+
+    public int successorCount(int index) {
+        return successorOffsets[index + 1] - successorOffsets[index];
+    }
+
+    /**
+     * k-th successor (a node that depends on {@code index})
+     */
+    public int successor(int index, int k) {
+        return successors[successorOffsets[index] + k];
+    }
+
+    public int predecessorCount(int index) {
+        return predecessorOffsets[index + 1] - predecessorOffsets[index];
+    }
+
+    /**
+     * k-th predecessor (a resolved dependency of {@code index})
+     */
+    public int predecessor(int index, int k) {
+        return predecessors[predecessorOffsets[index] + k];
+    }
+
+    /**
+     * Number of dependencies that must complete before the node is ready,
+     * including dependencies on unknown nodes
+     */
+    public int dependencyCount(int index) {
+        return dependencyCounts[index];
+    }
+
+    // ==================== ORDERING ====================
+
+    /**
+     * Node ids in topological order. Nodes on a cycle are omitted.
+     */
+    public List<NodeId> topologicalOrder() {
+        return topologicalNodeIds;
+    }
+
+    /**
+     * Position of the node in {@link #topologicalOrder()}, or
+     * {@link Integer#MAX_VALUE} for nodes on a cycle
+     */
+    public int topologicalRank(int index) {
+        return topologicalRank[index];
+    }
+
+    public boolean hasCycle() {
+        return topologicalOrder.length < nodes.length;
+    }
+
+    // ==================== ROLES ====================
+
+    public boolean isStartNode(int index) {
+        return startNodes.get(index);
+    }
+
+    public boolean isEndNode(int index) {
+        return endNodes.get(index);
+    }
+
+    public boolean isCritical(int index) {
+        return criticalNodes.get(index);
+    }
+
+    public BitSet startNodes() {
+        return (BitSet) startNodes.clone();
+    }
+
+    public BitSet endNodes() {
+        return (BitSet) endNodes.clone();
+    }
+}
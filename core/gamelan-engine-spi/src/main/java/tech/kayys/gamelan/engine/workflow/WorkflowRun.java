@@ -2,22 +2,25 @@ package tech.kayys.gamelan.engine.workflow;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 
 import tech.kayys.gamelan.engine.error.ErrorInfo;
 import tech.kayys.gamelan.engine.error.ErrorCode;
 import tech.kayys.gamelan.engine.error.GamelanException;
 import tech.kayys.gamelan.engine.event.CompensationCompletedEvent;
+import tech.kayys.gamelan.engine.event.NodeCompensatedEvent;
 import tech.kayys.gamelan.engine.event.CompensationFailedEvent;
 import tech.kayys.gamelan.engine.event.CompensationStartedEvent;
 import tech.kayys.gamelan.engine.event.ExecutionEvent;
+import tech.kayys.gamelan.engine.event.GenericExecutionEvent;
 import tech.kayys.gamelan.engine.event.NodeCompletedEvent;
 import tech.kayys.gamelan.engine.event.NodeFailedEvent;
 import tech.kayys.gamelan.engine.event.NodeScheduledEvent;
@@ -70,14 +73,23 @@ public class WorkflowRun {
     private RunStatus status;
     private final ExecutionContext context;
     private final WorkflowDefinition definition;
+    private final CompiledWorkflowPlan plan;
 
     // ==================== EXECUTION TRACKING ====================
     private final Map<NodeId, NodeExecution> nodeExecutions;
     private final List<String> executionPath; // Ordered list of executed nodes
-    private final Queue<NodeId> pendingNodes; // Nodes ready to execute
+    private final Set<NodeId> pendingNodes; // Scheduled nodes awaiting start (FIFO, O(1) membership)
+
+    // ==================== READY-SET TRACKING ====================
+    private final int[] remainingDependencies; // Dependencies not yet completed, by plan index
+    private final BitSet scheduledNodes; // Nodes that have an execution
+    private final BitSet queuedNodes; // Plan indices of pendingNodes
+    private final BitSet readyNodes; // Dependencies met, not yet scheduled
+    private int completedNodeCount;
+    private boolean criticalNodeFailed;
 
     // ==================== TEMPORAL TRACKING ====================
-    private final Instant createdAt;
+    private Instant createdAt;
     private Instant startedAt;
     private Instant completedAt;
     private Instant lastUpdatedAt;
@@ -91,27 +103,34 @@ public class WorkflowRun {
 
     // ==================== EVENT SOURCING ====================
     private final List<ExecutionEvent> uncommittedEvents;
-    private long version; // Optimistic locking version
+    private long version; // Number of committed events (sequence number of the last one)
 
     // ==================== CONSTRUCTOR ====================
 
     private WorkflowRun(
             WorkflowRunId id,
             TenantId tenantId,
-            WorkflowDefinition definition,
+            CompiledWorkflowPlan plan,
             Map<String, Object> inputs) {
 
         this.id = Objects.requireNonNull(id, "WorkflowRunId cannot be null");
         this.tenantId = Objects.requireNonNull(tenantId, "TenantId cannot be null");
+        this.plan = Objects.requireNonNull(plan, "CompiledWorkflowPlan cannot be null");
+        this.definition = plan.definition();
         this.definitionId = definition.id();
-        this.definition = Objects.requireNonNull(definition, "WorkflowDefinition cannot be null");
 
         this.status = RunStatus.CREATED;
         this.context = new ExecutionContext(id, tenantId, inputs);
 
         this.nodeExecutions = new HashMap<>();
         this.executionPath = new ArrayList<>();
-        this.pendingNodes = new LinkedList<>();
+        this.pendingNodes = new LinkedHashSet<>();
+
+        this.remainingDependencies = new int[plan.size()];
+        this.scheduledNodes = new BitSet(plan.size());
+        this.queuedNodes = new BitSet(plan.size());
+        this.readyNodes = new BitSet(plan.size());
+        initializeReadySet();
 
         this.createdAt = Instant.now();
         this.lastUpdatedAt = this.createdAt;
@@ -133,18 +152,31 @@ public class WorkflowRun {
             TenantId tenantId,
             WorkflowDefinition definition,
             Map<String, Object> inputs) {
+        return create(tenantId, CompiledWorkflowPlan.compile(definition), inputs);
+    }
+
+    /**
+     * Create a new workflow run from a cached compiled plan
+     */
+    public static WorkflowRun create(
+            TenantId tenantId,
+            CompiledWorkflowPlan plan,
+            Map<String, Object> inputs) {
 
         WorkflowRunId runId = WorkflowRunId.generate();
-        WorkflowRun run = new WorkflowRun(runId, tenantId, definition, inputs);
+        WorkflowRun run = new WorkflowRun(runId, tenantId, plan, inputs);
+        // Same instant as the id, so storage can locate the run from its id alone
+        run.createdAt = runId.createdAt().orElse(run.createdAt);
+        run.lastUpdatedAt = run.createdAt;
 
         // Raise domain event
         run.raiseEvent(new WorkflowStartedEvent(
                 UUID.randomUUID().toString(),
                 runId,
-                definition.id(),
+                plan.definition().id(),
                 tenantId,
                 inputs,
-                Instant.now()));
+                run.createdAt));
 
         return run;
     }
@@ -167,6 +199,30 @@ public class WorkflowRun {
             TenantId tenantId,
             WorkflowDefinition definition,
             List<ExecutionEvent> events) {
+        return fromEvents(id, tenantId, CompiledWorkflowPlan.compile(definition), events);
+    }
+
+    /**
+     * Reconstitute from event stream using a cached compiled plan
+     */
+    public static WorkflowRun fromEvents(
+            WorkflowRunId id,
+            TenantId tenantId,
+            CompiledWorkflowPlan plan,
+            List<ExecutionEvent> events) {
+        return fromEvents(id, tenantId, plan, events, events.size());
+    }
+
+    /**
+     * Reconstitute from event stream whose last event was stored under
+     * sequence number {@code version}
+     */
+    public static WorkflowRun fromEvents(
+            WorkflowRunId id,
+            TenantId tenantId,
+            CompiledWorkflowPlan plan,
+            List<ExecutionEvent> events,
+            long version) {
 
         // Find the creation event
         var creationEvent = events.stream()
@@ -177,10 +233,43 @@ public class WorkflowRun {
                         ErrorCode.WORKFLOW_INVALID_DEFINITION,
                         "No WorkflowStartedEvent found"));
 
-        WorkflowRun run = new WorkflowRun(id, tenantId, definition, creationEvent.inputs());
+        WorkflowRun run = new WorkflowRun(id, tenantId, plan, creationEvent.inputs());
+        run.createdAt = creationEvent.occurredAt();
 
         // Replay all events
         events.forEach(run::apply);
+        run.version = version;
+
+        return run;
+    }
+
+    /**
+     * Reconstitute from a persisted snapshot plus the events recorded after it.
+     * The tail must hold exactly the events with a sequence number greater than
+     * {@link WorkflowRunSnapshot#version()}, in order.
+     */
+    public static WorkflowRun fromSnapshot(
+            CompiledWorkflowPlan plan,
+            WorkflowRunSnapshot snapshot,
+            List<ExecutionEvent> tail) {
+        return fromSnapshot(plan, snapshot, tail, snapshot.version() + tail.size());
+    }
+
+    /**
+     * Reconstitute from a snapshot plus the events recorded after it, the last
+     * of which was stored under sequence number {@code version}
+     */
+    public static WorkflowRun fromSnapshot(
+            CompiledWorkflowPlan plan,
+            WorkflowRunSnapshot snapshot,
+            List<ExecutionEvent> tail,
+            long version) {
+
+        WorkflowRun run = new WorkflowRun(snapshot.id(), snapshot.tenantId(), plan, snapshot.variables());
+        run.restore(snapshot);
+
+        tail.forEach(run::apply);
+        run.version = version;
 
         return run;
     }
@@ -198,9 +287,7 @@ public class WorkflowRun {
         updateTimestamp();
 
         // Schedule start nodes
-        definition.getStartNodes().forEach(node -> {
-            scheduleNode(node.id());
-        });
+        scheduleReadyNodes();
 
         // Transition to running if nodes were scheduled
         if (!pendingNodes.isEmpty()) {
@@ -218,13 +305,11 @@ public class WorkflowRun {
                     "Cannot schedule nodes when status is " + status);
         }
 
-        NodeDefinition nodeDef = definition.findNode(nodeId)
-                .orElseThrow(() -> new GamelanException(
-                        ErrorCode.TASK_NOT_FOUND,
-                        "Node not found: " + nodeId.value()));
+        int index = requireNodeIndex(nodeId);
+        NodeDefinition nodeDef = plan.node(index);
 
         // Check dependencies are met
-        if (!areDependenciesMet(nodeDef)) {
+        if (remainingDependencies[index] > 0) {
             throw new GamelanException(
                     ErrorCode.TASK_VALIDATION_FAILED,
                     "Dependencies not met for node: " + nodeId.value());
@@ -233,7 +318,9 @@ public class WorkflowRun {
         // Create node execution
         NodeExecution execution = NodeExecution.create(nodeId, nodeDef);
         nodeExecutions.put(nodeId, execution);
-        pendingNodes.offer(nodeId);
+        scheduledNodes.set(index);
+        readyNodes.clear(index);
+        enqueue(nodeId, index);
 
         updateTimestamp();
 
@@ -254,7 +341,7 @@ public class WorkflowRun {
         NodeExecution execution = getNodeExecution(nodeId);
         execution.start(attempt);
 
-        pendingNodes.remove(nodeId);
+        dequeue(nodeId);
         updateTimestamp();
 
         raiseEvent(new NodeStartedEvent(
@@ -266,20 +353,24 @@ public class WorkflowRun {
     }
 
     /**
-     * Handle node completion
+     * Handle node completion. The node need not have been marked started: the
+     * dispatcher does not record starts, so a scheduled node takes its result
+     * directly. A result for another attempt, or for a node that already
+     * finished (a redelivery, or a late result for an attempt already
+     * retried), changes nothing.
+     *
+     * @return whether the result was applied
      */
-    public void completeNode(NodeId nodeId, int attempt, Map<String, Object> output) {
+    public boolean completeNode(NodeId nodeId, int attempt, Map<String, Object> output) {
         NodeExecution execution = getNodeExecution(nodeId);
-
-        if (execution.getAttempt() != attempt) {
-            throw new GamelanException(
-                    ErrorCode.TASK_VALIDATION_FAILED,
-                    "Attempt mismatch: expected " + execution.getAttempt() +
-                            " but got " + attempt);
+        if (!awaitsResult(execution, attempt)) {
+            return false;
         }
 
+        dequeue(nodeId);
         execution.complete(output);
         executionPath.add(nodeId.value());
+        onNodeCompleted(plan.indexOf(nodeId));
 
         // Store output in context
         output.forEach((key, value) -> context.setVariable(nodeId.value() + "." + key, value));
@@ -296,18 +387,25 @@ public class WorkflowRun {
 
         // Evaluate next steps
         evaluateWorkflowProgress();
+        return true;
     }
 
     /**
-     * Handle node failure
+     * Handle node failure. Like {@link #completeNode}, ignored unless the node
+     * awaits the result of that attempt, so a redelivered failure cannot
+     * schedule a second retry.
+     *
+     * @return whether the result was applied
      */
-    public void failNode(NodeId nodeId, int attempt, ErrorInfo error) {
+    public boolean failNode(NodeId nodeId, int attempt, ErrorInfo error) {
         NodeExecution execution = getNodeExecution(nodeId);
+        if (!awaitsResult(execution, attempt)) {
+            return false;
+        }
 
-        NodeDefinition nodeDef = definition.findNode(nodeId)
-                .orElseThrow(() -> new GamelanException(
-                        ErrorCode.TASK_NOT_FOUND,
-                        "Node not found: " + nodeId.value()));
+        dequeue(nodeId);
+        int index = requireNodeIndex(nodeId);
+        NodeDefinition nodeDef = plan.node(index);
 
         RetryPolicy retryPolicy = nodeDef.retryPolicy() != null ? nodeDef.retryPolicy()
                 : definition.defaultRetryPolicy();
@@ -316,10 +414,13 @@ public class WorkflowRun {
 
         if (willRetry) {
             execution.scheduleRetry(error);
-            pendingNodes.offer(nodeId); // Re-queue for retry
+            enqueue(nodeId, index); // Re-queue for retry
         } else {
             execution.fail(error);
             executionPath.add(nodeId.value() + ":FAILED");
+            if (plan.isCritical(index)) {
+                criticalNodeFailed = true;
+            }
         }
 
         updateTimestamp();
@@ -334,7 +435,7 @@ public class WorkflowRun {
                 Instant.now()));
 
         // Check if critical node failure should fail workflow
-        if (!willRetry && nodeDef.isCritical()) {
+        if (!willRetry && plan.isCritical(index)) {
             fail(new ErrorInfo(
                     "CRITICAL_NODE_FAILED",
                     "Critical node " + nodeId.value() + " failed",
@@ -343,6 +444,15 @@ public class WorkflowRun {
         } else if (!willRetry) {
             evaluateWorkflowProgress();
         }
+        return true;
+    }
+
+    /**
+     * Scheduled, started or awaiting its retry, and on {@code attempt}; a retry
+     * has already moved the execution on to the next attempt
+     */
+    private static boolean awaitsResult(NodeExecution execution, int attempt) {
+        return !execution.getStatus().isTerminal() && execution.getAttempt() == attempt;
     }
 
     /**
@@ -476,7 +586,10 @@ public class WorkflowRun {
     // ==================== BUSINESS LOGIC ====================
 
     /**
-     * Evaluate workflow progress and schedule next nodes
+     * Evaluate workflow progress and schedule next nodes.
+     * Only consults the incrementally maintained ready set, so the cost is
+     * proportional to the number of newly ready nodes rather than the size of
+     * the definition.
      */
     private void evaluateWorkflowProgress() {
         if (status != RunStatus.RUNNING) {
@@ -484,60 +597,80 @@ public class WorkflowRun {
         }
 
         // Check if all nodes are complete
-        boolean allNodesComplete = definition.nodes().stream()
-                .allMatch(node -> {
-                    NodeExecution exec = nodeExecutions.get(node.id());
-                    return exec != null && exec.isCompleted();
-                });
-
-        if (allNodesComplete) {
+        if (areAllNodesCompleted()) {
             Map<String, Object> outputs = collectOutputs();
             complete(outputs);
             return;
         }
 
-        // Find nodes ready to execute
-        List<NodeDefinition> readyNodes = definition.nodes().stream()
-                .filter(node -> !nodeExecutions.containsKey(node.id()) ||
-                        nodeExecutions.get(node.id()).canRetry())
-                .filter(this::areDependenciesMet)
-                .toList();
-
         // Schedule ready nodes
-        readyNodes.forEach(node -> {
-            if (!pendingNodes.contains(node.id())) {
-                scheduleNode(node.id());
-            }
-        });
+        scheduleReadyNodes();
 
         // If no nodes pending and some failed, workflow might be stuck
-        if (pendingNodes.isEmpty() && !allNodesComplete) {
-            // Check if any critical nodes failed
-            boolean hasCriticalFailure = nodeExecutions.values().stream()
-                    .anyMatch(exec -> exec.isFailed() &&
-                            definition.findNode(exec.getNodeId())
-                                    .map(NodeDefinition::isCritical)
-                                    .orElse(false));
-
-            if (hasCriticalFailure) {
-                fail(new ErrorInfo(
-                        "WORKFLOW_STUCK",
-                        "Workflow cannot progress due to failed critical nodes",
-                        "",
-                        Map.of()));
+        if (pendingNodes.isEmpty() && criticalNodeFailed) {
+            fail(new ErrorInfo(
+                    "WORKFLOW_STUCK",
+                    "Workflow cannot progress due to failed critical nodes",
+                    "",
+                    Map.of()));
+        }
+    }
+
+    /**
+     * Seed the dependency counters from the compiled plan
+     */
+    private void initializeReadySet() {
+        for (int i = 0; i < plan.size(); i++) {
+            remainingDependencies[i] = plan.dependencyCount(i);
+            if (remainingDependencies[i] == 0) {
+                readyNodes.set(i);
             }
         }
     }
 
     /**
-     * Check if all dependencies for a node are met
+     * Release the successors of a node that has just completed for the first time
      */
-    private boolean areDependenciesMet(NodeDefinition node) {
-        return node.dependsOn().stream()
-                .allMatch(depId -> {
-                    NodeExecution depExec = nodeExecutions.get(depId);
-                    return depExec != null && depExec.isCompleted();
-                });
+    private void onNodeCompleted(int index) {
+        completedNodeCount++;
+        for (int k = 0; k < plan.successorCount(index); k++) {
+            int successor = plan.successor(index, k);
+            if (--remainingDependencies[successor] == 0 && !scheduledNodes.get(successor)) {
+                readyNodes.set(successor);
+            }
+        }
+    }
+
+    /**
+     * Schedule every node whose dependencies are met and that is not yet scheduled
+     */
+    private void scheduleReadyNodes() {
+        BitSet toSchedule = (BitSet) readyNodes.clone();
+        toSchedule.andNot(queuedNodes);
+        for (int i = toSchedule.nextSetBit(0); i >= 0; i = toSchedule.nextSetBit(i + 1)) {
+            scheduleNode(plan.nodeId(i));
+        }
+    }
+
+    private void enqueue(NodeId nodeId, int index) {
+        pendingNodes.add(nodeId);
+        queuedNodes.set(index);
+    }
+
+    private void dequeue(NodeId nodeId) {
+        if (pendingNodes.remove(nodeId)) {
+            queuedNodes.clear(plan.indexOf(nodeId));
+        }
+    }
+
+    private int requireNodeIndex(NodeId nodeId) {
+        int index = plan.indexOf(nodeId);
+        if (index < 0) {
+            throw new GamelanException(
+                    ErrorCode.TASK_NOT_FOUND,
+                    "Node not found: " + nodeId.value());
+        }
+        return index;
     }
 
     /**
@@ -599,6 +732,13 @@ public class WorkflowRun {
         this.compensationState = compensationState.markNodeCompensated(nodeId);
         updateTimestamp();
 
+        raiseEvent(new NodeCompensatedEvent(
+                UUID.randomUUID().toString(),
+                id,
+                tenantId,
+                nodeId,
+                Instant.now()));
+
         // Check if compensation is complete
         if (compensationState.isComplete()) {
             completeCompensation();
@@ -724,18 +864,176 @@ public class WorkflowRun {
         context.recordEvent(event);
     }
 
+    /**
+     * Apply a recorded event to state (used in event replay). Only the direct
+     * effect of the event is applied; follow-up transitions such as scheduling
+     * successors were recorded as events of their own.
+     */
     private void apply(ExecutionEvent event) {
-        // Apply event to state (used in event replay)
+        switch (event) {
+            case NodeScheduledEvent e -> {
+                int index = requireNodeIndex(e.nodeId());
+                NodeExecution execution = NodeExecution.create(e.nodeId(), plan.node(index));
+                execution.setAttempt(e.attempt());
+                nodeExecutions.put(e.nodeId(), execution);
+                scheduledNodes.set(index);
+                readyNodes.clear(index);
+                enqueue(e.nodeId(), index);
+                if (status == RunStatus.CREATED || status == RunStatus.PENDING) {
+                    status = RunStatus.RUNNING;
+                    startedAt = e.occurredAt();
+                }
+            }
+            case NodeStartedEvent e -> {
+                NodeExecution execution = getNodeExecution(e.nodeId());
+                execution.start(e.attempt());
+                execution.setStartedAt(e.occurredAt());
+                dequeue(e.nodeId());
+            }
+            case NodeCompletedEvent e -> {
+                NodeExecution execution = getNodeExecution(e.nodeId());
+                boolean firstCompletion = !execution.isCompleted();
+                dequeue(e.nodeId());
+                execution.complete(e.output());
+                execution.setCompletedAt(e.occurredAt());
+                executionPath.add(e.nodeId().value());
+                if (firstCompletion) {
+                    onNodeCompleted(plan.indexOf(e.nodeId()));
+                }
+                e.output().forEach((key, value) -> context.setVariable(e.nodeId().value() + "." + key, value));
+            }
+            case NodeFailedEvent e -> {
+                NodeExecution execution = getNodeExecution(e.nodeId());
+                int index = requireNodeIndex(e.nodeId());
+                dequeue(e.nodeId());
+                if (e.willRetry()) {
+                    execution.scheduleRetry(e.error());
+                    enqueue(e.nodeId(), index);
+                } else {
+                    execution.fail(e.error());
+                    execution.setCompletedAt(e.occurredAt());
+                    executionPath.add(e.nodeId().value() + ":FAILED");
+                    if (plan.isCritical(index)) {
+                        criticalNodeFailed = true;
+                    }
+                }
+            }
+            case WorkflowSuspendedEvent e -> {
+                status = RunStatus.SUSPENDED;
+                suspensionInfo = new SuspensionInfo(e.reason(), e.waitingOnNodeId(), e.occurredAt());
+            }
+            case WorkflowResumedEvent e -> {
+                e.resumeData().forEach(context::setVariable);
+                status = RunStatus.RUNNING;
+                suspensionInfo = null;
+            }
+            case WorkflowCompletedEvent e -> {
+                status = RunStatus.COMPLETED;
+                completedAt = e.occurredAt();
+            }
+            case WorkflowFailedEvent e -> {
+                status = RunStatus.FAILED;
+                completedAt = e.occurredAt();
+            }
+            case WorkflowCancelledEvent e -> {
+                status = RunStatus.CANCELLED;
+                completedAt = e.occurredAt();
+            }
+            case CompensationStartedEvent e -> {
+                status = RunStatus.COMPENSATING;
+                compensationState = CompensationState.create(e.nodesToCompensate());
+            }
+            case NodeCompensatedEvent e -> {
+                if (compensationState != null) {
+                    compensationState = compensationState.markNodeCompensated(e.nodeId());
+                }
+            }
+            case CompensationFailedEvent e -> {
+                if (compensationState != null) {
+                    compensationState = compensationState.markFailed();
+                }
+                status = RunStatus.FAILED;
+                completedAt = e.occurredAt();
+            }
+            case CompensationCompletedEvent e -> {
+                status = RunStatus.COMPENSATED;
+                completedAt = e.occurredAt();
+            }
+            case WorkflowStartedEvent e -> createdAt = e.occurredAt();
+            case GenericExecutionEvent e -> {
+                // Informational only
+            }
+        }
+        lastUpdatedAt = event.occurredAt();
         context.recordEvent(event);
     }
 
+    /**
+     * Restore state captured by {@link #createSnapshot()} and rebuild the
+     * ready-set bookkeeping from the node execution statuses
+     */
+    private void restore(WorkflowRunSnapshot snapshot) {
+        this.status = snapshot.status();
+        this.createdAt = snapshot.createdAt();
+        this.startedAt = snapshot.startedAt();
+        this.completedAt = snapshot.completedAt();
+        this.lastUpdatedAt = snapshot.completedAt() != null ? snapshot.completedAt() : Instant.now();
+        this.executionPath.addAll(snapshot.executionPath());
+        this.suspensionInfo = snapshot.suspensionInfo();
+        if (snapshot.pendingSignals() != null) {
+            this.pendingSignals.putAll(snapshot.pendingSignals());
+        }
+
+        for (int i = 0; i < plan.size(); i++) {
+            NodeId nodeId = plan.nodeId(i);
+            NodeExecution source = snapshot.nodeExecutions().get(nodeId);
+            if (source == null) {
+                continue;
+            }
+            NodeExecution execution = copyOf(source);
+            nodeExecutions.put(nodeId, execution);
+            scheduledNodes.set(i);
+            readyNodes.clear(i);
+            switch (execution.getStatus()) {
+                case COMPLETED -> onNodeCompleted(i);
+                case PENDING, RETRYING -> enqueue(nodeId, i);
+                case FAILED -> criticalNodeFailed |= plan.isCritical(i);
+                default -> {
+                }
+            }
+        }
+
+        this.compensationState = snapshot.compensationState();
+        if (compensationState == null && status == RunStatus.COMPENSATING) {
+            // Snapshot written before compensation progress was recorded
+            this.compensationState = CompensationState.create(getCompletedNodes());
+        }
+    }
+
+    private NodeExecution copyOf(NodeExecution execution) {
+        int index = plan.indexOf(execution.getNodeId());
+        return NodeExecution.restore(
+                execution.getNodeId(),
+                index >= 0 ? plan.node(index) : execution.getDefinition(),
+                execution.getStatus(),
+                execution.getAttempt(),
+                execution.getStartedAt(),
+                execution.getCompletedAt(),
+                execution.getOutput(),
+                execution.getLastError());
+    }
+
     public List<ExecutionEvent> getUncommittedEvents() {
         return Collections.unmodifiableList(uncommittedEvents);
     }
 
+    /**
+     * Mark pending events as persisted. Each event advances the version by one,
+     * so the version always equals the sequence number of the last stored event.
+     */
     public void markEventsAsCommitted() {
+        version += uncommittedEvents.size();
         uncommittedEvents.clear();
-        version++;
     }
 
     // ==================== GETTERS ====================
@@ -784,6 +1082,36 @@ public class WorkflowRun {
         return new ArrayList<>(pendingNodes);
     }
 
+    /**
+     * Nodes that can be dispatched now, in definition order: scheduled nodes
+     * awaiting start (including retries) plus nodes whose dependencies are all
+     * complete but which have not been scheduled yet.
+     */
+    public List<NodeId> getReadyNodes() {
+        BitSet ready = (BitSet) readyNodes.clone();
+        ready.or(queuedNodes);
+        List<NodeId> nodeIds = new ArrayList<>(ready.cardinality());
+        for (int i = ready.nextSetBit(0); i >= 0; i = ready.nextSetBit(i + 1)) {
+            nodeIds.add(plan.nodeId(i));
+        }
+        return nodeIds;
+    }
+
+    /**
+     * Whether every node of the definition has completed successfully
+     */
+    public boolean areAllNodesCompleted() {
+        return completedNodeCount == plan.size();
+    }
+
+    public WorkflowDefinition getDefinition() {
+        return definition;
+    }
+
+    public CompiledWorkflowPlan getPlan() {
+        return plan;
+    }
+
     public NodeExecution getNodeExecution(NodeId nodeId) {
         NodeExecution execution = nodeExecutions.get(nodeId);
         if (execution == null) {
@@ -805,17 +1133,24 @@ public class WorkflowRun {
     // ==================== SNAPSHOT ====================
 
     public WorkflowRunSnapshot createSnapshot() {
+        // Node executions are mutable, copy them so the snapshot stays point-in-time
+        Map<NodeId, NodeExecution> executions = new HashMap<>();
+        nodeExecutions.forEach((nodeId, execution) -> executions.put(nodeId, copyOf(execution)));
+
         return new WorkflowRunSnapshot(
                 id,
                 tenantId,
                 definitionId,
                 status,
                 new HashMap<>(context.getVariables()),
-                new HashMap<>(nodeExecutions),
+                executions,
                 new ArrayList<>(executionPath),
                 createdAt,
                 startedAt,
                 completedAt,
+                suspensionInfo,
+                new HashMap<>(pendingSignals),
+                compensationState,
                 version);
     }
 }
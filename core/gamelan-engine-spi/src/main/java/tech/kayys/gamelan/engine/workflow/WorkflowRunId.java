@@ -1,8 +1,11 @@
 package tech.kayys.gamelan.engine.workflow;
 
 import com.fasterxml.jackson.annotation.JsonValue;
+import java.time.Instant;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import tech.kayys.gamelan.engine.error.ErrorCode;
 import tech.kayys.gamelan.engine.error.GamelanException;
 
@@ -26,8 +29,40 @@ public record WorkflowRunId(@JsonValue String value) {
         }
     }
 
+    /**
+     * A new time-ordered id (UUID version 7): the first 48 bits are the
+     * creation time in milliseconds, the rest is random. Ids of runs created
+     * later sort later, and the creation time can be read back with
+     * {@link #createdAt()}, which storage uses to find the run's partition.
+     */
     public static WorkflowRunId generate() {
-        return new WorkflowRunId(UUID.randomUUID().toString());
+        return generate(System.currentTimeMillis());
+    }
+
+    static WorkflowRunId generate(long epochMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = (epochMillis << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        long low = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new WorkflowRunId(new UUID(high, low).toString());
+    }
+
+    /**
+     * Creation time carried by a time-ordered id, empty for ids in any other
+     * format (such as runs created before ids were time-ordered)
+     */
+    public Optional<Instant> createdAt() {
+        if (value.length() != 36 || value.charAt(14) != '7') {
+            return Optional.empty();
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            if (uuid.version() != 7 || uuid.variant() != 2) {
+                return Optional.empty();
+            }
+            return Optional.of(Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     public static WorkflowRunId of(String value) {
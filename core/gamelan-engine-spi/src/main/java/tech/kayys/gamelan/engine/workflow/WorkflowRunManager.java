@@ -1,20 +1,27 @@
 package tech.kayys.gamelan.engine.workflow;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import tech.kayys.gamelan.engine.callback.CallbackConfig;
 import tech.kayys.gamelan.engine.callback.CallbackRegistration;
 import tech.kayys.gamelan.engine.error.ErrorInfo;
 import tech.kayys.gamelan.engine.execution.ExecutionHistory;
+import tech.kayys.gamelan.engine.execution.HistoryEntry;
+import tech.kayys.gamelan.engine.execution.HistoryPage;
+import tech.kayys.gamelan.engine.execution.HistoryQuery;
 import tech.kayys.gamelan.engine.execution.ExecutionToken;
 import tech.kayys.gamelan.engine.node.NodeExecutionResult;
 import tech.kayys.gamelan.engine.node.NodeId;
 import tech.kayys.gamelan.engine.run.CreateRunRequest;
+import tech.kayys.gamelan.engine.run.RunQuery;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunSummaryPage;
 import tech.kayys.gamelan.engine.run.ValidationResult;
 import tech.kayys.gamelan.engine.signal.ExternalSignal;
 import tech.kayys.gamelan.engine.signal.Signal;
 import tech.kayys.gamelan.engine.tenant.TenantId;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -101,6 +108,24 @@ public interface WorkflowRunManager {
                         WorkflowRunId runId,
                         TenantId tenantId);
 
+        /**
+         * One cursor page of the run's events, without loading the whole
+         * history. Fails with RUN_NOT_FOUND if the run is not the tenant's.
+         */
+        Uni<HistoryPage> getExecutionHistoryPage(
+                        WorkflowRunId runId,
+                        TenantId tenantId,
+                        HistoryQuery query);
+
+        /**
+         * All matching events after the query's cursor, read page by page on
+         * demand. Fails with RUN_NOT_FOUND if the run is not the tenant's.
+         */
+        Multi<HistoryEntry> streamExecutionHistory(
+                        WorkflowRunId runId,
+                        TenantId tenantId,
+                        HistoryQuery query);
+
         Uni<List<WorkflowRun>> queryRuns(
                         TenantId tenantId,
                         WorkflowDefinitionId definitionId,
@@ -108,6 +133,11 @@ public interface WorkflowRunManager {
                         int page,
                         int size);
 
+        /**
+         * Keyset-paginated run listing; see {@link RunQuery} for the cursor
+         */
+        Uni<RunSummaryPage> queryRuns(RunQuery query);
+
         Uni<Long> getActiveRunsCount(TenantId tenantId);
 
         /**
@@ -145,4 +175,14 @@ public interface WorkflowRunManager {
                         WorkflowRunId runId,
                         NodeId nodeId,
                         CallbackConfig config);
+
+        // ==================== RUN AFFINITY ====================
+
+        /**
+         * Drop whatever this instance keeps in memory for the runs, once their
+         * results are routed to another instance
+         */
+        default Uni<Void> releaseRuns(Collection<WorkflowRunId> runIds) {
+                return Uni.createFrom().voidItem();
+        }
 }
\ No newline at end of file
@@ -7,6 +7,9 @@ import java.util.Map;
 import tech.kayys.gamelan.engine.node.NodeExecution;
 import tech.kayys.gamelan.engine.node.NodeId;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.SuspensionInfo;
+import tech.kayys.gamelan.engine.saga.CompensationState;
+import tech.kayys.gamelan.engine.signal.Signal;
 import tech.kayys.gamelan.engine.tenant.TenantId;
 
 /**
@@ -23,5 +26,8 @@ public record WorkflowRunSnapshot(
                 Instant createdAt,
                 Instant startedAt,
                 Instant completedAt,
+                SuspensionInfo suspensionInfo,
+                Map<String, Signal> pendingSignals,
+                CompensationState compensationState,
                 long version) {
 }
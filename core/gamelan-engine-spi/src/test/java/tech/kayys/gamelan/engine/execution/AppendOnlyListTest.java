@@ -0,0 +1,92 @@
+package tech.kayys.gamelan.engine.execution;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.execution.ExecutionHistory.ExecutionEventHistory;
+import tech.kayys.gamelan.engine.execution.ExecutionHistory.ExecutionStatistics;
+import tech.kayys.gamelan.engine.node.NodeExecutionRecord;
+import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
+import tech.kayys.gamelan.engine.workflow.WorkflowId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AppendOnlyListTest {
+
+    @Test
+    void olderVersionsKeepTheirContents() {
+        AppendOnlyList<Integer> list = AppendOnlyList.empty();
+        AppendOnlyList<Integer> one = list.append(1);
+        AppendOnlyList<Integer> three = one.append(2).append(3);
+
+        assertEquals(List.of(), list);
+        assertEquals(List.of(1), one);
+        assertEquals(List.of(1, 2, 3), three);
+        assertThrows(IndexOutOfBoundsException.class, () -> one.get(1));
+    }
+
+    @Test
+    void appendingToAnOlderVersionForks() {
+        AppendOnlyList<String> base = AppendOnlyList.<String>empty().append("a");
+        AppendOnlyList<String> left = base.append("b");
+        AppendOnlyList<String> right = base.append("c");
+
+        assertEquals(List.of("a", "b"), left);
+        assertEquals(List.of("a", "c"), right);
+        assertEquals(List.of("a", "b", "d"), left.append("d"));
+        assertEquals(List.of("a", "c", "e"), right.append("e"));
+    }
+
+    @Test
+    void copyOfKeepsAnAppendOnlyListAndCopiesOthers() {
+        AppendOnlyList<Integer> list = AppendOnlyList.<Integer>empty().append(1);
+        assertEquals(list, AppendOnlyList.copyOf(list));
+
+        java.util.ArrayList<Integer> source = new java.util.ArrayList<>(List.of(1, 2));
+        AppendOnlyList<Integer> copy = AppendOnlyList.copyOf(source);
+        source.add(3);
+        assertEquals(List.of(1, 2), copy);
+        assertEquals(List.of(1, 2, 4), copy.append(4));
+    }
+
+    @Test
+    void historyAppendsKeepStatisticsInStep() {
+        ExecutionHistory history = ExecutionHistory.empty(WorkflowRunId.of("run-1"), WorkflowId.of("wf"), "t");
+        ExecutionEventHistory event = ExecutionEventHistory.builder()
+                .eventId("evt")
+                .eventType(ExecutionEventHistory.ExecutionEventType.NODE_COMPLETED)
+                .build();
+        NodeExecutionRecord completed = record(NodeExecutionStatus.COMPLETED, "http", 1, 10);
+        NodeExecutionRecord retried = record(NodeExecutionStatus.FAILED, "http", 2, 30);
+
+        ExecutionHistory first = history.addEvent(event).addNodeExecution(completed);
+        ExecutionHistory second = first.addEvent(event).addNodeExecution(retried);
+
+        assertEquals(1, first.getEvents().size());
+        assertEquals(2, second.getEvents().size());
+        ExecutionStatistics statistics = second.getStatistics();
+        assertEquals(2, statistics.getTotalEvents());
+        assertEquals(2, statistics.getTotalNodeExecutions());
+        assertEquals(1, statistics.getCompletedNodes());
+        assertEquals(1, statistics.getFailedNodes());
+        assertEquals(1, statistics.getRetriedNodes());
+        assertEquals(Duration.ofMillis(20), statistics.getAverageNodeExecutionTime());
+        assertEquals(Map.of("http", 2), statistics.getNodeTypeCounts());
+        assertEquals(1, first.getStatistics().getTotalNodeExecutions());
+    }
+
+    private static NodeExecutionRecord record(NodeExecutionStatus status, String type, int attempt, long millis) {
+        return NodeExecutionRecord.builder()
+                .nodeId("node")
+                .status(status)
+                .duration(Duration.ofMillis(millis))
+                .metadata(Map.of("nodeType", type))
+                .attempt(attempt)
+                .build();
+    }
+}
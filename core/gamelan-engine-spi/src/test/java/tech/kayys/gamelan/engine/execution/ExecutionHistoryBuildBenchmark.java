@@ -0,0 +1,104 @@
+package tech.kayys.gamelan.engine.execution;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.kayys.gamelan.engine.execution.ExecutionHistory.ExecutionEventHistory;
+import tech.kayys.gamelan.engine.node.NodeExecutionRecord;
+import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
+import tech.kayys.gamelan.engine.workflow.WorkflowId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Building a history one event at a time through addEvent /
+ * addNodeExecution: the copy-on-append the history used to do (full list
+ * copy per call, kept here as the baseline) against the shared
+ * AppendOnlyList. One node execution is recorded for every ten events.
+ *
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main ExecutionHistoryBuildBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ExecutionHistoryBuildBenchmark {
+
+    @Param({ "copy", "shared" })
+    String mode;
+
+    @Param({ "50000" })
+    int events;
+
+    private ExecutionEventHistory event;
+    private NodeExecutionRecord record;
+    private ExecutionHistory empty;
+
+    @Setup
+    public void setUp() {
+        event = ExecutionEventHistory.builder()
+                .eventId("evt-1")
+                .eventType(ExecutionEventHistory.ExecutionEventType.NODE_COMPLETED)
+                .timestamp(Instant.now())
+                .source("benchmark")
+                .payload(Map.of("output", "value"))
+                .build();
+        record = NodeExecutionRecord.builder()
+                .nodeId("node-1")
+                .status(NodeExecutionStatus.COMPLETED)
+                .duration(Duration.ofMillis(12))
+                .metadata(Map.of("nodeType", "http"))
+                .attempt(1)
+                .build();
+        empty = ExecutionHistory.empty(WorkflowRunId.of("run-1"), WorkflowId.of("wf-1"), "tenant-1");
+    }
+
+    @Benchmark
+    public ExecutionHistory build() {
+        ExecutionHistory history = empty;
+        for (int i = 0; i < events; i++) {
+            if ("copy".equals(mode)) {
+                history = copyOnAppend(history, i);
+            } else {
+                history = history.addEvent(event);
+                if (i % 10 == 0) {
+                    history = history.addNodeExecution(record);
+                }
+            }
+        }
+        return history;
+    }
+
+    private ExecutionHistory copyOnAppend(ExecutionHistory history, int i) {
+        List<ExecutionEventHistory> newEvents = new ArrayList<>(history.getEvents());
+        newEvents.add(event);
+        history = history.toBuilder().events(newEvents).lastUpdated(Instant.now()).build();
+        if (i % 10 == 0) {
+            List<NodeExecutionRecord> newExecutions = new ArrayList<>(history.getNodeExecutions());
+            newExecutions.add(record);
+            history = history.toBuilder()
+                    .nodeExecutions(newExecutions)
+                    .statistics(history.getStatistics().merge(record))
+                    .lastUpdated(Instant.now())
+                    .build();
+        }
+        return history;
+    }
+}
@@ -0,0 +1,141 @@
+package tech.kayys.gamelan.engine.execution;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.event.GenericExecutionEvent;
+import tech.kayys.gamelan.engine.event.SequencedEvent;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryPagerTest {
+
+    private static final WorkflowRunId RUN = WorkflowRunId.of("run-1");
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final List<SequencedEvent> stream = new ArrayList<>();
+    private final List<Integer> reads = new ArrayList<>();
+    private long lastSequence;
+
+    private final HistoryEventSource source = (afterSequence, limit) -> {
+        reads.add(limit);
+        return Uni.createFrom().item(stream.stream()
+                .filter(event -> event.sequence() > afterSequence)
+                .limit(limit)
+                .toList());
+    };
+
+    @Test
+    void pagesThroughTheWholeStreamWithCursors() {
+        append(250, i -> "NODE_STARTED");
+
+        HistoryPage first = page(HistoryQuery.after(0));
+        assertEquals(100, first.entries().size());
+        assertEquals(1, first.entries().get(0).sequence());
+        assertEquals(100, first.nextCursor());
+        assertTrue(first.hasMore());
+
+        HistoryPage second = page(HistoryQuery.after(first.nextCursor()));
+        assertEquals(101, second.entries().get(0).sequence());
+        assertEquals(stream.get(100).event(), second.entries().get(0).event());
+
+        HistoryPage last = page(HistoryQuery.after(200));
+        assertEquals(50, last.entries().size());
+        assertEquals(250, last.nextCursor());
+        assertFalse(last.hasMore());
+        // Unfiltered pages read one event past the limit, never the whole stream
+        assertEquals(List.of(101, 101, 101), reads);
+    }
+
+    @Test
+    void pageThatEndsExactlyAtTheEndHasNoMore() {
+        append(100, i -> "NODE_STARTED");
+
+        HistoryPage page = page(HistoryQuery.after(0));
+
+        assertEquals(100, page.entries().size());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void filtersByTypeAndTimeKeepingSequenceNumbers() {
+        append(3000, i -> i % 3 == 0 ? "NODE_FAILED" : "NODE_STARTED");
+
+        HistoryQuery query = new HistoryQuery(0, Set.of("NODE_FAILED"),
+                START.plusSeconds(300), START.plusSeconds(2400), 10);
+        HistoryPage page = page(query);
+
+        assertEquals(10, page.entries().size());
+        // Event i has sequence i + 1 and occurred i seconds after START
+        assertEquals(301, page.entries().get(0).sequence());
+        assertEquals(328, page.entries().get(9).sequence());
+        assertEquals(328, page.nextCursor());
+        assertTrue(page.hasMore());
+
+        HistoryPage rest = page(query.withAfterSequence(2300));
+        assertEquals(List.of(2302L, 2305L, 2308L), rest.entries().stream()
+                .limit(3).map(HistoryEntry::sequence).toList());
+    }
+
+    @Test
+    void selectiveFilterStopsAfterTheScanBudget() {
+        append(HistoryPager.MAX_SCAN + 1000, i -> "NODE_STARTED");
+
+        HistoryPage page = page(new HistoryQuery(0, Set.of("NODE_FAILED"), null, null, 10));
+
+        assertTrue(page.entries().isEmpty());
+        assertEquals(HistoryPager.MAX_SCAN, page.nextCursor());
+        assertTrue(page.hasMore());
+
+        HistoryPage next = page(new HistoryQuery(page.nextCursor(), Set.of("NODE_FAILED"), null, null, 10));
+        assertFalse(next.hasMore());
+        assertEquals(HistoryPager.MAX_SCAN + 1000, next.nextCursor());
+    }
+
+    @Test
+    void usesStoredSequenceNumbersAcrossGaps() {
+        append(3, i -> "NODE_STARTED");
+        lastSequence += 10;
+        append(3, i -> "NODE_STARTED");
+
+        HistoryPage first = page(new HistoryQuery(0, null, null, null, 4));
+        assertEquals(List.of(1L, 2L, 3L, 14L), first.entries().stream().map(HistoryEntry::sequence).toList());
+        assertEquals(14, first.nextCursor());
+        assertTrue(first.hasMore());
+
+        HistoryPage rest = page(HistoryQuery.after(first.nextCursor()));
+        assertEquals(List.of(15L, 16L), rest.entries().stream().map(HistoryEntry::sequence).toList());
+        assertEquals(16, rest.nextCursor());
+        assertFalse(rest.hasMore());
+    }
+
+    @Test
+    void clampsLimitAndRejectsInvalidQueries() {
+        assertEquals(HistoryQuery.MAX_LIMIT, new HistoryQuery(0, null, null, null, 1_000_000).limit());
+        assertEquals(HistoryQuery.DEFAULT_LIMIT, new HistoryQuery(0, null, null, null, 0).limit());
+        assertThrows(GamelanException.class, () -> new HistoryQuery(-1, null, null, null, 10));
+        assertThrows(GamelanException.class, () -> new HistoryQuery(0, null, START, START, 10));
+    }
+
+    private HistoryPage page(HistoryQuery query) {
+        return HistoryPager.page(RUN, source, query).await().indefinitely();
+    }
+
+    private void append(int count, java.util.function.IntFunction<String> type) {
+        for (int i = 0; i < count; i++) {
+            stream.add(new SequencedEvent(++lastSequence, new GenericExecutionEvent("evt-" + i, RUN,
+                    type.apply(i), "event " + i, START.plusSeconds(i), Map.of())));
+        }
+    }
+}
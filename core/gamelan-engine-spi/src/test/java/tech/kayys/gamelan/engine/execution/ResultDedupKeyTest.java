@@ -0,0 +1,41 @@
+package tech.kayys.gamelan.engine.execution;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ResultDedupKeyTest {
+
+    @Test
+    void matchesMurmur3ReferenceVectors() {
+        assertEquals(new ResultDedupKey(0, 0), ResultDedupKey.hash(new byte[0]));
+        assertEquals("cbd8a7b341bd9b025b1e906a48ae1d19",
+                ResultDedupKey.hash("hello".getBytes(StandardCharsets.UTF_8)).toHex());
+        assertEquals("e34bbc7bbc071b6c7a433ca9c49a9347",
+                ResultDedupKey.hash("The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8))
+                        .toHex());
+    }
+
+    @Test
+    void fieldsDoNotRunIntoEachOther() {
+        assertNotEquals(
+                ResultDedupKey.of(WorkflowRunId.of("run-1"), NodeId.of("a"), 1),
+                ResultDedupKey.of(WorkflowRunId.of("run-1a"), NodeId.of(""), 1));
+        assertNotEquals(
+                ResultDedupKey.of(WorkflowRunId.of("run-1"), NodeId.of("a"), 1),
+                ResultDedupKey.of(WorkflowRunId.of("run-1"), NodeId.of("a"), 2));
+    }
+
+    @Test
+    void isStableForTheSameResult() {
+        assertEquals(
+                ResultDedupKey.of(WorkflowRunId.of("run-1"), NodeId.of("a"), 1),
+                ResultDedupKey.of(WorkflowRunId.of("run-1"), NodeId.of("a"), 1));
+    }
+}
@@ -0,0 +1,102 @@
+package tech.kayys.gamelan.engine.protocol;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.node.DefaultNodeExecutionResult;
+import tech.kayys.gamelan.engine.node.NodeExecutionResult;
+import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
+import tech.kayys.gamelan.engine.node.NodeExecutionTask;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.run.RetryPolicy;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Cost of one standalone event bus hop for a dispatched task and its result:
+ * the JsonObject.mapFrom / mapTo round trip the local dispatcher and
+ * transport used to do, against handing the record over through
+ * LocalMessageCodecs. Delivery itself is the same in both modes and is left
+ * out.
+ *
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main LocalMessageCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalMessageCodecBenchmark {
+
+    @Param({ "json", "local" })
+    String mode;
+
+    @Param({ "10" })
+    int contextSize;
+
+    private NodeExecutionTask task;
+    private NodeExecutionResult result;
+    private LocalMessageCodec<NodeExecutionTask> taskCodec;
+    private LocalMessageCodec<NodeExecutionResult> resultCodec;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        // Configured the way Quarkus configures the Vert.x mapper
+        DatabindCodec.mapper()
+                .findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        WorkflowRunId runId = WorkflowRunId.of("run-1");
+        NodeId nodeId = NodeId.of("fetch-customer");
+        Map<String, Object> context = new HashMap<>();
+        Map<String, Object> output = new HashMap<>();
+        for (int i = 0; i < contextSize; i++) {
+            context.put("key" + i, "value-" + i);
+            output.put("field" + i, i);
+        }
+        ExecutionToken token = new ExecutionToken("token-" + runId.value(), runId, nodeId, 1,
+                Instant.now().plus(Duration.ofHours(1)));
+
+        task = new NodeExecutionTask(runId, nodeId, 1, token, context, RetryPolicy.DEFAULT);
+        result = new DefaultNodeExecutionResult(runId, nodeId, 1, NodeExecutionStatus.COMPLETED, output, null,
+                token);
+        taskCodec = (LocalMessageCodec<NodeExecutionTask>) LocalMessageCodecs.codec(LocalMessageCodecs.TASK);
+        resultCodec = (LocalMessageCodec<NodeExecutionResult>) LocalMessageCodecs.codec(LocalMessageCodecs.RESULT);
+    }
+
+    /**
+     * One task out to the executor and its result back
+     */
+    @Benchmark
+    public Object dispatchAndReturn() {
+        if ("json".equals(mode)) {
+            NodeExecutionTask received = JsonObject.mapFrom(task).mapTo(NodeExecutionTask.class);
+            NodeExecutionResult returned = JsonObject.mapFrom(result).mapTo(DefaultNodeExecutionResult.class);
+            return received.attempt() + returned.attempt();
+        }
+        NodeExecutionTask received = taskCodec.transform(task);
+        NodeExecutionResult returned = resultCodec.transform(result);
+        return received.attempt() + returned.attempt();
+    }
+}
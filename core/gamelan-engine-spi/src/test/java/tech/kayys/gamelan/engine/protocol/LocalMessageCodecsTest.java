@@ -0,0 +1,101 @@
+package tech.kayys.gamelan.engine.protocol;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.buffer.Buffer;
+import tech.kayys.gamelan.engine.executor.ExecutorInfo;
+import tech.kayys.gamelan.engine.node.DefaultNodeExecutionResult;
+import tech.kayys.gamelan.engine.node.NodeExecutionResult;
+import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
+import tech.kayys.gamelan.engine.node.NodeExecutionTask;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.run.RetryPolicy;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalMessageCodecsTest {
+
+    @Test
+    void taskContextIsDetachedFromSender() {
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.put("url", "http://example");
+        configuration.put("optional", null);
+        NodeExecutionTask task = new NodeExecutionTask(WorkflowRunId.of("run-1"), NodeId.of("a"), 1, null,
+                configuration, RetryPolicy.DEFAULT);
+
+        NodeExecutionTask received = codec(LocalMessageCodecs.TASK, NodeExecutionTask.class)
+                .transform(task);
+        configuration.put("url", "changed");
+
+        assertEquals("http://example", received.context().get("url"));
+        assertNull(received.context().get("optional"));
+        assertSame(task.retryPolicy(), received.retryPolicy());
+        assertThrows(UnsupportedOperationException.class, () -> received.context().put("x", 1));
+    }
+
+    @Test
+    void taskBatchContextsAreDetachedFromSender() {
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.put("url", "http://example");
+        NodeExecutionTask first = new NodeExecutionTask(WorkflowRunId.of("run-1"), NodeId.of("a"), 1, null,
+                configuration, RetryPolicy.DEFAULT);
+        NodeExecutionTask second = new NodeExecutionTask(WorkflowRunId.of("run-1"), NodeId.of("b"), 1, null,
+                configuration, RetryPolicy.DEFAULT);
+
+        TaskBatch received = codec(LocalMessageCodecs.TASK_BATCH, TaskBatch.class)
+                .transform(new TaskBatch("local-http", List.of(first, second)));
+        configuration.put("url", "changed");
+
+        assertEquals("local-http", received.executorId());
+        assertEquals(List.of(NodeId.of("a"), NodeId.of("b")),
+                received.tasks().stream().map(NodeExecutionTask::nodeId).toList());
+        assertEquals("http://example", received.tasks().get(1).context().get("url"));
+    }
+
+    @Test
+    void resultIsPassedByReference() {
+        NodeExecutionResult result = new DefaultNodeExecutionResult(WorkflowRunId.of("run-1"), NodeId.of("a"), 1,
+                NodeExecutionStatus.COMPLETED, Map.of("out", 1), null, null);
+
+        assertSame(result, codec(LocalMessageCodecs.RESULT, NodeExecutionResult.class).transform(result));
+    }
+
+    @Test
+    void executorInfoSurvivesWireRoundTrip() {
+        ExecutorInfo info = new ExecutorInfo("local-http", "http", CommunicationType.LOCAL, "local", null,
+                Map.of("zone", "a"));
+        LocalMessageCodec<ExecutorInfo> codec = codec(LocalMessageCodecs.EXECUTOR_INFO, ExecutorInfo.class);
+
+        Buffer wire = Buffer.buffer();
+        wire.appendInt(42);
+        codec.encodeToWire(wire, info);
+
+        assertEquals(info, codec.decodeFromWire(Integer.BYTES, wire));
+    }
+
+    @Test
+    void executorMetadataIsCopied() {
+        Map<String, String> metadata = new HashMap<>(Map.of("zone", "a"));
+        ExecutorInfo info = new ExecutorInfo("local-http", "http", CommunicationType.LOCAL, "local",
+                Duration.ofSeconds(30), metadata);
+
+        ExecutorInfo received = codec(LocalMessageCodecs.EXECUTOR_INFO, ExecutorInfo.class).transform(info);
+        metadata.put("zone", "b");
+
+        assertEquals("a", received.metadata().get("zone"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> LocalMessageCodec<T> codec(String name, Class<T> type) {
+        return (LocalMessageCodec<T>) LocalMessageCodecs.codec(name);
+    }
+}
@@ -0,0 +1,120 @@
+package tech.kayys.gamelan.engine.protocol;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.node.NodeExecutionTask;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Cost per task of the Kafka dispatcher's work before the send: validating
+ * the run, node, executor and token, serializing the message and measuring
+ * it.
+ *
+ * {@code json} is the original path: String.matches on every field,
+ * JsonObject.mapFrom(...).encode() and getBytes() for the size, then the
+ * String goes to a StringSerializer which encodes it once more (left out
+ * here). {@code binary} checks the fields against precompiled patterns and
+ * encodes once with TaskMessageCodec into the array handed to the
+ * ByteArraySerializer. Bytes per task for each mode are printed at setup.
+ *
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main TaskMessageCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMessageCodecBenchmark {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-zA-Z0-9_-]+");
+    private static final Pattern TOKEN = Pattern.compile("[a-zA-Z0-9+/=\\-_:.]+");
+
+    @Param({ "json", "binary" })
+    String mode;
+
+    @Param({ "10" })
+    int contextSize;
+
+    private NodeExecutionTask task;
+    private String executorId;
+
+    /** The message the dispatcher used to serialize as JSON */
+    public record JsonTaskMessage(String runId, String nodeId, int attempt, String token,
+            Map<String, Object> context, String targetExecutor) {
+    }
+
+    @Setup
+    public void setUp() {
+        // Configured the way Quarkus configures the Vert.x mapper
+        DatabindCodec.mapper()
+                .findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        WorkflowRunId runId = WorkflowRunId.of("4f6a1c2e-9b3d-4e8f-a1b2-c3d4e5f60718");
+        NodeId nodeId = NodeId.of("fetch-customer");
+        Map<String, Object> context = new HashMap<>();
+        for (int i = 0; i < contextSize; i++) {
+            context.put("key" + i, "value-" + i);
+        }
+        // Shaped like an ExecutionTokenSigner token
+        ExecutionToken token = new ExecutionToken(
+                "k1.NGY2YTFjMmUtOWIzZC00ZThmLWExYjItYzNkNGU1ZjYwNzE4CmZldGNoLWN1c3RvbWVyCjEKMTcwMDAwMDMwMA"
+                        + ".3q2-7wR1Zk0y8mQ_x9VbTn4aLpE6cJhGsDfKoIuYrWs",
+                runId, nodeId, 1, Instant.now().plus(Duration.ofMinutes(5)));
+        task = new NodeExecutionTask(runId, nodeId, 1, token, context, null);
+        executorId = "http-executor-1";
+
+        System.out.printf("%nbytes per task: json=%d binary=%d%n", json(), binary());
+    }
+
+    @Benchmark
+    public int dispatch() {
+        return "json".equals(mode) ? json() : binary();
+    }
+
+    private int json() {
+        if (!task.runId().value().matches("^[a-zA-Z0-9_-]+$")
+                || !task.nodeId().value().matches("^[a-zA-Z0-9_-]+$")
+                || !executorId.matches("^[a-zA-Z0-9_-]+$")
+                || !task.token().value().matches("^[a-zA-Z0-9+/=\\-_:.]+$")) {
+            throw new IllegalStateException();
+        }
+        String json = JsonObject.mapFrom(new JsonTaskMessage(task.runId().value(), task.nodeId().value(),
+                task.attempt(), task.token().value(), task.context(), executorId)).encode();
+        return json.getBytes().length;
+    }
+
+    private int binary() {
+        if (!IDENTIFIER.matcher(task.runId().value()).matches()
+                || !IDENTIFIER.matcher(task.nodeId().value()).matches()
+                || !IDENTIFIER.matcher(executorId).matches()
+                || !TOKEN.matcher(task.token().value()).matches()) {
+            throw new IllegalStateException();
+        }
+        return TaskMessageCodec.encode(task, executorId).length;
+    }
+}
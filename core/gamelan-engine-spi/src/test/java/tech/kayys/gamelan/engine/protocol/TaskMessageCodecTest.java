@@ -0,0 +1,119 @@
+package tech.kayys.gamelan.engine.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.node.NodeExecutionTask;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskMessageCodecTest {
+
+    private static final Instant EXPIRES_AT = Instant.parse("2026-01-01T00:05:00Z");
+
+    @Test
+    void binaryRoundTrip() {
+        Map<String, Object> context = new HashMap<>();
+        context.put("url", "http://example");
+        context.put("retries", 3);
+        context.put("tags", List.of("a", "b"));
+        context.put("optional", null);
+        NodeExecutionTask task = task("run-1", "fetch-customer", 300, context);
+
+        byte[] payload = TaskMessageCodec.encode(task, "executor-1");
+        NodeExecutionTask decoded = TaskMessageCodec.decode(payload);
+
+        assertEquals(TaskMessageCodec.MAGIC, payload[0]);
+        assertEquals(task.runId(), decoded.runId());
+        assertEquals(task.nodeId(), decoded.nodeId());
+        assertEquals(300, decoded.attempt());
+        assertEquals(task.token().value(), decoded.token().value());
+        assertEquals(EXPIRES_AT, decoded.token().expiresAt());
+        assertEquals(300, decoded.token().attempt());
+        assertEquals(context, decoded.context());
+    }
+
+    @Test
+    void emptyContextAndNonAsciiStrings() {
+        NodeExecutionTask task = task("run-ü", "nœud-✓", 1, Map.of());
+
+        NodeExecutionTask decoded = TaskMessageCodec.decode(TaskMessageCodec.encode(task, "exécuteur"));
+
+        assertEquals("run-ü", decoded.runId().value());
+        assertEquals("nœud-✓", decoded.nodeId().value());
+        assertEquals(Map.of(), decoded.context());
+    }
+
+    @Test
+    void readsJsonMessages() {
+        byte[] dispatcher = """
+                {"runId":"run-1","nodeId":"a","attempt":2,"token":"tok-1234567890",
+                 "context":{"k":"v"},"targetExecutor":"executor-1"}
+                """.getBytes(StandardCharsets.UTF_8);
+        byte[] protocol = """
+                {"taskId":"run-1:a:2","runId":"run-1","nodeId":"a","attempt":2,
+                 "executionToken":"tok-1234567890","context":null}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        NodeExecutionTask fromDispatcher = TaskMessageCodec.decode(dispatcher);
+        NodeExecutionTask fromProtocol = TaskMessageCodec.decode(protocol);
+
+        assertEquals("tok-1234567890", fromDispatcher.token().value());
+        assertEquals(Map.of("k", "v"), fromDispatcher.context());
+        assertEquals(2, fromDispatcher.attempt());
+        assertEquals("tok-1234567890", fromProtocol.token().value());
+        assertEquals(Map.of(), fromProtocol.context());
+        assertTrue(fromProtocol.token().expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void binaryIsSmallerThanJson() throws Exception {
+        Map<String, Object> context = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            context.put("key" + i, "value-" + i);
+        }
+        NodeExecutionTask task = task("4f6a1c2e-9b3d-4e8f-a1b2-c3d4e5f60718", "fetch-customer", 1, context);
+        byte[] json = new ObjectMapper().writeValueAsBytes(Map.of(
+                "runId", task.runId().value(),
+                "nodeId", task.nodeId().value(),
+                "attempt", 1,
+                "token", task.token().value(),
+                "context", context,
+                "targetExecutor", "executor-1"));
+
+        assertTrue(TaskMessageCodec.encode(task, "executor-1").length < json.length);
+    }
+
+    @Test
+    void rejectsUnknownVersionAndTruncatedMessages() {
+        byte[] payload = TaskMessageCodec.encode(task("run-1", "a", 1, Map.of("k", "v")), "executor-1");
+
+        byte[] future = payload.clone();
+        future[1] = 99;
+        assertThrows(IllegalArgumentException.class, () -> TaskMessageCodec.decode(future));
+        assertThrows(IllegalArgumentException.class,
+                () -> TaskMessageCodec.decode(Arrays.copyOf(payload, 12)));
+        assertThrows(IllegalArgumentException.class, () -> TaskMessageCodec.decode(new byte[0]));
+    }
+
+    private static NodeExecutionTask task(String run, String node, int attempt, Map<String, Object> context) {
+        WorkflowRunId runId = WorkflowRunId.of(run);
+        NodeId nodeId = NodeId.of(node);
+        return new NodeExecutionTask(runId, nodeId, attempt,
+                new ExecutionToken("k1.cnVuLTEKYQox.c2lnbmF0dXJl", runId, nodeId, attempt, EXPIRES_AT),
+                context, null);
+    }
+}
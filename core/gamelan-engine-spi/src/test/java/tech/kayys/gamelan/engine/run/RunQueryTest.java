@@ -0,0 +1,64 @@
+package tech.kayys.gamelan.engine.run;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunQueryTest {
+
+    private static final TenantId TENANT = TenantId.of("tenant-a");
+    private static final WorkflowDefinitionId DEFINITION = WorkflowDefinitionId.of("orders");
+
+    @Test
+    void cursorCarriesPositionAndFilters() {
+        RunSummary last = summary("run-42", Instant.parse("2026-03-01T10:15:30.123456Z"));
+        RunQuery next = RunQuery.first(TENANT, DEFINITION, RunStatus.RUNNING, 20).after(last);
+
+        RunQuery decoded = RunQuery.of(TENANT, null, null, next.toCursor(), 20);
+
+        assertEquals(next, decoded);
+        assertEquals(last.createdAt(), decoded.afterCreatedAt());
+        assertEquals(last.runId(), decoded.afterRunId());
+    }
+
+    @Test
+    void firstPageWithoutCursor() {
+        RunQuery query = RunQuery.of(TENANT, null, RunStatus.FAILED, null, 0);
+
+        assertTrue(query.isFirstPage());
+        assertEquals(RunQuery.DEFAULT_LIMIT, query.limit());
+        assertEquals(query, RunQuery.of(TENANT, null, RunStatus.FAILED, query.toCursor(), 0));
+    }
+
+    @Test
+    void rejectsCursorOfAnotherTenantOrQuery() {
+        String cursor = RunQuery.first(TENANT, DEFINITION, null, 10)
+                .after(summary("run-1", Instant.now()))
+                .toCursor();
+
+        assertThrows(GamelanException.class, () -> RunQuery.of(TenantId.of("tenant-b"), null, null, cursor, 10));
+        assertThrows(GamelanException.class,
+                () -> RunQuery.of(TENANT, WorkflowDefinitionId.of("invoices"), null, cursor, 10));
+        assertThrows(GamelanException.class, () -> RunQuery.of(TENANT, null, RunStatus.RUNNING, cursor, 10));
+        assertThrows(GamelanException.class, () -> RunQuery.of(TENANT, null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void capsLimit() {
+        assertEquals(RunQuery.MAX_LIMIT, RunQuery.first(TENANT, null, null, 100_000).limit());
+    }
+
+    private static RunSummary summary(String runId, Instant createdAt) {
+        return new RunSummary(WorkflowRunId.of(runId), TENANT, DEFINITION, "1.0.0", RunStatus.RUNNING,
+                createdAt, createdAt, null);
+    }
+}
@@ -0,0 +1,86 @@
+package tech.kayys.gamelan.engine.workflow;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.node.NodeDefinition;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.node.NodeType;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledWorkflowPlanTest {
+
+    @Test
+    void compilesDenseIndicesAndAdjacency() {
+        CompiledWorkflowPlan plan = CompiledWorkflowPlan.compile(definition(
+                node("join", false, "a", "b"),
+                node("a", true),
+                node("b", false, "a")));
+
+        int join = plan.indexOf(NodeId.of("join"));
+        int a = plan.indexOf(NodeId.of("a"));
+        int b = plan.indexOf(NodeId.of("b"));
+
+        assertEquals(3, plan.size());
+        assertEquals(-1, plan.indexOf(NodeId.of("missing")));
+        assertEquals(2, plan.successorCount(a));
+        assertEquals(2, plan.predecessorCount(join));
+        assertEquals(a, plan.predecessor(b, 0));
+        assertTrue(plan.isStartNode(a));
+        assertFalse(plan.isStartNode(b));
+        assertTrue(plan.isCritical(a));
+        assertFalse(plan.isCritical(join));
+        assertEquals(List.of(NodeId.of("a"), NodeId.of("b"), NodeId.of("join")), plan.topologicalOrder());
+        assertTrue(plan.topologicalRank(b) < plan.topologicalRank(join));
+        assertFalse(plan.hasCycle());
+    }
+
+    @Test
+    void unknownDependenciesStillCountButAreNotEdges() {
+        CompiledWorkflowPlan plan = CompiledWorkflowPlan.compile(definition(
+                node("a", false, "ghost")));
+
+        assertEquals(1, plan.dependencyCount(0));
+        assertEquals(0, plan.predecessorCount(0));
+        assertFalse(plan.isStartNode(0));
+    }
+
+    @Test
+    void detectsCycles() {
+        CompiledWorkflowPlan plan = CompiledWorkflowPlan.compile(definition(
+                node("start", false),
+                node("a", false, "start", "b"),
+                node("b", false, "a")));
+
+        assertTrue(plan.hasCycle());
+        assertEquals(List.of(NodeId.of("start")), plan.topologicalOrder());
+        assertEquals(Integer.MAX_VALUE, plan.topologicalRank(plan.indexOf(NodeId.of("a"))));
+    }
+
+    private static NodeDefinition node(String id, boolean critical, String... deps) {
+        NodeDefinition.Builder builder = NodeDefinition.builder()
+                .id(NodeId.of(id))
+                .type(NodeType.TASK)
+                .executorType("test")
+                .critical(critical);
+        for (String dep : deps) {
+            builder.addDependency(NodeId.of(dep));
+        }
+        return builder.build();
+    }
+
+    private static WorkflowDefinition definition(NodeDefinition... nodes) {
+        return WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("wf"))
+                .tenantId(TenantId.of("tenant"))
+                .name("plan")
+                .version("1.0.0")
+                .nodes(List.of(nodes))
+                .build();
+    }
+}
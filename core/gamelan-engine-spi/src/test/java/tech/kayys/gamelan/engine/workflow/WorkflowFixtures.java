@@ -0,0 +1,68 @@
+package tech.kayys.gamelan.engine.workflow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import tech.kayys.gamelan.engine.node.NodeDefinition;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.node.NodeType;
+import tech.kayys.gamelan.engine.run.RetryPolicy;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+
+/**
+ * Workflow definitions shared by the run tests
+ */
+final class WorkflowFixtures {
+
+    /** Up to three attempts, retried without delay */
+    static final RetryPolicy THREE_ATTEMPTS_NO_DELAY = new RetryPolicy(
+            3, Duration.ZERO, Duration.ZERO, 1.0, List.of());
+
+    private WorkflowFixtures() {
+    }
+
+    /**
+     * A DAG of {@code size} task nodes n0..n(size-1), each depending on
+     * roughly one in ten of the nodes before it
+     */
+    static WorkflowDefinition randomDag(Random random, int size) {
+        List<NodeDefinition> nodes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            List<NodeId> deps = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                if (random.nextInt(10) == 0) {
+                    deps.add(NodeId.of("n" + j));
+                }
+            }
+            nodes.add(node("n" + i, deps));
+        }
+        return definition(nodes);
+    }
+
+    static NodeDefinition node(String id, List<NodeId> deps) {
+        return node(id, deps, false);
+    }
+
+    static NodeDefinition node(String id, List<NodeId> deps, boolean critical) {
+        return NodeDefinition.builder()
+                .id(NodeId.of(id))
+                .type(NodeType.TASK)
+                .executorType("test")
+                .dependsOn(deps)
+                .retryPolicy(THREE_ATTEMPTS_NO_DELAY)
+                .critical(critical)
+                .build();
+    }
+
+    static WorkflowDefinition definition(List<NodeDefinition> nodes) {
+        return WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("wf"))
+                .tenantId(TenantId.of("tenant"))
+                .name("fixture")
+                .version("1.0.0")
+                .nodes(nodes)
+                .build();
+    }
+}
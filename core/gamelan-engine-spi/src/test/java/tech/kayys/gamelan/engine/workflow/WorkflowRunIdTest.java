@@ -0,0 +1,47 @@
+package tech.kayys.gamelan.engine.workflow;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkflowRunIdTest {
+
+    @Test
+    void generatedIdsAreVersion7Uuids() {
+        WorkflowRunId id = WorkflowRunId.generate();
+        UUID uuid = UUID.fromString(id.value());
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertNotEquals(id, WorkflowRunId.generate());
+    }
+
+    @Test
+    void carriesItsCreationTime() {
+        long millis = Instant.parse("2026-03-01T12:30:45.123Z").toEpochMilli();
+
+        WorkflowRunId id = WorkflowRunId.generate(millis);
+
+        assertEquals(Instant.ofEpochMilli(millis), id.createdAt().orElseThrow());
+    }
+
+    @Test
+    void laterIdsSortLater() {
+        WorkflowRunId earlier = WorkflowRunId.generate(1_000_000L);
+        WorkflowRunId later = WorkflowRunId.generate(1_000_001L);
+
+        assertTrue(earlier.value().compareTo(later.value()) < 0);
+    }
+
+    @Test
+    void otherFormatsHaveNoCreationTime() {
+        assertTrue(WorkflowRunId.of(UUID.randomUUID().toString()).createdAt().isEmpty());
+        assertTrue(WorkflowRunId.of("run-1").createdAt().isEmpty());
+        assertTrue(WorkflowRunId.of("0190a4c2-7e1b-7zzz-8000-000000000000").createdAt().isEmpty());
+    }
+}
@@ -0,0 +1,122 @@
+package tech.kayys.gamelan.engine.workflow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.error.ErrorInfo;
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
+import tech.kayys.gamelan.engine.node.NodeExecution;
+import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.kayys.gamelan.engine.workflow.WorkflowFixtures.definition;
+import static tech.kayys.gamelan.engine.workflow.WorkflowFixtures.node;
+
+class WorkflowRunNodeResultTest {
+
+    private static final NodeId A = NodeId.of("a");
+    private static final NodeId B = NodeId.of("b");
+    private static final ErrorInfo BOOM = new ErrorInfo("ERR", "boom", "", Map.of());
+
+    @Test
+    void resultsApplyToALoadedRunWhoseNodeWasNeverMarkedStarted() {
+        WorkflowRun loaded = reload(twoStepRun());
+        assertEquals(NodeExecutionStatus.PENDING, loaded.getNodeExecution(A).getStatus());
+
+        assertTrue(loaded.failNode(A, 1, BOOM));
+        assertEquals(List.of(A), loaded.getPendingNodes());
+
+        WorkflowRun retried = reload(loaded);
+        assertTrue(retried.completeNode(A, 2, Map.of("x", 1)));
+        assertEquals(NodeExecutionStatus.COMPLETED, retried.getNodeExecution(A).getStatus());
+        assertEquals(List.of(B), retried.getPendingNodes());
+
+        WorkflowRun next = reload(retried);
+        assertFalse(next.completeNode(A, 2, Map.of("x", 2)));
+        assertTrue(next.completeNode(B, 1, Map.of()));
+        assertEquals(RunStatus.COMPLETED, next.getStatus());
+        assertEquals(1, next.getContext().getVariable("a.x"));
+    }
+
+    @Test
+    void redeliveredCompletionChangesNothing() {
+        WorkflowRun run = twoStepRun();
+        run.startNode(A, 1);
+        run.completeNode(A, 1, Map.of("x", 1));
+        run.markEventsAsCommitted();
+        List<String> path = run.createSnapshot().executionPath();
+
+        assertFalse(run.completeNode(A, 1, Map.of("x", 2)));
+
+        assertTrue(run.getUncommittedEvents().isEmpty());
+        assertEquals(path, run.createSnapshot().executionPath());
+        assertEquals(1, run.getContext().getVariable("a.x"));
+        assertEquals(List.of(B), run.getPendingNodes());
+    }
+
+    @Test
+    void redeliveredFailureDoesNotScheduleAnotherRetry() {
+        WorkflowRun run = twoStepRun();
+        run.startNode(A, 1);
+        run.failNode(A, 1, BOOM);
+        run.markEventsAsCommitted();
+
+        assertFalse(run.failNode(A, 1, BOOM));
+
+        NodeExecution execution = run.getNodeExecution(A);
+        assertTrue(run.getUncommittedEvents().isEmpty());
+        assertEquals(NodeExecutionStatus.RETRYING, execution.getStatus());
+        assertEquals(2, execution.getAttempt());
+        assertEquals(List.of(A), run.getPendingNodes());
+    }
+
+    @Test
+    void lateResultForARetriedAttemptIsIgnored() {
+        WorkflowRun run = twoStepRun();
+        run.startNode(A, 1);
+        run.failNode(A, 1, BOOM);
+        run.startNode(A, 2);
+        run.markEventsAsCommitted();
+
+        run.completeNode(A, 1, Map.of());
+        run.failNode(A, 1, BOOM);
+
+        assertTrue(run.getUncommittedEvents().isEmpty());
+        assertEquals(NodeExecutionStatus.RUNNING, run.getNodeExecution(A).getStatus());
+        assertEquals(2, run.getNodeExecution(A).getAttempt());
+
+        run.completeNode(A, 2, Map.of());
+        assertEquals(NodeExecutionStatus.COMPLETED, run.getNodeExecution(A).getStatus());
+        assertEquals(RunStatus.RUNNING, run.getStatus());
+    }
+
+    private static final CompiledWorkflowPlan PLAN = CompiledWorkflowPlan.compile(definition(List.of(
+            node("a", List.of()),
+            node("b", List.of(A)))));
+
+    private final List<ExecutionEvent> log = new ArrayList<>();
+
+    private WorkflowRun twoStepRun() {
+        WorkflowRun run = WorkflowRun.create(TenantId.of("tenant"), PLAN, Map.of());
+        run.start();
+        return run;
+    }
+
+    /**
+     * Commit the run's events and load it back from them, as the repository
+     * does on the next command
+     */
+    private WorkflowRun reload(WorkflowRun run) {
+        log.addAll(run.getUncommittedEvents());
+        run.markEventsAsCommitted();
+        return WorkflowRun.fromEvents(run.getId(), run.getTenantId(), PLAN, log);
+    }
+}
@@ -0,0 +1,115 @@
+package tech.kayys.gamelan.engine.workflow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.error.ErrorInfo;
+import tech.kayys.gamelan.engine.node.NodeDefinition;
+import tech.kayys.gamelan.engine.node.NodeExecution;
+import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.kayys.gamelan.engine.workflow.WorkflowFixtures.definition;
+import static tech.kayys.gamelan.engine.workflow.WorkflowFixtures.node;
+import static tech.kayys.gamelan.engine.workflow.WorkflowFixtures.randomDag;
+
+class WorkflowRunReadySetTest {
+
+    @Test
+    void readySetMatchesFullScanOnRandomDags() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            WorkflowDefinition definition = randomDag(random, 60);
+            WorkflowRun run = WorkflowRun.create(TenantId.of("tenant"), definition, Map.of());
+            run.start();
+
+            int steps = 0;
+            while (run.getStatus() == RunStatus.RUNNING && !run.getPendingNodes().isEmpty()) {
+                assertMatchesScan(run, definition);
+
+                List<NodeId> pending = run.getPendingNodes();
+                NodeId next = pending.get(random.nextInt(pending.size()));
+                int attempt = run.getNodeExecution(next).getAttempt();
+                run.startNode(next, attempt);
+
+                if (random.nextInt(5) == 0) {
+                    run.failNode(next, attempt, new ErrorInfo("ERR", "boom", "", Map.of()));
+                } else {
+                    run.completeNode(next, attempt, Map.of("v", steps));
+                }
+                steps++;
+            }
+
+            assertMatchesScan(run, definition);
+        }
+    }
+
+    @Test
+    void fanOutIsReleasedOnlyWhenAllDependenciesComplete() {
+        NodeDefinition a = node("a", List.of());
+        NodeDefinition b = node("b", List.of());
+        NodeDefinition join = node("join", List.of(NodeId.of("a"), NodeId.of("b")));
+        WorkflowDefinition definition = definition(List.of(a, b, join));
+
+        WorkflowRun run = WorkflowRun.create(TenantId.of("tenant"), definition, Map.of());
+        run.start();
+        assertEquals(List.of(NodeId.of("a"), NodeId.of("b")), run.getReadyNodes());
+
+        run.startNode(NodeId.of("a"), 1);
+        run.completeNode(NodeId.of("a"), 1, Map.of());
+        assertEquals(List.of(NodeId.of("b")), run.getReadyNodes());
+
+        run.startNode(NodeId.of("b"), 1);
+        run.completeNode(NodeId.of("b"), 1, Map.of());
+        assertEquals(List.of(NodeId.of("join")), run.getReadyNodes());
+
+        run.startNode(NodeId.of("join"), 1);
+        run.completeNode(NodeId.of("join"), 1, Map.of());
+        assertTrue(run.areAllNodesCompleted());
+        assertEquals(RunStatus.COMPLETED, run.getStatus());
+    }
+
+    // ==================== REFERENCE SCAN ====================
+
+    private void assertMatchesScan(WorkflowRun run, WorkflowDefinition definition) {
+        Map<NodeId, NodeExecution> executions = run.getAllNodeExecutions();
+
+        List<NodeId> scanReady = new ArrayList<>();
+        boolean scanComplete = true;
+        for (NodeDefinition node : definition.nodes()) {
+            NodeExecution existing = executions.get(node.id());
+            if (existing == null || !existing.isCompleted()) {
+                scanComplete = false;
+            }
+            if (isNodeReady(executions, node)) {
+                scanReady.add(node.id());
+            }
+        }
+
+        assertEquals(scanReady, run.getReadyNodes());
+        assertEquals(scanComplete, run.areAllNodesCompleted());
+    }
+
+    private boolean isNodeReady(Map<NodeId, NodeExecution> executions, NodeDefinition node) {
+        NodeExecution existing = executions.get(node.id());
+        if (existing != null) {
+            return existing.getStatus() == NodeExecutionStatus.RETRYING ||
+                    existing.getStatus() == NodeExecutionStatus.PENDING;
+        }
+        for (NodeId depId : node.dependsOn()) {
+            NodeExecution depExec = executions.get(depId);
+            if (depExec == null || depExec.getStatus() != NodeExecutionStatus.COMPLETED) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
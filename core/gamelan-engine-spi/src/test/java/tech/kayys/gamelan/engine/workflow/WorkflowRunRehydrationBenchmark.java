@@ -0,0 +1,180 @@
+package tech.kayys.gamelan.engine.workflow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
+import tech.kayys.gamelan.engine.node.NodeDefinition;
+import tech.kayys.gamelan.engine.node.NodeExecution;
+import tech.kayys.gamelan.engine.node.NodeExecutionSnapshot;
+import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.node.NodeType;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+
+/**
+ * Load latency of a long-running run against the length of its event
+ * history: full replay versus snapshot plus tail, with snapshots taken every
+ * {@code snapshotInterval} events as PostgresWorkflowRunRepository does.
+ * The run executes a fixed chain of {@code nodeCount} nodes and then keeps
+ * growing its history through suspend/resume rounds, the shape of a long-lived
+ * run waiting on signals. Events and snapshot are kept as JSON, so each load
+ * pays the same deserialization the repository does (network and SQL excluded).
+ *
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main WorkflowRunRehydrationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkflowRunRehydrationBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    int eventCount;
+
+    @Param({ "100" })
+    int snapshotInterval;
+
+    @Param({ "50" })
+    int nodeCount;
+
+    private static final TypeReference<Map<String, NodeExecutionSnapshot>> NODE_SNAPSHOTS = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private CompiledWorkflowPlan plan;
+    private WorkflowRunId runId;
+    private TenantId tenantId;
+    private List<ExecutionEvent> events;
+    private WorkflowRunSnapshot snapshot;
+
+    // Persisted form
+    private List<StoredEvent> storedEvents;
+    private String snapshotNodesJson;
+    private String snapshotVariablesJson;
+
+    private record StoredEvent(Class<? extends ExecutionEvent> type, String json) {
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        List<NodeDefinition> nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            NodeDefinition.Builder builder = NodeDefinition.builder()
+                    .id(NodeId.of("n" + i))
+                    .type(NodeType.TASK)
+                    .executorType("bench");
+            if (i > 0) {
+                builder.addDependency(NodeId.of("n" + (i - 1)));
+            }
+            nodes.add(builder.build());
+        }
+        plan = CompiledWorkflowPlan.compile(WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("bench"))
+                .tenantId(TenantId.of("bench"))
+                .name("rehydration")
+                .version("1.0.0")
+                .nodes(nodes)
+                .build());
+
+        WorkflowRun run = WorkflowRun.create(TenantId.of("bench"), plan, Map.of());
+        runId = run.getId();
+        tenantId = run.getTenantId();
+        events = new ArrayList<>();
+        run.start();
+        commit(run);
+
+        // Drive the run while keeping it alive, snapshotting like the repository
+        int node = 0;
+        while (events.size() < eventCount) {
+            if (node < nodeCount - 1) {
+                NodeId nodeId = NodeId.of("n" + node++);
+                run.startNode(nodeId, 1);
+                run.completeNode(nodeId, 1, Map.of("value", node));
+            } else {
+                run.suspend("waiting", NodeId.of("n" + node));
+                run.resume(Map.of("round", events.size()), null);
+            }
+            commit(run);
+            if (snapshot == null || run.getVersion() - snapshot.version() >= snapshotInterval) {
+                snapshot = run.createSnapshot();
+            }
+        }
+
+        storedEvents = new ArrayList<>(events.size());
+        for (ExecutionEvent event : events) {
+            storedEvents.add(new StoredEvent(event.getClass(), objectMapper.writeValueAsString(event)));
+        }
+        Map<String, NodeExecutionSnapshot> nodeSnapshots = new HashMap<>();
+        snapshot.nodeExecutions().forEach((nodeId, exec) -> nodeSnapshots.put(nodeId.value(),
+                new NodeExecutionSnapshot(nodeId.value(), exec.getStatus().name(), exec.getAttempt(),
+                        exec.getStartedAt(), exec.getCompletedAt(), exec.getOutput(), null)));
+        snapshotNodesJson = objectMapper.writeValueAsString(nodeSnapshots);
+        snapshotVariablesJson = objectMapper.writeValueAsString(snapshot.variables());
+    }
+
+    private void commit(WorkflowRun run) {
+        events.addAll(run.getUncommittedEvents());
+        run.markEventsAsCommitted();
+    }
+
+    @Benchmark
+    public WorkflowRun fullReplay() throws Exception {
+        return WorkflowRun.fromEvents(runId, tenantId, plan, readEvents(0));
+    }
+
+    @Benchmark
+    public WorkflowRun snapshotPlusTail() throws Exception {
+        Map<NodeId, NodeExecution> executions = new HashMap<>();
+        objectMapper.readValue(snapshotNodesJson, NODE_SNAPSHOTS).forEach((id, exec) -> {
+            NodeId nodeId = NodeId.of(id);
+            executions.put(nodeId, NodeExecution.restore(nodeId, plan.findNode(nodeId).orElse(null),
+                    NodeExecutionStatus.valueOf(exec.status()), exec.attempt(), exec.startedAt(),
+                    exec.completedAt(), exec.output(), null));
+        });
+        Map<String, Object> variables = objectMapper.readValue(snapshotVariablesJson, new TypeReference<>() {
+        });
+        WorkflowRunSnapshot restored = new WorkflowRunSnapshot(runId, tenantId, snapshot.definitionId(),
+                snapshot.status(), variables, executions, snapshot.executionPath(), snapshot.createdAt(),
+                snapshot.startedAt(), snapshot.completedAt(), snapshot.suspensionInfo(), snapshot.pendingSignals(),
+                snapshot.compensationState(), snapshot.version());
+        return WorkflowRun.fromSnapshot(plan, restored, readEvents((int) snapshot.version()));
+    }
+
+    private List<ExecutionEvent> readEvents(int afterVersion) throws Exception {
+        List<ExecutionEvent> loaded = new ArrayList<>(storedEvents.size() - afterVersion);
+        for (StoredEvent stored : storedEvents.subList(afterVersion, storedEvents.size())) {
+            loaded.add(objectMapper.readValue(stored.json(), stored.type()));
+        }
+        return loaded;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(WorkflowRunRehydrationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
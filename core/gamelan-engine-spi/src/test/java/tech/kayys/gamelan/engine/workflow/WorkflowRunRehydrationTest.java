@@ -0,0 +1,200 @@
+package tech.kayys.gamelan.engine.workflow;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.error.ErrorInfo;
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
+import tech.kayys.gamelan.engine.node.NodeExecution;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.signal.Signal;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.kayys.gamelan.engine.workflow.WorkflowFixtures.definition;
+import static tech.kayys.gamelan.engine.workflow.WorkflowFixtures.node;
+import static tech.kayys.gamelan.engine.workflow.WorkflowFixtures.randomDag;
+
+class WorkflowRunRehydrationTest {
+
+    @Test
+    void replayAndSnapshotPlusTailMatchLiveRun() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            CompiledWorkflowPlan plan = CompiledWorkflowPlan.compile(randomDag(random, 40));
+            WorkflowRun run = WorkflowRun.create(TenantId.of("tenant"), plan, Map.of("input", seed));
+
+            List<ExecutionEvent> log = new ArrayList<>();
+            commit(run, log);
+            run.start();
+            commit(run, log);
+
+            WorkflowRunSnapshot snapshot = null;
+            int snapshotAt = 5 + random.nextInt(20);
+            int steps = 0;
+            while (run.getStatus() == RunStatus.RUNNING && !run.getPendingNodes().isEmpty()) {
+                List<NodeId> pending = run.getPendingNodes();
+                NodeId next = pending.get(random.nextInt(pending.size()));
+                int attempt = run.getNodeExecution(next).getAttempt();
+                run.startNode(next, attempt);
+                if (random.nextInt(5) == 0) {
+                    run.failNode(next, attempt, new ErrorInfo("ERR", "boom", "", Map.of()));
+                } else {
+                    run.completeNode(next, attempt, Map.of("v", steps));
+                }
+                commit(run, log);
+
+                if (++steps == snapshotAt) {
+                    snapshot = run.createSnapshot();
+                }
+            }
+
+            assertEquals(log.size(), run.getVersion());
+            assertSameState(run, WorkflowRun.fromEvents(run.getId(), run.getTenantId(), plan, log));
+
+            if (snapshot != null) {
+                List<ExecutionEvent> tail = log.subList((int) snapshot.version(), log.size());
+                assertSameState(run, WorkflowRun.fromSnapshot(plan, snapshot, tail));
+            }
+        }
+    }
+
+    @Test
+    void rehydratedRunCanContinue() {
+        CompiledWorkflowPlan plan = CompiledWorkflowPlan.compile(definition(List.of(
+                node("a", List.of()),
+                node("b", List.of(NodeId.of("a"))))));
+        WorkflowRun run = WorkflowRun.create(TenantId.of("tenant"), plan, Map.of());
+        List<ExecutionEvent> log = new ArrayList<>();
+        run.start();
+        commit(run, log);
+        WorkflowRunSnapshot snapshot = run.createSnapshot();
+        run.startNode(NodeId.of("a"), 1);
+        run.completeNode(NodeId.of("a"), 1, Map.of("x", 1));
+        commit(run, log);
+
+        WorkflowRun restored = WorkflowRun.fromSnapshot(plan, snapshot,
+                log.subList((int) snapshot.version(), log.size()));
+        assertEquals(List.of(NodeId.of("b")), restored.getPendingNodes());
+
+        restored.startNode(NodeId.of("b"), 1);
+        restored.completeNode(NodeId.of("b"), 1, Map.of());
+        assertTrue(restored.areAllNodesCompleted());
+        assertEquals(RunStatus.COMPLETED, restored.getStatus());
+        assertEquals(1, restored.getContext().getVariable("a.x"));
+    }
+
+    @Test
+    void versionIsTheLastStoredSequenceNotTheEventCount() {
+        CompiledWorkflowPlan plan = CompiledWorkflowPlan.compile(definition(List.of(
+                node("a", List.of()))));
+        WorkflowRun run = WorkflowRun.create(TenantId.of("tenant"), plan, Map.of());
+        List<ExecutionEvent> log = new ArrayList<>();
+        run.start();
+        commit(run, log);
+        WorkflowRunSnapshot snapshot = run.createSnapshot();
+        run.startNode(NodeId.of("a"), 1);
+        commit(run, log);
+        List<ExecutionEvent> tail = log.subList((int) snapshot.version(), log.size());
+
+        long lastSequence = log.size() + 5;
+        assertEquals(lastSequence,
+                WorkflowRun.fromEvents(run.getId(), run.getTenantId(), plan, log, lastSequence).getVersion());
+        assertEquals(lastSequence,
+                WorkflowRun.fromSnapshot(plan, snapshot, tail, lastSequence).getVersion());
+    }
+
+    @Test
+    void suspendedRunResumesOnSignalAfterRehydration() {
+        CompiledWorkflowPlan plan = CompiledWorkflowPlan.compile(definition(List.of(
+                node("a", List.of()),
+                node("b", List.of(NodeId.of("a"))))));
+        WorkflowRun run = WorkflowRun.create(TenantId.of("tenant"), plan, Map.of());
+        List<ExecutionEvent> log = new ArrayList<>();
+        run.start();
+        run.startNode(NodeId.of("a"), 1);
+        run.completeNode(NodeId.of("a"), 1, Map.of());
+        run.signal(new Signal("early", NodeId.of("b"), Map.of(), Instant.now()));
+        run.suspend("approval", NodeId.of("b"));
+        commit(run, log);
+
+        WorkflowRun restored = WorkflowRun.fromSnapshot(plan, run.createSnapshot(), List.of());
+        assertEquals(RunStatus.SUSPENDED, restored.getStatus());
+        assertEquals(Set.of("early"), restored.createSnapshot().pendingSignals().keySet());
+
+        restored.signal(new Signal("approve", NodeId.of("b"), Map.of("approved", true), Instant.now()));
+        assertEquals(RunStatus.RUNNING, restored.getStatus());
+        assertEquals(true, restored.getContext().getVariable("approved"));
+        assertEquals(List.of(NodeId.of("b")), restored.getPendingNodes());
+    }
+
+    @Test
+    void compensatingRunContinuesAfterRehydration() {
+        CompiledWorkflowPlan plan = CompiledWorkflowPlan.compile(definition(List.of(
+                node("a", List.of()),
+                node("b", List.of(NodeId.of("a"))),
+                node("c", List.of(NodeId.of("b"))))));
+        WorkflowRun run = WorkflowRun.create(TenantId.of("tenant"), plan, Map.of());
+        List<ExecutionEvent> log = new ArrayList<>();
+        run.start();
+        run.completeNode(NodeId.of("a"), 1, Map.of());
+        run.completeNode(NodeId.of("b"), 1, Map.of());
+        commit(run, log);
+        WorkflowRunSnapshot beforeCompensation = run.createSnapshot();
+        // Definitions always carry a compensation policy, so cancelling starts compensating
+        run.cancel("stopped");
+        NodeId first = run.getNextNodeToCompensate();
+        run.compensateNode(first);
+        commit(run, log);
+
+        List<WorkflowRun> restored = List.of(
+                WorkflowRun.fromSnapshot(plan, run.createSnapshot(), List.of()),
+                WorkflowRun.fromSnapshot(plan, beforeCompensation,
+                        log.subList((int) beforeCompensation.version(), log.size())),
+                WorkflowRun.fromEvents(run.getId(), run.getTenantId(), plan, log));
+        for (WorkflowRun candidate : restored) {
+            assertEquals(RunStatus.COMPENSATING, candidate.getStatus());
+            assertEquals(List.of(first), candidate.getCompensationState().compensatedNodes());
+
+            NodeId second = candidate.getNextNodeToCompensate();
+            assertEquals(run.getNextNodeToCompensate(), second);
+            candidate.compensateNode(second);
+            assertEquals(RunStatus.COMPENSATED, candidate.getStatus());
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static void commit(WorkflowRun run, List<ExecutionEvent> log) {
+        log.addAll(run.getUncommittedEvents());
+        run.markEventsAsCommitted();
+    }
+
+    private static void assertSameState(WorkflowRun expected, WorkflowRun actual) {
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getPendingNodes(), actual.getPendingNodes());
+        assertEquals(expected.getReadyNodes(), actual.getReadyNodes());
+        assertEquals(expected.areAllNodesCompleted(), actual.areAllNodesCompleted());
+        assertEquals(expected.getContext().getVariables(), actual.getContext().getVariables());
+        assertEquals(expected.createSnapshot().executionPath(), actual.createSnapshot().executionPath());
+
+        Map<NodeId, NodeExecution> expectedExecutions = expected.getAllNodeExecutions();
+        Map<NodeId, NodeExecution> actualExecutions = actual.getAllNodeExecutions();
+        assertEquals(expectedExecutions.keySet(), actualExecutions.keySet());
+        expectedExecutions.forEach((nodeId, execution) -> {
+            NodeExecution other = actualExecutions.get(nodeId);
+            assertEquals(execution.getStatus(), other.getStatus(), nodeId.value());
+            assertEquals(execution.getAttempt(), other.getAttempt(), nodeId.value());
+            assertEquals(execution.getOutput(), other.getOutput(), nodeId.value());
+        });
+    }
+}
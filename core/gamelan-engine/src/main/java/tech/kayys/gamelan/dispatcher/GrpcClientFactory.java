@@ -1,26 +1,345 @@
 package tech.kayys.gamelan.dispatcher;
 
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
-import io.grpc.ManagedChannelBuilder;
+import io.grpc.netty.GrpcSslContexts;
+import io.grpc.netty.NettyChannelBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.SslContextBuilder;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
+import tech.kayys.gamelan.registry.ExecutorRegistry;
 
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Pool of gRPC channels to executors, keyed by endpoint
+ *
+ * Executors on the same endpoint share its channels, and all channels share
+ * one Netty event loop group. An executor that comes back with a different
+ * endpoint, or is unregistered, gives up its endpoint; channels nobody uses
+ * any more are shut down, and so are channels left idle for
+ * {@code gamelan.grpc.client.idle-timeout}. A busy endpoint can be given
+ * several channels, each its own HTTP/2 connection, through the executor's
+ * {@value #CHANNELS_METADATA} metadata.
+ */
 @ApplicationScoped
 public class GrpcClientFactory {
 
-    private final Map<String, ExecutorGrpc.ExecutorStub> stubs = new ConcurrentHashMap<>();
+    private static final Logger LOG = LoggerFactory.getLogger(GrpcClientFactory.class);
+
+    /** Executor metadata entry: channels to open to its endpoint */
+    public static final String CHANNELS_METADATA = "grpc.channels";
+
+    @ConfigProperty(name = "gamelan.grpc.client.channels-per-endpoint", defaultValue = "1")
+    int channelsPerEndpoint;
+
+    @ConfigProperty(name = "gamelan.grpc.client.keepalive-time", defaultValue = "30s")
+    Duration keepAliveTime;
+
+    @ConfigProperty(name = "gamelan.grpc.client.keepalive-timeout", defaultValue = "10s")
+    Duration keepAliveTimeout;
+
+    /**
+     * HTTP/2 flow-control window per stream, in bytes
+     */
+    @ConfigProperty(name = "gamelan.grpc.client.flow-control-window", defaultValue = "1048576")
+    int flowControlWindow;
+
+    @ConfigProperty(name = "gamelan.grpc.client.max-inbound-message-size", defaultValue = "4194304")
+    int maxInboundMessageSize;
+
+    @ConfigProperty(name = "gamelan.grpc.client.idle-timeout", defaultValue = "5m")
+    Duration idleTimeout;
+
+    /**
+     * Event loop threads shared by all channels; 0 for Netty's default
+     */
+    @ConfigProperty(name = "gamelan.grpc.client.event-loop-threads", defaultValue = "0")
+    int eventLoopThreads;
+
+    @ConfigProperty(name = "gamelan.grpc.client.tls.enabled", defaultValue = "false")
+    boolean tlsEnabled;
+
+    @ConfigProperty(name = "gamelan.grpc.client.tls.trust-cert-path")
+    Optional<String> trustCertPath;
+
+    @Inject
+    ExecutorRegistry executorRegistry;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<String, EndpointChannels> channels = new ConcurrentHashMap<>();
+    private final Map<String, String> endpointsByExecutor = new ConcurrentHashMap<>();
+
+    private EventLoopGroup eventLoopGroup;
+    private Class<? extends Channel> channelType;
+    private ScheduledExecutorService sweeper;
+    private Counter openedCounter;
+    private Counter closedCounter;
+    private volatile boolean closed;
+
+    @jakarta.annotation.PostConstruct
+    void init() {
+        if (Epoll.isAvailable()) {
+            eventLoopGroup = new EpollEventLoopGroup(eventLoopThreads);
+            channelType = EpollSocketChannel.class;
+        } else {
+            eventLoopGroup = new NioEventLoopGroup(eventLoopThreads);
+            channelType = NioSocketChannel.class;
+        }
+
+        openedCounter = Counter.builder("gamelan.grpc.client.channels.opened")
+                .description("gRPC channels opened to executors")
+                .register(meterRegistry);
+        closedCounter = Counter.builder("gamelan.grpc.client.channels.closed")
+                .description("gRPC channels shut down, idle or no longer used")
+                .register(meterRegistry);
+
+        long sweepMillis = Math.max(1000, idleTimeout.toMillis() / 2);
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gamelan-grpc-channel-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @jakarta.annotation.PreDestroy
+    void shutdown() {
+        closed = true;
+        sweeper.shutdownNow();
+        channels.values().forEach(EndpointChannels::shutdown);
+        channels.clear();
+        eventLoopGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+    }
 
     public ExecutorGrpc.ExecutorStub getStub(ExecutorInfo executor) {
-        return stubs.computeIfAbsent(executor.executorId(), id -> {
-            // Create gRPC channel - OpenTelemetry instrumentation will be applied
-            // automatically by Quarkus
-            ManagedChannel channel = ManagedChannelBuilder.forTarget(executor.endpoint())
-                    .usePlaintext()
-                    .build();
-            return ExecutorGrpc.newStub(channel);
+        ensureOpen();
+        String endpoint = executor.endpoint();
+        String previous = endpointsByExecutor.put(executor.executorId(), endpoint);
+        if (previous != null && !previous.equals(endpoint)) {
+            LOG.info("Executor {} moved from {} to {}", executor.executorId(), previous, endpoint);
+            releaseIfUnused(previous);
+        }
+        while (true) {
+            // A pool closed by shutdown() is never replaced, so stop retrying
+            ensureOpen();
+            ExecutorGrpc.ExecutorStub stub = channels
+                    .computeIfAbsent(endpoint, e -> open(e, channelCount(executor)))
+                    .next();
+            if (stub != null) {
+                return stub;
+            }
+            // Closed since it was looked up, and by then removed: open a new one
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("gRPC client factory is shut down");
+        }
+    }
+
+    /**
+     * Forget {@code executorId}, shutting down its endpoint's channels unless
+     * another executor still uses them
+     */
+    public void invalidate(String executorId) {
+        String endpoint = endpointsByExecutor.remove(executorId);
+        if (endpoint != null) {
+            releaseIfUnused(endpoint);
+        }
+    }
+
+    private int channelCount(ExecutorInfo executor) {
+        String requested = executor.metadata() != null ? executor.metadata().get(CHANNELS_METADATA) : null;
+        if (requested != null) {
+            try {
+                return Math.max(1, Integer.parseInt(requested.trim()));
+            } catch (NumberFormatException e) {
+                LOG.warn("Ignoring invalid {} metadata '{}' of executor {}",
+                        CHANNELS_METADATA, requested, executor.executorId());
+            }
+        }
+        return Math.max(1, channelsPerEndpoint);
+    }
+
+    private EndpointChannels open(String endpoint, int count) {
+        LOG.info("Opening {} gRPC channel(s) to {}", count, endpoint);
+        List<ManagedChannel> managed = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            managed.add(buildChannel(endpoint));
+        }
+        openedCounter.increment(count);
+        return new EndpointChannels(endpoint, managed);
+    }
+
+    private ManagedChannel buildChannel(String endpoint) {
+        NettyChannelBuilder builder = NettyChannelBuilder.forTarget(endpoint)
+                .eventLoopGroup(eventLoopGroup)
+                .channelType(channelType)
+                .keepAliveTime(keepAliveTime.toMillis(), TimeUnit.MILLISECONDS)
+                .keepAliveTimeout(keepAliveTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .keepAliveWithoutCalls(true)
+                .flowControlWindow(flowControlWindow)
+                .maxInboundMessageSize(maxInboundMessageSize);
+
+        if (tlsEnabled) {
+            try {
+                SslContextBuilder ssl = GrpcSslContexts.forClient();
+                trustCertPath.ifPresent(path -> ssl.trustManager(new File(path)));
+                builder.sslContext(ssl.build()).useTransportSecurity();
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to configure TLS for gRPC channel to " + endpoint, e);
+            }
+        } else {
+            builder.usePlaintext();
+        }
+        return builder.build();
+    }
+
+    private void releaseIfUnused(String endpoint) {
+        // Checked under the map's lock on the endpoint, so a concurrent getStub
+        // either keeps the pool or opens a new one after it is gone
+        channels.computeIfPresent(endpoint, (e, pool) -> {
+            if (endpointsByExecutor.containsValue(e)) {
+                return pool;
+            }
+            LOG.info("Closing gRPC channels to {}, no executor uses them", e);
+            pool.shutdown();
+            return null;
         });
     }
+
+    /**
+     * Drop executors the registry no longer knows, then close endpoints
+     * idle for longer than the idle timeout
+     */
+    private void sweep() {
+        executorRegistry.getAllExecutors().subscribe().with(
+                registered -> {
+                    Set<String> ids = new HashSet<>();
+                    registered.forEach(executor -> ids.add(executor.executorId()));
+                    for (String executorId : List.copyOf(endpointsByExecutor.keySet())) {
+                        if (!ids.contains(executorId)) {
+                            invalidate(executorId);
+                        }
+                    }
+                    closeIdle();
+                },
+                error -> {
+                    LOG.warn("gRPC channel sweep could not list executors: {}", error.getMessage());
+                    closeIdle();
+                });
+    }
+
+    private void closeIdle() {
+        long cutoff = System.nanoTime() - idleTimeout.toNanos();
+        for (String endpoint : List.copyOf(channels.keySet())) {
+            channels.computeIfPresent(endpoint, (e, pool) -> {
+                if (!pool.shutdownIfIdleSince(cutoff)) {
+                    return pool;
+                }
+                LOG.info("Closing gRPC channels to {}, idle for more than {}", e, idleTimeout);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * An endpoint's channels, used in turn, with a gauge per connectivity
+     * state counting how many of them are in it
+     */
+    private final class EndpointChannels {
+
+        private final List<ManagedChannel> managed;
+        private final List<ExecutorGrpc.ExecutorStub> stubs;
+        private final List<Gauge> gauges = new ArrayList<>();
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private long lastUsed = System.nanoTime();
+        private boolean closed;
+
+        EndpointChannels(String endpoint, List<ManagedChannel> managed) {
+            this.managed = managed;
+            this.stubs = managed.stream().map(ExecutorGrpc::newStub).toList();
+            for (ConnectivityState state : ConnectivityState.values()) {
+                gauges.add(Gauge.builder("gamelan.grpc.client.channels", this, pool -> pool.count(state))
+                        .description("gRPC channels to an executor endpoint, by connectivity state")
+                        .tags("endpoint", endpoint, "state", state.name())
+                        .register(meterRegistry));
+            }
+        }
+
+        /**
+         * The next channel's stub, or null once the pool is shut down
+         */
+        synchronized ExecutorGrpc.ExecutorStub next() {
+            if (closed) {
+                return null;
+            }
+            lastUsed = System.nanoTime();
+            if (stubs.size() == 1) {
+                return stubs.get(0);
+            }
+            return stubs.get(Math.floorMod(nextIndex.getAndIncrement(), stubs.size()));
+        }
+
+        double count(ConnectivityState state) {
+            int count = 0;
+            for (ManagedChannel channel : managed) {
+                if (channel.getState(false) == state) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Shut down unless a stub was handed out since {@code cutoff}
+         */
+        synchronized boolean shutdownIfIdleSince(long cutoff) {
+            if (closed || lastUsed - cutoff >= 0) {
+                return false;
+            }
+            shutdown();
+            return true;
+        }
+
+        synchronized void shutdown() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            gauges.forEach(meterRegistry::remove);
+            managed.forEach(ManagedChannel::shutdown);
+            closedCounter.increment(managed.size());
+        }
+    }
 }
@@ -1,8 +1,10 @@
 package tech.kayys.gamelan.dispatcher;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
@@ -22,7 +24,15 @@ import tech.kayys.gamelan.engine.protocol.CommunicationType;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
 import tech.kayys.gamelan.engine.error.ErrorCode;
 import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.grpc.ExecutorStreams;
+import tech.kayys.gamelan.grpc.GrpcMapper;
+import tech.kayys.gamelan.grpc.v1.ExecutionTask;
 
+/**
+ * Dispatches tasks to gRPC executors. An executor with an ExecuteStream open
+ * gets its tasks pushed down that stream, paced by its credits; others are
+ * called with a unary Execute per task.
+ */
 @ApplicationScoped
 public class GrpcTaskDispatcher implements TaskDispatcher {
 
@@ -33,6 +43,12 @@ public class GrpcTaskDispatcher implements TaskDispatcher {
     @Inject
     GrpcClientFactory grpcClientFactory;
 
+    @Inject
+    ExecutorStreams executorStreams;
+
+    @Inject
+    GrpcMapper mapper;
+
     @Inject
     MeterRegistry meterRegistry;
 
@@ -59,6 +75,10 @@ public class GrpcTaskDispatcher implements TaskDispatcher {
         Objects.requireNonNull(task, "NodeExecutionTask cannot be null");
         Objects.requireNonNull(executor, "ExecutorInfo cannot be null");
 
+        if (executorStreams.isConnected(executor.executorId())) {
+            return push(task, executor);
+        }
+
         if (executor.endpoint() == null || executor.endpoint().isBlank()) {
             failureCounter.increment();
             return Uni.createFrom().failure(
@@ -88,6 +108,28 @@ public class GrpcTaskDispatcher implements TaskDispatcher {
                 .replaceWithVoid();
     }
 
+    /**
+     * Hand the task to the executor's open stream; waits there while the
+     * executor has no credits, and fails once too many tasks are waiting
+     */
+    private Uni<Void> push(NodeExecutionTask task, ExecutorInfo executor) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return executorStreams.push(executor.executorId(), buildStreamTask(task, executor))
+                .invoke(() -> {
+                    sample.stop(dispatchTimer);
+                    successCounter.increment();
+                })
+                .onFailure().invoke(t -> {
+                    sample.stop(dispatchTimer);
+                    failureCounter.increment();
+                    LOG.warn("gRPC stream dispatch failed: run={}, node={}, executor={}: {}",
+                            task.runId().value(),
+                            task.nodeId().value(),
+                            executor.executorId(),
+                            t.getMessage());
+                });
+    }
+
     private Uni<Void> send(ExecutionRequest request, ExecutorInfo executor) {
 
         ExecutorGrpc.ExecutorStub stub = grpcClientFactory.getStub(executor)
@@ -122,6 +164,117 @@ public class GrpcTaskDispatcher implements TaskDispatcher {
         });
     }
 
+    /**
+     * All tasks over one ExecuteBatch call: the requests are streamed and the
+     * executor answers once, with an ack per task
+     */
+    @Override
+    public Uni<Void> dispatchBatch(List<NodeExecutionTask> tasks, ExecutorInfo executor) {
+
+        Objects.requireNonNull(tasks, "Tasks cannot be null");
+        Objects.requireNonNull(executor, "ExecutorInfo cannot be null");
+
+        if (tasks.size() <= 1) {
+            return tasks.isEmpty() ? Uni.createFrom().voidItem() : dispatch(tasks.get(0), executor);
+        }
+
+        if (executorStreams.isConnected(executor.executorId())) {
+            // Already one open stream; credits decide how many go out now
+            return TaskDispatcher.super.dispatchBatch(tasks, executor);
+        }
+
+        if (executor.endpoint() == null || executor.endpoint().isBlank()) {
+            failureCounter.increment(tasks.size());
+            return Uni.createFrom().failure(
+                    new GamelanException(
+                            ErrorCode.DISPATCHER_INVALID_REQUEST,
+                            "Executor gRPC endpoint is missing"));
+        }
+
+        return Uni.createFrom().item(() -> tasks.stream().map(task -> buildRequest(task, executor)).toList())
+                .flatMap(requests -> {
+                    Timer.Sample sample = Timer.start(meterRegistry);
+                    return sendBatch(requests, executor)
+                            .invoke(() -> {
+                                sample.stop(dispatchTimer);
+                                successCounter.increment(requests.size());
+                            })
+                            .onFailure().invoke(t -> {
+                                sample.stop(dispatchTimer);
+                                failureCounter.increment(requests.size());
+                                LOG.error("gRPC batch dispatch of {} tasks failed: executor={}",
+                                        requests.size(),
+                                        executor.executorId(),
+                                        t);
+                            });
+                })
+                .replaceWithVoid();
+    }
+
+    private Uni<Void> sendBatch(List<ExecutionRequest> requests, ExecutorInfo executor) {
+
+        ExecutorGrpc.ExecutorStub stub = grpcClientFactory.getStub(executor)
+                .withDeadlineAfter(
+                        resolveTimeout(executor).toMillis(),
+                        TimeUnit.MILLISECONDS);
+
+        return Uni.createFrom().emitter(emitter -> {
+
+            StreamObserver<ExecutionRequest> requestStream = stub.executeBatch(
+                    new StreamObserver<ExecutionBatchAck>() {
+
+                        private boolean acknowledged;
+
+                        @Override
+                        public void onNext(ExecutionBatchAck batchAck) {
+                            // One ack per request, in order; anything else leaves tasks unaccounted for
+                            if (batchAck.getAcksCount() != requests.size()) {
+                                emitter.fail(new TaskDispatchException(
+                                        "Executor acknowledged " + batchAck.getAcksCount() + " of "
+                                                + requests.size() + " tasks",
+                                        -1,
+                                        null));
+                                return;
+                            }
+                            acknowledged = true;
+                            for (int i = 0; i < batchAck.getAcksCount(); i++) {
+                                ExecutionAck ack = batchAck.getAcks(i);
+                                if (!ack.getAccepted()) {
+                                    emitter.fail(new TaskDispatchException(
+                                            "Executor rejected task " + requests.get(i).getIdempotencyKey(),
+                                            ack.getCode(),
+                                            ack.getMessage()));
+                                    return;
+                                }
+                            }
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            emitter.fail(t);
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            if (!acknowledged) {
+                                emitter.fail(new TaskDispatchException(
+                                        "Executor closed the batch without acknowledging its "
+                                                + requests.size() + " tasks",
+                                        -1,
+                                        null));
+                                return;
+                            }
+                            emitter.complete(null);
+                        }
+                    });
+
+            for (ExecutionRequest request : requests) {
+                requestStream.onNext(request);
+            }
+            requestStream.onCompleted();
+        });
+    }
+
     private ExecutionRequest buildRequest(NodeExecutionTask task, ExecutorInfo executor) {
 
         return ExecutionRequest.newBuilder()
@@ -135,6 +288,20 @@ public class GrpcTaskDispatcher implements TaskDispatcher {
                 .build();
     }
 
+    private ExecutionTask buildStreamTask(NodeExecutionTask task, ExecutorInfo executor) {
+
+        return ExecutionTask.newBuilder()
+                .setTaskId(idempotencyKey(task))
+                .setRunId(task.runId().value())
+                .setNodeId(task.nodeId().value())
+                .setAttempt(task.attempt())
+                .setExecutionToken(task.token().token())
+                .setContext(mapper.mapToStruct(task.context() != null ? task.context() : Map.of()))
+                .setTimeoutSeconds(resolveTimeout(executor).toSeconds())
+                .setScheduledAt(mapper.toProtoTimestamp(Instant.now()))
+                .build();
+    }
+
     private Map<String, String> convertVariables(Map<String, Object> vars) {
         if (vars == null || vars.isEmpty()) {
             return Map.of();
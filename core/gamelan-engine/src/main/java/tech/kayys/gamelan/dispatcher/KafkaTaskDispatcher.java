@@ -8,6 +8,7 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.mutiny.core.Vertx;
 import io.vertx.mutiny.kafka.client.producer.KafkaProducer;
 import io.vertx.mutiny.kafka.client.producer.KafkaProducerRecord;
+import io.vertx.kafka.client.producer.RecordMetadata;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -17,11 +18,16 @@ import org.slf4j.LoggerFactory;
 import tech.kayys.gamelan.engine.node.NodeExecutionTask;
 import tech.kayys.gamelan.engine.protocol.CommunicationType;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
+import tech.kayys.gamelan.engine.protocol.TaskMessageCodec;
 import tech.kayys.gamelan.scheduler.TaskMessage;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 @ApplicationScoped
 public class KafkaTaskDispatcher implements TaskDispatcher {
@@ -36,7 +42,7 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
     @Override
     public Uni<Boolean> isHealthy() {
         // Check if the Kafka producer is available
-        return Uni.createFrom().item(kafkaProducer != null);
+        return Uni.createFrom().item(kafkaProducer != null || binaryProducer != null);
     }
 
     @Override
@@ -90,6 +96,19 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
     @ConfigProperty(name = "kafka.delivery.timeout.ms", defaultValue = "120000")
     int deliveryTimeoutMs;
 
+    /**
+     * Task message format: {@code json}, or {@code binary} for the compact
+     * {@link TaskMessageCodec} form. Executors read both, so switch to binary
+     * once they are upgraded.
+     */
+    @Inject
+    @ConfigProperty(name = "kafka.task.format", defaultValue = "json")
+    String taskFormat;
+
+    @Inject
+    @ConfigProperty(name = "kafka.task.key-strategy", defaultValue = "RUN")
+    TaskKeyStrategy keyStrategy;
+
     // Retry configuration
     private static final int DEFAULT_MAX_RETRIES = 3;
     private static final long DEFAULT_RETRY_DELAY_MS = 1000;
@@ -100,6 +119,8 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
     private static final int MIN_TOKEN_LENGTH = 10;
     private static final int MAX_TOKEN_LENGTH = 512;
     private static final int MAX_MESSAGE_SIZE_BYTES = 1048576; // 1MB
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-zA-Z0-9_-]+");
+    private static final Pattern TOKEN = Pattern.compile("[a-zA-Z0-9+/=\\-_:.]+");
 
     @Inject
     Vertx vertx;
@@ -108,6 +129,7 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
     MeterRegistry meterRegistry;
 
     private KafkaProducer<String, String> kafkaProducer;
+    private KafkaProducer<String, byte[]> binaryProducer;
 
     private Counter successCounter;
     private Counter failureCounter;
@@ -118,7 +140,9 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
         Map<String, String> props = new HashMap<>();
         props.put("bootstrap.servers", bootstrapServers);
         props.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-        props.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+        props.put("value.serializer", isBinaryFormat()
+                ? "org.apache.kafka.common.serialization.ByteArraySerializer"
+                : "org.apache.kafka.common.serialization.StringSerializer");
         props.put("acks", acks);
         props.put("retries", String.valueOf(retries));
         props.put("batch.size", String.valueOf(batchSize));
@@ -130,7 +154,15 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
         props.put("delivery.timeout.ms", String.valueOf(deliveryTimeoutMs));
         props.put("max.block.ms", "5000"); // Prevent blocking indefinitely
 
-        this.kafkaProducer = KafkaProducer.create(vertx, props);
+        if (isBinaryFormat()) {
+            this.binaryProducer = KafkaProducer.create(vertx, props);
+        } else {
+            this.kafkaProducer = KafkaProducer.create(vertx, props);
+        }
+    }
+
+    private boolean isBinaryFormat() {
+        return "binary".equalsIgnoreCase(taskFormat);
     }
 
     @jakarta.annotation.PostConstruct
@@ -171,62 +203,26 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
                             failureCounter.increment();
                             sample.stop(dispatchTimer);
                         })
-                        .<Void>flatMap(validExecutor -> {
-                            // Serialize task to Kafka message
-                            TaskMessage message = new TaskMessage(
-                                    validTask.runId().value(),
-                                    validTask.nodeId().value(),
-                                    validTask.attempt(),
-                                    validTask.token().value(),
-                                    validTask.context(),
-                                    validExecutor.executorId());
-
-                            // Convert to JSON string
-                            String messageJson = sanitizeJsonString(JsonObject.mapFrom(message).encode());
-
-                            // Validate message size to prevent oversized messages
-                            int messageSize = messageJson.getBytes().length;
-                            if (messageSize > maxRequestSize || messageSize > MAX_MESSAGE_SIZE_BYTES) {
-                                LOG.error("Message size exceeds maximum allowed size: {} bytes (max: {})",
-                                        messageSize, Math.min(maxRequestSize, MAX_MESSAGE_SIZE_BYTES));
-                                failureCounter.increment();
-                                sample.stop(dispatchTimer);
-                                return Uni.createFrom()
-                                        .<Void>failure(new IllegalArgumentException("Message too large"));
-                            }
-
-                            // Create Kafka record
-                            KafkaProducerRecord<String, String> record = KafkaProducerRecord.create(taskTopic,
-                                    messageJson);
-
-                            // Send to Kafka with retry mechanism provided by Mutiny
-                            return kafkaProducer.send(record)
-                                    .onFailure().retry()
-                                    .withBackOff(Duration.ofMillis(DEFAULT_RETRY_DELAY_MS),
-                                            Duration.ofMillis(MAX_RETRY_DELAY_MS))
-                                    .atMost(DEFAULT_MAX_RETRIES)
-                                    .onItem().invoke(metadata -> {
-                                        long duration = System.currentTimeMillis() - startTime;
-                                        LOG.info(
-                                                "Successfully dispatched task to Kafka - run: {}, node: {}, duration: {}ms, size: {} bytes",
-                                                validTask.runId().value(), validTask.nodeId().value(), duration,
-                                                messageSize);
-                                        LOG.debug("Message details - topic: {}, partition: {}, offset: {}",
-                                                metadata.getTopic(), metadata.getPartition(), metadata.getOffset());
-                                        successCounter.increment();
-                                        sample.stop(dispatchTimer);
-                                    })
-                                    .onFailure().invoke(throwable -> {
-                                        long duration = System.currentTimeMillis() - startTime;
-                                        LOG.error(
-                                                "Failed to dispatch task after all retries - run: {}, node: {}, duration: {}ms",
-                                                validTask.runId().value(), validTask.nodeId().value(), duration,
-                                                throwable);
-                                        failureCounter.increment();
-                                        sample.stop(dispatchTimer);
-                                    })
-                                    .replaceWithVoid();
-                        }))
+                        .<Void>flatMap(validExecutor -> send(validTask, validExecutor)
+                                .onItem().invoke(messageSize -> {
+                                    long duration = System.currentTimeMillis() - startTime;
+                                    LOG.info(
+                                            "Successfully dispatched task to Kafka - run: {}, node: {}, duration: {}ms, size: {} bytes",
+                                            validTask.runId().value(), validTask.nodeId().value(), duration,
+                                            messageSize);
+                                    successCounter.increment();
+                                    sample.stop(dispatchTimer);
+                                })
+                                .onFailure().invoke(throwable -> {
+                                    long duration = System.currentTimeMillis() - startTime;
+                                    LOG.error(
+                                            "Failed to dispatch task after all retries - run: {}, node: {}, duration: {}ms",
+                                            validTask.runId().value(), validTask.nodeId().value(), duration,
+                                            throwable);
+                                    failureCounter.increment();
+                                    sample.stop(dispatchTimer);
+                                })
+                                .replaceWithVoid()))
                 .onFailure().invoke(throwable -> {
                     long duration = System.currentTimeMillis() - startTime;
                     LOG.error("Task dispatch failed due to validation - run: {}, duration: {}ms", runId, duration,
@@ -241,6 +237,96 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
                 });
     }
 
+    /**
+     * Send all tasks to the producer back to back and flush once, so they go
+     * out in as few produce requests as the batch size allows instead of one
+     * linger per task
+     */
+    @Override
+    public Uni<Void> dispatchBatch(List<NodeExecutionTask> tasks, ExecutorInfo executor) {
+        if (tasks.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long startTime = System.currentTimeMillis();
+
+        return validateAndSanitizeExecutor(executor)
+                .flatMap(validExecutor -> {
+                    List<Uni<Void>> sends = new ArrayList<>(tasks.size() + 1);
+                    for (NodeExecutionTask task : tasks) {
+                        sends.add(validateAndSanitizeTask(task)
+                                .flatMap(validTask -> send(validTask, validExecutor))
+                                .replaceWithVoid());
+                    }
+                    // Joined unis are subscribed in order: every record is with the
+                    // producer before the flush
+                    sends.add(binaryProducer != null ? binaryProducer.flush() : kafkaProducer.flush());
+                    return Uni.join().all(sends).andCollectFailures();
+                })
+                .onItem().invoke(() -> {
+                    LOG.info("Dispatched {} tasks to Kafka for executor: {}, duration: {}ms",
+                            tasks.size(), executor.executorId(), System.currentTimeMillis() - startTime);
+                    successCounter.increment(tasks.size());
+                    sample.stop(dispatchTimer);
+                })
+                .onFailure().invoke(throwable -> {
+                    LOG.error("Kafka batch dispatch of {} tasks failed for executor: {}",
+                            tasks.size(), executor != null ? executor.executorId() : "unknown", throwable);
+                    failureCounter.increment(tasks.size());
+                    sample.stop(dispatchTimer);
+                })
+                .replaceWithVoid();
+    }
+
+    /**
+     * Serialize the task once, in the configured format, and send it keyed by
+     * the key strategy, retrying with backoff
+     *
+     * @return the size of the sent message in bytes
+     */
+    private Uni<Integer> send(NodeExecutionTask validTask, ExecutorInfo validExecutor) {
+        byte[] payload = null;
+        String messageJson = null;
+        int messageSize;
+        if (binaryProducer != null) {
+            payload = TaskMessageCodec.encode(validTask, validExecutor.executorId());
+            messageSize = payload.length;
+        } else {
+            TaskMessage message = new TaskMessage(
+                    validTask.runId().value(),
+                    validTask.nodeId().value(),
+                    validTask.attempt(),
+                    validTask.token().value(),
+                    validTask.context(),
+                    validExecutor.executorId());
+            messageJson = sanitizeJsonString(JsonObject.mapFrom(message).encode());
+            messageSize = utf8Length(messageJson);
+        }
+
+        // Validate message size to prevent oversized messages
+        if (messageSize > maxRequestSize || messageSize > MAX_MESSAGE_SIZE_BYTES) {
+            LOG.error("Message size exceeds maximum allowed size: {} bytes (max: {})",
+                    messageSize, Math.min(maxRequestSize, MAX_MESSAGE_SIZE_BYTES));
+            return Uni.createFrom().failure(new IllegalArgumentException("Message too large"));
+        }
+
+        // Send to Kafka with retry mechanism provided by Mutiny
+        String key = keyStrategy.key(validTask, validExecutor);
+        Uni<RecordMetadata> send = payload != null
+                ? binaryProducer.send(KafkaProducerRecord.create(taskTopic, key, payload))
+                : kafkaProducer.send(KafkaProducerRecord.create(taskTopic, key, messageJson));
+        return send
+                .onFailure().retry()
+                .withBackOff(Duration.ofMillis(DEFAULT_RETRY_DELAY_MS),
+                        Duration.ofMillis(MAX_RETRY_DELAY_MS))
+                .atMost(DEFAULT_MAX_RETRIES)
+                .map(metadata -> {
+                    LOG.debug("Message details - topic: {}, partition: {}, offset: {}",
+                            metadata.getTopic(), metadata.getPartition(), metadata.getOffset());
+                    return messageSize;
+                });
+    }
+
     /**
      * Validate and sanitize NodeExecutionTask
      */
@@ -317,16 +403,33 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
      * Validate identifier format (alphanumeric, underscore, hyphen)
      */
     private boolean isValidIdentifier(String identifier) {
-        return identifier != null && identifier.matches("^[a-zA-Z0-9_-]+$")
-                && identifier.length() <= MAX_IDENTIFIER_LENGTH;
+        return identifier != null && identifier.length() <= MAX_IDENTIFIER_LENGTH
+                && IDENTIFIER.matcher(identifier).matches();
     }
 
     /**
      * Validate token format (alphanumeric, common token characters)
      */
     private boolean isValidToken(String token) {
-        return token != null && token.matches("^[a-zA-Z0-9+/=\\-_:.]+$") &&
-                token.length() >= MIN_TOKEN_LENGTH && token.length() <= MAX_TOKEN_LENGTH;
+        return token != null && token.length() >= MIN_TOKEN_LENGTH && token.length() <= MAX_TOKEN_LENGTH
+                && TOKEN.matcher(token).matches();
+    }
+
+    /**
+     * UTF-8 size of {@code value} without encoding it
+     */
+    static int utf8Length(String value) {
+        int length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x800) {
+                // Surrogate pairs count 2 + 2 for 4 bytes
+                length += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                length++;
+            }
+        }
+        return length;
     }
 
     /**
@@ -343,5 +446,8 @@ public class KafkaTaskDispatcher implements TaskDispatcher {
         if (kafkaProducer != null) {
             kafkaProducer.closeAndForget();
         }
+        if (binaryProducer != null) {
+            binaryProducer.closeAndForget();
+        }
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package tech.kayys.gamelan.dispatcher;
 
+import java.util.List;
+
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -11,6 +13,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tech.kayys.gamelan.engine.node.NodeExecutionTask;
 import tech.kayys.gamelan.engine.protocol.CommunicationType;
+import tech.kayys.gamelan.engine.protocol.LocalMessageCodecs;
+import tech.kayys.gamelan.engine.protocol.TaskBatch;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
 
 /**
@@ -22,6 +26,7 @@ public class LocalTaskDispatcher implements TaskDispatcher {
 
     private static final Logger LOG = LoggerFactory.getLogger(LocalTaskDispatcher.class);
     private static final String TOPIC_TASKS = "gamelan.tasks";
+    private static final String TOPIC_TASK_BATCHES = "gamelan.tasks.batch";
 
     @Inject
     EventBus eventBus;
@@ -35,6 +40,7 @@ public class LocalTaskDispatcher implements TaskDispatcher {
 
     @jakarta.annotation.PostConstruct
     void initMetrics() {
+        LocalMessageCodecs.register(eventBus.getDelegate());
         this.successCounter = Counter.builder("gamelan.dispatcher.local.success")
                 .description("Number of successful local dispatches")
                 .register(meterRegistry);
@@ -63,7 +69,7 @@ public class LocalTaskDispatcher implements TaskDispatcher {
                 // but for standalone single-instance mode, publishing to a shared topic is
                 // often sufficient.
                 // Or use a specific address like "gamelan.tasks.<executorId>"
-                eventBus.publish(TOPIC_TASKS, io.vertx.core.json.JsonObject.mapFrom(task));
+                eventBus.publish(TOPIC_TASKS, task, LocalMessageCodecs.deliveryOptions(LocalMessageCodecs.TASK));
                 successCounter.increment();
                 sample.stop(dispatchTimer);
             } catch (Exception e) {
@@ -75,6 +81,32 @@ public class LocalTaskDispatcher implements TaskDispatcher {
         });
     }
 
+    /**
+     * All tasks go out as one TaskBatch message
+     */
+    @Override
+    public Uni<Void> dispatchBatch(List<NodeExecutionTask> tasks, ExecutorInfo targetExecutor) {
+        if (tasks.size() <= 1) {
+            return tasks.isEmpty() ? Uni.createFrom().voidItem() : dispatch(tasks.get(0), targetExecutor);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return Uni.createFrom().item(() -> {
+            try {
+                LOG.debug("Dispatching {} tasks locally via EventBus to executor {}", tasks.size(),
+                        targetExecutor.executorId());
+                eventBus.publish(TOPIC_TASK_BATCHES, new TaskBatch(targetExecutor.executorId(), tasks),
+                        LocalMessageCodecs.deliveryOptions(LocalMessageCodecs.TASK_BATCH));
+                successCounter.increment(tasks.size());
+                sample.stop(dispatchTimer);
+            } catch (Exception e) {
+                failureCounter.increment(tasks.size());
+                sample.stop(dispatchTimer);
+                throw e;
+            }
+            return null;
+        });
+    }
+
     @Override
     public Uni<Boolean> isHealthy() {
         return Uni.createFrom().item(eventBus != null);
@@ -1,7 +1,7 @@
 package tech.kayys.gamelan.dispatcher;
 
 import java.time.Duration;
-import java.util.Base64;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -24,6 +24,7 @@ import tech.kayys.gamelan.engine.execution.ExecutionToken;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
 import tech.kayys.gamelan.engine.error.ErrorCode;
 import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.security.ExecutionTokenSigner;
 
 @ApplicationScoped
 public class RestTaskDispatcher implements TaskDispatcher {
@@ -32,6 +33,12 @@ public class RestTaskDispatcher implements TaskDispatcher {
 
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
 
+    /**
+     * Executor metadata entry with the URL that takes a JSON array of
+     * execution requests; executors without one get a request per task
+     */
+    public static final String BATCH_ENDPOINT_METADATA = "rest.batch-endpoint";
+
     @Inject
     WebClient webClient;
 
@@ -41,6 +48,9 @@ public class RestTaskDispatcher implements TaskDispatcher {
     @Inject
     MeterRegistry meterRegistry;
 
+    @Inject
+    ExecutionTokenSigner signer;
+
     private Counter successCounter;
     private Counter failureCounter;
     private Timer dispatchTimer;
@@ -73,7 +83,7 @@ public class RestTaskDispatcher implements TaskDispatcher {
                             "Executor REST endpoint is missing"));
         }
 
-        RestExecutionRequest payload = RestExecutionRequest.from(task, executor);
+        RestExecutionRequest payload = RestExecutionRequest.from(task, executor, signer);
 
         return Uni.createFrom().item(payload)
                 .onItem().transformToUni(req -> {
@@ -96,6 +106,84 @@ public class RestTaskDispatcher implements TaskDispatcher {
                 .replaceWithVoid();
     }
 
+    /**
+     * One POST of all tasks to the executor's batch endpoint, if it has one
+     */
+    @Override
+    public Uni<Void> dispatchBatch(List<NodeExecutionTask> tasks, ExecutorInfo executor) {
+
+        Objects.requireNonNull(tasks, "Tasks cannot be null");
+        Objects.requireNonNull(executor, "ExecutorInfo cannot be null");
+
+        String batchEndpoint = executor.metadata() != null
+                ? executor.metadata().get(BATCH_ENDPOINT_METADATA)
+                : null;
+        if (tasks.size() <= 1 || batchEndpoint == null || batchEndpoint.isBlank()) {
+            return TaskDispatcher.super.dispatchBatch(tasks, executor);
+        }
+
+        List<RestExecutionRequest> payload = tasks.stream()
+                .map(task -> RestExecutionRequest.from(task, executor, signer))
+                .toList();
+
+        return Uni.createFrom().item(payload)
+                .onItem().transformToUni(requests -> {
+                    Timer.Sample sample = Timer.start(meterRegistry);
+                    return sendBatch(requests, batchEndpoint, executor)
+                            .invoke(() -> {
+                                sample.stop(dispatchTimer);
+                                successCounter.increment(requests.size());
+                            })
+                            .onFailure().invoke(t -> {
+                                sample.stop(dispatchTimer);
+                                failureCounter.increment(requests.size());
+                                LOG.error("REST batch dispatch of {} tasks failed for executor={}",
+                                        requests.size(),
+                                        executor.executorId(),
+                                        t);
+                            });
+                })
+                .replaceWithVoid();
+    }
+
+    private Uni<Void> sendBatch(List<RestExecutionRequest> requests, String batchEndpoint, ExecutorInfo executor) {
+
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(requests);
+        } catch (Exception e) {
+            return Uni.createFrom().failure(
+                    new GamelanException(
+                            ErrorCode.DISPATCHER_INVALID_REQUEST,
+                            "Failed to serialize execution requests",
+                            e));
+        }
+
+        return webClient
+                .postAbs(batchEndpoint)
+                .putHeader("Content-Type", "application/json")
+                .putHeader("X-Executor-Id", executor.executorId())
+                .putHeader("X-Batch-Size", String.valueOf(requests.size()))
+                .timeout(resolveTimeout(executor).toMillis())
+                .sendBuffer(Buffer.buffer(body))
+                .onItem().transformToUni(resp -> {
+                    int status = resp.statusCode();
+
+                    if (status >= 200 && status < 300) {
+                        LOG.debug("REST batch of {} tasks accepted: executor={}",
+                                requests.size(),
+                                executor.executorId());
+                        return Uni.createFrom().voidItem();
+                    }
+
+                    return Uni.createFrom().failure(
+                            new TaskDispatchException(
+                                    "Executor rejected batch, status=" + status,
+                                    status,
+                                    resp.bodyAsString()));
+                });
+    }
+
     private Uni<Void> sendRequest(RestExecutionRequest request, ExecutorInfo executor) {
 
         String body;
@@ -191,7 +279,7 @@ public class RestTaskDispatcher implements TaskDispatcher {
             this.signature = signature;
         }
 
-        static RestExecutionRequest from(NodeExecutionTask task, ExecutorInfo executor) {
+        static RestExecutionRequest from(NodeExecutionTask task, ExecutorInfo executor, ExecutionTokenSigner signer) {
 
             String idempotencyKey = task.runId().value()
                     + ":" + task.nodeId().value()
@@ -204,14 +292,20 @@ public class RestTaskDispatcher implements TaskDispatcher {
                     task.token(),
                     task.context(),
                     idempotencyKey,
-                    sign(task, executor));
+                    sign(task, executor, signer));
         }
 
-        static String sign(NodeExecutionTask task, ExecutorInfo executor) {
-            // placeholder — replace with HMAC / asymmetric signing
-            return Base64.getEncoder()
-                    .encodeToString((task.runId().value()
-                            + executor.executorId()).getBytes());
+        /**
+         * HMAC over what identifies the request, with the execution token key
+         * ring, so executors holding a key can check it came from the engine
+         */
+        static String sign(NodeExecutionTask task, ExecutorInfo executor, ExecutionTokenSigner signer) {
+            return signer.sign(
+                    task.runId().value(),
+                    task.nodeId().value(),
+                    Integer.toString(task.attempt()),
+                    executor.executorId(),
+                    task.token() != null ? task.token().value() : "");
         }
 
         public ExecutionToken token() {
@@ -1,5 +1,7 @@
 package tech.kayys.gamelan.dispatcher;
 
+import java.util.List;
+
 import io.smallrye.mutiny.Uni;
 import tech.kayys.gamelan.engine.node.NodeExecutionTask;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
@@ -18,6 +20,25 @@ public interface TaskDispatcher {
      */
     Uni<Void> dispatch(NodeExecutionTask task, ExecutorInfo executor);
 
+    /**
+     * Dispatch several tasks to the same executor in as few round trips as
+     * the transport allows. The default dispatches them one by one,
+     * concurrently.
+     *
+     * @param tasks the tasks to dispatch
+     * @param executor the executor to dispatch to
+     * @return a Uni that completes when every task is dispatched, and fails
+     *         if any of them could not be
+     */
+    default Uni<Void> dispatchBatch(List<NodeExecutionTask> tasks, ExecutorInfo executor) {
+        if (tasks.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return Uni.join().all(tasks.stream().map(task -> dispatch(task, executor)).toList())
+                .andCollectFailures()
+                .replaceWithVoid();
+    }
+
     /**
      * Check if this dispatcher supports the given executor
      *
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +68,50 @@ public class TaskDispatcherAggregator {
         return selectedDispatcher.dispatch(task, executor);
     }
 
+    /**
+     * Dispatch tasks bound for the same executor as one batch
+     */
+    public Uni<Void> dispatchBatch(List<NodeExecutionTask> tasks, ExecutorInfo executor) {
+        if (tasks.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        if (tasks.size() == 1) {
+            return dispatch(tasks.get(0), executor);
+        }
+
+        TaskDispatcher selectedDispatcher = selectDispatcher(executor);
+
+        if (selectedDispatcher == null) {
+            LOG.error("No suitable dispatcher found for executor communication type: {}",
+                    executor.communicationType());
+            return Uni.createFrom().failure(
+                    new IllegalArgumentException("No suitable dispatcher found for: " + executor.communicationType()));
+        }
+
+        LOG.debug("Using dispatcher {} for {} tasks to executor {}",
+                selectedDispatcher.getClass().getSimpleName(),
+                tasks.size(),
+                executor.executorId());
+
+        return selectedDispatcher.dispatchBatch(tasks, executor);
+    }
+
+    /**
+     * Dispatch tasks grouped by target executor, one batch per executor, the
+     * batches concurrently. Fails once every batch has finished if any of
+     * them failed.
+     */
+    public Uni<Void> dispatchAll(Map<ExecutorInfo, List<NodeExecutionTask>> tasksByExecutor) {
+        if (tasksByExecutor.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return Uni.join().all(tasksByExecutor.entrySet().stream()
+                .map(batch -> dispatchBatch(batch.getValue(), batch.getKey()))
+                .toList())
+                .andCollectFailures()
+                .replaceWithVoid();
+    }
+
     private TaskDispatcher selectDispatcher(ExecutorInfo executor) {
         // Initialize the list of dispatchers if not already done
         if (allDispatchers == null) {
@@ -0,0 +1,63 @@
+package tech.kayys.gamelan.dispatcher;
+
+import tech.kayys.gamelan.engine.executor.ExecutorInfo;
+import tech.kayys.gamelan.engine.node.NodeExecutionTask;
+
+/**
+ * How KafkaTaskDispatcher keys task records, and so which partition a task
+ * lands on. Selected with {@code kafka.task.key-strategy}.
+ */
+public enum TaskKeyStrategy {
+
+    /**
+     * Key by run id: a run's tasks stay in order on one partition, and the
+     * executor consuming it sees the whole run
+     */
+    RUN {
+        @Override
+        String key(NodeExecutionTask task, ExecutorInfo executor) {
+            return task.runId().value();
+        }
+    },
+
+    /**
+     * Key by executor type: each type's tasks share a partition, for
+     * executors that keep per-type resources warm
+     */
+    EXECUTOR_TYPE {
+        @Override
+        String key(NodeExecutionTask task, ExecutorInfo executor) {
+            return executor.executorType();
+        }
+    },
+
+    /**
+     * Key by the executor's {@value #STICKY_KEY_METADATA} metadata, or its id
+     * when it sets none, so tasks follow the executor they were assigned to
+     */
+    STICKY_EXECUTOR {
+        @Override
+        String key(NodeExecutionTask task, ExecutorInfo executor) {
+            String hint = executor.metadata() != null ? executor.metadata().get(STICKY_KEY_METADATA) : null;
+            return hint != null && !hint.isBlank() ? hint : executor.executorId();
+        }
+    },
+
+    /**
+     * No key: the producer spreads tasks over all partitions
+     */
+    NONE {
+        @Override
+        String key(NodeExecutionTask task, ExecutorInfo executor) {
+            return null;
+        }
+    };
+
+    /** Executor metadata entry that {@link #STICKY_EXECUTOR} keys by */
+    public static final String STICKY_KEY_METADATA = "kafka.partition-key";
+
+    /**
+     * The record key for {@code task} sent to {@code executor}; null for no key
+     */
+    abstract String key(NodeExecutionTask task, ExecutorInfo executor);
+}
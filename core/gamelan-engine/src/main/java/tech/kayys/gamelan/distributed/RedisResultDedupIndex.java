@@ -0,0 +1,73 @@
+package tech.kayys.gamelan.distributed;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.gamelan.engine.execution.ResultDedupIndex;
+import tech.kayys.gamelan.engine.execution.ResultDedupKey;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Result dedup index shared by all engines through Redis
+ *
+ * One {@code SET key 1 NX PX ttl} per result: the first engine to set the key
+ * owns the result, every later delivery finds it and is a duplicate. Redis
+ * expires the keys, nothing needs cleaning up.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "gamelan.engine.result-dedup.type", stringValue = "redis")
+public class RedisResultDedupIndex implements ResultDedupIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisResultDedupIndex.class);
+    private static final String KEY_PREFIX = "gamelan:result-dedup:";
+
+    @Inject
+    ReactiveRedisDataSource redis;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "gamelan.engine.result-dedup.ttl-ms", defaultValue = "3600000")
+    long ttlMs;
+
+    private Counter hits;
+    private Counter misses;
+
+    @jakarta.annotation.PostConstruct
+    void initMetrics() {
+        this.hits = Counter.builder("gamelan.engine.result-dedup.hits")
+                .description("Node results recognized as duplicates")
+                .tag("store", "redis")
+                .register(meterRegistry);
+        this.misses = Counter.builder("gamelan.engine.result-dedup.misses")
+                .description("Node results seen for the first time")
+                .tag("store", "redis")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Uni<Boolean> checkAndMark(WorkflowRunId runId, NodeId nodeId, int attempt) {
+        String key = KEY_PREFIX + ResultDedupKey.of(runId, nodeId, attempt).toHex();
+        return redis.execute("SET", key, "1", "NX", "PX", String.valueOf(ttlMs))
+                // Nil reply: the key was already there
+                .map(response -> response == null)
+                .invoke(duplicate -> {
+                    if (duplicate) {
+                        LOG.debug("Duplicate result for run {}, node {}, attempt {}",
+                                runId.value(), nodeId.value(), attempt);
+                        hits.increment();
+                    } else {
+                        misses.increment();
+                    }
+                });
+    }
+}
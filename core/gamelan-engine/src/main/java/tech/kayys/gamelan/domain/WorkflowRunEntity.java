@@ -14,17 +14,25 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.Table;
-import jakarta.persistence.Version;
 import tech.kayys.gamelan.engine.node.NodeExecutionSnapshot;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.SuspensionInfo;
+import tech.kayys.gamelan.engine.saga.CompensationState;
+import tech.kayys.gamelan.engine.signal.Signal;
 
 /**
  * Workflow Run Snapshot Entity
- * Materialized view for fast querying
+ * Materialized view for fast querying. The context, node executions and
+ * execution path columns hold a snapshot of the run as of event
+ * {@code snapshotSequence}; events after it are replayed on load.
  */
 @Entity
 @Table(name = "workflow_runs", indexes = {
-        @Index(name = "idx_tenant_status", columnList = "tenant_id, status"),
+        // Keyset listings; V1_initial_schema.sql adds the covering INCLUDE columns
+        @Index(name = "idx_workflow_run_tenant_created", columnList = "tenant_id, created_at DESC, run_id DESC"),
+        @Index(name = "idx_workflow_run_tenant_status", columnList = "tenant_id, status, created_at DESC, run_id DESC"),
+        @Index(name = "idx_workflow_run_tenant_definition",
+                columnList = "tenant_id, definition_id, created_at DESC, run_id DESC"),
         @Index(name = "idx_definition_id", columnList = "definition_id"),
         @Index(name = "idx_created_at", columnList = "created_at")
 })
@@ -71,10 +79,31 @@ public class WorkflowRunEntity {
     @Column(name = "last_updated_at", nullable = false)
     private Instant lastUpdatedAt;
 
-    @Version
+    // Run version (number of committed events); optimistic writers update
+    // with WHERE version = ?
     @Column(name = "version")
     private Long version;
 
+    @Column(name = "snapshot_sequence", nullable = false)
+    private Long snapshotSequence = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "snapshot_status", length = 32)
+    private RunStatus snapshotStatus;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "snapshot_suspension", columnDefinition = "jsonb")
+    private SuspensionInfo snapshotSuspension;
+
+    // Signals received while the run was not waiting for them
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "snapshot_signals", columnDefinition = "jsonb")
+    private Map<String, Signal> snapshotSignals;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "snapshot_compensation", columnDefinition = "jsonb")
+    private CompensationState snapshotCompensation;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "metadata", columnDefinition = "jsonb")
     private Map<String, String> metadata;
@@ -136,6 +165,46 @@ public class WorkflowRunEntity {
         this.version = version;
     }
 
+    public Long getSnapshotSequence() {
+        return snapshotSequence;
+    }
+
+    public void setSnapshotSequence(Long snapshotSequence) {
+        this.snapshotSequence = snapshotSequence;
+    }
+
+    public RunStatus getSnapshotStatus() {
+        return snapshotStatus;
+    }
+
+    public void setSnapshotStatus(RunStatus snapshotStatus) {
+        this.snapshotStatus = snapshotStatus;
+    }
+
+    public SuspensionInfo getSnapshotSuspension() {
+        return snapshotSuspension;
+    }
+
+    public void setSnapshotSuspension(SuspensionInfo snapshotSuspension) {
+        this.snapshotSuspension = snapshotSuspension;
+    }
+
+    public Map<String, Signal> getSnapshotSignals() {
+        return snapshotSignals;
+    }
+
+    public void setSnapshotSignals(Map<String, Signal> snapshotSignals) {
+        this.snapshotSignals = snapshotSignals;
+    }
+
+    public CompensationState getSnapshotCompensation() {
+        return snapshotCompensation;
+    }
+
+    public void setSnapshotCompensation(CompensationState snapshotCompensation) {
+        this.snapshotCompensation = snapshotCompensation;
+    }
+
     public List<String> getExecutionPath() {
         return executionPath;
     }
@@ -1,37 +1,58 @@
 package tech.kayys.gamelan.engine.impl;
 
 import java.time.Instant;
-import java.util.UUID;
+import java.util.Objects;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import tech.kayys.gamelan.engine.node.NodeExecutionResult;
 import tech.kayys.gamelan.engine.node.NodeId;
 import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
 import tech.kayys.gamelan.engine.execution.ExecutionToken;
 import tech.kayys.gamelan.engine.execution.ExecutionTokenService;
+import tech.kayys.gamelan.security.ExecutionTokenSigner;
 
+/**
+ * Issues self-contained signed tokens; verifying one is CPU only, nothing is
+ * stored or looked up
+ */
 @ApplicationScoped
 public class DefaultExecutionTokenService implements ExecutionTokenService {
 
+    @Inject
+    ExecutionTokenSigner signer;
+
+    @ConfigProperty(name = "gamelan.security.execution-token.ttl-seconds", defaultValue = "300")
+    long ttlSeconds = 300;
+
     @Override
     public Uni<ExecutionToken> issue(
             WorkflowRunId runId,
             NodeId nodeId,
             int attempt) {
         return Uni.createFrom().item(
-                new ExecutionToken(
-                        UUID.randomUUID().toString(),
-                        runId,
-                        nodeId,
-                        attempt,
-                        Instant.now().plusSeconds(300)));
+                signer.issue(runId, nodeId, attempt, Instant.now().plusSeconds(ttlSeconds)));
     }
 
+    /**
+     * The signature is the token the executor was given; it must verify and
+     * name the result's run, node and attempt
+     */
     @Override
     public Uni<Boolean> verifySignature(
             NodeExecutionResult result,
             String signature) {
-        return Uni.createFrom().item(signature != null && !signature.isBlank());
+        return Uni.createFrom().item(() -> signer.verify(signature, Instant.now())
+                .filter(token -> matches(token, result))
+                .isPresent());
+    }
+
+    private static boolean matches(ExecutionToken token, NodeExecutionResult result) {
+        return Objects.equals(token.runId(), result.runId())
+                && token.nodeId().value().equals(result.getNodeId())
+                && token.attempt() == result.attempt();
     }
 }
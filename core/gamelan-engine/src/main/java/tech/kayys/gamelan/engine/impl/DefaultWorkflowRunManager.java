@@ -1,9 +1,12 @@
 package tech.kayys.gamelan.engine.impl;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import tech.kayys.gamelan.engine.ExecutionEventTypes;
 import tech.kayys.gamelan.engine.error.ErrorInfo;
@@ -11,7 +14,13 @@ import tech.kayys.gamelan.engine.error.ErrorCode;
 import tech.kayys.gamelan.engine.error.GamelanException;
 import tech.kayys.gamelan.engine.node.NodeId;
 import tech.kayys.gamelan.engine.node.NodeExecutionResult;
+import tech.kayys.gamelan.engine.protocol.LocalMessageCodecs;
+import tech.kayys.gamelan.engine.run.RunQuery;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunSummaryPage;
+import tech.kayys.gamelan.engine.run.RunUpdate;
+import tech.kayys.gamelan.engine.event.EventStore;
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
 import tech.kayys.gamelan.engine.run.CreateRunRequest;
 import tech.kayys.gamelan.engine.run.ValidationResult;
 import tech.kayys.gamelan.engine.execution.ExecutionToken;
@@ -20,6 +29,11 @@ import tech.kayys.gamelan.engine.signal.ExternalSignal;
 import tech.kayys.gamelan.engine.callback.CallbackConfig;
 import tech.kayys.gamelan.engine.callback.CallbackRegistration;
 import tech.kayys.gamelan.engine.execution.ExecutionHistory;
+import tech.kayys.gamelan.engine.execution.HistoryEntry;
+import tech.kayys.gamelan.engine.execution.HistoryEventSource;
+import tech.kayys.gamelan.engine.execution.HistoryPage;
+import tech.kayys.gamelan.engine.execution.HistoryPager;
+import tech.kayys.gamelan.engine.execution.HistoryQuery;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
 import tech.kayys.gamelan.engine.workflow.WorkflowRun;
 import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
@@ -42,11 +56,15 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
 
     private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(DefaultWorkflowRunManager.class);
 
+    public static final String RUN_UPDATED_ADDRESS = "gamelan.runs.v1.updated";
+
     @Inject
     tech.kayys.gamelan.engine.repository.WorkflowRunRepository runRepository;
     @Inject
     InMemoryExecutionHistoryRepository historyRepository;
     @Inject
+    Instance<EventStore> eventStore;
+    @Inject
     DefaultExecutionTokenService tokenService;
     @Inject
     DefaultCallbackService callbackService;
@@ -58,6 +76,12 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
     tech.kayys.gamelan.engine.SystemClock clock;
     @Inject
     tech.kayys.gamelan.core.workflow.WorkflowDefinitionRegistry definitionRegistry;
+    @Inject
+    RunLaneExecutor runLanes;
+    @Inject
+    NodeResultCoalescer resultCoalescer;
+    @Inject
+    RunStatusCounters runCounters;
 
     // ==================== LIFECYCLE ====================
 
@@ -65,17 +89,26 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
     public Uni<WorkflowRun> createRun(CreateRunRequest request, TenantId tenantId) {
         return definitionRegistry.getDefinition(new WorkflowDefinitionId(request.getWorkflowId()), tenantId)
                 .flatMap(definition -> {
-                    WorkflowRun run = WorkflowRun.create(tenantId, definition, request.getInputs());
+                    WorkflowRun run = WorkflowRun.create(tenantId, definitionRegistry.getPlan(definition),
+                            request.getInputs());
+                    // The repository commits the pending events, capture them for the history first
+                    List<ExecutionEvent> creationEvents = List.copyOf(run.getUncommittedEvents());
                     return runRepository.persist(run)
+                            .invoke(persistedRun -> {
+                                if (runCounters != null) {
+                                    runCounters.onCreated(tenantId, persistedRun.getStatus());
+                                }
+                            })
                             .flatMap(persistedRun -> historyRepository.appendEvents(persistedRun.getId(),
-                                    persistedRun.getUncommittedEvents())
+                                    creationEvents)
                                     .replaceWith(persistedRun))
                             .flatMap(persistedRun -> {
                                 if (request.isAutoStart()) {
                                     return startRun(persistedRun.getId(), tenantId);
                                 } else {
                                     eventBus.publish("gamelan.workflow.run.created",
-                                            io.vertx.core.json.JsonObject.mapFrom(persistedRun.createSnapshot()));
+                                            persistedRun.createSnapshot(),
+                                            LocalMessageCodecs.deliveryOptions(LocalMessageCodecs.RUN_SNAPSHOT));
                                     return Uni.createFrom().item(persistedRun);
                                 }
                             });
@@ -84,20 +117,16 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
 
     @Override
     public Uni<WorkflowRun> startRun(WorkflowRunId runId, TenantId tenantId) {
-        return runRepository.withLock(runId, run -> {
+        return withRun(runId, run -> {
             run.start();
+            List<ExecutionEvent> changes = List.copyOf(run.getUncommittedEvents());
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
                             runId,
                             ExecutionEventTypes.STATUS_CHANGED,
                             RunStatus.RUNNING.name(),
                             Map.of()))
-                    .invoke(() -> {
-                        LOG.error("DefaultWorkflowRunManager SEVERE LOG: Publishing updated event for {}",
-                                runId.value());
-                        eventBus.publish("gamelan.runs.v1.updated", runId.value());
-                        LOG.error("DefaultWorkflowRunManager SEVERE LOG: Event published for {}", runId.value());
-                    });
+                    .invoke(() -> publishUpdate(run, changes));
         });
     }
 
@@ -107,7 +136,7 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
             TenantId tenantId,
             String reason,
             NodeId waitingOnNodeId) {
-        return runRepository.withLock(runId, run -> {
+        return withRun(runId, run -> {
             run.suspend(reason, waitingOnNodeId);
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
@@ -124,7 +153,7 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
             TenantId tenantId,
             Map<String, Object> resumeData,
             String humanTaskId) {
-        return runRepository.withLock(runId, run -> {
+        return withRun(runId, run -> {
             run.resume(resumeData, humanTaskId);
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
@@ -147,7 +176,7 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
             WorkflowRunId runId,
             TenantId tenantId,
             String reason) {
-        return runRepository.withLock(runId, run -> {
+        return withRun(runId, run -> {
             run.cancel(reason);
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
@@ -163,7 +192,7 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
             WorkflowRunId runId,
             TenantId tenantId,
             Map<String, Object> outputs) {
-        return runRepository.withLock(runId, run -> {
+        return withRun(runId, run -> {
             run.complete(outputs);
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
@@ -179,7 +208,7 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
             WorkflowRunId runId,
             TenantId tenantId,
             ErrorInfo error) {
-        return runRepository.withLock(runId, run -> {
+        return withRun(runId, run -> {
             ValidationResult vr = transitionValidator.validate(run.getStatus(), RunStatus.FAILED);
             if (!vr.isValid()) {
                 return Uni.createFrom().failure(
@@ -187,42 +216,45 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
             }
 
             run.fail(error);
+            List<ExecutionEvent> changes = List.copyOf(run.getUncommittedEvents());
 
-            return historyRepository.append(
-                    runId,
-                    ExecutionEventTypes.RUN_FAILED,
-                    error.message(),
-                    Map.of("errorCode", error.code()))
-                    .chain(() -> runRepository.update(run))
-                    .invoke(() -> eventBus.publish("gamelan.runs.v1.updated", runId.value()));
+            return runRepository.update(run)
+                    .call(() -> historyRepository.append(
+                            runId,
+                            ExecutionEventTypes.RUN_FAILED,
+                            error.message(),
+                            Map.of("errorCode", error.code())))
+                    .invoke(() -> publishUpdate(run, changes));
         });
     }
 
     @Override
     public Uni<Void> completeCompensation(WorkflowRunId runId, TenantId tenantId) {
-        return runRepository.withLock(runId, run -> {
+        return withRun(runId, run -> {
             run.completeCompensation();
+            List<ExecutionEvent> changes = List.copyOf(run.getUncommittedEvents());
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
                             runId,
                             ExecutionEventTypes.STATUS_CHANGED,
                             RunStatus.COMPENSATED.name(),
                             Map.of()))
-                    .invoke(() -> eventBus.publish("gamelan.runs.v1.updated", runId.value()));
+                    .invoke(() -> publishUpdate(run, changes));
         }).replaceWithVoid();
     }
 
     @Override
     public Uni<Void> failCompensation(WorkflowRunId runId, TenantId tenantId, ErrorInfo error) {
-        return runRepository.withLock(runId, run -> {
+        return withRun(runId, run -> {
             run.failCompensation(error);
+            List<ExecutionEvent> changes = List.copyOf(run.getUncommittedEvents());
             return runRepository.update(run)
                     .call(() -> historyRepository.append(
                             runId,
                             ExecutionEventTypes.RUN_FAILED,
                             "Compensation failed: " + error.message(),
                             Map.of("errorCode", error.code())))
-                    .invoke(() -> eventBus.publish("gamelan.runs.v1.updated", runId.value()));
+                    .invoke(() -> publishUpdate(run, changes));
         }).replaceWithVoid();
     }
 
@@ -232,44 +264,112 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
     public Uni<Void> handleNodeResult(
             WorkflowRunId runId,
             NodeExecutionResult result) {
-        return runRepository.withLock(runId, run -> {
+        if (resultCoalescer != null && resultCoalescer.isEnabled()) {
+            return resultCoalescer.submit(runId, result, batch -> handleNodeResults(runId, batch));
+        }
+        return handleNodeResults(runId, List.of(result))
+                .flatMap(failures -> failures.get(0) != null
+                        ? Uni.createFrom().failure(failures.get(0))
+                        : Uni.createFrom().voidItem());
+    }
 
-            // Check if result already processed (idempotency)
-            return historyRepository.isNodeResultProcessed(runId, result.nodeId(), result.attempt())
-                    .flatMap(processed -> {
-                        if (processed) {
-                            return Uni.createFrom().voidItem();
+    /**
+     * Apply a burst of results for one run in a single command: one load, one
+     * update, one history append and one orchestration event.
+     *
+     * Each result is claimed through the idempotency check before the run is
+     * touched, so duplicates (including duplicates within the burst) are
+     * skipped exactly as on the single-result path, and a retried command does
+     * not mistake its own results for duplicates. A result the run rejects
+     * fails on its own without holding back the rest of the burst.
+     *
+     * @return one entry per result, in order: the failure that rejected it, or
+     *         null if it was applied, skipped as a duplicate or ignored by the
+     *         run as stale
+     */
+    public Uni<List<Throwable>> handleNodeResults(
+            WorkflowRunId runId,
+            List<NodeExecutionResult> results) {
+        return Uni.join().all(results.stream()
+                .map(result -> historyRepository.isNodeResultProcessed(runId, result.nodeId(), result.attempt()))
+                .toList())
+                .andFailFast()
+                .flatMap(processed -> {
+                    List<NodeExecutionResult> claimed = new java.util.ArrayList<>(results.size());
+                    for (int i = 0; i < results.size(); i++) {
+                        if (!processed.get(i)) {
+                            claimed.add(results.get(i));
                         }
+                    }
+                    if (claimed.isEmpty()) {
+                        return Uni.createFrom().item(java.util.Arrays.asList(new Throwable[results.size()]));
+                    }
+                    return withRun(runId, run -> applyNodeResults(run, claimed))
+                            .map(rejected -> {
+                                List<Throwable> failures = java.util.Arrays.asList(new Throwable[results.size()]);
+                                for (int i = 0; i < results.size(); i++) {
+                                    failures.set(i, rejected.get(results.get(i)));
+                                }
+                                return failures;
+                            });
+                });
+    }
 
-                        return historyRepository.append(
-                                runId,
-                                ExecutionEventTypes.NODE_COMPLETED,
-                                "Node completed",
-                                Map.of(
-                                        "nodeId", result.nodeId().value(),
-                                        "attempt", result.attempt(),
-                                        "success",
-                                        result.status() == tech.kayys.gamelan.engine.node.NodeExecutionStatus.COMPLETED))
-                                .chain(() -> {
-                                    // Apply result
-                                    if (result
-                                            .status() == tech.kayys.gamelan.engine.node.NodeExecutionStatus.COMPLETED) {
-                                        run.completeNode(result.nodeId(), result.attempt(),
-                                                result.output() != null ? result.output() : Map.of());
-                                        return runRepository.update(run)
-                                                .invoke(() -> eventBus.publish("gamelan.runs.v1.updated",
-                                                        runId.value()))
-                                                .replaceWithVoid();
-                                    } else {
-                                        run.failNode(result.nodeId(), result.attempt(), result.error());
-                                        return runRepository.update(run)
-                                                .invoke(() -> eventBus.publish("gamelan.runs.v1.updated",
-                                                        runId.value()))
-                                                .replaceWithVoid();
-                                    }
-                                });
-                    });
-        });
+    private Uni<Map<NodeExecutionResult, Throwable>> applyNodeResults(
+            WorkflowRun run,
+            List<NodeExecutionResult> results) {
+        Map<NodeExecutionResult, Throwable> rejected = new java.util.IdentityHashMap<>();
+        List<NodeExecutionResult> applied = new java.util.ArrayList<>(results.size());
+        for (NodeExecutionResult result : results) {
+            try {
+                boolean changed = result.status() == tech.kayys.gamelan.engine.node.NodeExecutionStatus.COMPLETED
+                        ? run.completeNode(result.nodeId(), result.attempt(),
+                                result.output() != null ? result.output() : Map.of())
+                        : run.failNode(result.nodeId(), result.attempt(), result.error());
+                if (changed) {
+                    applied.add(result);
+                } else {
+                    LOG.debug("Ignored result for node {} attempt {} of run {}: not awaiting it",
+                            result.nodeId().value(), result.attempt(), run.getId().value());
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("Rejected result for node {} attempt {} of run {}: {}",
+                        result.nodeId().value(), result.attempt(), run.getId().value(), e.getMessage());
+                rejected.put(result, e);
+            }
+        }
+        if (applied.isEmpty()) {
+            return Uni.createFrom().item(rejected);
+        }
+
+        WorkflowRunId runId = run.getId();
+        List<ExecutionEvent> changes = List.copyOf(run.getUncommittedEvents());
+        return runRepository.update(run)
+                .call(() -> recordNodeResults(runId, applied))
+                .invoke(() -> publishUpdate(run, changes))
+                .replaceWith(rejected);
+    }
+
+    private Uni<Void> recordNodeResults(WorkflowRunId runId, List<NodeExecutionResult> applied) {
+        if (applied.size() == 1) {
+            NodeExecutionResult result = applied.get(0);
+            return historyRepository.append(runId, ExecutionEventTypes.NODE_COMPLETED, "Node completed",
+                    nodeResultMetadata(result));
+        }
+        java.time.Instant now = java.time.Instant.now(clock.asJavaClock());
+        return historyRepository.appendEvents(runId, applied.stream()
+                .<ExecutionEvent>map(
+                        result -> new tech.kayys.gamelan.engine.event.GenericExecutionEvent(runId,
+                                ExecutionEventTypes.NODE_COMPLETED, "Node completed", now,
+                                nodeResultMetadata(result)))
+                .toList());
+    }
+
+    private static Map<String, Object> nodeResultMetadata(NodeExecutionResult result) {
+        return Map.of(
+                "nodeId", result.nodeId().value(),
+                "attempt", result.attempt(),
+                "success", result.status() == tech.kayys.gamelan.engine.node.NodeExecutionStatus.COMPLETED);
     }
 
     @Override
@@ -304,6 +404,49 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
         return historyRepository.load(runId);
     }
 
+    @Override
+    public Uni<HistoryPage> getExecutionHistoryPage(
+            WorkflowRunId runId,
+            TenantId tenantId,
+            HistoryQuery query) {
+        return requireRun(runId, tenantId)
+                .chain(() -> HistoryPager.page(runId, historySource(runId), query));
+    }
+
+    @Override
+    public Multi<HistoryEntry> streamExecutionHistory(
+            WorkflowRunId runId,
+            TenantId tenantId,
+            HistoryQuery query) {
+        return requireRun(runId, tenantId)
+                .onItem().transformToMulti(ignored -> HistoryPager.stream(runId, historySource(runId), query));
+    }
+
+    /**
+     * Fail with RUN_NOT_FOUND unless the run belongs to the tenant, so history
+     * reads are scoped like the run itself
+     */
+    private Uni<Void> requireRun(WorkflowRunId runId, TenantId tenantId) {
+        return runRepository.exists(runId, tenantId)
+                .flatMap(exists -> exists
+                        ? Uni.createFrom().voidItem()
+                        : Uni.createFrom().failure(new GamelanException(
+                                ErrorCode.RUN_NOT_FOUND,
+                                "Workflow run not found: " + runId.value())));
+    }
+
+    /**
+     * The durable event store when one is configured, else this engine's
+     * in-memory history
+     */
+    private HistoryEventSource historySource(WorkflowRunId runId) {
+        if (eventStore.isResolvable()) {
+            EventStore store = eventStore.get();
+            return (afterSequence, limit) -> store.getSequencedEventsAfterVersion(runId, afterSequence, limit);
+        }
+        return (afterSequence, limit) -> historyRepository.eventsAfter(runId, afterSequence, limit);
+    }
+
     @Override
     public Uni<List<WorkflowRun>> queryRuns(
             TenantId tenantId,
@@ -314,8 +457,16 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
         return runRepository.query(tenantId, definitionId, status, page, size);
     }
 
+    @Override
+    public Uni<RunSummaryPage> queryRuns(RunQuery query) {
+        return runRepository.querySummaries(query);
+    }
+
     @Override
     public Uni<Long> getActiveRunsCount(TenantId tenantId) {
+        if (runCounters != null && runCounters.isReconciled()) {
+            return Uni.createFrom().item(runCounters.activeRuns(tenantId));
+        }
         return runRepository.countActiveRuns(tenantId);
     }
 
@@ -327,6 +478,53 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
                 .map(run -> transitionValidator.validate(run.getStatus(), targetStatus));
     }
 
+    // ==================== RUN ACCESS ====================
+
+    /**
+     * Run a state-changing command with exclusive access to the run: on the
+     * run's lane when run lanes are enabled, under the repository's row lock
+     * otherwise. A status change is counted once the command's changes are
+     * committed, which under the row lock is only when withLock completes;
+     * if the command is re-run, the last attempt's transition counts.
+     */
+    private <T> Uni<T> withRun(WorkflowRunId runId, java.util.function.Function<WorkflowRun, Uni<T>> command) {
+        if (runCounters == null) {
+            return runExclusively(runId, command);
+        }
+        return Uni.createFrom().deferred(() -> {
+            java.util.concurrent.atomic.AtomicReference<Runnable> transition =
+                    new java.util.concurrent.atomic.AtomicReference<>();
+            return runExclusively(runId, run -> {
+                RunStatus before = run.getStatus();
+                return command.apply(run).invoke(() -> {
+                    RunStatus after = run.getStatus();
+                    transition.set(() -> runCounters.onTransition(run.getTenantId(), before, after));
+                });
+            }).invoke(() -> {
+                Runnable committed = transition.get();
+                if (committed != null) {
+                    committed.run();
+                }
+            });
+        });
+    }
+
+    private <T> Uni<T> runExclusively(WorkflowRunId runId,
+            java.util.function.Function<WorkflowRun, Uni<T>> command) {
+        return runLanes != null && runLanes.isEnabled()
+                ? runLanes.execute(runId, command)
+                : runRepository.withLock(runId, command);
+    }
+
+    /**
+     * Notify orchestrators that the run changed, with the nodes touched by the
+     * committed events
+     */
+    private void publishUpdate(WorkflowRun run, List<ExecutionEvent> changes) {
+        eventBus.publish(RUN_UPDATED_ADDRESS,
+                io.vertx.core.json.JsonObject.mapFrom(RunUpdate.of(run, changes)));
+    }
+
     // ==================== TOKEN ====================
 
     @Override
@@ -369,4 +567,16 @@ public class DefaultWorkflowRunManager implements tech.kayys.gamelan.engine.work
             CallbackConfig config) {
         return callbackService.register(runId, nodeId, config);
     }
+
+    // ==================== RUN AFFINITY ====================
+
+    @Override
+    public Uni<Void> releaseRuns(Collection<WorkflowRunId> runIds) {
+        if (runLanes == null || !runLanes.isEnabled() || runIds.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return Uni.join().all(runIds.stream().map(runLanes::evict).toList())
+                .andCollectFailures()
+                .replaceWithVoid();
+    }
 }
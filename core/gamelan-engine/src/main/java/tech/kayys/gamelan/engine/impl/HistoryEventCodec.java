@@ -0,0 +1,219 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
+import tech.kayys.gamelan.engine.event.GenericExecutionEvent;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * HistoryEventCodec - compact in-memory form of history events
+ *
+ * Generic events are the bulk of the history and mostly repeat the same few
+ * strings, so they are stored as {@link CompactEvent}: event type, message
+ * and metadata keys become codes into shared intern tables, the UUID event
+ * id two longs, the timestamp two primitives and the metadata a flat array.
+ * Typed domain events are already small records and are kept as they are.
+ */
+final class HistoryEventCodec {
+
+    private static final Object[] NO_METADATA = new Object[0];
+
+    private final InternTable types = new InternTable(1024);
+    private final InternTable strings = new InternTable(4096);
+
+    Object encode(ExecutionEvent event) {
+        if (!(event instanceof GenericExecutionEvent generic)) {
+            return event;
+        }
+        long idHigh = 0;
+        long idLow = 0;
+        String rawId = generic.eventId();
+        UUID uuid = parseUuid(rawId);
+        if (uuid != null) {
+            idHigh = uuid.getMostSignificantBits();
+            idLow = uuid.getLeastSignificantBits();
+            rawId = null;
+        }
+        int typeCode = types.code(generic.eventType());
+        int messageCode = strings.code(generic.message());
+        return new CompactEvent(
+                idHigh,
+                idLow,
+                rawId,
+                typeCode,
+                typeCode < 0 ? generic.eventType() : null,
+                messageCode,
+                messageCode < 0 ? generic.message() : null,
+                generic.occurredAt() != null ? generic.occurredAt().getEpochSecond() : Long.MIN_VALUE,
+                generic.occurredAt() != null ? generic.occurredAt().getNano() : 0,
+                encodeMetadata(generic.metadata()));
+    }
+
+    ExecutionEvent decode(WorkflowRunId runId, Object entry) {
+        if (!(entry instanceof CompactEvent compact)) {
+            return (ExecutionEvent) entry;
+        }
+        return new GenericExecutionEvent(
+                compact.rawId != null ? compact.rawId : new UUID(compact.idHigh, compact.idLow).toString(),
+                runId,
+                compact.typeCode >= 0 ? types.name(compact.typeCode) : compact.rawType,
+                compact.messageCode >= 0 ? strings.name(compact.messageCode) : compact.rawMessage,
+                compact.epochSecond != Long.MIN_VALUE ? Instant.ofEpochSecond(compact.epochSecond, compact.nano) : null,
+                decodeMetadata(compact.metadata));
+    }
+
+    /**
+     * Rough retained size of an encoded entry, assuming compressed oops
+     */
+    static long estimateBytes(Object entry) {
+        if (!(entry instanceof CompactEvent compact)) {
+            // Typed event record with a UUID string id and a few references
+            return 64 + stringBytes(((ExecutionEvent) entry).eventId());
+        }
+        long bytes = 64 + stringBytes(compact.rawId) + stringBytes(compact.rawType) + stringBytes(compact.rawMessage);
+        if (compact.metadata.length > 0) {
+            bytes += 16 + 4L * compact.metadata.length;
+            for (int i = 1; i < compact.metadata.length; i += 2) {
+                bytes += valueBytes(compact.metadata[i]);
+            }
+        }
+        return bytes;
+    }
+
+    private Object[] encodeMetadata(Map<String, Object> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return NO_METADATA;
+        }
+        Object[] flat = new Object[metadata.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            flat[i++] = strings.canonical(entry.getKey());
+            flat[i++] = entry.getValue();
+        }
+        return flat;
+    }
+
+    private static Map<String, Object> decodeMetadata(Object[] flat) {
+        if (flat.length == 0) {
+            return Map.of();
+        }
+        Map<String, Object> metadata = new HashMap<>(flat.length);
+        for (int i = 0; i < flat.length; i += 2) {
+            metadata.put((String) flat[i], flat[i + 1]);
+        }
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    private static UUID parseUuid(String value) {
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            // Only keep the compact form if it prints back identically
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long stringBytes(String value) {
+        return value != null ? 40 + value.length() : 0;
+    }
+
+    private static long valueBytes(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return stringBytes(string);
+        }
+        if (value instanceof Number) {
+            return 16;
+        }
+        return 64;
+    }
+
+    record CompactEvent(
+            long idHigh,
+            long idLow,
+            String rawId,
+            int typeCode,
+            String rawType,
+            int messageCode,
+            String rawMessage,
+            long epochSecond,
+            int nano,
+            Object[] metadata) {
+    }
+
+    /**
+     * Bounded string dictionary. Once full, new strings are stored raw so
+     * high-cardinality values (error messages) cannot grow it without limit.
+     */
+    static final class InternTable {
+
+        private final int capacity;
+        private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+        private volatile String[] names = new String[64];
+        private int size;
+
+        InternTable(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * @return the code of {@code value}, -1 if it is null or the table is full
+         */
+        int code(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            synchronized (this) {
+                code = codes.get(value);
+                if (code != null) {
+                    return code;
+                }
+                if (size == capacity) {
+                    return -1;
+                }
+                String[] current = names;
+                if (size == current.length) {
+                    current = Arrays.copyOf(current, Math.min(capacity, size * 2));
+                }
+                current[size] = value;
+                // Publish the array before the code that indexes into it
+                names = current;
+                codes.put(value, size);
+                return size++;
+            }
+        }
+
+        String name(int code) {
+            return names[code];
+        }
+
+        /**
+         * The shared instance of {@code value} if it is interned, else itself
+         */
+        String canonical(String value) {
+            int code = code(value);
+            return code >= 0 ? name(code) : value;
+        }
+
+        int size() {
+            return codes.size();
+        }
+    }
+}
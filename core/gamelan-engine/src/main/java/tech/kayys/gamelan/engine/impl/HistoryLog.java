@@ -0,0 +1,163 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HistoryLog - append-only event log of one run, in fixed-size segments
+ *
+ * Appenders reserve a contiguous index range with one atomic add and write
+ * their slots without locking; segments are linked on demand with a CAS.
+ * Readers see the longest fully written prefix, so a batch that is still
+ * being written never shows up with holes.
+ */
+final class HistoryLog {
+
+    static final int SEGMENT_SIZE = 64;
+
+    private final Segment head = new Segment(0);
+    private volatile Segment tail = head;
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private volatile long terminalAtMillis = -1;
+
+    /**
+     * Append entries as one contiguous range
+     *
+     * @param bytes estimated footprint of the entries
+     */
+    void append(List<?> entries, long bytes) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        int first = reserved.getAndAdd(entries.size());
+        Segment segment = segmentFor(first);
+        for (int i = 0; i < entries.size(); i++) {
+            int index = first + i;
+            while (segment.base + SEGMENT_SIZE <= index) {
+                segment = segment.nextOrCreate();
+            }
+            segment.slots.set(index - segment.base, entries.get(i));
+        }
+        estimatedBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Entries written so far, in append order
+     */
+    List<Object> entries() {
+        int limit = reserved.get();
+        List<Object> entries = new ArrayList<>(limit);
+        for (Segment segment = head; segment != null && segment.base < limit; segment = segment.next.get()) {
+            int end = Math.min(SEGMENT_SIZE, limit - segment.base);
+            for (int i = 0; i < end; i++) {
+                Object entry = segment.slots.get(i);
+                if (entry == null) {
+                    // Reserved but not written yet
+                    return entries;
+                }
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * At most {@code limit} written entries starting at index {@code from}
+     */
+    List<Object> entries(int from, int limit) {
+        int end = (int) Math.min(reserved.get(), (long) from + limit);
+        List<Object> entries = new ArrayList<>(Math.max(0, Math.min(end - from, SEGMENT_SIZE * 4)));
+        Segment segment = head;
+        while (segment != null && segment.base + SEGMENT_SIZE <= from) {
+            segment = segment.next.get();
+        }
+        for (int index = from; segment != null && index < end; index++) {
+            if (index == segment.base + SEGMENT_SIZE) {
+                segment = segment.next.get();
+                if (segment == null) {
+                    break;
+                }
+            }
+            Object entry = segment.slots.get(index - segment.base);
+            if (entry == null) {
+                // Reserved but not written yet
+                break;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    int size() {
+        return reserved.get();
+    }
+
+    long estimatedBytes() {
+        return estimatedBytes.get() + (long) segmentCount() * Segment.OVERHEAD_BYTES;
+    }
+
+    int segmentCount() {
+        return (reserved.get() + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+    }
+
+    void markTerminal(long nowMillis) {
+        if (terminalAtMillis < 0) {
+            terminalAtMillis = nowMillis;
+        }
+    }
+
+    void clearTerminal() {
+        terminalAtMillis = -1;
+    }
+
+    boolean isTerminal() {
+        return terminalAtMillis >= 0;
+    }
+
+    long terminalAtMillis() {
+        return terminalAtMillis;
+    }
+
+    private Segment segmentFor(int index) {
+        Segment segment = tail;
+        if (segment.base > index) {
+            // Another appender already moved the hint past our range
+            segment = head;
+        }
+        while (segment.base + SEGMENT_SIZE <= index) {
+            segment = segment.nextOrCreate();
+        }
+        if (segment.base > tail.base) {
+            tail = segment;
+        }
+        return segment;
+    }
+
+    private static final class Segment {
+
+        // Object header, slot array and link, rounded
+        static final int OVERHEAD_BYTES = 64 + SEGMENT_SIZE * 4;
+
+        final int base;
+        final AtomicReferenceArray<Object> slots = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        final AtomicReference<Segment> next = new AtomicReference<>();
+
+        Segment(int base) {
+            this.base = base;
+        }
+
+        Segment nextOrCreate() {
+            Segment successor = next.get();
+            if (successor == null) {
+                Segment created = new Segment(base + SEGMENT_SIZE);
+                successor = next.compareAndSet(null, created) ? created : next.get();
+            }
+            return successor;
+        }
+    }
+}
@@ -2,25 +2,115 @@ package tech.kayys.gamelan.engine.impl;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.gamelan.engine.ExecutionEventTypes;
 import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.run.RunStatus;
 import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
 import tech.kayys.gamelan.engine.event.ExecutionEvent;
 import tech.kayys.gamelan.engine.event.GenericExecutionEvent;
+import tech.kayys.gamelan.engine.event.SequencedEvent;
+import tech.kayys.gamelan.engine.event.WorkflowCancelledEvent;
+import tech.kayys.gamelan.engine.event.WorkflowCompletedEvent;
+import tech.kayys.gamelan.engine.event.WorkflowFailedEvent;
 import tech.kayys.gamelan.engine.execution.ExecutionHistory;
 import tech.kayys.gamelan.engine.execution.ExecutionHistoryRepository;
+import tech.kayys.gamelan.engine.execution.ResultDedupIndex;
 
+/**
+ * In-memory execution history for standalone mode
+ *
+ * Each run has a {@link HistoryLog} of compactly encoded events (see
+ * {@link HistoryEventCodec}) that many threads can append to without
+ * locking. Once a run reaches a terminal status its history is kept for
+ * {@code retention.terminal-minutes}; when the estimated footprint exceeds
+ * {@code retention.max-memory-mb}, the oldest terminal runs are dropped
+ * first. Histories of active runs are never dropped.
+ */
 @ApplicationScoped
 public class InMemoryExecutionHistoryRepository implements ExecutionHistoryRepository {
 
-    private final Map<WorkflowRunId, List<ExecutionEvent>> events = new ConcurrentHashMap<>();
-    private final Set<String> processedNodeKeys = ConcurrentHashMap.newKeySet();
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryExecutionHistoryRepository.class);
+
+    private static final Set<String> TERMINAL_STATUSES = Set.of(
+            RunStatus.COMPLETED.name(),
+            RunStatus.FAILED.name(),
+            RunStatus.CANCELLED.name(),
+            RunStatus.COMPENSATED.name());
+
+    @ConfigProperty(name = "gamelan.engine.history.retention.terminal-minutes", defaultValue = "60")
+    long terminalRetentionMinutes = 60;
+
+    @ConfigProperty(name = "gamelan.engine.history.retention.max-memory-mb", defaultValue = "256")
+    long maxMemoryMb = 256;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    // Replaced by the configured index (gamelan.engine.result-dedup.type) in the container
+    @Inject
+    ResultDedupIndex resultDedupIndex = new InMemoryResultDedupIndex();
+
+    private final Map<WorkflowRunId, HistoryLog> logs = new ConcurrentHashMap<>();
+    private final HistoryEventCodec codec = new HistoryEventCodec();
+    private final ReentrantLock retentionLock = new ReentrantLock();
+    private final LongSupplier clock;
+
+    private Counter expiredRuns;
+    private Counter evictedRuns;
+
+    public InMemoryExecutionHistoryRepository() {
+        this.clock = System::currentTimeMillis;
+    }
+
+    InMemoryExecutionHistoryRepository(long terminalRetentionMinutes, long maxMemoryMb, LongSupplier clock) {
+        this.terminalRetentionMinutes = terminalRetentionMinutes;
+        this.maxMemoryMb = maxMemoryMb;
+        this.clock = clock;
+    }
+
+    @jakarta.annotation.PostConstruct
+    void initMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("gamelan.engine.history.memory.bytes", this, InMemoryExecutionHistoryRepository::estimatedBytes)
+                .description("Estimated heap held by in-memory run histories")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("gamelan.engine.history.runs", logs, Map::size)
+                .description("Runs with an in-memory history")
+                .register(meterRegistry);
+        Gauge.builder("gamelan.engine.history.events", this, InMemoryExecutionHistoryRepository::eventCount)
+                .description("Events held in memory across all runs")
+                .register(meterRegistry);
+        this.expiredRuns = Counter.builder("gamelan.engine.history.dropped.runs")
+                .description("Terminal run histories dropped by retention")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+        this.evictedRuns = Counter.builder("gamelan.engine.history.dropped.runs")
+                .description("Terminal run histories dropped by retention")
+                .tag("reason", "memory")
+                .register(meterRegistry);
+    }
 
     @Override
     public Uni<Void> append(
@@ -28,23 +118,37 @@ public class InMemoryExecutionHistoryRepository implements ExecutionHistoryRepos
             String type,
             String message,
             Map<String, Object> metadata) {
-        events.computeIfAbsent(runId, k -> new ArrayList<>())
-                .add(new GenericExecutionEvent(runId, type, message, Instant.now(), metadata));
+        record(runId, List.of(new GenericExecutionEvent(runId, type, message, Instant.now(), metadata)));
         return Uni.createFrom().voidItem();
     }
 
     @Override
     public Uni<Void> appendEvents(WorkflowRunId runId, List<ExecutionEvent> runEvents) {
-        events.computeIfAbsent(runId, k -> new ArrayList<>())
-                .addAll(runEvents);
+        record(runId, runEvents);
         return Uni.createFrom().voidItem();
     }
 
     @Override
     public Uni<ExecutionHistory> load(WorkflowRunId runId) {
-        List<ExecutionEvent> runEvents = events.getOrDefault(runId, List.of());
-        return Uni.createFrom().item(
-                ExecutionHistory.fromEvents(runId, runEvents));
+        return Uni.createFrom().item(() -> ExecutionHistory.fromEvents(runId, events(runId)));
+    }
+
+    @Override
+    public Uni<List<SequencedEvent>> eventsAfter(WorkflowRunId runId, long afterSequence, int limit) {
+        return Uni.createFrom().item(() -> {
+            HistoryLog log = logs.get(runId);
+            if (log == null || afterSequence >= log.size()) {
+                return List.of();
+            }
+            // Sequence n is the entry at index n - 1
+            List<Object> entries = log.entries((int) afterSequence, limit);
+            List<SequencedEvent> events = new ArrayList<>(entries.size());
+            long sequence = afterSequence;
+            for (Object entry : entries) {
+                events.add(new SequencedEvent(++sequence, codec.decode(runId, entry)));
+            }
+            return events;
+        });
     }
 
     @Override
@@ -52,7 +156,134 @@ public class InMemoryExecutionHistoryRepository implements ExecutionHistoryRepos
             WorkflowRunId runId,
             NodeId nodeId,
             int attempt) {
-        boolean processed = !processedNodeKeys.add(runId + ":" + nodeId.value() + ":" + attempt);
-        return Uni.createFrom().item(processed);
+        return resultDedupIndex.checkAndMark(runId, nodeId, attempt);
+    }
+
+    /**
+     * Decoded events of a run, in append order
+     */
+    List<ExecutionEvent> events(WorkflowRunId runId) {
+        HistoryLog log = logs.get(runId);
+        if (log == null) {
+            return List.of();
+        }
+        List<Object> entries = log.entries();
+        List<ExecutionEvent> events = new ArrayList<>(entries.size());
+        for (Object entry : entries) {
+            events.add(codec.decode(runId, entry));
+        }
+        return events;
+    }
+
+    long estimatedBytes() {
+        long bytes = 0;
+        for (HistoryLog log : logs.values()) {
+            bytes += log.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    long eventCount() {
+        long count = 0;
+        for (HistoryLog log : logs.values()) {
+            count += log.size();
+        }
+        return count;
+    }
+
+    /**
+     * Drop expired terminal runs, then the oldest terminal runs while the
+     * footprint is over budget
+     */
+    @Scheduled(every = "30s")
+    void enforceRetention() {
+        if (!retentionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = clock.getAsLong();
+            long expiredBefore = now - terminalRetentionMinutes * 60_000;
+            List<Map.Entry<WorkflowRunId, HistoryLog>> terminal = new ArrayList<>();
+            long bytes = 0;
+            for (Map.Entry<WorkflowRunId, HistoryLog> entry : logs.entrySet()) {
+                HistoryLog log = entry.getValue();
+                if (log.isTerminal() && log.terminalAtMillis() <= expiredBefore) {
+                    drop(entry.getKey(), log, expiredRuns);
+                    continue;
+                }
+                if (log.isTerminal()) {
+                    terminal.add(entry);
+                }
+                bytes += log.estimatedBytes();
+            }
+
+            long budget = maxMemoryMb * 1024 * 1024;
+            if (bytes <= budget) {
+                return;
+            }
+            terminal.sort(Comparator.comparingLong(entry -> entry.getValue().terminalAtMillis()));
+            for (Map.Entry<WorkflowRunId, HistoryLog> entry : terminal) {
+                if (bytes <= budget) {
+                    return;
+                }
+                bytes -= entry.getValue().estimatedBytes();
+                drop(entry.getKey(), entry.getValue(), evictedRuns);
+            }
+            if (bytes > budget) {
+                LOG.warn("In-memory history holds ~{} MB for active runs, above the {} MB budget",
+                        bytes / (1024 * 1024), maxMemoryMb);
+            }
+        } finally {
+            retentionLock.unlock();
+        }
+    }
+
+    private void record(WorkflowRunId runId, List<ExecutionEvent> runEvents) {
+        List<Object> encoded = new ArrayList<>(runEvents.size());
+        long bytes = 0;
+        Boolean terminal = null;
+        for (ExecutionEvent event : runEvents) {
+            Object entry = codec.encode(event);
+            encoded.add(entry);
+            bytes += HistoryEventCodec.estimateBytes(entry);
+            Boolean transition = terminalTransition(event);
+            if (transition != null) {
+                terminal = transition;
+            }
+        }
+
+        HistoryLog log = logs.computeIfAbsent(runId, id -> new HistoryLog());
+        log.append(encoded, bytes);
+        if (Boolean.TRUE.equals(terminal)) {
+            log.markTerminal(clock.getAsLong());
+        } else if (Boolean.FALSE.equals(terminal)) {
+            log.clearTerminal();
+        }
+    }
+
+    private void drop(WorkflowRunId runId, HistoryLog log, Counter counter) {
+        if (logs.remove(runId, log)) {
+            LOG.debug("Dropped in-memory history of run {} ({} events)", runId.value(), log.size());
+            if (counter != null) {
+                counter.increment();
+            }
+        }
+    }
+
+    /**
+     * TRUE if the event ends the run, FALSE if it moves the run back to a
+     * live status (compensation after a failure), null if neither
+     */
+    private static Boolean terminalTransition(ExecutionEvent event) {
+        return switch (event) {
+            case WorkflowCompletedEvent e -> true;
+            case WorkflowFailedEvent e -> true;
+            case WorkflowCancelledEvent e -> true;
+            case GenericExecutionEvent e when ExecutionEventTypes.RUN_COMPLETED.equals(e.eventType())
+                    || ExecutionEventTypes.RUN_FAILED.equals(e.eventType()) -> true;
+            case GenericExecutionEvent e when ExecutionEventTypes.STATUS_CHANGED.equals(e.eventType()) ->
+                TERMINAL_STATUSES.contains(e.message());
+            default -> null;
+        };
     }
-}
\ No newline at end of file
+}
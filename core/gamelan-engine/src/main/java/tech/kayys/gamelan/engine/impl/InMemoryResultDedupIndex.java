@@ -0,0 +1,140 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.gamelan.engine.execution.ResultDedupIndex;
+import tech.kayys.gamelan.engine.execution.ResultDedupKey;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * In-memory result dedup index, bounded in time and size
+ *
+ * Keys are 128-bit hashes. Entries expire {@code ttl-ms} after they were
+ * marked and the oldest are dropped once {@code max-entries} is exceeded.
+ * Eviction runs inline with {@link #checkAndMark}, in insertion order, so it
+ * costs O(1) amortized and needs no background task. Per process only: use
+ * the Redis index when several engines share results.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "gamelan.engine.result-dedup.type", stringValue = "memory", enableIfMissing = true)
+public class InMemoryResultDedupIndex implements ResultDedupIndex {
+
+    @ConfigProperty(name = "gamelan.engine.result-dedup.ttl-ms", defaultValue = "3600000")
+    long ttlMs;
+
+    @ConfigProperty(name = "gamelan.engine.result-dedup.max-entries", defaultValue = "1000000")
+    int maxEntries;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<ResultDedupKey, Long> expiries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongSupplier clock;
+
+    private Counter hits;
+    private Counter misses;
+
+    public InMemoryResultDedupIndex() {
+        this.ttlMs = 3_600_000;
+        this.maxEntries = 1_000_000;
+        this.clock = System::currentTimeMillis;
+    }
+
+    InMemoryResultDedupIndex(long ttlMs, int maxEntries, LongSupplier clock, MeterRegistry meterRegistry) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        initMetrics();
+    }
+
+    @jakarta.annotation.PostConstruct
+    void initMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        this.hits = Counter.builder("gamelan.engine.result-dedup.hits")
+                .description("Node results recognized as duplicates")
+                .tag("store", "memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("gamelan.engine.result-dedup.misses")
+                .description("Node results seen for the first time")
+                .tag("store", "memory")
+                .register(meterRegistry);
+        Gauge.builder("gamelan.engine.result-dedup.entries", expiries, Map::size)
+                .description("Entries held by the in-memory result dedup index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Uni<Boolean> checkAndMark(WorkflowRunId runId, NodeId nodeId, int attempt) {
+        return Uni.createFrom().item(() -> isDuplicate(ResultDedupKey.of(runId, nodeId, attempt)));
+    }
+
+    int size() {
+        return expiries.size();
+    }
+
+    private boolean isDuplicate(ResultDedupKey key) {
+        long now = clock.getAsLong();
+        evict(now);
+
+        long expiresAt = now + ttlMs;
+        Long previous = expiries.putIfAbsent(key, expiresAt);
+        boolean duplicate;
+        if (previous == null) {
+            duplicate = false;
+        } else if (previous <= now) {
+            // Expired but not swept yet, the caller that renews it owns the result
+            duplicate = !expiries.replace(key, previous, expiresAt);
+        } else {
+            duplicate = true;
+        }
+
+        if (!duplicate) {
+            insertionOrder.add(new Entry(key, expiresAt));
+        }
+        if (hits != null) {
+            (duplicate ? hits : misses).increment();
+        }
+        return duplicate;
+    }
+
+    private void evict(long now) {
+        // One sweeper at a time; callers that lose the race skip the sweep
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            Entry oldest;
+            while ((oldest = insertionOrder.peek()) != null
+                    && (oldest.expiresAt <= now || expiries.size() > maxEntries)) {
+                insertionOrder.poll();
+                // A renewed key carries a later expiry and stays
+                expiries.remove(oldest.key, oldest.expiresAt);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record Entry(ResultDedupKey key, long expiresAt) {
+    }
+}
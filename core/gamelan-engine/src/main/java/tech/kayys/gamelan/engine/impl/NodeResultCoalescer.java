@@ -0,0 +1,149 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import jakarta.enterprise.context.ApplicationScoped;
+import tech.kayys.gamelan.engine.node.NodeExecutionResult;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * NodeResultCoalescer - groups node results that arrive for the same run in a
+ * short burst
+ *
+ * The first result for a run opens a batch; results arriving within
+ * {@code window-ms} join it, and the batch is handed to the flush function
+ * when the window closes or {@code max-batch-size} results have joined. Each
+ * caller completes with the outcome of its own result, see
+ * DefaultWorkflowRunManager#handleNodeResults.
+ */
+@ApplicationScoped
+public class NodeResultCoalescer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NodeResultCoalescer.class);
+
+    @ConfigProperty(name = "gamelan.engine.result-coalescing.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "gamelan.engine.result-coalescing.window-ms", defaultValue = "5")
+    long windowMs;
+
+    @ConfigProperty(name = "gamelan.engine.result-coalescing.max-batch-size", defaultValue = "64")
+    int maxBatchSize;
+
+    private final Map<WorkflowRunId, Batch> openBatches = new ConcurrentHashMap<>();
+
+    public NodeResultCoalescer() {
+    }
+
+    NodeResultCoalescer(long windowMs, int maxBatchSize) {
+        this.enabled = true;
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Add a result to the run's open batch, opening one if needed. The flush
+     * function of the result that opened the batch is used for all of it.
+     */
+    public Uni<Void> submit(
+            WorkflowRunId runId,
+            NodeExecutionResult result,
+            Function<List<NodeExecutionResult>, Uni<List<Throwable>>> flush) {
+        return Uni.createFrom().emitter(emitter -> {
+            while (true) {
+                Batch batch = openBatches.computeIfAbsent(runId, id -> new Batch(id, flush));
+                boolean full;
+                synchronized (batch) {
+                    if (batch.closed) {
+                        // Flushed between lookup and lock, start the next one
+                        continue;
+                    }
+                    batch.results.add(result);
+                    batch.waiters.add(emitter);
+                    if (batch.results.size() == 1 && maxBatchSize > 1) {
+                        scheduleFlush(batch);
+                    }
+                    full = batch.results.size() >= maxBatchSize;
+                    if (full) {
+                        close(batch);
+                    }
+                }
+                if (full) {
+                    flush(batch);
+                }
+                return;
+            }
+        });
+    }
+
+    private void scheduleFlush(Batch batch) {
+        Uni.createFrom().voidItem()
+                .onItem().delayIt().by(Duration.ofMillis(windowMs))
+                .subscribe().with(ignored -> {
+                    synchronized (batch) {
+                        if (batch.closed) {
+                            return;
+                        }
+                        close(batch);
+                    }
+                    flush(batch);
+                });
+    }
+
+    // Caller holds the batch monitor
+    private void close(Batch batch) {
+        batch.closed = true;
+        openBatches.remove(batch.runId, batch);
+    }
+
+    private void flush(Batch batch) {
+        LOG.debug("Flushing {} results for run {}", batch.results.size(), batch.runId.value());
+        Uni<List<Throwable>> outcome;
+        try {
+            outcome = batch.flush.apply(batch.results);
+        } catch (RuntimeException e) {
+            outcome = Uni.createFrom().failure(e);
+        }
+        outcome.subscribe().with(
+                failures -> {
+                    for (int i = 0; i < batch.waiters.size(); i++) {
+                        Throwable failure = failures.get(i);
+                        if (failure != null) {
+                            batch.waiters.get(i).fail(failure);
+                        } else {
+                            batch.waiters.get(i).complete(null);
+                        }
+                    }
+                },
+                failure -> batch.waiters.forEach(waiter -> waiter.fail(failure)));
+    }
+
+    private static final class Batch {
+
+        final WorkflowRunId runId;
+        final Function<List<NodeExecutionResult>, Uni<List<Throwable>>> flush;
+        final List<NodeExecutionResult> results = new ArrayList<>();
+        final List<UniEmitter<? super Void>> waiters = new ArrayList<>();
+        boolean closed;
+
+        Batch(WorkflowRunId runId, Function<List<NodeExecutionResult>, Uni<List<Throwable>>> flush) {
+            this.runId = runId;
+            this.flush = flush;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.repository.WorkflowRunRepository;
+import tech.kayys.gamelan.engine.workflow.WorkflowRun;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * RunLaneExecutor - single-writer lanes for in-process run mutation
+ *
+ * Every run is hashed onto one of a fixed set of lanes. A lane is a mailbox
+ * that runs one command at a time, so commands for the same run never overlap
+ * inside this instance and don't need to queue on the run's row lock. Each lane
+ * keeps the runs it touched in a small LRU cache; a command on a cached run
+ * skips the load and rehydration entirely.
+ *
+ * Lanes are not bound to a thread: a command continues on whichever thread
+ * completes its I/O, and the next command is started from there once it
+ * finishes. Commands that complete synchronously are trampolined rather than
+ * nested.
+ *
+ * A cached run can go stale if another instance writes the same run. The
+ * event append is guarded on the run version, so such a write fails with
+ * CONCURRENCY_CONFLICT; the lane then drops the cached run and re-runs the
+ * command against a fresh load.
+ */
+@ApplicationScoped
+public class RunLaneExecutor {
+
+    @Inject
+    WorkflowRunRepository runRepository;
+
+    @ConfigProperty(name = "gamelan.engine.run-lanes.enabled", defaultValue = "false")
+    boolean enabled;
+
+    /**
+     * Number of lanes; 0 means one per available processor
+     */
+    @ConfigProperty(name = "gamelan.engine.run-lanes.count", defaultValue = "0")
+    int laneCount;
+
+    /**
+     * Hot runs kept per lane
+     */
+    @ConfigProperty(name = "gamelan.engine.run-lanes.cache-size", defaultValue = "256")
+    int cacheSize;
+
+    @ConfigProperty(name = "gamelan.engine.run-lanes.conflict-retries", defaultValue = "3")
+    int conflictRetries;
+
+    private Lane[] lanes;
+
+    public RunLaneExecutor() {
+    }
+
+    RunLaneExecutor(WorkflowRunRepository runRepository, int laneCount, int cacheSize, int conflictRetries) {
+        this.runRepository = runRepository;
+        this.enabled = true;
+        this.laneCount = laneCount;
+        this.cacheSize = cacheSize;
+        this.conflictRetries = conflictRetries;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        lanes = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            lanes[i] = new Lane(cacheSize);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Run a command against the run on its lane. The command gets exclusive
+     * access to the run until the returned Uni completes.
+     */
+    public <T> Uni<T> execute(WorkflowRunId runId, Function<WorkflowRun, Uni<T>> command) {
+        Lane lane = lanes[Math.floorMod(runId.hashCode(), lanes.length)];
+        return lane.submit(() -> Uni.createFrom().deferred(() -> lane.apply(runId, command))
+                .onFailure(RunLaneExecutor::isConcurrencyConflict)
+                .retry()
+                .atMost(conflictRetries));
+    }
+
+    /**
+     * Drop a cached run, e.g. after it was changed outside the lane
+     */
+    public Uni<Void> evict(WorkflowRunId runId) {
+        Lane lane = lanes[Math.floorMod(runId.hashCode(), lanes.length)];
+        return lane.submit(() -> {
+            lane.cache.remove(runId);
+            return Uni.createFrom().voidItem();
+        });
+    }
+
+    int cachedRuns() {
+        int total = 0;
+        for (Lane lane : lanes) {
+            total += lane.cache.size();
+        }
+        return total;
+    }
+
+    private static boolean isConcurrencyConflict(Throwable throwable) {
+        return throwable instanceof GamelanException e
+                && e.getErrorCode() == ErrorCode.CONCURRENCY_CONFLICT;
+    }
+
+    // ==================== LANE ====================
+
+    private final class Lane {
+
+        private final Queue<Task<?>> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean busy = new AtomicBoolean();
+
+        // Only touched by the task currently holding the lane
+        private final Map<WorkflowRunId, WorkflowRun> cache;
+
+        Lane(int cacheSize) {
+            this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<WorkflowRunId, WorkflowRun> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+        }
+
+        <T> Uni<T> submit(Supplier<Uni<T>> command) {
+            return Uni.createFrom().emitter(emitter -> {
+                mailbox.add(new Task<>(this, command, emitter));
+                if (busy.compareAndSet(false, true)) {
+                    drain();
+                }
+            });
+        }
+
+        /**
+         * Run queued tasks until the mailbox is empty or a task goes async. The
+         * caller must hold {@code busy}.
+         */
+        void drain() {
+            while (true) {
+                Task<?> task = mailbox.poll();
+                if (task == null) {
+                    busy.set(false);
+                    // A task may have been queued after poll() but before the release
+                    if (mailbox.isEmpty() || !busy.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                task.run();
+                if (task.handoff.compareAndSet(false, true)) {
+                    // Still in flight, its completion resumes the lane
+                    return;
+                }
+            }
+        }
+
+        <T> Uni<T> apply(WorkflowRunId runId, Function<WorkflowRun, Uni<T>> command) {
+            WorkflowRun cached = cache.get(runId);
+            Uni<WorkflowRun> load = cached != null
+                    ? Uni.createFrom().item(cached)
+                    : runRepository.findById(runId)
+                            .onItem().ifNull().failWith(() -> new NoSuchElementException(
+                                    "WorkflowRun not found: " + runId.value()));
+            // Evict on any failure, including a command that throws instead of
+            // returning a failed Uni: it may have left the run half-mutated
+            return load.flatMap(run -> command.apply(run)
+                    .invoke(result -> retain(runId, run, result)))
+                    .onFailure().invoke(() -> cache.remove(runId));
+        }
+
+        /**
+         * Keep the run hot only if the command left it fully committed and did not
+         * hand it out to the caller, who could otherwise read it while a later
+         * command mutates it. Anything else is reloaded on the next command.
+         */
+        private void retain(WorkflowRunId runId, WorkflowRun run, Object result) {
+            if (result != run && run.getUncommittedEvents().isEmpty() && !run.getStatus().isTerminal()) {
+                cache.put(runId, run);
+            } else {
+                cache.remove(runId);
+            }
+        }
+    }
+
+    private static final class Task<T> {
+
+        private final Lane lane;
+        private final Supplier<Uni<T>> command;
+        private final UniEmitter<? super T> emitter;
+        final AtomicBoolean handoff = new AtomicBoolean();
+
+        Task(Lane lane, Supplier<Uni<T>> command,
+                UniEmitter<? super T> emitter) {
+            this.lane = lane;
+            this.command = command;
+            this.emitter = emitter;
+        }
+
+        void run() {
+            Uni<T> uni;
+            try {
+                uni = command.get();
+            } catch (Throwable t) {
+                emitter.fail(t);
+                release();
+                return;
+            }
+            uni.subscribe().with(
+                    item -> {
+                        emitter.complete(item);
+                        release();
+                    },
+                    failure -> {
+                        emitter.fail(failure);
+                        release();
+                    });
+        }
+
+        /**
+         * Whichever of the drain loop and the completion comes second continues
+         * the lane
+         */
+        private void release() {
+            if (!handoff.compareAndSet(false, true)) {
+                lane.drain();
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.gamelan.engine.repository.WorkflowRunRepository;
+import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunStatusCount;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+
+/**
+ * RunStatusCounters - per-tenant run counts by status, held in memory
+ *
+ * The engine applies its own transitions as they commit, so reading a count
+ * is a map lookup. Transitions made by other engine instances, and any this
+ * instance missed, are picked up by reconciling against the repository's
+ * counters every {@code reconcile-interval}. Until the first reconciliation
+ * completes the counts are unknown and callers should ask the repository.
+ */
+@ApplicationScoped
+public class RunStatusCounters {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunStatusCounters.class);
+
+    /** Statuses counted by {@link #activeRuns(TenantId)}, as in the repository */
+    static final Set<RunStatus> ACTIVE = EnumSet.of(RunStatus.PENDING, RunStatus.RUNNING, RunStatus.SUSPENDED);
+
+    private static final RunStatus[] STATUSES = RunStatus.values();
+
+    @Inject
+    WorkflowRunRepository runRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<TenantId, AtomicLong[]> tenants = new ConcurrentHashMap<>();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private volatile boolean reconciled;
+
+    /**
+     * A run was created in {@code status}
+     */
+    void onCreated(TenantId tenantId, RunStatus status) {
+        if (status != null) {
+            counts(tenantId)[status.ordinal()].incrementAndGet();
+        }
+    }
+
+    /**
+     * A run moved from {@code from} to {@code to} and the change committed
+     */
+    void onTransition(TenantId tenantId, RunStatus from, RunStatus to) {
+        if (from == to) {
+            return;
+        }
+        AtomicLong[] counts = counts(tenantId);
+        if (from != null) {
+            counts[from.ordinal()].decrementAndGet();
+        }
+        if (to != null) {
+            counts[to.ordinal()].incrementAndGet();
+        }
+    }
+
+    /**
+     * Whether the counts have been reconciled with the repository at least once
+     */
+    boolean isReconciled() {
+        return reconciled;
+    }
+
+    long count(TenantId tenantId, RunStatus status) {
+        AtomicLong[] counts = tenants.get(tenantId);
+        // Negative only transiently, when a reconciliation overtook a local transition
+        return counts != null ? Math.max(0, counts[status.ordinal()].get()) : 0;
+    }
+
+    long activeRuns(TenantId tenantId) {
+        long active = 0;
+        for (RunStatus status : ACTIVE) {
+            active += count(tenantId, status);
+        }
+        return active;
+    }
+
+    @Scheduled(every = "${gamelan.engine.run-counters.reconcile-interval:60s}")
+    void scheduledReconcile() {
+        reconcile().subscribe().with(
+                ignored -> {
+                },
+                error -> LOG.warn("Run counter reconciliation failed: {}", error.getMessage()));
+    }
+
+    /**
+     * Replace the counts with the repository's. Transitions that commit while
+     * the repository is read can be applied twice or not at all; the next
+     * reconciliation corrects them.
+     */
+    Uni<Void> reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return Uni.createFrom().voidItem();
+        }
+        return runRepository.countRunsByStatus()
+                .invoke(this::apply)
+                .eventually(() -> reconciling.set(false))
+                .replaceWithVoid();
+    }
+
+    void apply(List<RunStatusCount> snapshot) {
+        Map<TenantId, long[]> totals = new HashMap<>();
+        for (RunStatusCount count : snapshot) {
+            long[] tenantTotals = totals.computeIfAbsent(count.tenantId(), id -> new long[STATUSES.length]);
+            tenantTotals[count.status().ordinal()] += count.count();
+        }
+        for (Map.Entry<TenantId, long[]> entry : totals.entrySet()) {
+            AtomicLong[] counts = counts(entry.getKey());
+            for (int i = 0; i < STATUSES.length; i++) {
+                counts[i].set(entry.getValue()[i]);
+            }
+        }
+        // Tenants whose runs are all gone keep their gauges, at zero
+        for (Map.Entry<TenantId, AtomicLong[]> entry : tenants.entrySet()) {
+            if (!totals.containsKey(entry.getKey())) {
+                for (AtomicLong count : entry.getValue()) {
+                    count.set(0);
+                }
+            }
+        }
+        reconciled = true;
+    }
+
+    private AtomicLong[] counts(TenantId tenantId) {
+        AtomicLong[] counts = tenants.get(tenantId);
+        if (counts != null) {
+            return counts;
+        }
+        return tenants.computeIfAbsent(tenantId, this::register);
+    }
+
+    private AtomicLong[] register(TenantId tenantId) {
+        AtomicLong[] counts = new AtomicLong[STATUSES.length];
+        for (RunStatus status : STATUSES) {
+            AtomicLong count = new AtomicLong();
+            counts[status.ordinal()] = count;
+            if (meterRegistry != null) {
+                Gauge.builder("gamelan.engine.runs", count, value -> Math.max(0, value.get()))
+                        .description("Runs per tenant and status")
+                        .tag("tenant", tenantId.value())
+                        .tag("status", status.name())
+                        .register(meterRegistry);
+            }
+        }
+        return counts;
+    }
+}
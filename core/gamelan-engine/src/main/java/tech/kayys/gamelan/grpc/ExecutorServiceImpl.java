@@ -6,11 +6,10 @@ import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import tech.kayys.gamelan.engine.workflow.WorkflowRunManager;
 import tech.kayys.gamelan.registry.ExecutorRegistry;
+import tech.kayys.gamelan.dispatcher.GrpcClientFactory;
 import tech.kayys.gamelan.grpc.v1.*;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
-import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
 
 import com.google.protobuf.Empty;
 import java.time.Instant;
@@ -28,10 +27,13 @@ public class ExecutorServiceImpl implements tech.kayys.gamelan.grpc.v1.ExecutorS
     ExecutorRegistry executorRegistry;
 
     @Inject
-    WorkflowRunManager runManager;
+    GrpcMapper mapper;
 
     @Inject
-    GrpcMapper mapper;
+    ExecutorStreams executorStreams;
+
+    @Inject
+    GrpcClientFactory grpcClientFactory;
 
     // ==================== REGISTER EXECUTOR ====================
 
@@ -67,6 +69,7 @@ public class ExecutorServiceImpl implements tech.kayys.gamelan.grpc.v1.ExecutorS
 
         LOG.info("gRPC: Unregistering executor: {}", request.getExecutorId());
         executorRegistry.unregisterExecutor(request.getExecutorId());
+        grpcClientFactory.invalidate(request.getExecutorId());
         return Uni.createFrom().item(Empty.getDefaultInstance());
     }
 
@@ -100,40 +103,23 @@ public class ExecutorServiceImpl implements tech.kayys.gamelan.grpc.v1.ExecutorS
         LOG.info("gRPC: Receiving task results stream");
 
         return results
-                .onItem().invoke(result -> {
-                    LOG.debug("Received result for task: {}", result.getTaskId());
-
-                    // Convert to domain object and handle
-                    tech.kayys.gamelan.engine.node.NodeExecutionResult domainResult = mapper.toDomainNodeResult(result);
-
-                    // Submit to run manager
-                    runManager.handleNodeResult(
-                            WorkflowRunId.of(result.getRunId()),
-                            domainResult).subscribe().with(
-                                    v -> LOG.debug("Result processed: {}", result.getTaskId()),
-                                    error -> LOG.error("Failed to process result", error));
-                })
+                .onItem().invoke(executorStreams::handleResult)
                 .collect().asList()
                 .map(list -> Empty.getDefaultInstance());
     }
 
     // ==================== EXECUTE STREAM (BIDIRECTIONAL) ====================
 
+    /**
+     * The executor's long-lived task stream: it sends credits for its free
+     * slots, acks, results and heartbeats; the engine pushes tasks while it
+     * has credits. See {@link ExecutorStreams}.
+     */
     @Override
     public Multi<EngineMessage> executeStream(Multi<ExecutorMessage> request) {
 
         LOG.info("gRPC: Starting bidirectional stream");
 
-        return request.onItem().transform(message -> {
-            if (message.hasHeartbeat()) {
-                LOG.trace("Heartbeat from executor: {}", message.getHeartbeat().getExecutorId());
-            } else if (message.hasResult()) {
-                LOG.debug("Result from executor: {}", message.getResult().getTaskId());
-            } else if (message.hasAck()) {
-                LOG.trace("Task acknowledged: {}", message.getAck().getTaskId());
-            }
-            // Returing empty/default message for now to satisfy signature
-            return EngineMessage.getDefaultInstance();
-        });
+        return executorStreams.connect(request);
     }
 }
@@ -0,0 +1,148 @@
+package tech.kayys.gamelan.grpc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.grpc.v1.EngineMessage;
+import tech.kayys.gamelan.grpc.v1.ExecutionTask;
+
+/**
+ * One executor's open ExecuteStream and its credits
+ *
+ * A task is written to the stream only while the executor has credits; the
+ * rest wait here, up to {@code maxPending}, and anything beyond that is
+ * refused so the engine sheds load instead of piling work on a busy
+ * executor. Credits come from the executor's {@link #grant} messages.
+ */
+final class ExecutorStream {
+
+    private final String executorId;
+    private final Consumer<EngineMessage> sink;
+    private final int maxPending;
+
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+    private int credits;
+    private long sent;
+    private boolean closed;
+
+    private record Pending(ExecutionTask task, CompletableFuture<Void> written) {
+    }
+
+    ExecutorStream(String executorId, Consumer<EngineMessage> sink, int maxPending) {
+        this.executorId = executorId;
+        this.sink = sink;
+        this.maxPending = maxPending;
+    }
+
+    String executorId() {
+        return executorId;
+    }
+
+    /**
+     * Send {@code task} now if there is a credit, or queue it for the next
+     * grant. Completes once the task is written to the stream, and fails if
+     * the queue is full or the stream closes first.
+     */
+    CompletionStage<Void> offer(ExecutionTask task) {
+        String refusal;
+        synchronized (this) {
+            if (closed) {
+                refusal = "Task stream to executor " + executorId + " is closed";
+            } else if (pending.isEmpty() && credits > 0) {
+                write(task);
+                return CompletableFuture.completedFuture(null);
+            } else if (pending.size() < maxPending || dropCancelled()) {
+                CompletableFuture<Void> written = new CompletableFuture<>();
+                pending.add(new Pending(task, written));
+                return written;
+            } else {
+                refusal = "Executor " + executorId + " has no credits and " + maxPending + " tasks waiting";
+            }
+        }
+        return CompletableFuture.failedFuture(
+                new GamelanException(ErrorCode.TASK_EXECUTOR_UNAVAILABLE, refusal));
+    }
+
+    /**
+     * The executor has {@code freeSlots} free slots after taking
+     * {@code receivedTasks} tasks off the stream. Tasks written since then
+     * are still on their way and use up slots already; whatever is left
+     * becomes credits, and waiting tasks go out against them.
+     */
+    void grant(int freeSlots, long receivedTasks) {
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            long inFlight = Math.max(0, sent - receivedTasks);
+            credits = (int) Math.max(0, freeSlots - inFlight);
+            while (credits > 0 && !pending.isEmpty()) {
+                Pending next = pending.poll();
+                if (next.written().isCancelled()) {
+                    // The dispatch gave up waiting; it must not use the credit
+                    continue;
+                }
+                write(next.task());
+                written.add(next.written());
+            }
+        }
+        // Completed outside the lock: callers may dispatch again from here
+        written.forEach(future -> future.complete(null));
+    }
+
+    /**
+     * Stop sending and fail the tasks still waiting for credits
+     *
+     * @return the number of waiting tasks failed
+     */
+    int close() {
+        List<Pending> dropped;
+        synchronized (this) {
+            if (closed) {
+                return 0;
+            }
+            closed = true;
+            credits = 0;
+            dropped = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (Pending task : dropped) {
+            task.written().completeExceptionally(new GamelanException(
+                    ErrorCode.TASK_EXECUTOR_UNAVAILABLE,
+                    "Task stream to executor " + executorId + " closed before task "
+                            + task.task().getTaskId() + " was sent"));
+        }
+        return dropped.size();
+    }
+
+    synchronized int credits() {
+        return credits;
+    }
+
+    synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Forget waiting tasks whose dispatch was cancelled
+     *
+     * @return whether that made room for another
+     */
+    private boolean dropCancelled() {
+        pending.removeIf(task -> task.written().isCancelled());
+        return pending.size() < maxPending;
+    }
+
+    private void write(ExecutionTask task) {
+        credits--;
+        sent++;
+        sink.accept(EngineMessage.newBuilder().setTask(task).build());
+    }
+}
@@ -0,0 +1,247 @@
+package tech.kayys.gamelan.grpc;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.executor.ExecutorInfo;
+import tech.kayys.gamelan.engine.node.NodeExecutionResult;
+import tech.kayys.gamelan.engine.protocol.CommunicationType;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunManager;
+import tech.kayys.gamelan.grpc.v1.CreditGrant;
+import tech.kayys.gamelan.grpc.v1.EngineMessage;
+import tech.kayys.gamelan.grpc.v1.ExecutionTask;
+import tech.kayys.gamelan.grpc.v1.ExecutorMessage;
+import tech.kayys.gamelan.grpc.v1.TaskResult;
+import tech.kayys.gamelan.registry.ExecutorRegistry;
+
+/**
+ * Executors' open ExecuteStreams
+ *
+ * An executor keeps one ExecuteStream open and the engine pushes tasks down
+ * it, as many as the executor's credits allow. The executor's first
+ * {@link CreditGrant} names it, and its stream opens here once the registry
+ * confirms a gRPC executor by that id; a later grant naming another executor
+ * ends the stream. Acks, results and heartbeats come back on the same stream.
+ */
+@ApplicationScoped
+public class ExecutorStreams {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutorStreams.class);
+
+    @Inject
+    ExecutorRegistry executorRegistry;
+
+    @Inject
+    WorkflowRunManager runManager;
+
+    @Inject
+    GrpcMapper mapper;
+
+    /**
+     * Tasks held per executor while it has no credits, before dispatches fail
+     */
+    @ConfigProperty(name = "gamelan.grpc.stream.max-pending", defaultValue = "256")
+    int maxPending;
+
+    private final Map<String, ExecutorStream> streams = new ConcurrentHashMap<>();
+
+    /**
+     * Whether {@code executorId} has a task stream open to this instance
+     */
+    public boolean isConnected(String executorId) {
+        return streams.containsKey(executorId);
+    }
+
+    /**
+     * Push {@code task} to the executor's stream. Completes once it is
+     * written, which may wait for the executor to free a slot.
+     */
+    public Uni<Void> push(String executorId, ExecutionTask task) {
+        ExecutorStream stream = streams.get(executorId);
+        if (stream == null) {
+            return Uni.createFrom().failure(new GamelanException(
+                    ErrorCode.TASK_EXECUTOR_UNAVAILABLE,
+                    "No task stream open for executor " + executorId));
+        }
+        return Uni.createFrom().completionStage(() -> stream.offer(task));
+    }
+
+    /**
+     * Serve one executor's ExecuteStream
+     */
+    public Multi<EngineMessage> connect(Multi<ExecutorMessage> messages) {
+        return Multi.createFrom().emitter(emitter -> {
+            Session session = new Session();
+            Cancellable upstream = messages.subscribe().with(
+                    message -> onMessage(message, session, emitter),
+                    error -> {
+                        LOG.warn("Task stream failed: {}", error.getMessage());
+                        close(session.end());
+                        emitter.fail(error);
+                    },
+                    () -> {
+                        close(session.end());
+                        emitter.complete();
+                    });
+            emitter.onTermination(() -> {
+                upstream.cancel();
+                close(session.end());
+            });
+        });
+    }
+
+    /**
+     * Hand a reported result to the run manager
+     */
+    public void handleResult(TaskResult result) {
+        LOG.debug("Received result for task: {}", result.getTaskId());
+
+        NodeExecutionResult domainResult = mapper.toDomainNodeResult(result);
+
+        runManager.handleNodeResult(
+                WorkflowRunId.of(result.getRunId()),
+                domainResult).subscribe().with(
+                        v -> LOG.debug("Result processed: {}", result.getTaskId()),
+                        error -> LOG.error("Failed to process result", error));
+    }
+
+    private void onMessage(ExecutorMessage message, Session session,
+            MultiEmitter<? super EngineMessage> emitter) {
+
+        switch (message.getMessageCase()) {
+            case CREDIT -> onCredit(message.getCredit(), session, emitter);
+            case RESULT -> handleResult(message.getResult());
+            case ACK -> LOG.trace("Task acknowledged: {}", message.getAck().getTaskId());
+            case HEARTBEAT -> executorRegistry.heartbeat(message.getHeartbeat().getExecutorId())
+                    .subscribe().with(
+                            v -> {
+                            },
+                            error -> LOG.warn("Heartbeat failed for executor {}: {}",
+                                    message.getHeartbeat().getExecutorId(), error.getMessage()));
+            default -> LOG.debug("Ignoring empty executor message");
+        }
+    }
+
+    private void onCredit(CreditGrant credit, Session session, MultiEmitter<? super EngineMessage> emitter) {
+        String executorId = credit.getExecutorId();
+        ExecutorStream stream;
+        synchronized (session) {
+            if (session.executorId == null) {
+                session.executorId = executorId;
+                session.latest = credit;
+                verify(executorId, session, emitter);
+                return;
+            }
+            if (!session.executorId.equals(executorId)) {
+                reject(emitter, "Task stream of executor " + session.executorId
+                        + " received credits for executor " + executorId);
+                return;
+            }
+            if (session.stream == null) {
+                // Still being verified; grants are absolute, so the latest is enough
+                session.latest = credit;
+                return;
+            }
+            stream = session.stream;
+        }
+        grant(stream, credit);
+    }
+
+    /**
+     * Open the session's stream once the registry knows {@code executorId}
+     * as a gRPC executor, applying the latest grant received meanwhile
+     */
+    private void verify(String executorId, Session session, MultiEmitter<? super EngineMessage> emitter) {
+        executorRegistry.getExecutorById(executorId).subscribe().with(
+                found -> {
+                    Optional<ExecutorInfo> executor = found.filter(
+                            info -> info.communicationType() == CommunicationType.GRPC);
+                    if (executor.isEmpty()) {
+                        reject(emitter, "Executor " + executorId + " is not registered for gRPC");
+                        return;
+                    }
+                    ExecutorStream stream;
+                    CreditGrant latest;
+                    synchronized (session) {
+                        if (session.ended) {
+                            return;
+                        }
+                        stream = open(executorId, emitter);
+                        session.stream = stream;
+                        latest = session.latest;
+                        session.latest = null;
+                    }
+                    grant(stream, latest);
+                },
+                error -> {
+                    LOG.warn("Could not verify executor {}: {}", executorId, error.getMessage());
+                    emitter.fail(error);
+                });
+    }
+
+    private void grant(ExecutorStream stream, CreditGrant credit) {
+        LOG.trace("Executor {} has {} free slots, received {} tasks",
+                stream.executorId(), credit.getFreeSlots(), credit.getReceivedTasks());
+        stream.grant(credit.getFreeSlots(), credit.getReceivedTasks());
+    }
+
+    private void reject(MultiEmitter<? super EngineMessage> emitter, String reason) {
+        LOG.warn("Closing task stream: {}", reason);
+        emitter.fail(new GamelanException(ErrorCode.DISPATCHER_INVALID_REQUEST, reason));
+    }
+
+    private ExecutorStream open(String executorId, MultiEmitter<? super EngineMessage> emitter) {
+        ExecutorStream stream = new ExecutorStream(executorId, emitter::emit, maxPending);
+        ExecutorStream previous = streams.put(executorId, stream);
+        if (previous != null) {
+            LOG.info("Executor {} reconnected, replacing its previous task stream", executorId);
+            previous.close();
+        } else {
+            LOG.info("Task stream opened for executor {}", executorId);
+        }
+        return stream;
+    }
+
+    private void close(ExecutorStream stream) {
+        if (stream == null) {
+            return;
+        }
+        streams.remove(stream.executorId(), stream);
+        int dropped = stream.close();
+        if (dropped > 0) {
+            LOG.warn("Task stream to executor {} closed with {} tasks still waiting for credits",
+                    stream.executorId(), dropped);
+        }
+    }
+
+    /**
+     * One ExecuteStream: the executor its first grant named, and its stream
+     * once the registry has confirmed it
+     */
+    private static final class Session {
+
+        String executorId;
+        CreditGrant latest;
+        ExecutorStream stream;
+        boolean ended;
+
+        synchronized ExecutorStream end() {
+            ended = true;
+            return stream;
+        }
+    }
+}
@@ -18,9 +18,12 @@ import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
 import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
 import tech.kayys.gamelan.engine.error.ErrorCode;
 import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.execution.HistoryQuery;
+import tech.kayys.gamelan.engine.run.RunQuery;
 
 import java.time.Instant;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * ============================================================================
@@ -188,11 +191,49 @@ public class WorkflowServiceImpl implements WorkflowService {
                 TenantId tenantId = TenantId.of(request.getTenantId());
                 WorkflowRunId runId = WorkflowRunId.of(request.getRunId());
 
-                return runManager.getExecutionHistory(runId, tenantId)
+                if (request.getPageSize() == 0 && request.getAfterSequence() == 0
+                                && request.getEventTypesCount() == 0 && !request.hasFrom() && !request.hasTo()) {
+                        // Legacy call without cursor: the whole history
+                        return runManager.getExecutionHistory(runId, tenantId)
+                                        .map(mapper::toProtoHistoryResponse)
+                                        .onFailure().transform(this::mapException);
+                }
+
+                return Uni.createFrom().item(() -> toHistoryQuery(request))
+                                .flatMap(query -> runManager.getExecutionHistoryPage(runId, tenantId, query))
                                 .map(mapper::toProtoHistoryResponse)
                                 .onFailure().transform(this::mapException);
         }
 
+        // ==================== STREAM EXECUTION HISTORY (SERVER STREAMING)
+        // ====================
+
+        @Override
+        public Multi<tech.kayys.gamelan.grpc.v1.ExecutionEvent> streamExecutionHistory(
+                        GetExecutionHistoryRequest request) {
+
+                LOG.debug("gRPC: Streaming execution history for run: {} after {}",
+                                request.getRunId(), request.getAfterSequence());
+
+                TenantId tenantId = TenantId.of(request.getTenantId());
+                WorkflowRunId runId = WorkflowRunId.of(request.getRunId());
+
+                // Pages are read as the client requests more, flow control bounds what is buffered
+                return Multi.createFrom().deferred(() -> runManager.streamExecutionHistory(
+                                runId, tenantId, toHistoryQuery(request)))
+                                .map(mapper::toProtoExecutionEvent)
+                                .onFailure().transform(this::mapException);
+        }
+
+        private HistoryQuery toHistoryQuery(GetExecutionHistoryRequest request) {
+                return new HistoryQuery(
+                                request.getAfterSequence(),
+                                Set.copyOf(request.getEventTypesList()),
+                                request.hasFrom() ? mapper.toInstant(request.getFrom()) : null,
+                                request.hasTo() ? mapper.toInstant(request.getTo()) : null,
+                                request.getPageSize());
+        }
+
         // ==================== QUERY RUNS ====================
 
         @Override
@@ -208,6 +249,14 @@ public class WorkflowServiceImpl implements WorkflowService {
                                 ? tech.kayys.gamelan.engine.run.RunStatus.valueOf(request.getStatus())
                                 : null;
 
+                if (!request.getCursor().isEmpty() || request.getLimit() > 0) {
+                        return Uni.createFrom().item(() -> RunQuery.of(
+                                        tenantId, definitionId, status, request.getCursor(), request.getLimit()))
+                                        .flatMap(runManager::queryRuns)
+                                        .map(mapper::toProtoQueryRunsResponse)
+                                        .onFailure().transform(this::mapException);
+                }
+
                 return runManager.queryRuns(
                                 tenantId,
                                 definitionId,
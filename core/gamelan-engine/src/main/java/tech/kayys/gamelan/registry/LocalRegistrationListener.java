@@ -6,6 +6,8 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import tech.kayys.gamelan.engine.executor.ExecutorInfo;
+import tech.kayys.gamelan.engine.protocol.LocalMessageCodecs;
 
 /**
  * Listens for local executor registration events via Vert.x EventBus.
@@ -28,11 +30,11 @@ public class LocalRegistrationListener {
         @jakarta.annotation.PostConstruct
         void init() {
                 LOG.info("Initializing LocalRegistrationListener");
+                LocalMessageCodecs.register(eventBus.getDelegate());
 
-                eventBus.<io.vertx.core.json.JsonObject>consumer(TOPIC_REGISTER)
+                eventBus.<ExecutorInfo>consumer(TOPIC_REGISTER)
                                 .handler(msg -> {
-                                        tech.kayys.gamelan.engine.executor.ExecutorInfo info = msg.body()
-                                                        .mapTo(tech.kayys.gamelan.engine.executor.ExecutorInfo.class);
+                                        ExecutorInfo info = msg.body();
                                         LOG.info("Received local registration request for: {}", info.executorId());
                                         executorRegistry.registerExecutor(info).subscribe().with(
                                                         v -> LOG.info("Local executor registered: {}",
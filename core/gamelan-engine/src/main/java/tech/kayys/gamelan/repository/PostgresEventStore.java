@@ -1,28 +1,38 @@
 package tech.kayys.gamelan.repository;
 
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.sqlclient.Pool;
 import io.vertx.mutiny.sqlclient.Row;
-import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlClient;
 import io.vertx.mutiny.sqlclient.Tuple;
+import io.vertx.pgclient.PgException;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.GamelanException;
 import tech.kayys.gamelan.engine.event.EventStore;
 import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+import tech.kayys.gamelan.engine.event.CompensationCompletedEvent;
+import tech.kayys.gamelan.engine.event.CompensationFailedEvent;
+import tech.kayys.gamelan.engine.event.CompensationStartedEvent;
 import tech.kayys.gamelan.engine.event.ExecutionEvent;
+import tech.kayys.gamelan.engine.event.NodeCompensatedEvent;
 import tech.kayys.gamelan.engine.event.NodeCompletedEvent;
 import tech.kayys.gamelan.engine.event.NodeFailedEvent;
 import tech.kayys.gamelan.engine.event.NodeScheduledEvent;
 import tech.kayys.gamelan.engine.event.NodeStartedEvent;
+import tech.kayys.gamelan.engine.event.SequencedEvent;
 import tech.kayys.gamelan.engine.event.WorkflowCancelledEvent;
 import tech.kayys.gamelan.engine.event.WorkflowCompletedEvent;
 import tech.kayys.gamelan.engine.event.WorkflowFailedEvent;
@@ -36,139 +46,200 @@ public class PostgresEventStore implements EventStore {
 
     private static final Logger LOG = LoggerFactory.getLogger(PostgresEventStore.class);
 
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final String APPEND_EVENTS_SQL = """
+            INSERT INTO workflow_events
+            (event_id, run_id, tenant_id, event_type, sequence_number, event_data, occurred_at, run_created_at)
+            SELECT e.event_id, $1, e.tenant_id, e.event_type, e.sequence_number, e.event_data::jsonb, e.occurred_at,
+                $9::timestamptz
+            FROM UNNEST($3::varchar[], $4::varchar[], $5::varchar[], $6::bigint[], $7::text[], $8::timestamptz[])
+                AS e(event_id, tenant_id, event_type, sequence_number, event_data, occurred_at)
+            WHERE (SELECT COALESCE(MAX(sequence_number), 0) FROM workflow_events
+                   WHERE run_id = $1%s) = $2
+            """;
+
+    private static final String EVENT_COLUMNS = """
+            SELECT event_id, event_type, sequence_number, event_data, occurred_at
+            FROM workflow_events
+            WHERE run_id = $1""";
+
     @Inject
     Pool pgPool;
 
     @Inject
     ObjectMapper objectMapper;
 
+    /**
+     * Append all events in a single statement. The event rows are passed as
+     * parallel arrays and expanded server-side with UNNEST, so a burst costs one
+     * round trip regardless of its size.
+     *
+     * The insert only happens if the stream is still at {@code expectedVersion};
+     * a writer that raced past that check trips the uk_event_run_sequence
+     * constraint instead. Both cases surface as CONCURRENCY_CONFLICT.
+     */
     @Override
     public Uni<Void> appendEvents(
             WorkflowRunId runId,
             List<ExecutionEvent> events,
             long expectedVersion) {
+        return appendEvents(pgPool, runId, events, expectedVersion);
+    }
+
+    /**
+     * Append on the given client, so callers can include the append in a
+     * transaction of their own
+     */
+    Uni<Void> appendEvents(
+            SqlClient client,
+            WorkflowRunId runId,
+            List<ExecutionEvent> events,
+            long expectedVersion) {
 
         if (events.isEmpty()) {
             return Uni.createFrom().voidItem();
         }
 
-        String sql = """
-                INSERT INTO workflow_events
-                (event_id, run_id, tenant_id, event_type, sequence_number, event_data, occurred_at)
-                VALUES ($1, $2, $3, $4, $5, $6, $7)
-                """;
+        int size = events.size();
+        String[] eventIds = new String[size];
+        String[] tenantIds = new String[size];
+        String[] eventTypes = new String[size];
+        Long[] sequenceNumbers = new Long[size];
+        String[] eventData = new String[size];
+        OffsetDateTime[] occurredAt = new OffsetDateTime[size];
 
-        List<Uni<RowSet<Row>>> batch = new ArrayList<>();
-        for (int i = 0; i < events.size(); i++) {
+        for (int i = 0; i < size; i++) {
             ExecutionEvent event = events.get(i);
+            eventIds[i] = event.eventId();
+            tenantIds[i] = extractTenantId(event);
+            eventTypes[i] = event.eventType();
+            sequenceNumbers[i] = expectedVersion + i + 1;
             try {
-                Map<String, Object> eventData = objectMapper.convertValue(
-                        event,
-                        new com.fasterxml.jackson.core.type.TypeReference<>() {
-                        });
-
-                batch.add(pgPool.preparedQuery(sql)
-                        .execute(Tuple.tuple()
-                                .addValue(event.eventId())
-                                .addValue(runId.value())
-                                .addValue(extractTenantId(event))
-                                .addValue(event.eventType())
-                                .addValue(expectedVersion + i + 1)
-                                .addValue(objectMapper.writeValueAsString(eventData))
-                                .addValue(event.occurredAt())));
-            } catch (Exception e) {
-                return Uni.createFrom().failure(e);
+                eventData[i] = objectMapper.writeValueAsString(event);
+            } catch (JsonProcessingException e) {
+                return Uni.createFrom().failure(new GamelanException(
+                        ErrorCode.STORAGE_SERIALIZATION_FAILED,
+                        "Failed to serialize event " + event.eventType() + " for run: " + runId.value(),
+                        e));
             }
+            occurredAt[i] = event.occurredAt().atOffset(ZoneOffset.UTC);
         }
 
-        return Uni.join().all(batch)
-                .andFailFast()
-                .replaceWithVoid()
+        // Every event of a run carries the run's partition key; the version check
+        // is pruned to the run's partition when the key is known
+        String sql = APPEND_EVENTS_SQL.formatted(
+                RunPartitioning.key(runId) != null ? " AND run_created_at = $9" : "");
+        return client.preparedQuery(sql)
+                .execute(Tuple.of(runId.value(), expectedVersion)
+                        .addArrayOfString(eventIds)
+                        .addArrayOfString(tenantIds)
+                        .addArrayOfString(eventTypes)
+                        .addArrayOfLong(sequenceNumbers)
+                        .addArrayOfString(eventData)
+                        .addArrayOfOffsetDateTime(occurredAt)
+                        .addOffsetDateTime(RunPartitioning.storedKey(runId)))
+                .onFailure(PgException.class)
+                .transform(failure -> UNIQUE_VIOLATION.equals(((PgException) failure).getSqlState())
+                        ? versionConflict(runId, expectedVersion, failure)
+                        : failure)
+                .flatMap(rows -> rows.rowCount() == size
+                        ? Uni.createFrom().voidItem()
+                        : Uni.createFrom().failure(versionConflict(runId, expectedVersion, null)))
                 .onFailure()
                 .invoke(throwable -> LOG.error("Failed to append events for run: {}", runId.value(), throwable));
     }
 
+    private static GamelanException versionConflict(WorkflowRunId runId, long expectedVersion, Throwable cause) {
+        return new GamelanException(
+                ErrorCode.CONCURRENCY_CONFLICT,
+                "Event stream of run " + runId.value() + " is no longer at version " + expectedVersion,
+                cause);
+    }
+
     @Override
     public Uni<List<ExecutionEvent>> getEvents(WorkflowRunId runId) {
-        String sql = """
-                SELECT event_id, event_type, event_data, occurred_at
-                FROM workflow_events
-                WHERE run_id = $1
-                ORDER BY sequence_number ASC
-                """;
-
-        return pgPool.preparedQuery(sql)
-                .execute(Tuple.of(runId.value()))
-                .map(rows -> {
-                    List<ExecutionEvent> events = new ArrayList<>();
-                    for (Row row : rows) {
-                        try {
-                            ExecutionEvent event = deserializeEvent(
-                                    row.getString("event_type"),
-                                    row.getString("event_data"));
-                            events.add(event);
-                        } catch (Exception e) {
-                            LOG.error("Failed to deserialize event", e);
-                        }
-                    }
-                    return events;
-                });
+        Tuple params = Tuple.of(runId.value());
+        return readEvents(EVENT_COLUMNS + RunPartitioning.predicate("run_created_at", runId, params)
+                + " ORDER BY sequence_number ASC", params);
     }
 
     @Override
     public Uni<List<ExecutionEvent>> getEventsAfterVersion(
             WorkflowRunId runId,
             long afterVersion) {
+        Tuple params = Tuple.of(runId.value(), afterVersion);
+        return readEvents(EVENT_COLUMNS + " AND sequence_number > $2"
+                + RunPartitioning.predicate("run_created_at", runId, params)
+                + " ORDER BY sequence_number ASC", params);
+    }
 
-        String sql = """
-                SELECT event_id, event_type, event_data, occurred_at
-                FROM workflow_events
-                WHERE run_id = $1 AND sequence_number > $2
-                ORDER BY sequence_number ASC
-                """;
+    @Override
+    public Uni<List<SequencedEvent>> getSequencedEventsAfterVersion(
+            WorkflowRunId runId,
+            long afterVersion) {
+        Tuple params = Tuple.of(runId.value(), afterVersion);
+        return readSequencedEvents(EVENT_COLUMNS + " AND sequence_number > $2"
+                + RunPartitioning.predicate("run_created_at", runId, params)
+                + " ORDER BY sequence_number ASC", params);
+    }
 
-        return pgPool.preparedQuery(sql)
-                .execute(Tuple.of(runId.value(), afterVersion))
-                .map(rows -> {
-                    List<ExecutionEvent> events = new ArrayList<>();
-                    for (Row row : rows) {
-                        try {
-                            ExecutionEvent event = deserializeEvent(
-                                    row.getString("event_type"),
-                                    row.getString("event_data"));
-                            events.add(event);
-                        } catch (Exception e) {
-                            LOG.error("Failed to deserialize event", e);
-                        }
-                    }
-                    return events;
-                });
+    @Override
+    public Uni<List<ExecutionEvent>> getEventsAfterVersion(
+            WorkflowRunId runId,
+            long afterVersion,
+            int limit) {
+        return getSequencedEventsAfterVersion(runId, afterVersion, limit)
+                .map(events -> events.stream().map(SequencedEvent::event).toList());
+    }
+
+    @Override
+    public Uni<List<SequencedEvent>> getSequencedEventsAfterVersion(
+            WorkflowRunId runId,
+            long afterVersion,
+            int limit) {
+        Tuple params = Tuple.of(runId.value(), afterVersion);
+        String filter = RunPartitioning.predicate("run_created_at", runId, params);
+        params.addInteger(limit);
+        return readSequencedEvents(EVENT_COLUMNS + " AND sequence_number > $2" + filter
+                + " ORDER BY sequence_number ASC LIMIT $" + params.size(), params);
     }
 
     @Override
     public Uni<List<ExecutionEvent>> getEventsByType(
             WorkflowRunId runId,
             String eventType) {
+        Tuple params = Tuple.of(runId.value(), eventType);
+        return readEvents(EVENT_COLUMNS + " AND event_type = $2"
+                + RunPartitioning.predicate("run_created_at", runId, params)
+                + " ORDER BY sequence_number ASC", params);
+    }
 
-        String sql = """
-                SELECT event_id, event_type, event_data, occurred_at
-                FROM workflow_events
-                WHERE run_id = $1 AND event_type = $2
-                ORDER BY sequence_number ASC
-                """;
+    private Uni<List<ExecutionEvent>> readEvents(String sql, Tuple params) {
+        return readSequencedEvents(sql, params)
+                .map(events -> events.stream().map(SequencedEvent::event).toList());
+    }
 
+    /**
+     * Read event rows in order. A row that cannot be deserialized fails the
+     * read: replaying around a hole in the stream would rebuild the wrong state.
+     */
+    private Uni<List<SequencedEvent>> readSequencedEvents(String sql, Tuple params) {
         return pgPool.preparedQuery(sql)
-                .execute(Tuple.of(runId.value(), eventType))
+                .execute(params)
                 .map(rows -> {
-                    List<ExecutionEvent> events = new ArrayList<>();
+                    List<SequencedEvent> events = new ArrayList<>(rows.size());
                     for (Row row : rows) {
+                        String eventType = row.getString("event_type");
                         try {
-                            ExecutionEvent event = deserializeEvent(
-                                    row.getString("event_type"),
-                                    row.getString("event_data"));
-                            events.add(event);
+                            ExecutionEvent event = deserializeEvent(eventType, row.getString("event_data"));
+                            events.add(new SequencedEvent(row.getLong("sequence_number"), event));
                         } catch (Exception e) {
-                            LOG.error("Failed to deserialize event", e);
+                            throw new GamelanException(
+                                    ErrorCode.STORAGE_SERIALIZATION_FAILED,
+                                    "Failed to deserialize " + eventType + " event " + row.getString("event_id")
+                                            + " at sequence " + row.getLong("sequence_number"),
+                                    e);
                         }
                     }
                     return events;
@@ -203,6 +274,10 @@ public class PostgresEventStore implements EventStore {
             case "WorkflowCompleted" -> WorkflowCompletedEvent.class;
             case "WorkflowFailed" -> WorkflowFailedEvent.class;
             case "WorkflowCancelled" -> WorkflowCancelledEvent.class;
+            case "CompensationStarted" -> CompensationStartedEvent.class;
+            case "NodeCompensated" -> NodeCompensatedEvent.class;
+            case "CompensationCompleted" -> CompensationCompletedEvent.class;
+            case "CompensationFailed" -> CompensationFailedEvent.class;
             default -> throw new IllegalArgumentException("Unknown event type: " + eventType);
         };
     }
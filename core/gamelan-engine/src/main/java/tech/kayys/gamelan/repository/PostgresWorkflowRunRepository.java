@@ -1,40 +1,73 @@
 package tech.kayys.gamelan.repository;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.hibernate.reactive.panache.PanacheQuery;
 import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
 import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
 import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlConnection;
 import io.vertx.mutiny.sqlclient.Tuple;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.persistence.LockModeType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import tech.kayys.gamelan.core.workflow.WorkflowDefinitionRegistry;
 import tech.kayys.gamelan.domain.WorkflowRunEntity;
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.ErrorInfo;
+import tech.kayys.gamelan.engine.error.ErrorSnapshot;
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
+import tech.kayys.gamelan.engine.event.SequencedEvent;
+import tech.kayys.gamelan.engine.node.NodeExecution;
 import tech.kayys.gamelan.engine.node.NodeExecutionSnapshot;
+import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
+import tech.kayys.gamelan.engine.node.NodeId;
 import tech.kayys.gamelan.engine.callback.CallbackRegistration;
 import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.run.RunQuery;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunStatusCount;
+import tech.kayys.gamelan.engine.run.RunSummary;
+import tech.kayys.gamelan.engine.run.RunSummaryPage;
 import tech.kayys.gamelan.engine.tenant.TenantId;
+import tech.kayys.gamelan.engine.workflow.CompiledWorkflowPlan;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
 import tech.kayys.gamelan.engine.workflow.WorkflowRun;
 import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
 import tech.kayys.gamelan.engine.workflow.WorkflowRunSnapshot;
 import tech.kayys.gamelan.engine.repository.WorkflowRunRepository;
 
+/**
+ * Event-sourced workflow run repository.
+ *
+ * The workflow_events table is the source of truth; the workflow_runs row is a
+ * queryable projection that also carries a periodic snapshot of the full run
+ * state. Loading a run reads the snapshot and replays only the events recorded
+ * after it, so load time is bounded by the snapshot interval instead of the
+ * length of the run's history.
+ */
 @ApplicationScoped
 @io.quarkus.arc.properties.IfBuildProperty(name = "quarkus.datasource.db-kind", stringValue = "postgresql")
 public class PostgresWorkflowRunRepository implements WorkflowRunRepository,
@@ -42,17 +75,103 @@ public class PostgresWorkflowRunRepository implements WorkflowRunRepository,
 
         private static final Logger LOG = LoggerFactory.getLogger(PostgresWorkflowRunRepository.class);
 
+        private static final String UPDATE_PROJECTION_SQL = """
+                        UPDATE workflow_runs
+                        SET status = $3, started_at = $4, completed_at = $5, last_updated_at = $6, version = $7
+                        WHERE run_id = $1 AND version = $2
+                        """;
+
+        private static final String UPDATE_WITH_SNAPSHOT_SQL = """
+                        UPDATE workflow_runs
+                        SET status = $3, started_at = $4, completed_at = $5, last_updated_at = $6, version = $7,
+                            context_variables = $8::jsonb, node_executions = $9::jsonb, execution_path = $10::jsonb,
+                            snapshot_status = $11, snapshot_suspension = $12::jsonb, snapshot_signals = $13::jsonb,
+                            snapshot_compensation = $14::jsonb,
+                            snapshot_sequence = $7
+                        WHERE run_id = $1 AND version = $2
+                        """;
+
+        private static final String INSERT_RUN_SQL = """
+                        INSERT INTO workflow_runs
+                        (run_id, tenant_id, definition_id, definition_version, created_at, status, started_at,
+                         completed_at, last_updated_at, version, context_variables, node_executions, execution_path,
+                         snapshot_status, snapshot_suspension, snapshot_signals, snapshot_compensation,
+                         snapshot_sequence)
+                        VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11::jsonb, $12::jsonb, $13::jsonb,
+                                $14, $15::jsonb, $16::jsonb, $17::jsonb, $10)
+                        """;
+
+        private static final String LOCK_RUN_SQL = "SELECT 1 FROM workflow_runs WHERE run_id = $1";
+
+        // Runs locked by a command on this instance, by run id
+        private final Map<String, LockScope> lockScopes = new ConcurrentHashMap<>();
+
         @Inject
         ObjectMapper objectMapper;
 
         @Inject
         Pool pgPool;
 
+        @Inject
+        PostgresEventStore eventStore;
+
+        @Inject
+        WorkflowDefinitionRegistry definitionRegistry;
+
+        /**
+         * Number of events after which the full run state is written again
+         */
+        @ConfigProperty(name = "gamelan.persistence.snapshot-interval", defaultValue = "100")
+        int snapshotInterval;
+
+        @ConfigProperty(name = "gamelan.persistence.locking", defaultValue = "PESSIMISTIC")
+        RunLockingStrategy lockingStrategy;
+
+        @ConfigProperty(name = "gamelan.persistence.optimistic.max-retries", defaultValue = "10")
+        int optimisticMaxRetries;
+
+        @ConfigProperty(name = "gamelan.persistence.optimistic.initial-backoff-ms", defaultValue = "5")
+        long optimisticInitialBackoffMs;
+
+        @ConfigProperty(name = "gamelan.persistence.optimistic.max-backoff-ms", defaultValue = "200")
+        long optimisticMaxBackoffMs;
+
+        /**
+         * Insert the run row and its first events in one transaction
+         */
         @Override
         public Uni<WorkflowRun> persist(WorkflowRun run) {
-                WorkflowRunEntity entity = toEntity(run);
-                return persist(entity)
-                                .map(saved -> run)
+                List<ExecutionEvent> events = List.copyOf(run.getUncommittedEvents());
+                long newVersion = run.getVersion() + events.size();
+                WorkflowRunSnapshot snapshot = run.createSnapshot();
+                Tuple params = Tuple.tuple()
+                                .addValue(run.getId().value())
+                                .addValue(run.getTenantId().value())
+                                .addValue(run.getDefinitionId().value())
+                                .addValue(run.getDefinition().version())
+                                .addValue(toOffsetDateTime(run.getCreatedAt()))
+                                .addValue(run.getStatus().name())
+                                .addValue(toOffsetDateTime(run.getStartedAt()))
+                                .addValue(toOffsetDateTime(run.getCompletedAt()))
+                                .addValue(toOffsetDateTime(run.getLastUpdatedAt()))
+                                .addValue(newVersion);
+                try {
+                        params.addValue(objectMapper.writeValueAsString(snapshot.variables()))
+                                        .addValue(objectMapper.writeValueAsString(toNodeSnapshots(snapshot)))
+                                        .addValue(objectMapper.writeValueAsString(snapshot.executionPath()))
+                                        .addValue(snapshot.status().name())
+                                        .addValue(objectMapper.writeValueAsString(snapshot.suspensionInfo()))
+                                        .addValue(objectMapper.writeValueAsString(snapshot.pendingSignals()))
+                                        .addValue(objectMapper.writeValueAsString(snapshot.compensationState()));
+                } catch (JsonProcessingException e) {
+                        return Uni.createFrom().failure(snapshotSerializationFailed(run, e));
+                }
+                return pgPool.withTransaction(connection -> connection
+                                .preparedQuery(INSERT_RUN_SQL)
+                                .execute(params)
+                                .chain(() -> eventStore.appendEvents(connection, run.getId(), events, run.getVersion())))
+                                .invoke(run::markEventsAsCommitted)
+                                .replaceWith(run)
                                 .onFailure()
                                 .invoke(throwable -> LOG.error("Failed to persist workflow run: {}",
                                                 run.getId().value(), throwable));
@@ -60,39 +179,189 @@ public class PostgresWorkflowRunRepository implements WorkflowRunRepository,
 
         @Override
         public Uni<WorkflowRun> update(WorkflowRun run) {
-                // Since we are updating, we should merge or update the existing entity
-                WorkflowRunEntity entity = toEntity(run);
-                // Using getEntityManager().merge(entity) for update if detached, or just
-                // persist if managed?
-                // Panache persist acts as persist.
-                // For update, we usually fetch and update or use merge.
-                return Panache.withTransaction(() -> getSession().flatMap(session -> session.merge(entity)))
-                                .map(merged -> run);
+                return lockingStrategy == RunLockingStrategy.OPTIMISTIC
+                                ? conditionalUpdate(run)
+                                : lockedUpdate(run);
         }
 
         @Override
         public <T> Uni<T> withLock(WorkflowRunId runId, Function<WorkflowRun, Uni<T>> action) {
-                return Panache.withTransaction(() -> find("runId", runId.value())
-                                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                if (lockingStrategy == RunLockingStrategy.OPTIMISTIC) {
+                        return withOptimisticRetry(runId, action);
+                }
+                return lockedCommand(runId, action);
+        }
+
+        // ==================== PESSIMISTIC ====================
+
+        /**
+         * Take the row lock on a transaction of the pg client and run the command
+         * under it. Updates the command makes to the run go through
+         * {@link #lockedUpdate} on that same transaction, so the events and the
+         * projection commit together, and only then are the events marked
+         * committed.
+         */
+        private <T> Uni<T> lockedCommand(WorkflowRunId runId, Function<WorkflowRun, Uni<T>> action) {
+                LockScope scope = new LockScope();
+                return pgPool.withTransaction(connection -> {
+                        Tuple params = Tuple.of(runId.value());
+                        String sql = LOCK_RUN_SQL + RunPartitioning.predicate("created_at", runId, params)
+                                        + " FOR UPDATE";
+                        return connection.preparedQuery(sql)
+                                        .execute(params)
+                                        .flatMap(rows -> rows.rowCount() == 1
+                                                        ? Panache.withSession(() -> findRun(runId, null)
+                                                                        .firstResult()
+                                                                        .flatMap(entity -> entity != null
+                                                                                        ? toDomain(entity)
+                                                                                        : Uni.createFrom().nullItem()))
+                                                        : Uni.createFrom().<WorkflowRun>nullItem())
+                                        .onItem().ifNull().failWith(() -> new NoSuchElementException(
+                                                        "WorkflowRun not found: " + runId.value()))
+                                        .flatMap(run -> {
+                                                scope.connection = connection;
+                                                lockScopes.put(runId.value(), scope);
+                                                return action.apply(run);
+                                        })
+                                        .eventually(() -> lockScopes.remove(runId.value(), scope));
+                })
+                                .invoke(() -> scope.written.forEach(WorkflowRun::markEventsAsCommitted));
+        }
+
+        /**
+         * Append the events and write the projection in one transaction: the
+         * lock's, when the run is locked by {@link #lockedCommand}, or a new one
+         */
+        private Uni<WorkflowRun> lockedUpdate(WorkflowRun run) {
+                List<ExecutionEvent> events = List.copyOf(run.getUncommittedEvents());
+                LockScope scope = lockScopes.get(run.getId().value());
+                if (scope != null) {
+                        return writeRun(scope.connection, run, events)
+                                        .invoke(() -> scope.written.add(run))
+                                        .replaceWith(run);
+                }
+                return pgPool.withTransaction(connection -> writeRun(connection, run, events))
+                                .invoke(run::markEventsAsCommitted)
+                                .replaceWith(run);
+        }
+
+        /**
+         * The pessimistic lock held for a run while its command runs
+         */
+        private static final class LockScope {
+
+                final List<WorkflowRun> written = new ArrayList<>();
+                SqlConnection connection;
+        }
+
+        // ==================== OPTIMISTIC ====================
+
+        /**
+         * Load without a lock and let {@link #conditionalUpdate} detect concurrent
+         * writers through the run version. On a conflict the whole command is re-run
+         * against a freshly loaded run.
+         */
+        private <T> Uni<T> withOptimisticRetry(WorkflowRunId runId, Function<WorkflowRun, Uni<T>> action) {
+                return Uni.createFrom().deferred(() -> Panache.withSession(() -> findRun(runId, null)
                                 .firstResult()
                                 .flatMap(entity -> {
                                         if (entity == null) {
-                                                return Uni.createFrom().failure(new NoSuchElementException(
+                                                return Uni.createFrom().<T>failure(new NoSuchElementException(
                                                                 "WorkflowRun not found: " + runId.value()));
                                         }
-                                        // We must map it to domain, executing action, and then likely forcing update if
-                                        // changed?
-                                        // The action returns Uni<T>. If action modifies the domain object and calls
-                                        // repository.update, that's fine.
-                                        // But here we just pass the domain object.
-                                        WorkflowRun run = toDomain(entity);
-                                        if (run == null) {
-                                                // Fallback if toDomain returns null (as per current stub)
-                                                return Uni.createFrom().failure(new IllegalStateException(
-                                                                "Failed to map entity to domain"));
-                                        }
-                                        return action.apply(run);
-                                }));
+                                        return toDomain(entity).flatMap(action);
+                                })))
+                                .onFailure(PostgresWorkflowRunRepository::isConcurrencyConflict)
+                                .retry()
+                                .withBackOff(Duration.ofMillis(optimisticInitialBackoffMs),
+                                                Duration.ofMillis(optimisticMaxBackoffMs))
+                                .withJitter(0.5)
+                                .atMost(optimisticMaxRetries);
+        }
+
+        /**
+         * Write the projection with {@code UPDATE ... WHERE version = ?} and append the
+         * events in the same transaction. Zero updated rows means another writer
+         * committed first.
+         */
+        private Uni<WorkflowRun> conditionalUpdate(WorkflowRun run) {
+                List<ExecutionEvent> events = List.copyOf(run.getUncommittedEvents());
+                return pgPool.withTransaction(connection -> writeRun(connection, run, events))
+                                .invoke(run::markEventsAsCommitted)
+                                .replaceWith(run);
+        }
+
+        /**
+         * Update the projection from the run's version and append its events
+         * after it, on {@code connection}. Zero updated rows means another writer
+         * moved the version first.
+         */
+        private Uni<Void> writeRun(SqlConnection connection, WorkflowRun run, List<ExecutionEvent> events) {
+                long expectedVersion = run.getVersion();
+                long newVersion = expectedVersion + events.size();
+                boolean snapshotDue = isSnapshotDue(expectedVersion, newVersion, run.getStatus());
+
+                Tuple params = Tuple.tuple();
+                try {
+                        updateValues(run, expectedVersion, newVersion, snapshotDue).forEach(params::addValue);
+                } catch (JsonProcessingException e) {
+                        return Uni.createFrom().failure(snapshotSerializationFailed(run, e));
+                }
+
+                String sql = (snapshotDue ? UPDATE_WITH_SNAPSHOT_SQL : UPDATE_PROJECTION_SQL)
+                                + RunPartitioning.predicate("created_at", run.getId(), params);
+                return connection.preparedQuery(sql)
+                                .execute(params)
+                                .flatMap(rows -> rows.rowCount() == 1
+                                                ? eventStore.appendEvents(connection, run.getId(), events, expectedVersion)
+                                                : Uni.createFrom().failure(new GamelanException(
+                                                                ErrorCode.CONCURRENCY_CONFLICT,
+                                                                "WorkflowRun " + run.getId().value()
+                                                                                + " was modified concurrently, expected version "
+                                                                                + expectedVersion)));
+        }
+
+        /**
+         * Parameters of the update statements, in order: run id, expected version,
+         * the projection columns and, when a snapshot is due, the snapshot columns
+         */
+        private List<Object> updateValues(WorkflowRun run, long expectedVersion, long newVersion,
+                        boolean snapshotDue) throws JsonProcessingException {
+                List<Object> values = new ArrayList<>();
+                values.add(run.getId().value());
+                values.add(expectedVersion);
+                values.add(run.getStatus().name());
+                values.add(toOffsetDateTime(run.getStartedAt()));
+                values.add(toOffsetDateTime(run.getCompletedAt()));
+                values.add(toOffsetDateTime(run.getLastUpdatedAt()));
+                values.add(newVersion);
+                if (snapshotDue) {
+                        WorkflowRunSnapshot snapshot = run.createSnapshot();
+                        values.add(objectMapper.writeValueAsString(snapshot.variables()));
+                        values.add(objectMapper.writeValueAsString(toNodeSnapshots(snapshot)));
+                        values.add(objectMapper.writeValueAsString(snapshot.executionPath()));
+                        values.add(snapshot.status().name());
+                        values.add(objectMapper.writeValueAsString(snapshot.suspensionInfo()));
+                        values.add(objectMapper.writeValueAsString(snapshot.pendingSignals()));
+                        values.add(objectMapper.writeValueAsString(snapshot.compensationState()));
+                }
+                return values;
+        }
+
+        private static GamelanException snapshotSerializationFailed(WorkflowRun run, JsonProcessingException e) {
+                return new GamelanException(
+                                ErrorCode.STORAGE_SERIALIZATION_FAILED,
+                                "Failed to serialize snapshot of run: " + run.getId().value(),
+                                e);
+        }
+
+        private static boolean isConcurrencyConflict(Throwable throwable) {
+                return throwable instanceof GamelanException e
+                                && e.getErrorCode() == ErrorCode.CONCURRENCY_CONFLICT;
+        }
+
+        private static OffsetDateTime toOffsetDateTime(Instant instant) {
+                return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
         }
 
         @Override
@@ -107,16 +376,48 @@ public class PostgresWorkflowRunRepository implements WorkflowRunRepository,
 
         @Override
         public Uni<WorkflowRun> findById(WorkflowRunId id) {
-                return find("runId", id.value())
+                // Joins the caller's session if there is one; run lanes load
+                // uncached runs outside of any
+                return Panache.withSession(() -> findRun(id, null)
                                 .firstResult()
-                                .map(entity -> entity != null ? toDomain(entity) : null);
+                                .flatMap(entity -> entity != null ? toDomain(entity) : Uni.createFrom().nullItem()));
         }
 
         @Override
         public Uni<WorkflowRun> findById(WorkflowRunId id, TenantId tenantId) {
-                return find("runId = ?1 and tenantId = ?2", id.value(), tenantId.value())
+                return findRun(id, tenantId)
                                 .firstResult()
-                                .map(entity -> entity != null ? toDomain(entity) : null);
+                                .flatMap(entity -> entity != null ? toDomain(entity) : Uni.createFrom().nullItem());
+        }
+
+        @Override
+        public Uni<Boolean> exists(WorkflowRunId id, TenantId tenantId) {
+                Tuple params = Tuple.of(id.value(), tenantId.value());
+                String sql = "SELECT 1 FROM workflow_runs WHERE run_id = $1 AND tenant_id = $2"
+                                + RunPartitioning.predicate("created_at", id, params);
+                return pgPool.preparedQuery(sql)
+                                .execute(params)
+                                .map(rows -> rows.size() > 0);
+        }
+
+        /**
+         * One run by id, optionally of a tenant. The run's creation time is added
+         * when its id carries it, so only the run's partition is searched.
+         */
+        private PanacheQuery<WorkflowRunEntity> findRun(WorkflowRunId id, TenantId tenantId) {
+                StringBuilder query = new StringBuilder("runId = ?1");
+                List<Object> params = new ArrayList<>();
+                params.add(id.value());
+                if (tenantId != null) {
+                        params.add(tenantId.value());
+                        query.append(" and tenantId = ?").append(params.size());
+                }
+                Optional<Instant> createdAt = id.createdAt();
+                if (createdAt.isPresent()) {
+                        params.add(createdAt.get());
+                        query.append(" and createdAt = ?").append(params.size());
+                }
+                return find(query.toString(), params.toArray());
         }
 
         @Override
@@ -144,15 +445,104 @@ public class PostgresWorkflowRunRepository implements WorkflowRunRepository,
                 return find(query.toString(), params.toArray())
                                 .page(page, size)
                                 .list()
-                                .map(entities -> entities.stream()
-                                                .map(this::toDomain)
-                                                .toList());
+                                .flatMap(entities -> entities.isEmpty()
+                                                ? Uni.createFrom().item(List.<WorkflowRun>of())
+                                                : Uni.join().all(entities.stream()
+                                                                .map(this::toDomain)
+                                                                .toList())
+                                                                .andFailFast());
+        }
+
+        /**
+         * Keyset page over (created_at, run_id), served by the covering
+         * idx_workflow_run_tenant_* indexes: the filters are an equality prefix of
+         * the index, the row comparison a range on its tail, and every selected
+         * column is stored in the index, so pages are index-only scans.
+         */
+        @Override
+        public Uni<RunSummaryPage> querySummaries(RunQuery query) {
+                StringBuilder sql = new StringBuilder("""
+                                SELECT run_id, tenant_id, definition_id, definition_version, status,
+                                       created_at, started_at, completed_at
+                                FROM workflow_runs
+                                WHERE tenant_id = $1""");
+                Tuple params = Tuple.of(query.tenantId().value());
+
+                if (query.definitionId() != null) {
+                        params.addString(query.definitionId().value());
+                        sql.append(" AND definition_id = $").append(params.size());
+                }
+                if (query.status() != null) {
+                        params.addString(query.status().name());
+                        sql.append(" AND status = $").append(params.size());
+                }
+                if (!query.isFirstPage()) {
+                        params.addOffsetDateTime(toOffsetDateTime(query.afterCreatedAt()));
+                        params.addString(query.afterRunId().value());
+                        sql.append(" AND (created_at, run_id) < ($").append(params.size() - 1)
+                                        .append(", $").append(params.size()).append(")");
+                        // Implied by the row comparison, spelled out so partitions are pruned
+                        sql.append(" AND created_at <= $").append(params.size() - 1);
+                }
+                // One extra row tells whether there is a next page
+                params.addInteger(query.limit() + 1);
+                sql.append(" ORDER BY created_at DESC, run_id DESC LIMIT $").append(params.size());
+
+                return pgPool.preparedQuery(sql.toString())
+                                .execute(params)
+                                .map(rows -> {
+                                        List<RunSummary> runs = new ArrayList<>(rows.size());
+                                        for (Row row : rows) {
+                                                runs.add(toSummary(row));
+                                        }
+                                        if (runs.size() <= query.limit()) {
+                                                return new RunSummaryPage(runs, null);
+                                        }
+                                        runs = runs.subList(0, query.limit());
+                                        return new RunSummaryPage(runs,
+                                                        query.after(runs.get(runs.size() - 1)).toCursor());
+                                });
         }
 
+        /**
+         * Sums the tenant's counter shards (see workflow_run_counts), a few
+         * primary key lookups however many runs the tenant has
+         */
         @Override
         public Uni<Long> countActiveRuns(TenantId tenantId) {
-                return count("tenantId = ?1 and status in ('RUNNING', 'PENDING', 'SUSPENDED')",
-                                tenantId.value());
+                String sql = """
+                                SELECT COALESCE(SUM(run_count), 0)
+                                FROM workflow_run_counts
+                                WHERE tenant_id = $1
+                                AND status IN ('RUNNING', 'PENDING', 'SUSPENDED')
+                                """;
+
+                return pgPool.preparedQuery(sql)
+                                .execute(Tuple.of(tenantId.value()))
+                                .map(rows -> rows.iterator().next().getLong(0));
+        }
+
+        @Override
+        public Uni<List<RunStatusCount>> countRunsByStatus() {
+                String sql = """
+                                SELECT tenant_id, status, SUM(run_count)
+                                FROM workflow_run_counts
+                                GROUP BY tenant_id, status
+                                HAVING SUM(run_count) > 0
+                                """;
+
+                return pgPool.preparedQuery(sql)
+                                .execute()
+                                .map(rows -> {
+                                        List<RunStatusCount> counts = new ArrayList<>(rows.size());
+                                        for (Row row : rows) {
+                                                counts.add(new RunStatusCount(
+                                                                TenantId.of(row.getString(0)),
+                                                                RunStatus.valueOf(row.getString(1)),
+                                                                row.getLong(2)));
+                                        }
+                                        return counts;
+                                });
         }
 
         @Override
@@ -233,37 +623,127 @@ public class PostgresWorkflowRunRepository implements WorkflowRunRepository,
                                 .map(iter -> iter.hasNext() && iter.next().getBoolean(0));
         }
 
-        // Mapping methods
-        private WorkflowRunEntity toEntity(WorkflowRun run) {
-                WorkflowRunEntity entity = new WorkflowRunEntity();
-                entity.setRunId(run.getId().value());
-                entity.setTenantId(run.getTenantId().value());
-                entity.setDefinitionId(run.getDefinitionId().value());
-                entity.setStatus(run.getStatus());
-                entity.setContextVariables(run.getContext().getVariables());
-                entity.setCreatedAt(run.getCreatedAt());
-                entity.setVersion(run.getVersion());
+        // ==================== EVENT SOURCING ====================
+
+        /**
+         * A snapshot is written whenever the version crosses a multiple of the
+         * snapshot interval, so the tail replayed on load stays below the interval
+         * plus one command's events. Terminal runs are snapshotted so they load
+         * without replay.
+         */
+        private boolean isSnapshotDue(long previousVersion, long version, RunStatus status) {
+                return version / snapshotInterval > previousVersion / snapshotInterval
+                                || status.isTerminal();
+        }
 
-                // Convert node executions
+        /**
+         * Rebuild a run from its latest snapshot plus the events recorded after it.
+         * Rows without a snapshot are replayed from the first event.
+         */
+        private Uni<WorkflowRun> toDomain(WorkflowRunEntity entity) {
+                WorkflowRunId runId = WorkflowRunId.of(entity.getRunId());
+                TenantId tenantId = TenantId.of(entity.getTenantId());
+                long snapshotSequence = entity.getSnapshotSequence() != null ? entity.getSnapshotSequence() : 0L;
+
+                return definitionRegistry.getPlan(WorkflowDefinitionId.of(entity.getDefinitionId()), tenantId)
+                                .flatMap(plan -> eventStore.getSequencedEventsAfterVersion(runId, snapshotSequence)
+                                                .map(sequenced -> {
+                                                        // The version is the last stored sequence number, not a count
+                                                        List<ExecutionEvent> tail = sequenced.stream()
+                                                                        .map(SequencedEvent::event)
+                                                                        .toList();
+                                                        long version = sequenced.isEmpty()
+                                                                        ? snapshotSequence
+                                                                        : sequenced.get(sequenced.size() - 1).sequence();
+                                                        return snapshotSequence > 0
+                                                                        ? WorkflowRun.fromSnapshot(plan,
+                                                                                        toSnapshot(entity, plan, snapshotSequence),
+                                                                                        tail, version)
+                                                                        : WorkflowRun.fromEvents(runId, tenantId, plan, tail, version);
+                                                }))
+                                .onFailure()
+                                .invoke(throwable -> LOG.error("Failed to rehydrate workflow run: {}",
+                                                runId.value(), throwable));
+        }
+
+        // ==================== MAPPING ====================
+
+        private static RunSummary toSummary(Row row) {
+                return new RunSummary(
+                                WorkflowRunId.of(row.getString("run_id")),
+                                TenantId.of(row.getString("tenant_id")),
+                                WorkflowDefinitionId.of(row.getString("definition_id")),
+                                row.getString("definition_version"),
+                                RunStatus.valueOf(row.getString("status")),
+                                toInstant(row.getOffsetDateTime("created_at")),
+                                toInstant(row.getOffsetDateTime("started_at")),
+                                toInstant(row.getOffsetDateTime("completed_at")));
+        }
+
+        private static Instant toInstant(OffsetDateTime value) {
+                return value != null ? value.toInstant() : null;
+        }
+
+        /**
+         * Columns used for querying, refreshed on every write
+         */
+        private Map<String, NodeExecutionSnapshot> toNodeSnapshots(WorkflowRunSnapshot snapshot) {
                 Map<String, NodeExecutionSnapshot> nodeSnapshots = new HashMap<>();
-                run.getAllNodeExecutions().forEach((nodeId, exec) -> {
+                snapshot.nodeExecutions().forEach((nodeId, exec) -> {
+                        ErrorInfo error = exec.getLastError();
                         nodeSnapshots.put(nodeId.value(), new NodeExecutionSnapshot(
                                         nodeId.value(),
                                         exec.getStatus().name(),
                                         exec.getAttempt(),
-                                        null, // simplified
-                                        null,
+                                        exec.getStartedAt(),
+                                        exec.getCompletedAt(),
                                         exec.getOutput(),
-                                        null));
+                                        error != null
+                                                        ? new ErrorSnapshot(error.code(), error.message(), error.stackTrace())
+                                                        : null));
                 });
-                entity.setNodeExecutions(nodeSnapshots);
-
-                return entity;
+                return nodeSnapshots;
         }
 
-        private WorkflowRun toDomain(WorkflowRunEntity entity) {
-                // This is simplified - full implementation would reconstruct from events
-                // For now, return null and rely on event sourcing
-                return null;
+        private WorkflowRunSnapshot toSnapshot(
+                        WorkflowRunEntity entity,
+                        CompiledWorkflowPlan plan,
+                        long snapshotSequence) {
+
+                Map<NodeId, NodeExecution> executions = new HashMap<>();
+                if (entity.getNodeExecutions() != null) {
+                        entity.getNodeExecutions().forEach((id, exec) -> {
+                                NodeId nodeId = NodeId.of(id);
+                                ErrorSnapshot error = exec.error();
+                                executions.put(nodeId, NodeExecution.restore(
+                                                nodeId,
+                                                plan.findNode(nodeId).orElse(null),
+                                                NodeExecutionStatus.valueOf(exec.status()),
+                                                exec.attempt(),
+                                                exec.startedAt(),
+                                                exec.completedAt(),
+                                                exec.output(),
+                                                error != null
+                                                                ? new ErrorInfo(error.code(), error.message(),
+                                                                                error.stackTrace(), Map.of())
+                                                                : null));
+                        });
+                }
+
+                return new WorkflowRunSnapshot(
+                                WorkflowRunId.of(entity.getRunId()),
+                                TenantId.of(entity.getTenantId()),
+                                WorkflowDefinitionId.of(entity.getDefinitionId()),
+                                entity.getSnapshotStatus() != null ? entity.getSnapshotStatus() : entity.getStatus(),
+                                entity.getContextVariables() != null ? entity.getContextVariables() : Map.of(),
+                                executions,
+                                entity.getExecutionPath() != null ? entity.getExecutionPath() : List.of(),
+                                entity.getCreatedAt(),
+                                entity.getStartedAt(),
+                                entity.getCompletedAt(),
+                                entity.getSnapshotSuspension(),
+                                entity.getSnapshotSignals() != null ? entity.getSnapshotSignals() : Map.of(),
+                                entity.getSnapshotCompensation(),
+                                snapshotSequence);
         }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package tech.kayys.gamelan.repository;
+
+/**
+ * How PostgresWorkflowRunRepository serializes concurrent commands on the
+ * same run. Selected with {@code gamelan.persistence.locking}.
+ */
+public enum RunLockingStrategy {
+
+    /**
+     * SELECT ... FOR UPDATE on the run row for the whole command
+     */
+    PESSIMISTIC,
+
+    /**
+     * Unlocked read, conditional write on the run version, retry with jittered
+     * backoff when another writer got there first
+     */
+    OPTIMISTIC
+}
@@ -0,0 +1,95 @@
+package tech.kayys.gamelan.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Keeps the partitioned schema (V1_1_partitioned_runs_and_events.sql) in
+ * shape: creates the partitions of the next {@code premake} ranges before
+ * runs need them, and detaches ranges whose runs have all finished and are
+ * older than {@code archive-after-days} into the archive schema. Both steps
+ * are idempotent and serialized in the database, so every instance may run
+ * them.
+ */
+@ApplicationScoped
+@io.quarkus.arc.properties.IfBuildProperty(name = "quarkus.datasource.db-kind", stringValue = "postgresql")
+public class RunPartitionMaintenance {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunPartitionMaintenance.class);
+
+    @Inject
+    Pool pgPool;
+
+    @ConfigProperty(name = "gamelan.persistence.partitioning.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "gamelan.persistence.partitioning.unit", defaultValue = "month")
+    String unit;
+
+    @ConfigProperty(name = "gamelan.persistence.partitioning.premake", defaultValue = "3")
+    int premake;
+
+    @ConfigProperty(name = "gamelan.persistence.partitioning.hash-partitions", defaultValue = "0")
+    int hashPartitions;
+
+    @ConfigProperty(name = "gamelan.persistence.partitioning.archive-after-days", defaultValue = "90")
+    int archiveAfterDays;
+
+    @ConfigProperty(name = "gamelan.persistence.partitioning.archive-schema", defaultValue = "gamelan_archive")
+    String archiveSchema;
+
+    @ConfigProperty(name = "gamelan.persistence.partitioning.archive-tablespace")
+    Optional<String> archiveTablespace;
+
+    @Scheduled(every = "1h")
+    void maintain() {
+        if (!enabled) {
+            return;
+        }
+        maintain(Instant.now()).subscribe().with(
+                ignored -> {
+                },
+                error -> LOG.error("Run partition maintenance failed", error));
+    }
+
+    Uni<Void> maintain(Instant now) {
+        return createPartitions(now)
+                .chain(() -> archivePartitions(now.minus(Duration.ofDays(archiveAfterDays))))
+                .replaceWithVoid();
+    }
+
+    Uni<Integer> createPartitions(Instant from) {
+        return pgPool.preparedQuery("SELECT create_run_partitions($1, $2, $3, $4)")
+                .execute(Tuple.of(from.atOffset(ZoneOffset.UTC), premake, unit, hashPartitions))
+                .map(rows -> rows.iterator().next().getInteger(0))
+                .invoke(created -> {
+                    if (created > 0) {
+                        LOG.info("Created {} run partitions", created);
+                    }
+                });
+    }
+
+    Uni<Integer> archivePartitions(Instant before) {
+        return pgPool.preparedQuery("SELECT archive_run_partitions($1, $2, $3)")
+                .execute(Tuple.of(before.atOffset(ZoneOffset.UTC), archiveSchema, archiveTablespace.orElse(null)))
+                .map(rows -> rows.iterator().next().getInteger(0))
+                .invoke(archived -> {
+                    if (archived > 0) {
+                        LOG.info("Archived {} run partition ranges to schema {}", archived, archiveSchema);
+                    }
+                });
+    }
+}
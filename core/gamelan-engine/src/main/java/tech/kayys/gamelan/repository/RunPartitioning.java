@@ -0,0 +1,58 @@
+package tech.kayys.gamelan.repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import io.vertx.mutiny.sqlclient.Tuple;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Partition key of a run's rows.
+ *
+ * In the partitioned schema (V1_1_partitioned_runs_and_events.sql) both
+ * workflow_runs and workflow_events are range-partitioned by the run's
+ * creation time, which time-ordered run ids carry. Run-keyed queries add it
+ * as an equality predicate so Postgres only touches the run's partition; on
+ * the heap tables the predicate is merely redundant.
+ */
+final class RunPartitioning {
+
+    /**
+     * Partition key stored for runs whose id carries no creation time. Such
+     * rows land in the default partition and are queried without a key.
+     */
+    static final OffsetDateTime UNKNOWN = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private RunPartitioning() {
+    }
+
+    /**
+     * The run's partition key, null if its id carries no creation time
+     */
+    static OffsetDateTime key(WorkflowRunId runId) {
+        return runId.createdAt()
+                .map(createdAt -> createdAt.atOffset(ZoneOffset.UTC))
+                .orElse(null);
+    }
+
+    /**
+     * The key to store with the run's rows
+     */
+    static OffsetDateTime storedKey(WorkflowRunId runId) {
+        OffsetDateTime key = key(runId);
+        return key != null ? key : UNKNOWN;
+    }
+
+    /**
+     * {@code " AND <column> = $n"} with the run's key added to {@code params},
+     * or nothing if the run has no key
+     */
+    static String predicate(String column, WorkflowRunId runId, Tuple params) {
+        OffsetDateTime key = key(runId);
+        if (key == null) {
+            return "";
+        }
+        params.addOffsetDateTime(key);
+        return " AND " + column + " = $" + params.size();
+    }
+}
@@ -2,19 +2,24 @@ package tech.kayys.gamelan.scheduler;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.quarkus.redis.datasource.ReactiveRedisDataSource;
-import io.quarkus.redis.datasource.sortedset.ScoreRange;
-import io.quarkus.redis.datasource.sortedset.ZRangeArgs;
+import io.quarkus.redis.datasource.sortedset.ScoredValue;
+import io.quarkus.runtime.StartupEvent;
 import io.quarkus.scheduler.Scheduled;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 
 import tech.kayys.gamelan.engine.node.NodeExecutionTask;
@@ -30,10 +35,10 @@ import tech.kayys.gamelan.engine.event.ExecutionEvent;
 public class DefaultWorkflowScheduler implements WorkflowScheduler {
 
         private static final Logger LOG = LoggerFactory.getLogger(DefaultWorkflowScheduler.class);
-        private static final String RETRY_ZSET = "workflow:tasks:retry:zset";
+        private static final long RETRY_IDLE_MS = 100;
 
         @Inject
-        ReactiveRedisDataSource redis;
+        RedisRetryQueue retryQueue;
 
         @Inject
         tech.kayys.gamelan.dispatcher.TaskDispatcherAggregator taskDispatcher;
@@ -44,17 +49,61 @@ public class DefaultWorkflowScheduler implements WorkflowScheduler {
         @Inject
         ExecutorRegistry executorRegistry;
 
+        @ConfigProperty(name = "gamelan.scheduler.retry.orphan-grace", defaultValue = "30s")
+        Duration orphanGrace = Duration.ofSeconds(30);
+
+        @ConfigProperty(name = "gamelan.scheduler.retry.recovery-page-size", defaultValue = "1000")
+        int recoveryPageSize = 1000;
+
         // In-memory task tracking
-        private final Map<String, ScheduledTask> scheduledTasks = new ConcurrentHashMap<>();
+        private final ScheduledTasks scheduledTasks = new ScheduledTasks();
+
+        // Retries fire from the wheel on time; retryQueue only keeps them across restarts
+        private final TimingWheel<PendingRetry> retryWheel = new TimingWheel<>(System.currentTimeMillis());
+        private final Map<String, TimingWheel.Timeout> pendingRetries = new ConcurrentHashMap<>();
+        private volatile Thread retryTimer;
+        private volatile boolean retryTimerRunning;
+        // When the parked timer wakes next; an earlier retry has to wake it sooner
+        private volatile long retryTimerWakeAt;
+
+        private record PendingRetry(String entry, long executeAt) {
+        }
+
+        @jakarta.annotation.PostConstruct
+        void startRetryTimer() {
+                retryTimerRunning = true;
+                retryTimer = Thread.ofPlatform()
+                                .name("gamelan-retry-timer")
+                                .daemon()
+                                .start(this::runRetryTimer);
+        }
+
+        @jakarta.annotation.PreDestroy
+        void stopRetryTimer() {
+                retryTimerRunning = false;
+                LockSupport.unpark(retryTimer);
+        }
+
+        /**
+         * Arm every retry queued in the shards this instance owns, including
+         * those another instance scheduled before it went away
+         */
+        void onStart(@Observes StartupEvent event) {
+                retryQueue.refreshOwnership()
+                                .chain(owned -> armShards(owned, 0, 0))
+                                .subscribe().with(
+                                                count -> LOG.info("Recovered {} pending retries", count),
+                                                error -> LOG.error("Retry recovery failed", error));
+        }
 
         @Override
         public Uni<Void> scheduleTask(NodeExecutionTask task) {
                 String taskId = taskId(task);
 
-                ScheduledTask scheduled = scheduledTasks.computeIfAbsent(
+                ScheduledTask scheduled = scheduledTasks.track(
                                 taskId,
-                                id -> new ScheduledTask(
-                                                id,
+                                () -> new ScheduledTask(
+                                                taskId,
                                                 task,
                                                 Instant.now(),
                                                 task.attempt(),
@@ -70,7 +119,7 @@ public class DefaultWorkflowScheduler implements WorkflowScheduler {
                                 .flatMap((java.util.Optional<tech.kayys.gamelan.engine.executor.ExecutorInfo> executorOpt) -> {
                                         if (executorOpt.isEmpty()) {
                                                 LOG.error("No executor found for node {}", task.nodeId().value());
-                                                scheduled.markFailed(new RuntimeException("No executor available"));
+                                                scheduledTasks.markFailed(scheduled, new RuntimeException("No executor available"));
                                                 return Uni.createFrom().voidItem();
                                         }
 
@@ -88,7 +137,7 @@ public class DefaultWorkflowScheduler implements WorkflowScheduler {
                                                         .invoke(() -> {
                                                                 LOG.debug("Task dispatch initiated successfully [{}]",
                                                                                 taskId);
-                                                                scheduled.markRunning();
+                                                                scheduledTasks.markRunning(scheduled);
                                                         })
                                                         .onFailure().invoke(err -> {
                                                                 LOG.error("Task dispatch failed [{}]: {}", taskId,
@@ -97,7 +146,7 @@ public class DefaultWorkflowScheduler implements WorkflowScheduler {
                                 })
                                 .onFailure().recoverWithUni(err -> {
                                         LOG.error("Task dispatch failed [{}]", taskId, err);
-                                        scheduled.markFailed(err);
+                                        scheduledTasks.markFailed(scheduled, err);
 
                                         RetryPolicy retryPolicy = task.retryPolicy();
                                         return handleDispatchFailure(task, err, retryPolicy);
@@ -120,16 +169,25 @@ public class DefaultWorkflowScheduler implements WorkflowScheduler {
                 LOG.info("Scheduling retry run={}, node={} at {}",
                                 runId.value(), nodeId.value(), executeAt);
 
-                return redis.sortedSet(String.class)
-                                .zadd(RETRY_ZSET, executeAt, value)
+                return retryQueue.add(value, executeAt)
+                                .invoke(() -> armRetry(value, executeAt))
                                 .replaceWithVoid();
         }
 
+        private void armRetry(String entry, long executeAt) {
+                TimingWheel.Timeout previous = pendingRetries.put(
+                                entry, retryWheel.schedule(new PendingRetry(entry, executeAt), executeAt));
+                if (previous != null) {
+                        previous.cancel();
+                }
+                if (executeAt < retryTimerWakeAt) {
+                        LockSupport.unpark(retryTimer);
+                }
+        }
+
         @Override
         public Uni<Void> cancelTasksForRun(WorkflowRunId runId) {
-                scheduledTasks.values().stream()
-                                .filter(t -> t.task().runId().equals(runId))
-                                .forEach(ScheduledTask::markCancelled);
+                scheduledTasks.cancelRun(runId);
 
                 return Uni.createFrom().voidItem();
         }
@@ -145,34 +203,113 @@ public class DefaultWorkflowScheduler implements WorkflowScheduler {
 
         @Override
         public Uni<Long> getScheduledTasksCount() {
-                return Uni.createFrom().item(
-                                scheduledTasks.values().stream()
-                                                .filter(t -> !t.status().isTerminal())
-                                                .count());
+                return Uni.createFrom().item(scheduledTasks.activeCount());
+        }
+
+        private void runRetryTimer() {
+                while (retryTimerRunning) {
+                        try {
+                                List<PendingRetry> due = retryWheel.advance(System.currentTimeMillis());
+                                if (!due.isEmpty()) {
+                                        claimRetries(due);
+                                }
+                        } catch (RuntimeException e) {
+                                LOG.error("Retry timer tick failed", e);
+                        }
+                        // Sleep until the wheel has something due, at most the idle interval.
+                        // Any retry armed while the wait is worked out unparks the timer.
+                        retryTimerWakeAt = Long.MAX_VALUE;
+                        long now = System.currentTimeMillis();
+                        long waitMs = Math.min(retryWheel.nextTick() - now, RETRY_IDLE_MS);
+                        if (waitMs > 0) {
+                                retryTimerWakeAt = now + waitMs;
+                                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(waitMs));
+                        }
+                        retryTimerWakeAt = 0;
+                }
         }
 
         /**
-         * Background job to process retry queue
+         * Claim the due retries with one script call per shard; only the
+         * instance that removes an entry from the queue publishes its retry
          */
-        @Scheduled(every = "5s")
-        void processRetryQueue() {
-
-                long now = Instant.now().toEpochMilli();
+        private void claimRetries(List<PendingRetry> due) {
+                Map<Integer, List<String>> byShard = new HashMap<>();
+                for (PendingRetry retry : due) {
+                        pendingRetries.computeIfPresent(retry.entry(),
+                                        (entry, timeout) -> timeout.deadline() == retry.executeAt() ? null : timeout);
+                        byShard.computeIfAbsent(retryQueue.shardOf(retry.entry()), shard -> new ArrayList<>())
+                                        .add(retry.entry());
+                }
+                byShard.forEach((shard, entries) -> retryQueue.claim(shard, entries)
+                                .subscribe().with(
+                                                claimed -> claimed.forEach(this::publishRetry),
+                                                // Still queued: picked up by the orphan sweep
+                                                err -> LOG.warn("Retry claim failed for shard {}: {}", shard,
+                                                                err.getMessage())));
+        }
 
-                ScoreRange<Double> range = ScoreRange.from(0.0, (double) now);
+        /**
+         * Background job to recover orphaned retries in the shards this
+         * instance owns: entries overdue by more than the grace period were
+         * armed by an instance that is gone
+         */
+        @Scheduled(every = "${gamelan.scheduler.retry.recovery-interval:30s}")
+        void recoverOrphanedRetries() {
+                long overdue = Instant.now().minus(orphanGrace).toEpochMilli();
+                List<String> keys = new ArrayList<>();
+                for (int shard : retryQueue.ownedShards()) {
+                        keys.add(RedisRetryQueue.key(shard));
+                        if (shard == 0) {
+                                keys.add(RedisRetryQueue.LEGACY_KEY);
+                        }
+                }
+                for (String key : keys) {
+                        drainOverdue(key, overdue)
+                                        .subscribe().with(
+                                                        count -> {
+                                                                if (count > 0) {
+                                                                        LOG.info("Recovered {} orphaned retries from {}",
+                                                                                        count, key);
+                                                                }
+                                                        },
+                                                        error -> LOG.warn("Orphaned retry recovery failed for {}: {}",
+                                                                        key, error.getMessage()));
+                }
+        }
 
-                ZRangeArgs args = new ZRangeArgs().limit(0, 50);
+        private Uni<Integer> drainOverdue(String key, long overdue) {
+                return retryQueue.popDue(key, overdue, recoveryPageSize)
+                                .flatMap(claimed -> {
+                                        claimed.forEach(this::publishRetry);
+                                        return claimed.size() < recoveryPageSize
+                                                        ? Uni.createFrom().item(claimed.size())
+                                                        : drainOverdue(key, overdue).map(more -> more + claimed.size());
+                                });
+        }
 
-                redis.sortedSet(String.class, String.class)
-                                .zrangebyscore(RETRY_ZSET, range, args)
-                                .subscribe().with(entries -> {
-                                        for (String entry : entries) {
-                                                handleRetryEntry(entry);
+        /**
+         * Arm the queued retries of {@code owned[index..]}, a page at a time.
+         * Entries removed meanwhile shift later pages, so a few may be skipped;
+         * the orphan sweep picks those up once they are overdue.
+         */
+        private Uni<Integer> armShards(int[] owned, int index, long offset) {
+                if (index >= owned.length) {
+                        return Uni.createFrom().item(0);
+                }
+                return retryQueue.page(owned[index], offset, recoveryPageSize)
+                                .flatMap(page -> {
+                                        for (ScoredValue<String> entry : page) {
+                                                armRetry(entry.value(), (long) entry.score());
                                         }
+                                        Uni<Integer> rest = page.size() < recoveryPageSize
+                                                        ? armShards(owned, index + 1, 0)
+                                                        : armShards(owned, index, offset + page.size());
+                                        return rest.map(count -> count + page.size());
                                 });
         }
 
-        private void handleRetryEntry(String entry) {
+        private void publishRetry(String entry) {
 
                 String[] parts = entry.split(":");
                 if (parts.length != 2) {
@@ -183,19 +320,14 @@ public class DefaultWorkflowScheduler implements WorkflowScheduler {
                 WorkflowRunId runId = WorkflowRunId.of(parts[0]);
                 NodeId nodeId = NodeId.of(parts[1]);
 
-                redis.sortedSet(String.class, String.class)
-                                .zrem(RETRY_ZSET, entry)
-                                .subscribe().with(ignored -> {
-
-                                        LOG.info("Retrying node {} for run {}", nodeId.value(), runId.value());
+                LOG.info("Retrying node {} for run {}", nodeId.value(), runId.value());
 
-                                        // IMPORTANT: delegate to WorkflowRunManager
-                                        eventPublisher.publishRetry(runId, nodeId)
-                                                        .subscribe().with(
-                                                                        v -> {
-                                                                        },
-                                                                        err -> LOG.error("Retry publish failed", err));
-                                });
+                // IMPORTANT: delegate to WorkflowRunManager
+                eventPublisher.publishRetry(runId, nodeId)
+                                .subscribe().with(
+                                                v -> {
+                                                },
+                                                err -> LOG.error("Retry publish failed", err));
         }
 
         private String taskId(NodeExecutionTask task) {
@@ -205,25 +337,14 @@ public class DefaultWorkflowScheduler implements WorkflowScheduler {
         }
 
         /**
-         * Background job to clean up completed tasks
+         * Background job to clean up tasks that finished over an hour ago
          */
         @Scheduled(every = "1m")
         void cleanupCompletedTasks() {
-                Instant cutoff = Instant.now().minus(Duration.ofHours(1));
-
-                List<String> toRemove = scheduledTasks.entrySet().stream()
-                                .filter(entry -> {
-                                        ScheduledTask task = entry.getValue();
-                                        return task.status().isTerminal() &&
-                                                        task.scheduledAt().isBefore(cutoff);
-                                })
-                                .map(Map.Entry::getKey)
-                                .toList();
-
-                toRemove.forEach(scheduledTasks::remove);
+                int removed = scheduledTasks.expire(Instant.now().minus(Duration.ofHours(1)));
 
-                if (!toRemove.isEmpty()) {
-                        LOG.debug("Cleaned up {} completed tasks", toRemove.size());
+                if (removed > 0) {
+                        LOG.debug("Cleaned up {} completed tasks", removed);
                 }
         }
 
@@ -0,0 +1,214 @@
+package tech.kayys.gamelan.scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.sortedset.ScoreRange;
+import io.quarkus.redis.datasource.sortedset.ScoredValue;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Response;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * RedisRetryQueue - durable retry queue, hash-sharded over Redis sorted sets
+ *
+ * Each retry is a {@code runId:nodeId} member scored by its due time in
+ * {@code workflow:tasks:retry:zset:{shard}}; the braces keep a shard on one
+ * cluster slot. Claiming is a Lua script per shard, so a batch of entries is
+ * removed atomically and each entry is handed to exactly one instance.
+ *
+ * Live instances heartbeat into {@code workflow:scheduler:instances}; the
+ * shards are divided among them (see {@link RetryShards}) and an instance
+ * only sweeps the shards it owns.
+ */
+@ApplicationScoped
+public class RedisRetryQueue {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisRetryQueue.class);
+
+    /** Unsharded key used before the queue was sharded, drained by shard 0's owner */
+    static final String LEGACY_KEY = "workflow:tasks:retry:zset";
+    private static final String INSTANCES_KEY = "workflow:scheduler:instances";
+
+    /** Removes the given members, returning those that were still queued */
+    private static final Script CLAIM = new Script("""
+            local claimed = {}
+            for _, member in ipairs(ARGV) do
+                if redis.call('ZREM', KEYS[1], member) == 1 then
+                    claimed[#claimed + 1] = member
+                end
+            end
+            return claimed
+            """);
+
+    /** Removes and returns up to ARGV[2] members due at or before ARGV[1] */
+    private static final Script POP_DUE = new Script("""
+            local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            if #due > 0 then
+                redis.call('ZREM', KEYS[1], unpack(due))
+            end
+            return due
+            """);
+
+    @Inject
+    ReactiveRedisDataSource redis;
+
+    @ConfigProperty(name = "gamelan.scheduler.retry.shards", defaultValue = "16")
+    int shards = 16;
+
+    @ConfigProperty(name = "gamelan.scheduler.retry.instance-ttl", defaultValue = "15s")
+    Duration instanceTtl = Duration.ofSeconds(15);
+
+    @ConfigProperty(name = "gamelan.engine.id")
+    Optional<String> engineId;
+
+    private String instanceId;
+    private volatile int[] ownedShards = new int[0];
+
+    @jakarta.annotation.PostConstruct
+    void init() {
+        instanceId = engineId.filter(id -> !id.isBlank()).orElseGet(() -> UUID.randomUUID().toString());
+    }
+
+    int shards() {
+        return shards;
+    }
+
+    int shardOf(String member) {
+        int separator = member.indexOf(':');
+        return RetryShards.shardOf(separator >= 0 ? member.substring(0, separator) : member, shards);
+    }
+
+    /**
+     * Shards this instance sweeps, as of the last heartbeat
+     */
+    int[] ownedShards() {
+        return ownedShards;
+    }
+
+    Uni<Void> add(String member, long executeAt) {
+        return redis.sortedSet(String.class)
+                .zadd(key(shardOf(member)), executeAt, member)
+                .replaceWithVoid();
+    }
+
+    /**
+     * The members of {@code shard} this instance won; the others were claimed
+     * elsewhere or are no longer queued
+     */
+    Uni<List<String>> claim(int shard, List<String> members) {
+        return CLAIM.eval(redis, key(shard), members);
+    }
+
+    /**
+     * Claim up to {@code limit} members of {@code key} due at or before
+     * {@code dueBy}
+     */
+    Uni<List<String>> popDue(String key, long dueBy, int limit) {
+        return POP_DUE.eval(redis, key, List.of(Long.toString(dueBy), Integer.toString(limit)));
+    }
+
+    /**
+     * Members of {@code shard} with their due times, by rank
+     */
+    Uni<List<ScoredValue<String>>> page(int shard, long offset, int limit) {
+        return redis.sortedSet(String.class)
+                .zrangeWithScores(key(shard), offset, offset + limit - 1);
+    }
+
+    @Scheduled(every = "${gamelan.scheduler.retry.heartbeat-interval:5s}")
+    void heartbeat() {
+        refreshOwnership().subscribe().with(
+                ignored -> {
+                },
+                error -> LOG.warn("Retry queue heartbeat failed: {}", error.getMessage()));
+    }
+
+    /**
+     * Announce this instance and recompute its shards from the live instances
+     */
+    Uni<int[]> refreshOwnership() {
+        long now = System.currentTimeMillis();
+        var instances = redis.sortedSet(String.class);
+        return instances.zadd(INSTANCES_KEY, now, instanceId)
+                .chain(() -> instances.zremrangebyscore(INSTANCES_KEY,
+                        ScoreRange.from(0.0, (double) (now - instanceTtl.toMillis()))))
+                .chain(() -> instances.zrange(INSTANCES_KEY, 0, -1))
+                .map(live -> {
+                    int[] owned = RetryShards.owned(live, instanceId, shards);
+                    if (owned.length != ownedShards.length) {
+                        LOG.info("Retry queue: {} live instances, this one owns {} of {} shards",
+                                live.size(), owned.length, shards);
+                    }
+                    ownedShards = owned;
+                    return owned;
+                });
+    }
+
+    static String key(int shard) {
+        return LEGACY_KEY + ":{" + shard + "}";
+    }
+
+    /**
+     * A Lua script run by EVALSHA, loaded with EVAL the first time a server
+     * does not know it
+     */
+    private record Script(String source, String sha) {
+
+        Script(String source) {
+            this(source, sha1(source));
+        }
+
+        Uni<List<String>> eval(ReactiveRedisDataSource redis, String key, List<String> args) {
+            return redis.execute("EVALSHA", command(sha, key, args))
+                    .onFailure(error -> error.getMessage() != null && error.getMessage().startsWith("NOSCRIPT"))
+                    .recoverWithUni(() -> redis.execute("EVAL", command(source, key, args)))
+                    .map(Script::members);
+        }
+
+        private static String[] command(String script, String key, List<String> args) {
+            String[] command = new String[args.size() + 3];
+            command[0] = script;
+            command[1] = "1";
+            command[2] = key;
+            for (int i = 0; i < args.size(); i++) {
+                command[i + 3] = args.get(i);
+            }
+            return command;
+        }
+
+        private static List<String> members(Response response) {
+            if (response == null) {
+                return List.of();
+            }
+            List<String> members = new ArrayList<>(response.size());
+            for (int i = 0; i < response.size(); i++) {
+                members.add(response.get(i).toString());
+            }
+            return members;
+        }
+
+        private static String sha1(String source) {
+            try {
+                return HexFormat.of().formatHex(
+                        MessageDigest.getInstance("SHA-1").digest(source.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package tech.kayys.gamelan.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * How retries are spread over the sharded retry queue, and which shards an
+ * instance looks after.
+ *
+ * A retry's shard follows from its run id, so all retries of a run share a
+ * key. Shards are dealt round-robin over the live instances in id order, so
+ * every instance owns {@code shards / instances} of them, give or take one.
+ */
+final class RetryShards {
+
+    private RetryShards() {
+    }
+
+    static int shardOf(String runId, int shards) {
+        return Math.floorMod(runId.hashCode(), shards);
+    }
+
+    /**
+     * Shards owned by {@code self} among the {@code live} instances; none if
+     * {@code self} is not among them yet
+     */
+    static int[] owned(Collection<String> live, String self, int shards) {
+        List<String> instances = new ArrayList<>(live);
+        instances.sort(null);
+        int position = instances.indexOf(self);
+        if (position < 0) {
+            return new int[0];
+        }
+        int[] owned = new int[(shards - position + instances.size() - 1) / instances.size()];
+        for (int i = 0; i < owned.length; i++) {
+            owned[i] = position + i * instances.size();
+        }
+        return owned;
+    }
+}
@@ -0,0 +1,148 @@
+package tech.kayys.gamelan.scheduler;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * Scheduled tasks, indexed by id and by run
+ *
+ * Status changes go through here so the per-status counters stay exact:
+ * counting active tasks is O(1), cancelling a run touches only its tasks,
+ * and tasks that reach a terminal status join a queue in completion order,
+ * so expiring them stops at the first one still too recent.
+ */
+class ScheduledTasks {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final Map<String, ScheduledTask> byId = new ConcurrentHashMap<>();
+    private final Map<WorkflowRunId, Set<ScheduledTask>> byRun = new ConcurrentHashMap<>();
+    private final LongAdder[] byStatus = new LongAdder[STATUSES.length];
+    private final Queue<ScheduledTask> terminal = new ConcurrentLinkedQueue<>();
+
+    ScheduledTasks() {
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * The task tracked under {@code taskId}, tracking a new one if there is none
+     */
+    ScheduledTask track(String taskId, Supplier<ScheduledTask> factory) {
+        ScheduledTask existing = byId.get(taskId);
+        if (existing != null) {
+            return existing;
+        }
+        boolean[] created = new boolean[1];
+        ScheduledTask task = byId.computeIfAbsent(taskId, id -> {
+            created[0] = true;
+            return factory.get();
+        });
+        if (created[0]) {
+            byRun.compute(task.task().runId(), (runId, tasks) -> {
+                Set<ScheduledTask> runTasks = tasks != null ? tasks : ConcurrentHashMap.newKeySet();
+                runTasks.add(task);
+                return runTasks;
+            });
+            byStatus[task.status().ordinal()].increment();
+        }
+        return task;
+    }
+
+    void markRunning(ScheduledTask task) {
+        transition(task, TaskStatus.RUNNING, null);
+    }
+
+    void markFailed(ScheduledTask task, Throwable error) {
+        transition(task, TaskStatus.FAILED, error);
+    }
+
+    /**
+     * Cancel the run's tasks that have not finished
+     */
+    int cancelRun(WorkflowRunId runId) {
+        Set<ScheduledTask> tasks = byRun.get(runId);
+        if (tasks == null) {
+            return 0;
+        }
+        int cancelled = 0;
+        for (ScheduledTask task : tasks) {
+            if (transition(task, TaskStatus.CANCELLED, null)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    long count(TaskStatus status) {
+        return byStatus[status.ordinal()].sum();
+    }
+
+    long activeCount() {
+        long active = 0;
+        for (TaskStatus status : STATUSES) {
+            if (!status.isTerminal()) {
+                active += count(status);
+            }
+        }
+        return active;
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Stop tracking tasks that finished before {@code cutoff}
+     */
+    synchronized int expire(Instant cutoff) {
+        int removed = 0;
+        ScheduledTask head;
+        while ((head = terminal.peek()) != null && head.completedAt().isBefore(cutoff)) {
+            ScheduledTask expired = terminal.poll();
+            byId.remove(expired.taskId(), expired);
+            byRun.computeIfPresent(expired.task().runId(), (runId, tasks) -> {
+                tasks.remove(expired);
+                return tasks.isEmpty() ? null : tasks;
+            });
+            byStatus[expired.status().ordinal()].decrement();
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * Move the task to {@code to}; finished tasks stay as they are
+     */
+    private boolean transition(ScheduledTask task, TaskStatus to, Throwable error) {
+        TaskStatus from;
+        synchronized (task) {
+            from = task.status();
+            if (from.isTerminal() || from == to) {
+                return false;
+            }
+            switch (to) {
+                case RUNNING -> task.markRunning();
+                case COMPLETED -> task.markCompleted();
+                case FAILED -> task.markFailed(error);
+                case CANCELLED -> task.markCancelled();
+                default -> task.setStatus(to);
+            }
+        }
+        byStatus[from.ordinal()].decrement();
+        byStatus[to.ordinal()].increment();
+        if (to.isTerminal()) {
+            terminal.add(task);
+        }
+        return true;
+    }
+}
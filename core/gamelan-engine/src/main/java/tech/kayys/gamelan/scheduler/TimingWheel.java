@@ -0,0 +1,237 @@
+package tech.kayys.gamelan.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TimingWheel - hierarchical timing wheel with millisecond ticks
+ *
+ * Four levels of 256 slots; level {@code n} slots span {@code 256^n} ms, so
+ * the wheel covers 2^32 ms (about 49 days) and later deadlines wait in the top
+ * level until they come within range. Scheduling and cancelling are O(1):
+ * the deadline picks the level and slot directly. {@link #advance} fires the
+ * level 0 slot of every elapsed tick, and each time a level wraps around the
+ * next slot of the level above is cascaded down.
+ *
+ * Thread safe; callers fire the values returned by {@link #advance} outside
+ * the wheel's lock.
+ */
+public final class TimingWheel<T> {
+
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long RANGE = 1L << (BITS * LEVELS);
+
+    @SuppressWarnings("unchecked")
+    private final Entry<T>[][] slots = new Entry[LEVELS][SLOTS];
+    private final int[] levelSizes = new int[LEVELS];
+
+    /** Next tick to fire; every tick before it has been fired */
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long nowMs) {
+        this.currentTick = nowMs;
+    }
+
+    /**
+     * A scheduled value
+     */
+    public interface Timeout {
+
+        long deadline();
+
+        /**
+         * Remove the value from the wheel; false if it already fired or was
+         * cancelled
+         */
+        boolean cancel();
+    }
+
+    /**
+     * Fire {@code value} at {@code deadlineMs}, or on the next tick if that
+     * has passed
+     */
+    public synchronized Timeout schedule(T value, long deadlineMs) {
+        Entry<T> entry = new Entry<>(this, value, deadlineMs);
+        place(entry);
+        size++;
+        return entry;
+    }
+
+    /**
+     * Values whose deadline is at or before {@code nowMs}, removed from the
+     * wheel, ordered by deadline to the millisecond
+     */
+    public synchronized List<T> advance(long nowMs) {
+        if (size == 0) {
+            // Nothing to cascade or fire: skip the idle ticks
+            currentTick = Math.max(currentTick, nowMs + 1);
+            return List.of();
+        }
+        List<T> expired = null;
+        while (currentTick <= nowMs && size > 0) {
+            int index = (int) (currentTick & MASK);
+            if (index == 0) {
+                for (int level = 1; level < LEVELS; level++) {
+                    int slot = (int) ((currentTick >>> (BITS * level)) & MASK);
+                    cascade(level, slot);
+                    if (slot != 0) {
+                        break;
+                    }
+                }
+            }
+            if (levelSizes[0] == 0) {
+                // Nothing fires before the next occupied level cascades
+                currentTick = Math.min(nextCascade(), nowMs + 1);
+                continue;
+            }
+            Entry<T> entry = slots[0][index];
+            slots[0][index] = null;
+            currentTick++;
+            while (entry != null) {
+                Entry<T> next = entry.next;
+                entry.unlink();
+                levelSizes[0]--;
+                size--;
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(entry.value);
+                entry = next;
+            }
+        }
+        if (size == 0) {
+            currentTick = Math.max(currentTick, nowMs + 1);
+        }
+        return expired != null ? expired : List.of();
+    }
+
+    /**
+     * Earliest time {@link #advance} may return values: the first occupied
+     * level 0 tick, or the next cascade of a higher level if that comes
+     * sooner. {@link Long#MAX_VALUE} when the wheel is empty.
+     */
+    public synchronized long nextTick() {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        long next = levelSizes[0] < size ? nextCascade() : Long.MAX_VALUE;
+        if (levelSizes[0] > 0) {
+            // Level 0 holds the ticks from currentTick to currentTick + 255
+            for (long tick = currentTick; tick < currentTick + SLOTS && tick < next; tick++) {
+                if (slots[0][(int) (tick & MASK)] != null) {
+                    return tick;
+                }
+            }
+        }
+        return next;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    private long nextCascade() {
+        int level = 1;
+        while (level < LEVELS - 1 && levelSizes[level] == 0) {
+            level++;
+        }
+        return (currentTick | ((1L << (BITS * level)) - 1)) + 1;
+    }
+
+    private void place(Entry<T> entry) {
+        long tick = Math.max(entry.deadline, currentTick);
+        long delta = tick - currentTick;
+        if (delta >= RANGE) {
+            // Parked in the top level; placed again when it cascades
+            tick = currentTick + RANGE - 1;
+            delta = RANGE - 1;
+        }
+        int level = 0;
+        while (delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (BITS * level)) & MASK);
+
+        Entry<T> head = slots[level][slot];
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        slots[level][slot] = entry;
+        levelSizes[level]++;
+    }
+
+    private void cascade(int level, int slot) {
+        Entry<T> entry = slots[level][slot];
+        slots[level][slot] = null;
+        while (entry != null) {
+            Entry<T> next = entry.next;
+            levelSizes[level]--;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private synchronized boolean cancel(Entry<T> entry) {
+        if (entry.level < 0) {
+            return false;
+        }
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        levelSizes[entry.level]--;
+        entry.unlink();
+        size--;
+        return true;
+    }
+
+    private static final class Entry<T> implements Timeout {
+
+        final TimingWheel<T> wheel;
+        final T value;
+        final long deadline;
+
+        int level = -1;
+        int slot;
+        Entry<T> prev;
+        Entry<T> next;
+
+        Entry(TimingWheel<T> wheel, T value, long deadline) {
+            this.wheel = wheel;
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        void unlink() {
+            level = -1;
+            prev = null;
+            next = null;
+        }
+
+        @Override
+        public long deadline() {
+            return deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package tech.kayys.gamelan.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+/**
+ * ExecutionTokenSigner - self-contained, HMAC-SHA256 signed execution tokens
+ *
+ * A token is {@code <key id>.<claims>.<mac>} with the claims (run, node,
+ * attempt, expiry) and the MAC base64url-encoded, so verifying one needs no
+ * storage: recompute the MAC with the named key, compare in constant time,
+ * check the expiry. Recently verified tokens are remembered so repeated
+ * verifications of the same token skip the MAC.
+ *
+ * Keys come from {@code gamelan.security.execution-token.keys} as
+ * {@code id:base64-secret} entries. The first key signs, all of them verify:
+ * to rotate, put a new key first and drop the old one once the tokens it
+ * signed have expired. Without configured keys a random key is generated,
+ * which only works while a single instance issues and verifies tokens.
+ */
+@ApplicationScoped
+public class ExecutionTokenSigner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionTokenSigner.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @ConfigProperty(name = "gamelan.security.execution-token.keys")
+    Optional<List<String>> configuredKeys;
+
+    @ConfigProperty(name = "gamelan.security.execution-token.verified-cache-size", defaultValue = "10000")
+    int verifiedCacheSize = 10_000;
+
+    private volatile SigningKey activeKey;
+    private volatile Map<String, SigningKey> keys;
+    private final Map<String, ExecutionToken> verified = new ConcurrentHashMap<>();
+
+    public ExecutionTokenSigner() {
+    }
+
+    ExecutionTokenSigner(List<String> keys, int verifiedCacheSize) {
+        this.configuredKeys = Optional.of(keys);
+        this.verifiedCacheSize = verifiedCacheSize;
+        init();
+    }
+
+    @jakarta.annotation.PostConstruct
+    void init() {
+        Map<String, SigningKey> ring = new LinkedHashMap<>();
+        for (String entry : configuredKeys.orElse(List.of())) {
+            SigningKey key = SigningKey.parse(entry);
+            ring.put(key.id, key);
+        }
+        if (ring.isEmpty()) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            ring.put("local", new SigningKey("local", secret));
+            LOG.warn("No gamelan.security.execution-token.keys configured, signing with a random key; "
+                    + "tokens issued here will not verify on other instances");
+        }
+        this.keys = Map.copyOf(ring);
+        this.activeKey = ring.values().iterator().next();
+    }
+
+    /**
+     * Issue a token for one execution attempt
+     */
+    public ExecutionToken issue(WorkflowRunId runId, NodeId nodeId, int attempt, Instant expiresAt) {
+        String claims = ENCODER.encodeToString(String.join("\n",
+                runId.value(),
+                nodeId.value(),
+                Integer.toString(attempt),
+                Long.toString(expiresAt.getEpochSecond())).getBytes(StandardCharsets.UTF_8));
+        SigningKey key = activeKey;
+        String signed = key.id + "." + claims;
+        String token = signed + "." + ENCODER.encodeToString(key.mac(signed));
+        return new ExecutionToken(token, runId, nodeId, attempt, Instant.ofEpochSecond(expiresAt.getEpochSecond()));
+    }
+
+    /**
+     * The claims of a token if it was signed by a known key and has not
+     * expired, else empty
+     */
+    public Optional<ExecutionToken> verify(String token, Instant now) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        ExecutionToken cached = verified.get(token);
+        if (cached != null) {
+            return now.isAfter(cached.expiresAt()) ? Optional.empty() : Optional.of(cached);
+        }
+
+        int claimsStart = token.indexOf('.');
+        int macStart = token.lastIndexOf('.');
+        if (claimsStart <= 0 || macStart <= claimsStart) {
+            return Optional.empty();
+        }
+        SigningKey key = keys.get(token.substring(0, claimsStart));
+        if (key == null) {
+            return Optional.empty();
+        }
+        try {
+            byte[] expected = key.mac(token.substring(0, macStart));
+            byte[] actual = DECODER.decode(token.substring(macStart + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return Optional.empty();
+            }
+            ExecutionToken claims = parseClaims(token, token.substring(claimsStart + 1, macStart));
+            if (claims == null || now.isAfter(claims.expiresAt())) {
+                return Optional.empty();
+            }
+            remember(token, claims);
+            return Optional.of(claims);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Signature over the given fields with the active key, as
+     * {@code <key id>.<mac>}
+     */
+    public String sign(String... fields) {
+        SigningKey key = activeKey;
+        return key.id + "." + ENCODER.encodeToString(key.mac(String.join("\n", fields)));
+    }
+
+    /**
+     * Whether {@code signature} is a {@link #sign} signature over the fields
+     * by any known key
+     */
+    public boolean verifySignature(String signature, String... fields) {
+        if (signature == null) {
+            return false;
+        }
+        int separator = signature.indexOf('.');
+        SigningKey key = separator > 0 ? keys.get(signature.substring(0, separator)) : null;
+        if (key == null) {
+            return false;
+        }
+        try {
+            return MessageDigest.isEqual(
+                    key.mac(String.join("\n", fields)),
+                    DECODER.decode(signature.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    int verifiedCacheSize() {
+        return verified.size();
+    }
+
+    private void remember(String token, ExecutionToken claims) {
+        if (verified.size() >= verifiedCacheSize) {
+            // Tokens live for minutes; starting over is cheaper than tracking recency
+            verified.clear();
+        }
+        verified.put(token, claims);
+    }
+
+    private static ExecutionToken parseClaims(String token, String encoded) {
+        String[] fields = new String(DECODER.decode(encoded), StandardCharsets.UTF_8).split("\n", -1);
+        if (fields.length != 4) {
+            return null;
+        }
+        try {
+            return new ExecutionToken(
+                    token,
+                    WorkflowRunId.of(fields[0]),
+                    NodeId.of(fields[1]),
+                    Integer.parseInt(fields[2]),
+                    Instant.ofEpochSecond(Long.parseLong(fields[3])));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static final class SigningKey {
+
+        final String id;
+        private final SecretKeySpec secret;
+        private final ThreadLocal<Mac> macs;
+
+        SigningKey(String id, byte[] secret) {
+            this.id = id;
+            this.secret = new SecretKeySpec(secret, ALGORITHM);
+            this.macs = ThreadLocal.withInitial(this::newMac);
+        }
+
+        static SigningKey parse(String entry) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0 || entry.indexOf('.') >= 0) {
+                throw new GamelanException(ErrorCode.VALIDATION_FAILED,
+                        "Execution token keys must be 'id:base64-secret' with no '.' in the id");
+            }
+            byte[] secret = Base64.getDecoder().decode(entry.substring(separator + 1).trim());
+            if (secret.length < 32) {
+                throw new GamelanException(ErrorCode.VALIDATION_FAILED,
+                        "Execution token key " + entry.substring(0, separator) + " must be at least 256 bits");
+            }
+            return new SigningKey(entry.substring(0, separator).trim(), secret);
+        }
+
+        byte[] mac(String data) {
+            return macs.get().doFinal(data.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private Mac newMac() {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(secret);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+            }
+        }
+    }
+}
@@ -16,10 +16,10 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 import tech.kayys.gamelan.engine.execution.ExecutionPlan;
 import tech.kayys.gamelan.core.workflow.WorkflowDefinitionRegistry;
 import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
-import tech.kayys.gamelan.engine.node.NodeDefinition;
 import tech.kayys.gamelan.engine.node.NodeExecution;
 import tech.kayys.gamelan.engine.node.NodeId;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.workflow.CompiledWorkflowPlan;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinition;
 import tech.kayys.gamelan.engine.workflow.WorkflowRun;
 import tech.kayys.gamelan.engine.workflow.WorkflowMode;
@@ -53,22 +53,32 @@ public class WorkflowExecutionEngine {
         LOG.debug("Planning next execution for run: {}", run.getId().value());
 
         return Uni.createFrom().item(() -> {
-            List<NodeId> readyNodes = new ArrayList<>();
-
-            // Find all nodes that are ready to execute
-            for (NodeDefinition node : definition.nodes()) {
-                if (isNodeReady(run, node)) {
-                    readyNodes.add(node.id());
+            List<NodeId> readyNodes;
+            boolean isComplete;
+            CompiledWorkflowPlan plan;
+
+            if (run.getDefinition() == definition) {
+                // The run tracks its ready set incrementally for its own definition
+                plan = run.getPlan();
+                readyNodes = run.getReadyNodes();
+                isComplete = run.areAllNodesCompleted();
+            } else {
+                // Planning against another definition instance: fall back to a full scan
+                plan = planFor(definition);
+                Map<NodeId, NodeExecution> executions = run.getAllNodeExecutions();
+                readyNodes = new ArrayList<>();
+                for (int i = 0; i < plan.size(); i++) {
+                    if (isNodeReady(executions, plan, i)) {
+                        readyNodes.add(plan.nodeId(i));
+                    }
                 }
+                isComplete = isWorkflowComplete(executions, plan);
             }
 
             if (definition.mode() == WorkflowMode.DAG && dagSchedulerEnabled) {
-                readyNodes = orderDagReadyNodes(definition, readyNodes);
+                readyNodes = orderDagReadyNodes(plan, readyNodes);
             }
 
-            // Check for workflow completion
-            boolean isComplete = isWorkflowComplete(run, definition);
-
             // Check if workflow is stuck
             boolean isStuck = readyNodes.isEmpty() && !isComplete &&
                     run.getStatus() == RunStatus.RUNNING;
@@ -81,7 +91,12 @@ public class WorkflowExecutionEngine {
         });
     }
 
-    private List<NodeId> orderDagReadyNodes(WorkflowDefinition definition, List<NodeId> readyNodes) {
+    private CompiledWorkflowPlan planFor(WorkflowDefinition definition) {
+        CompiledWorkflowPlan cached = definitionRegistry != null ? definitionRegistry.getPlan(definition) : null;
+        return cached != null ? cached : CompiledWorkflowPlan.compile(definition);
+    }
+
+    private List<NodeId> orderDagReadyNodes(CompiledWorkflowPlan plan, List<NodeId> readyNodes) {
         if (readyNodes == null || readyNodes.isEmpty()) {
             return readyNodes;
         }
@@ -96,8 +111,8 @@ public class WorkflowExecutionEngine {
                 return readyNodes;
             }
             Object scheduler = optional.get();
-            var method = serviceClass.getMethod("orderReadyNodes", WorkflowDefinition.class, List.class);
-            Object result = method.invoke(scheduler, definition, readyNodes);
+            var method = serviceClass.getMethod("orderReadyNodes", CompiledWorkflowPlan.class, List.class);
+            Object result = method.invoke(scheduler, plan, readyNodes);
             if (result instanceof List<?> list) {
                 @SuppressWarnings("unchecked")
                 List<NodeId> ordered = (List<NodeId>) list;
@@ -112,10 +127,9 @@ public class WorkflowExecutionEngine {
     /**
      * Check if a node is ready to execute
      */
-    private boolean isNodeReady(WorkflowRun run, NodeDefinition node) {
+    private boolean isNodeReady(Map<NodeId, NodeExecution> executions, CompiledWorkflowPlan plan, int index) {
         // Check if node already executed
-        Map<NodeId, NodeExecution> executions = run.getAllNodeExecutions();
-        NodeExecution existing = executions.get(node.id());
+        NodeExecution existing = executions.get(plan.nodeId(index));
 
         if (existing != null) {
             // Only retry if in RETRYING status, or if PENDING (waiting for dispatch)
@@ -123,9 +137,14 @@ public class WorkflowExecutionEngine {
                     existing.getStatus() == NodeExecutionStatus.PENDING;
         }
 
+        // Dependencies on unknown nodes can never complete
+        if (plan.predecessorCount(index) != plan.dependencyCount(index)) {
+            return false;
+        }
+
         // Check if all dependencies are completed
-        for (NodeId depId : node.dependsOn()) {
-            NodeExecution depExec = executions.get(depId);
+        for (int k = 0; k < plan.predecessorCount(index); k++) {
+            NodeExecution depExec = executions.get(plan.nodeId(plan.predecessor(index, k)));
             if (depExec == null || depExec.getStatus() != NodeExecutionStatus.COMPLETED) {
                 return false;
             }
@@ -137,12 +156,10 @@ public class WorkflowExecutionEngine {
     /**
      * Check if workflow is complete
      */
-    private boolean isWorkflowComplete(WorkflowRun run, WorkflowDefinition definition) {
-        Map<NodeId, NodeExecution> executions = run.getAllNodeExecutions();
-
+    private boolean isWorkflowComplete(Map<NodeId, NodeExecution> executions, CompiledWorkflowPlan plan) {
         // All nodes must have been executed
-        for (NodeDefinition node : definition.nodes()) {
-            NodeExecution exec = executions.get(node.id());
+        for (int i = 0; i < plan.size(); i++) {
+            NodeExecution exec = executions.get(plan.nodeId(i));
             if (exec == null || !exec.isCompleted()) {
                 return false;
             }
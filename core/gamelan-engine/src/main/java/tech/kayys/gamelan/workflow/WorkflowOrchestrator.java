@@ -16,12 +16,20 @@ import tech.kayys.gamelan.engine.node.NodeId;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinition;
 import tech.kayys.gamelan.engine.workflow.WorkflowRun;
 import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+import tech.kayys.gamelan.core.orchestration.RunUpdateDebouncer;
 import tech.kayys.gamelan.core.workflow.WorkflowDefinitionRegistry;
+import tech.kayys.gamelan.engine.impl.DefaultWorkflowRunManager;
 import tech.kayys.gamelan.registry.ExecutorRegistry;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunUpdate;
 import tech.kayys.gamelan.engine.node.NodeDefinition;
+import tech.kayys.gamelan.engine.protocol.LocalMessageCodecs;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -54,14 +62,17 @@ public class WorkflowOrchestrator {
     @Inject
     tech.kayys.gamelan.dispatcher.TaskDispatcherAggregator taskDispatcher;
 
+    private final RunUpdateDebouncer updates = new RunUpdateDebouncer(update -> drivePass(update.runId()));
+
     @jakarta.annotation.PostConstruct
     void init() {
         LOG.info("Initializing WorkflowOrchestrator");
+        LocalMessageCodecs.register(eventBus.getDelegate());
 
         // 1. Listen for results from executors
-        eventBus.<JsonObject>consumer("gamelan.results")
+        eventBus.<NodeExecutionResult>consumer("gamelan.results")
                 .handler(msg -> {
-                    NodeExecutionResult result = msg.body().mapTo(NodeExecutionResult.class);
+                    NodeExecutionResult result = msg.body();
                     LOG.info("Received node result: run={}, node={}, status={}",
                             result.runId().value(), result.nodeId().value(), result.status());
 
@@ -72,24 +83,13 @@ public class WorkflowOrchestrator {
                                             error));
                 });
 
-        // 2. Listen for run updates to drive the workflow
-        eventBus.<String>consumer("gamelan.runs.v1.updated")
+        // 2. Listen for run updates to drive the workflow, one pass per run at a time
+        eventBus.<JsonObject>consumer(DefaultWorkflowRunManager.RUN_UPDATED_ADDRESS)
                 .handler(msg -> {
-                    String runId = msg.body();
-                    System.out.println("WorkflowOrchestrator SEVERE LOG: Received run update for " + runId);
-                    LOG.info("Driving workflow run: {}", runId);
-                    drive(WorkflowRunId.of(runId))
-                            .subscribe().with(
-                                    v -> {
-                                        System.out.println(
-                                                "WorkflowOrchestrator SEVERE LOG: Drive cycle completed for " + runId);
-                                        LOG.info("Drive cycle completed for run: {}", runId);
-                                    },
-                                    error -> {
-                                        System.out.println(
-                                                "WorkflowOrchestrator SEVERE LOG: Drive cycle failed for " + runId);
-                                        LOG.error("Drive cycle failed for run: {}", runId, error);
-                                    });
+                    RunUpdate update = msg.body().mapTo(RunUpdate.class);
+                    LOG.debug("Run {} updated to version {}, changed nodes {}",
+                            update.runId().value(), update.version(), update.changedNodes());
+                    updates.submit(update);
                 });
     }
 
@@ -97,14 +97,25 @@ public class WorkflowOrchestrator {
      * Drive the workflow cycle: Plan -> Select Executor -> Dispatch
      */
     public Uni<Void> drive(WorkflowRunId runId) {
+        return drivePass(runId).replaceWithVoid();
+    }
+
+    /**
+     * One orchestration pass over a freshly loaded run. Every ready node is
+     * planned and dispatched from this single load.
+     *
+     * @return the run version the pass worked from, -1 if the run is gone
+     */
+    private Uni<Long> drivePass(WorkflowRunId runId) {
         return runRepository.findById(runId)
                 .flatMap(run -> {
-                    if (run == null || run.getStatus().isTerminal()) {
-                        return Uni.createFrom().voidItem();
+                    if (run == null) {
+                        return Uni.createFrom().item(-1L);
                     }
+                    long version = run.getVersion();
 
                     if (run.getStatus() != RunStatus.RUNNING) {
-                        return Uni.createFrom().voidItem();
+                        return Uni.createFrom().item(version);
                     }
 
                     return definitionRegistry.getDefinition(run.getDefinitionId(), run.getTenantId())
@@ -124,24 +135,28 @@ public class WorkflowOrchestrator {
                                                 return Uni.createFrom().voidItem();
                                             }
 
-                                            // Dispatch ready nodes
-                                            return Uni.combine().all().unis(
+                                            // Dispatch ready nodes, one batch per executor
+                                            return Uni.join().all(
                                                     plan.readyNodes().stream()
-                                                            .map(nodeId -> dispatchNode(run, definition, nodeId))
+                                                            .map(nodeId -> prepareNode(run, definition, nodeId))
                                                             .toList())
-                                                    .discardItems();
+                                                    .andFailFast()
+                                                    .flatMap(ready -> taskDispatcher.dispatchAll(byExecutor(ready)));
                                         });
-                            });
+                            })
+                            .replaceWith(version);
                 });
     }
 
-    private Uni<Void> dispatchNode(WorkflowRun run, WorkflowDefinition definition, NodeId nodeId) {
-        Optional<NodeDefinition> nodeOpt = definition.nodes().stream()
-                .filter(n -> n.id().equals(nodeId))
-                .findFirst();
+    /**
+     * The node's task and the executor it goes to; null if the node is not in
+     * the plan or has no executor
+     */
+    private Uni<ReadyTask> prepareNode(WorkflowRun run, WorkflowDefinition definition, NodeId nodeId) {
+        Optional<NodeDefinition> nodeOpt = definitionRegistry.getPlan(definition).findNode(nodeId);
 
         if (nodeOpt.isEmpty()) {
-            return Uni.createFrom().voidItem();
+            return Uni.createFrom().nullItem();
         }
 
         NodeDefinition node = nodeOpt.get();
@@ -151,13 +166,13 @@ public class WorkflowOrchestrator {
                     if (execOpt.isEmpty()) {
                         LOG.warn("No executor available for node: {}", nodeId.value());
                         // TODO: Handle no executor (retry or fail)
-                        return Uni.createFrom().voidItem();
+                        return Uni.createFrom().<ReadyTask>nullItem();
                     }
 
                     ExecutorInfo executor = execOpt.get();
 
                     return runManager.createExecutionToken(run.getId(), nodeId, 1)
-                            .flatMap(token -> {
+                            .map(token -> {
                                 // NodeExecutionTask(runId, nodeId, attempt, token, context, retryPolicy)
                                 NodeExecutionTask task = new NodeExecutionTask(
                                         run.getId(),
@@ -167,8 +182,22 @@ public class WorkflowOrchestrator {
                                         node.configuration(),
                                         node.retryPolicy());
 
-                                return taskDispatcher.dispatch(task, executor);
+                                return new ReadyTask(executor, task);
                             });
                 });
     }
+
+    static Map<ExecutorInfo, List<NodeExecutionTask>> byExecutor(List<ReadyTask> ready) {
+        Map<ExecutorInfo, List<NodeExecutionTask>> tasksByExecutor = new LinkedHashMap<>();
+        for (ReadyTask readyTask : ready) {
+            if (readyTask != null) {
+                tasksByExecutor.computeIfAbsent(readyTask.executor(), executor -> new ArrayList<>())
+                        .add(readyTask.task());
+            }
+        }
+        return tasksByExecutor;
+    }
+
+    record ReadyTask(ExecutorInfo executor, NodeExecutionTask task) {
+    }
 }
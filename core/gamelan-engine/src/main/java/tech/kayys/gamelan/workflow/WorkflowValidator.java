@@ -1,10 +1,7 @@
 package tech.kayys.gamelan.workflow;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -16,6 +13,7 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 import tech.kayys.gamelan.engine.node.NodeDefinition;
 import tech.kayys.gamelan.engine.node.NodeId;
 import tech.kayys.gamelan.engine.run.ValidationResult;
+import tech.kayys.gamelan.engine.workflow.CompiledWorkflowPlan;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinition;
 import tech.kayys.gamelan.engine.workflow.WorkflowMode;
 import tech.kayys.gamelan.engine.plugin.PluginService;
@@ -167,56 +165,6 @@ public class WorkflowValidator {
     }
 
     private boolean hasCycles(WorkflowDefinition workflow) {
-        // Simple cycle detection using DFS
-        Map<NodeId, Set<NodeId>> adjacency = new HashMap<>();
-
-        for (NodeDefinition node : workflow.nodes()) {
-            for (NodeId dependency : node.dependsOn()) {
-                // Dependency model: dependency -> node
-                adjacency.computeIfAbsent(dependency, k -> new HashSet<>())
-                        .add(node.id());
-            }
-        }
-
-        Set<NodeId> visited = new HashSet<>();
-        Set<NodeId> recursionStack = new HashSet<>();
-
-        for (NodeDefinition node : workflow.nodes()) {
-            if (hasCycleDFS(node.id(), adjacency, visited, recursionStack)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    private boolean hasCycleDFS(
-            NodeId nodeId,
-            Map<NodeId, Set<NodeId>> adjacency,
-            Set<NodeId> visited,
-            Set<NodeId> recursionStack) {
-
-        if (recursionStack.contains(nodeId)) {
-            return true;
-        }
-
-        if (visited.contains(nodeId)) {
-            return false;
-        }
-
-        visited.add(nodeId);
-        recursionStack.add(nodeId);
-
-        Set<NodeId> neighbors = adjacency.get(nodeId);
-        if (neighbors != null) {
-            for (NodeId neighbor : neighbors) {
-                if (hasCycleDFS(neighbor, adjacency, visited, recursionStack)) {
-                    return true;
-                }
-            }
-        }
-
-        recursionStack.remove(nodeId);
-        return false;
+        return CompiledWorkflowPlan.compile(workflow).hasCycle();
     }
 }
@@ -0,0 +1,61 @@
+package tech.kayys.gamelan.dispatcher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.executor.ExecutorInfo;
+import tech.kayys.gamelan.engine.node.NodeExecutionTask;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.protocol.CommunicationType;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TaskKeyStrategyTest {
+
+    private static final NodeExecutionTask TASK = task("run-1", "a");
+
+    @Test
+    void runKeyIsSharedByTheRunsTasks() {
+        ExecutorInfo executor = executor("executor-1", Map.of());
+
+        assertEquals("run-1", TaskKeyStrategy.RUN.key(TASK, executor));
+        assertEquals(TaskKeyStrategy.RUN.key(TASK, executor), TaskKeyStrategy.RUN.key(task("run-1", "b"), executor));
+    }
+
+    @Test
+    void executorTypeKey() {
+        assertEquals("http", TaskKeyStrategy.EXECUTOR_TYPE.key(TASK, executor("executor-1", Map.of())));
+    }
+
+    @Test
+    void stickyKeyPrefersTheExecutorsHint() {
+        assertEquals("lane-7", TaskKeyStrategy.STICKY_EXECUTOR.key(TASK,
+                executor("executor-1", Map.of(TaskKeyStrategy.STICKY_KEY_METADATA, "lane-7"))));
+        assertEquals("executor-1", TaskKeyStrategy.STICKY_EXECUTOR.key(TASK, executor("executor-1", Map.of())));
+        assertEquals("executor-1", TaskKeyStrategy.STICKY_EXECUTOR.key(TASK, executor("executor-1", null)));
+    }
+
+    @Test
+    void noneLeavesTheRecordUnkeyed() {
+        assertNull(TaskKeyStrategy.NONE.key(TASK, executor("executor-1", Map.of())));
+    }
+
+    private static NodeExecutionTask task(String run, String node) {
+        WorkflowRunId runId = WorkflowRunId.of(run);
+        NodeId nodeId = NodeId.of(node);
+        return new NodeExecutionTask(runId, nodeId, 1,
+                new ExecutionToken("token-1234567890", runId, nodeId, 1, Instant.now().plusSeconds(60)),
+                Map.of(), null);
+    }
+
+    private static ExecutorInfo executor(String id, Map<String, String> metadata) {
+        return new ExecutorInfo(id, "http", CommunicationType.KAFKA, "localhost:9092", Duration.ofSeconds(30),
+                metadata);
+    }
+}
@@ -8,6 +8,8 @@ import java.time.Clock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.GamelanException;
 import tech.kayys.gamelan.engine.impl.DefaultWorkflowRunManager;
 import tech.kayys.gamelan.engine.node.DefaultNodeExecutionResult;
 import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
@@ -34,6 +36,7 @@ import static org.mockito.Mockito.*;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.eventbus.EventBus;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -60,6 +63,9 @@ public class DefaultWorkflowRunManagerTest {
         @Mock
         Clock clock;
 
+        @Mock
+        EventBus eventBus;
+
         private WorkflowRun mockRun;
         private WorkflowRunId runId;
         private TenantId tenantId;
@@ -118,6 +124,7 @@ public class DefaultWorkflowRunManagerTest {
                                 .thenReturn(Uni.createFrom().voidItem());
 
                 // Mock update behavior
+                when(mockRun.completeNode(eq(nodeId), eq(1), anyMap())).thenReturn(true);
                 when(repository.update(any(WorkflowRun.class)))
                                 .thenReturn(Uni.createFrom().item(mockRun));
 
@@ -159,6 +166,70 @@ public class DefaultWorkflowRunManagerTest {
                 verify(mockRun, never()).completeNode(any(), anyInt(), any());
         }
 
+        @Test
+        void testHandleNodeResult_IgnoredByRun() {
+                NodeId nodeId = NodeId.of("node-1");
+                DefaultNodeExecutionResult result = new DefaultNodeExecutionResult(
+                                runId,
+                                nodeId,
+                                1,
+                                NodeExecutionStatus.COMPLETED,
+                                Map.of("key", "value"),
+                                null,
+                                null);
+
+                when(historyRepository.isNodeResultProcessed(eq(runId), eq(nodeId), eq(1)))
+                                .thenReturn(Uni.createFrom().item(false));
+                // A late result for an attempt the run has already moved past
+                when(mockRun.completeNode(eq(nodeId), eq(1), anyMap())).thenReturn(false);
+
+                runManager.handleNodeResult(runId, result).await().indefinitely();
+
+                // Nothing changed: no update, no history entry, no published update
+                verify(repository, never()).update(any());
+                verify(historyRepository, never()).append(any(), any(), any(), any());
+                verify(eventBus, never()).publish(anyString(), any());
+        }
+
+        @Test
+        void testHandleNodeResult_RetriedCommandIsNotDeduplicated() {
+                NodeId nodeId = NodeId.of("node-1");
+                DefaultNodeExecutionResult result = new DefaultNodeExecutionResult(
+                                runId,
+                                nodeId,
+                                1,
+                                NodeExecutionStatus.COMPLETED,
+                                Map.of("key", "value"),
+                                null,
+                                null);
+
+                // Optimistic mode: the repository re-runs the command after a version conflict
+                when(repository.withLock(eq(runId), any()))
+                                .thenAnswer(invocation -> {
+                                        Function<WorkflowRun, Uni<?>> action = invocation.getArgument(1);
+                                        return action.apply(mockRun)
+                                                        .onFailure().recoverWithUni(() -> action.apply(mockRun));
+                                });
+                when(mockRun.completeNode(eq(nodeId), eq(1), anyMap())).thenReturn(true);
+                when(repository.update(any(WorkflowRun.class)))
+                                .thenReturn(Uni.createFrom().failure(new GamelanException(
+                                                ErrorCode.CONCURRENCY_CONFLICT, "version moved")))
+                                .thenReturn(Uni.createFrom().item(mockRun));
+                when(historyRepository.isNodeResultProcessed(eq(runId), eq(nodeId), eq(1)))
+                                .thenReturn(Uni.createFrom().item(false));
+                when(historyRepository.append(eq(runId), anyString(), anyString(), anyMap()))
+                                .thenReturn(Uni.createFrom().voidItem());
+
+                runManager.handleNodeResult(runId, result).await().indefinitely();
+
+                // The result is claimed once, before the command, and applied on both attempts
+                verify(historyRepository, times(1)).isNodeResultProcessed(eq(runId), eq(nodeId), eq(1));
+                verify(mockRun, times(2)).completeNode(eq(nodeId), eq(1), anyMap());
+                verify(repository, times(2)).update(mockRun);
+                verify(historyRepository, times(1)).append(eq(runId), eq(ExecutionEventTypes.NODE_COMPLETED),
+                                anyString(), anyMap());
+        }
+
         @Test
         void testSignal() {
                 Signal signal = new Signal("test-signal", NodeId.of("target"), Map.of("foo", "bar"),
@@ -0,0 +1,78 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryLogTest {
+
+    @Test
+    void keepsAppendOrderAcrossSegments() {
+        HistoryLog log = new HistoryLog();
+        for (int i = 0; i < HistoryLog.SEGMENT_SIZE * 3 + 5; i++) {
+            log.append(List.of(i), 1);
+        }
+
+        List<Object> entries = log.entries();
+        assertEquals(HistoryLog.SEGMENT_SIZE * 3 + 5, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i, entries.get(i));
+        }
+        assertEquals(4, log.segmentCount());
+    }
+
+    @Test
+    void readsSlicesAcrossSegmentBoundaries() {
+        HistoryLog log = new HistoryLog();
+        for (int i = 0; i < 200; i++) {
+            log.append(List.of(i), 1);
+        }
+
+        assertEquals(List.of(62, 63, 64, 65), log.entries(62, 4));
+        assertEquals(List.of(198, 199), log.entries(198, 10));
+        assertTrue(log.entries(200, 10).isEmpty());
+        assertEquals(128, log.entries(64, 128).get(64));
+    }
+
+    @Test
+    void concurrentAppendsAreAllKeptAndBatchesStayContiguous() throws Exception {
+        HistoryLog log = new HistoryLog();
+        int threads = 8;
+        int batches = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            pool.submit(() -> {
+                start.await();
+                for (int b = 0; b < batches; b++) {
+                    List<Object> batch = new ArrayList<>();
+                    for (int i = 0; i < 3; i++) {
+                        batch.add(thread + ":" + b + ":" + i);
+                    }
+                    log.append(batch, 3);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<Object> entries = log.entries();
+        assertEquals(threads * batches * 3, entries.size());
+        for (int i = 0; i < entries.size(); i += 3) {
+            String batch = ((String) entries.get(i)).substring(0, ((String) entries.get(i)).lastIndexOf(':'));
+            assertEquals(batch + ":1", entries.get(i + 1));
+            assertEquals(batch + ":2", entries.get(i + 2));
+        }
+    }
+}
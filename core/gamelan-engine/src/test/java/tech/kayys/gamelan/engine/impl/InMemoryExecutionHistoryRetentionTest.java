@@ -0,0 +1,101 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.ExecutionEventTypes;
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
+import tech.kayys.gamelan.engine.event.GenericExecutionEvent;
+import tech.kayys.gamelan.engine.event.NodeStartedEvent;
+import tech.kayys.gamelan.engine.event.SequencedEvent;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryExecutionHistoryRetentionTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void roundTripsGenericAndTypedEvents() {
+        InMemoryExecutionHistoryRepository repository = new InMemoryExecutionHistoryRepository(60, 256, now::get);
+        WorkflowRunId runId = WorkflowRunId.of("run-1");
+        NodeStartedEvent started = new NodeStartedEvent("evt-1", runId, NodeId.of("a"), 1, Instant.now());
+        repository.appendEvents(runId, List.of(started)).await().indefinitely();
+        repository.append(runId, ExecutionEventTypes.NODE_COMPLETED, "Node completed",
+                Map.of("nodeId", "a", "attempt", 1)).await().indefinitely();
+
+        List<ExecutionEvent> events = repository.events(runId);
+
+        assertEquals(2, events.size());
+        assertEquals(started, events.get(0));
+        GenericExecutionEvent completed = assertInstanceOf(GenericExecutionEvent.class, events.get(1));
+        assertEquals(ExecutionEventTypes.NODE_COMPLETED, completed.eventType());
+        assertEquals("Node completed", completed.message());
+        assertEquals(Map.of("nodeId", "a", "attempt", 1), completed.metadata());
+        assertEquals(runId, completed.runId());
+        assertEquals(List.of(new SequencedEvent(2, completed)),
+                repository.eventsAfter(runId, 1, 10).await().indefinitely());
+        assertTrue(repository.eventsAfter(runId, 2, 10).await().indefinitely().isEmpty());
+    }
+
+    @Test
+    void dropsTerminalRunsAfterRetention() {
+        InMemoryExecutionHistoryRepository repository = new InMemoryExecutionHistoryRepository(10, 256, now::get);
+        WorkflowRunId done = WorkflowRunId.of("done");
+        WorkflowRunId active = WorkflowRunId.of("active");
+        repository.append(done, ExecutionEventTypes.RUN_COMPLETED, "Run completed", Map.of()).await().indefinitely();
+        repository.append(active, ExecutionEventTypes.STATUS_CHANGED, RunStatus.RUNNING.name(), Map.of())
+                .await().indefinitely();
+
+        now.addAndGet(10 * 60_000 - 1);
+        repository.enforceRetention();
+        assertEquals(1, repository.events(done).size());
+
+        now.addAndGet(1);
+        repository.enforceRetention();
+        assertTrue(repository.events(done).isEmpty());
+        assertEquals(1, repository.events(active).size());
+    }
+
+    @Test
+    void reopenedRunIsKept() {
+        InMemoryExecutionHistoryRepository repository = new InMemoryExecutionHistoryRepository(10, 256, now::get);
+        WorkflowRunId runId = WorkflowRunId.of("run-1");
+        repository.append(runId, ExecutionEventTypes.RUN_FAILED, "boom", Map.of()).await().indefinitely();
+        repository.append(runId, ExecutionEventTypes.STATUS_CHANGED, RunStatus.COMPENSATING.name(), Map.of())
+                .await().indefinitely();
+
+        now.addAndGet(60 * 60_000);
+        repository.enforceRetention();
+
+        assertEquals(2, repository.events(runId).size());
+    }
+
+    @Test
+    void evictsOldestTerminalRunsOverMemoryBudget() {
+        InMemoryExecutionHistoryRepository repository = new InMemoryExecutionHistoryRepository(60, 1, now::get);
+        String payload = "x".repeat(100_000);
+        for (int i = 0; i < 20; i++) {
+            WorkflowRunId runId = WorkflowRunId.of("run-" + i);
+            repository.append(runId, "OUTPUT", "output", Map.of("payload", payload + i)).await().indefinitely();
+            repository.append(runId, ExecutionEventTypes.RUN_COMPLETED, "Run completed", Map.of())
+                    .await().indefinitely();
+            now.incrementAndGet();
+        }
+
+        repository.enforceRetention();
+
+        assertTrue(repository.estimatedBytes() <= 1024 * 1024);
+        assertTrue(repository.events(WorkflowRunId.of("run-0")).isEmpty());
+        assertEquals(2, repository.events(WorkflowRunId.of("run-19")).size());
+    }
+}
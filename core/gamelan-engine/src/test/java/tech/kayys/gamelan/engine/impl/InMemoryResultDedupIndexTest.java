@@ -0,0 +1,59 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryResultDedupIndexTest {
+
+    private final WorkflowRunId runId = WorkflowRunId.of("run-1");
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void reportsSecondDeliveryAsDuplicate() {
+        InMemoryResultDedupIndex index = new InMemoryResultDedupIndex(60_000, 100, now::get, null);
+
+        assertFalse(mark(index, "a", 1));
+        assertTrue(mark(index, "a", 1));
+        assertFalse(mark(index, "a", 2));
+    }
+
+    @Test
+    void forgetsEntriesAfterTtl() {
+        InMemoryResultDedupIndex index = new InMemoryResultDedupIndex(1_000, 100, now::get, null);
+        mark(index, "a", 1);
+        mark(index, "b", 1);
+
+        now.addAndGet(999);
+        assertTrue(mark(index, "a", 1));
+
+        now.addAndGet(1);
+        mark(index, "c", 1);
+        assertEquals(1, index.size());
+        assertFalse(mark(index, "a", 1));
+    }
+
+    @Test
+    void dropsOldestBeyondMaxEntries() {
+        InMemoryResultDedupIndex index = new InMemoryResultDedupIndex(60_000, 2, now::get, null);
+        mark(index, "a", 1);
+        mark(index, "b", 1);
+        mark(index, "c", 1);
+        mark(index, "d", 1);
+
+        assertTrue(index.size() <= 3);
+        assertTrue(mark(index, "d", 1));
+        assertFalse(mark(index, "a", 1));
+    }
+
+    private boolean mark(InMemoryResultDedupIndex index, String nodeId, int attempt) {
+        return index.checkAndMark(runId, NodeId.of(nodeId), attempt).await().indefinitely();
+    }
+}
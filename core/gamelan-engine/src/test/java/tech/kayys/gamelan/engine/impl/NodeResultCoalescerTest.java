@@ -0,0 +1,110 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import tech.kayys.gamelan.engine.node.DefaultNodeExecutionResult;
+import tech.kayys.gamelan.engine.node.NodeExecutionResult;
+import tech.kayys.gamelan.engine.node.NodeExecutionStatus;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NodeResultCoalescerTest {
+
+    private final WorkflowRunId runId = WorkflowRunId.of("run-1");
+    private final List<List<NodeExecutionResult>> flushed = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void flushesFullBatchOnce() throws Exception {
+        NodeResultCoalescer coalescer = new NodeResultCoalescer(60_000, 3);
+
+        List<CompletableFuture<Void>> callers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            callers.add(coalescer.submit(runId, result("n" + i), this::acceptAll)
+                    .subscribe().asCompletionStage());
+        }
+
+        CompletableFuture.allOf(callers.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(1, flushed.size());
+        assertEquals(List.of(NodeId.of("n0"), NodeId.of("n1"), NodeId.of("n2")),
+                flushed.get(0).stream().map(NodeExecutionResult::nodeId).toList());
+    }
+
+    @Test
+    void flushesPartialBatchWhenWindowCloses() throws Exception {
+        NodeResultCoalescer coalescer = new NodeResultCoalescer(10, 64);
+
+        CompletableFuture<Void> first = coalescer.submit(runId, result("a"), this::acceptAll)
+                .subscribe().asCompletionStage();
+        CompletableFuture<Void> second = coalescer.submit(runId, result("b"), this::acceptAll)
+                .subscribe().asCompletionStage();
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertEquals(1, flushed.size());
+        assertEquals(2, flushed.get(0).size());
+    }
+
+    @Test
+    void keepsRunsInSeparateBatches() throws Exception {
+        NodeResultCoalescer coalescer = new NodeResultCoalescer(10, 64);
+
+        CompletableFuture<Void> first = coalescer.submit(runId, result("a"), this::acceptAll)
+                .subscribe().asCompletionStage();
+        CompletableFuture<Void> second = coalescer.submit(WorkflowRunId.of("run-2"), result("a"), this::acceptAll)
+                .subscribe().asCompletionStage();
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertEquals(2, flushed.size());
+    }
+
+    @Test
+    void failsOnlyTheRejectedResult() throws Exception {
+        NodeResultCoalescer coalescer = new NodeResultCoalescer(60_000, 2);
+        IllegalStateException rejection = new IllegalStateException("attempt mismatch");
+
+        CompletableFuture<Void> accepted = coalescer.submit(runId, result("a"),
+                batch -> Uni.createFrom().item(Arrays.asList(null, rejection)))
+                .subscribe().asCompletionStage();
+        CompletableFuture<Void> rejected = coalescer.submit(runId, result("b"), this::acceptAll)
+                .subscribe().asCompletionStage();
+
+        accepted.get(5, TimeUnit.SECONDS);
+        Exception failure = assertThrows(Exception.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertEquals(rejection, failure.getCause());
+    }
+
+    @Test
+    void opensNewBatchAfterFlush() throws Exception {
+        NodeResultCoalescer coalescer = new NodeResultCoalescer(60_000, 1);
+
+        coalescer.submit(runId, result("a"), this::acceptAll).await().indefinitely();
+        coalescer.submit(runId, result("b"), this::acceptAll).await().indefinitely();
+
+        assertEquals(2, flushed.size());
+        assertFalse(flushed.get(0).isEmpty());
+        assertTrue(flushed.stream().allMatch(batch -> batch.size() == 1));
+    }
+
+    private Uni<List<Throwable>> acceptAll(List<NodeExecutionResult> batch) {
+        flushed.add(List.copyOf(batch));
+        return Uni.createFrom().item(Arrays.asList(new Throwable[batch.size()]));
+    }
+
+    private NodeExecutionResult result(String nodeId) {
+        return new DefaultNodeExecutionResult(runId, NodeId.of(nodeId), 1, NodeExecutionStatus.COMPLETED,
+                Map.of(), null, null);
+    }
+}
@@ -0,0 +1,290 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.smallrye.mutiny.Uni;
+import tech.kayys.gamelan.engine.callback.CallbackRegistration;
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.event.ExecutionEvent;
+import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.node.NodeDefinition;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.node.NodeType;
+import tech.kayys.gamelan.engine.repository.WorkflowRunRepository;
+import tech.kayys.gamelan.engine.run.RunQuery;
+import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunStatusCount;
+import tech.kayys.gamelan.engine.run.RunSummaryPage;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+import tech.kayys.gamelan.engine.workflow.CompiledWorkflowPlan;
+import tech.kayys.gamelan.engine.workflow.WorkflowDefinition;
+import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRun;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunSnapshot;
+
+/**
+ * Node results per second for a fan-in of {@code branches} parallel nodes into
+ * one join, with the results arriving concurrently from {@code threads} callers.
+ *
+ * {@code lock} is the per-command path: every result takes the run's lock and
+ * rehydrates the run from its last snapshot plus tail, as
+ * PostgresWorkflowRunRepository.withLock does. {@code lanes} routes the results
+ * through RunLaneExecutor, which keeps the run hot on its lane. The repository
+ * is in memory, so the numbers exclude network and SQL and only show the cost of
+ * lock contention and rehydration.
+ *
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main RunLaneExecutorBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RunLaneExecutorBenchmark {
+
+    private static final int BRANCHES = 500;
+
+    @Param({ "lock", "lanes" })
+    String mode;
+
+    @Param({ "8" })
+    int threads;
+
+    private CompiledWorkflowPlan plan;
+    private InMemoryRunRepository repository;
+    private RunLaneExecutor lanes;
+    private ExecutorService callers;
+
+    @Setup
+    public void setUp() {
+        List<NodeDefinition> nodes = new ArrayList<>(BRANCHES + 1);
+        NodeDefinition.Builder join = NodeDefinition.builder()
+                .id(NodeId.of("join"))
+                .type(NodeType.TASK)
+                .executorType("bench");
+        for (int i = 0; i < BRANCHES; i++) {
+            nodes.add(NodeDefinition.builder()
+                    .id(NodeId.of("branch-" + i))
+                    .type(NodeType.TASK)
+                    .executorType("bench")
+                    .build());
+            join.addDependency(NodeId.of("branch-" + i));
+        }
+        nodes.add(join.build());
+        plan = CompiledWorkflowPlan.compile(WorkflowDefinition.builder()
+                .id(WorkflowDefinitionId.of("bench"))
+                .tenantId(TenantId.of("bench"))
+                .name("fan-in")
+                .version("1.0.0")
+                .nodes(nodes)
+                .build());
+
+        repository = new InMemoryRunRepository(plan, 100);
+        lanes = new RunLaneExecutor(repository, Runtime.getRuntime().availableProcessors(), 256, 3);
+        callers = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BRANCHES)
+    public WorkflowRun fanIn() {
+        WorkflowRun run = WorkflowRun.create(TenantId.of("bench"), plan, Map.of());
+        run.start();
+        for (int i = 0; i < BRANCHES; i++) {
+            run.startNode(NodeId.of("branch-" + i), 1);
+        }
+        repository.persist(run).await().indefinitely();
+        WorkflowRunId runId = run.getId();
+
+        List<CompletableFuture<Void>> results = new ArrayList<>(BRANCHES);
+        for (int i = 0; i < BRANCHES; i++) {
+            NodeId nodeId = NodeId.of("branch-" + i);
+            Function<WorkflowRun, Uni<Void>> command = current -> {
+                current.completeNode(nodeId, 1, Map.of("branch", nodeId.value()));
+                return repository.update(current).replaceWithVoid();
+            };
+            results.add(CompletableFuture.supplyAsync(() -> "lanes".equals(mode)
+                    ? lanes.execute(runId, command)
+                    : repository.withLock(runId, command), callers)
+                    .thenCompose(uni -> uni.subscribe().asCompletionStage()));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+
+        WorkflowRun finished = repository.findById(runId).await().indefinitely();
+        if (!finished.getReadyNodes().equals(List.of(NodeId.of("join")))) {
+            throw new IllegalStateException("Join not released: " + finished.getReadyNodes());
+        }
+        repository.remove(runId);
+        return finished;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RunLaneExecutorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * Stores events plus a snapshot every {@code snapshotInterval} events and
+     * rebuilds the run from them on every load; the event append is guarded on
+     * the run version like PostgresEventStore.
+     */
+    static final class InMemoryRunRepository implements WorkflowRunRepository {
+
+        private final CompiledWorkflowPlan plan;
+        private final int snapshotInterval;
+        private final Map<WorkflowRunId, StoredRun> runs = new ConcurrentHashMap<>();
+
+        InMemoryRunRepository(CompiledWorkflowPlan plan, int snapshotInterval) {
+            this.plan = plan;
+            this.snapshotInterval = snapshotInterval;
+        }
+
+        private static final class StoredRun {
+            final ReentrantLock lock = new ReentrantLock();
+            final List<ExecutionEvent> events = new ArrayList<>();
+            WorkflowRunSnapshot snapshot;
+        }
+
+        void remove(WorkflowRunId runId) {
+            runs.remove(runId);
+        }
+
+        @Override
+        public Uni<WorkflowRun> persist(WorkflowRun run) {
+            StoredRun stored = new StoredRun();
+            runs.put(run.getId(), stored);
+            return update(run);
+        }
+
+        @Override
+        public Uni<WorkflowRun> update(WorkflowRun run) {
+            StoredRun stored = runs.get(run.getId());
+            synchronized (stored) {
+                if (stored.events.size() != run.getVersion()) {
+                    return Uni.createFrom().failure(new GamelanException(ErrorCode.CONCURRENCY_CONFLICT,
+                            "WorkflowRun " + run.getId().value() + " was modified concurrently"));
+                }
+                long previousVersion = run.getVersion();
+                stored.events.addAll(run.getUncommittedEvents());
+                run.markEventsAsCommitted();
+                if (run.getVersion() / snapshotInterval > previousVersion / snapshotInterval) {
+                    stored.snapshot = run.createSnapshot();
+                }
+            }
+            return Uni.createFrom().item(run);
+        }
+
+        @Override
+        public Uni<WorkflowRun> findById(WorkflowRunId id) {
+            return Uni.createFrom().item(() -> load(id));
+        }
+
+        @Override
+        public Uni<WorkflowRun> findById(WorkflowRunId id, TenantId tenantId) {
+            return findById(id);
+        }
+
+        @Override
+        public <T> Uni<T> withLock(WorkflowRunId runId, Function<WorkflowRun, Uni<T>> action) {
+            return Uni.createFrom().item(() -> {
+                ReentrantLock lock = runs.get(runId).lock;
+                lock.lock();
+                try {
+                    return action.apply(load(runId)).await().indefinitely();
+                } finally {
+                    lock.unlock();
+                }
+            });
+        }
+
+        private WorkflowRun load(WorkflowRunId runId) {
+            StoredRun stored = runs.get(runId);
+            synchronized (stored) {
+                if (stored.snapshot == null) {
+                    return WorkflowRun.fromEvents(runId, TenantId.of("bench"), plan, List.copyOf(stored.events));
+                }
+                return WorkflowRun.fromSnapshot(plan, stored.snapshot,
+                        List.copyOf(stored.events.subList((int) stored.snapshot.version(), stored.events.size())));
+            }
+        }
+
+        @Override
+        public Uni<WorkflowRunSnapshot> snapshot(WorkflowRunId runId, TenantId tenantId) {
+            return findById(runId).map(WorkflowRun::createSnapshot);
+        }
+
+        @Override
+        public Uni<List<WorkflowRun>> query(TenantId tenantId, WorkflowDefinitionId definitionId,
+                RunStatus status, int page, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<RunSummaryPage> querySummaries(RunQuery query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<Long> countActiveRuns(TenantId tenantId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<List<RunStatusCount>> countRunsByStatus() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<Void> storeToken(ExecutionToken token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<Boolean> validateToken(ExecutionToken token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<Void> storeCallback(CallbackRegistration callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<Boolean> validateCallback(WorkflowRunId runId, String token) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
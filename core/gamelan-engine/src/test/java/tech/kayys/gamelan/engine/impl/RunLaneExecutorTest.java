@@ -0,0 +1,157 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import tech.kayys.gamelan.engine.error.ErrorCode;
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.engine.repository.WorkflowRunRepository;
+import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.workflow.WorkflowRun;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RunLaneExecutorTest {
+
+    @Mock
+    WorkflowRunRepository repository;
+
+    private RunLaneExecutor executor;
+    private WorkflowRunId runId;
+    private List<WorkflowRun> loaded;
+
+    @BeforeEach
+    void setUp() {
+        executor = new RunLaneExecutor(repository, 4, 16, 3);
+        runId = WorkflowRunId.of(UUID.randomUUID().toString());
+        loaded = new ArrayList<>();
+
+        // Every load returns a fresh run instance
+        when(repository.findById(runId)).thenAnswer(invocation -> {
+            WorkflowRun run = mock(WorkflowRun.class);
+            when(run.getStatus()).thenReturn(RunStatus.RUNNING);
+            when(run.getUncommittedEvents()).thenReturn(List.of());
+            loaded.add(run);
+            return Uni.createFrom().item(run);
+        });
+    }
+
+    @Test
+    void commandsForTheSameRunDoNotOverlap() {
+        AtomicReference<UniEmitter<? super String>> first = new AtomicReference<>();
+        AtomicInteger secondStarted = new AtomicInteger();
+
+        Uni<String> firstResult = executor.execute(runId, run -> Uni.createFrom().emitter(first::set));
+        Uni<String> secondResult = executor.execute(runId, run -> {
+            secondStarted.incrementAndGet();
+            return Uni.createFrom().item("second");
+        });
+
+        AtomicReference<String> firstItem = new AtomicReference<>();
+        AtomicReference<String> secondItem = new AtomicReference<>();
+        firstResult.subscribe().with(firstItem::set);
+        secondResult.subscribe().with(secondItem::set);
+
+        assertEquals(0, secondStarted.get());
+        first.get().complete("first");
+
+        assertEquals("first", firstItem.get());
+        assertEquals(1, secondStarted.get());
+        assertEquals("second", secondItem.get());
+    }
+
+    @Test
+    void keepsRunHotBetweenCommands() {
+        List<WorkflowRun> seen = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            executor.execute(runId, run -> {
+                seen.add(run);
+                return Uni.createFrom().voidItem();
+            }).await().indefinitely();
+        }
+
+        verify(repository, times(1)).findById(runId);
+        assertSame(seen.get(0), seen.get(2));
+        assertEquals(1, executor.cachedRuns());
+    }
+
+    @Test
+    void reloadsAndRetriesOnConcurrencyConflict() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(runId, run -> attempts.incrementAndGet() == 1
+                ? Uni.createFrom().<String>failure(
+                        new GamelanException(ErrorCode.CONCURRENCY_CONFLICT, "stale"))
+                : Uni.createFrom().item("ok")).await().indefinitely();
+
+        assertEquals("ok", result);
+        assertEquals(2, attempts.get());
+        assertEquals(2, loaded.size());
+        assertNotSame(loaded.get(0), loaded.get(1));
+    }
+
+    @Test
+    void doesNotCacheRunHandedToCaller() {
+        WorkflowRun returned = executor.execute(runId, run -> Uni.createFrom().item(run))
+                .await().indefinitely();
+        WorkflowRun next = executor.execute(runId, run -> Uni.createFrom().item(run))
+                .await().indefinitely();
+
+        assertNotSame(returned, next);
+        assertEquals(0, executor.cachedRuns());
+    }
+
+    @Test
+    void evictsRunAfterFailedCommand() {
+        executor.execute(runId, run -> Uni.createFrom().voidItem()).await().indefinitely();
+        assertEquals(1, executor.cachedRuns());
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        executor.execute(runId, run -> Uni.createFrom().<Void>failure(new IllegalStateException("boom")))
+                .subscribe().with(item -> {
+                }, failure::set);
+
+        assertTrue(failure.get() instanceof IllegalStateException);
+        assertEquals(0, executor.cachedRuns());
+        assertFalse(loaded.isEmpty());
+    }
+
+    @Test
+    void evictsRunAfterCommandThrows() {
+        executor.execute(runId, run -> Uni.createFrom().voidItem()).await().indefinitely();
+        assertEquals(1, executor.cachedRuns());
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        executor.<Void>execute(runId, run -> {
+            throw new IllegalStateException("boom");
+        }).subscribe().with(item -> {
+        }, failure::set);
+
+        assertTrue(failure.get() instanceof IllegalStateException);
+        assertEquals(0, executor.cachedRuns());
+    }
+}
@@ -0,0 +1,75 @@
+package tech.kayys.gamelan.engine.impl;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunStatusCount;
+import tech.kayys.gamelan.engine.tenant.TenantId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunStatusCountersTest {
+
+    private final TenantId acme = TenantId.of("acme");
+    private final TenantId globex = TenantId.of("globex");
+
+    @Test
+    void followsTransitionsPerTenant() {
+        RunStatusCounters counters = new RunStatusCounters();
+        counters.onCreated(acme, RunStatus.PENDING);
+        counters.onCreated(acme, RunStatus.PENDING);
+        counters.onCreated(globex, RunStatus.PENDING);
+
+        counters.onTransition(acme, RunStatus.PENDING, RunStatus.RUNNING);
+        counters.onTransition(acme, RunStatus.RUNNING, RunStatus.SUSPENDED);
+        counters.onTransition(globex, RunStatus.PENDING, RunStatus.RUNNING);
+        counters.onTransition(globex, RunStatus.RUNNING, RunStatus.COMPLETED);
+
+        assertEquals(1, counters.count(acme, RunStatus.PENDING));
+        assertEquals(1, counters.count(acme, RunStatus.SUSPENDED));
+        assertEquals(2, counters.activeRuns(acme));
+        assertEquals(0, counters.activeRuns(globex));
+        assertEquals(1, counters.count(globex, RunStatus.COMPLETED));
+    }
+
+    @Test
+    void ignoresCommandsThatKeepTheStatus() {
+        RunStatusCounters counters = new RunStatusCounters();
+        counters.onCreated(acme, RunStatus.RUNNING);
+        counters.onTransition(acme, RunStatus.RUNNING, RunStatus.RUNNING);
+
+        assertEquals(1, counters.count(acme, RunStatus.RUNNING));
+    }
+
+    @Test
+    void reconciliationReplacesLocalCounts() {
+        RunStatusCounters counters = new RunStatusCounters();
+        counters.onCreated(acme, RunStatus.RUNNING);
+        counters.onCreated(globex, RunStatus.RUNNING);
+        assertFalse(counters.isReconciled());
+
+        counters.apply(List.of(
+                new RunStatusCount(acme, RunStatus.RUNNING, 7),
+                new RunStatusCount(acme, RunStatus.FAILED, 3)));
+
+        assertTrue(counters.isReconciled());
+        assertEquals(7, counters.activeRuns(acme));
+        assertEquals(3, counters.count(acme, RunStatus.FAILED));
+        // No longer in the repository: back to zero
+        assertEquals(0, counters.activeRuns(globex));
+    }
+
+    @Test
+    void neverReportsNegativeCounts() {
+        RunStatusCounters counters = new RunStatusCounters();
+        counters.apply(List.of());
+        counters.onTransition(acme, RunStatus.RUNNING, RunStatus.COMPLETED);
+
+        assertEquals(0, counters.count(acme, RunStatus.RUNNING));
+        assertEquals(1, counters.count(acme, RunStatus.COMPLETED));
+    }
+}
@@ -0,0 +1,129 @@
+package tech.kayys.gamelan.grpc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.error.GamelanException;
+import tech.kayys.gamelan.grpc.v1.EngineMessage;
+import tech.kayys.gamelan.grpc.v1.ExecutionTask;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutorStreamTest {
+
+    private final List<EngineMessage> written = new ArrayList<>();
+
+    @Test
+    void sendsOnlyWhileThereAreCredits() {
+        ExecutorStream stream = new ExecutorStream("executor-1", written::add, 10);
+        stream.grant(2, 0);
+
+        CompletableFuture<Void> first = stream.offer(task("a")).toCompletableFuture();
+        CompletableFuture<Void> second = stream.offer(task("b")).toCompletableFuture();
+        CompletableFuture<Void> third = stream.offer(task("c")).toCompletableFuture();
+
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+        assertEquals(List.of("a", "b"), taskIds());
+        assertEquals(0, stream.credits());
+        assertEquals(1, stream.pendingCount());
+    }
+
+    @Test
+    void grantReleasesWaitingTasksInOrder() {
+        ExecutorStream stream = new ExecutorStream("executor-1", written::add, 10);
+        CompletableFuture<Void> a = stream.offer(task("a")).toCompletableFuture();
+        CompletableFuture<Void> b = stream.offer(task("b")).toCompletableFuture();
+        CompletableFuture<Void> c = stream.offer(task("c")).toCompletableFuture();
+
+        stream.grant(2, 0);
+
+        assertTrue(a.isDone());
+        assertTrue(b.isDone());
+        assertFalse(c.isDone());
+        assertEquals(List.of("a", "b"), taskIds());
+    }
+
+    @Test
+    void tasksStillInFlightUseUpFreeSlots() {
+        ExecutorStream stream = new ExecutorStream("executor-1", written::add, 10);
+        stream.grant(3, 0);
+        stream.offer(task("a"));
+        stream.offer(task("b"));
+
+        // The executor reports three free slots before it has seen either task
+        stream.grant(3, 0);
+        assertEquals(1, stream.credits());
+
+        // Both arrived and one finished: two free, nothing in flight
+        stream.grant(2, 2);
+        assertEquals(2, stream.credits());
+    }
+
+    @Test
+    void shedsLoadOnceTheQueueIsFull() {
+        ExecutorStream stream = new ExecutorStream("executor-1", written::add, 1);
+        stream.offer(task("a"));
+
+        CompletableFuture<Void> shed = stream.offer(task("b")).toCompletableFuture();
+
+        CompletionException error = assertThrows(CompletionException.class, shed::join);
+        assertInstanceOf(GamelanException.class, error.getCause());
+        assertEquals(1, stream.pendingCount());
+    }
+
+    @Test
+    void cancelledTasksAreNeitherSentNorCharged() {
+        ExecutorStream stream = new ExecutorStream("executor-1", written::add, 10);
+        CompletableFuture<Void> a = stream.offer(task("a")).toCompletableFuture();
+        CompletableFuture<Void> b = stream.offer(task("b")).toCompletableFuture();
+
+        a.cancel(false);
+        stream.grant(1, 0);
+
+        assertTrue(b.isDone());
+        assertEquals(List.of("b"), taskIds());
+        assertEquals(0, stream.credits());
+    }
+
+    @Test
+    void cancelledTasksFreeTheirPlaceInTheQueue() {
+        ExecutorStream stream = new ExecutorStream("executor-1", written::add, 1);
+        stream.offer(task("a")).toCompletableFuture().cancel(false);
+
+        CompletableFuture<Void> b = stream.offer(task("b")).toCompletableFuture();
+
+        assertFalse(b.isDone());
+        assertEquals(1, stream.pendingCount());
+    }
+
+    @Test
+    void closeFailsWaitingTasksAndRefusesNewOnes() {
+        ExecutorStream stream = new ExecutorStream("executor-1", written::add, 10);
+        CompletableFuture<Void> waiting = stream.offer(task("a")).toCompletableFuture();
+
+        assertEquals(1, stream.close());
+        stream.grant(5, 0);
+
+        assertTrue(waiting.isCompletedExceptionally());
+        assertTrue(stream.offer(task("b")).toCompletableFuture().isCompletedExceptionally());
+        assertTrue(written.isEmpty());
+    }
+
+    private List<String> taskIds() {
+        return written.stream().map(message -> message.getTask().getTaskId()).toList();
+    }
+
+    private static ExecutionTask task(String id) {
+        return ExecutionTask.newBuilder().setTaskId(id).build();
+    }
+}
@@ -0,0 +1,53 @@
+package tech.kayys.gamelan.scheduler;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryShardsTest {
+
+    @Test
+    void everyShardHasExactlyOneOwner() {
+        List<String> live = List.of("engine-c", "engine-a", "engine-b");
+
+        int[] owners = new int[16];
+        for (String instance : live) {
+            int[] owned = RetryShards.owned(live, instance, 16);
+            assertTrue(owned.length == 5 || owned.length == 6, instance + " owns " + owned.length);
+            for (int shard : owned) {
+                owners[shard]++;
+            }
+        }
+        assertArrayEquals(IntStream.generate(() -> 1).limit(16).toArray(), owners);
+    }
+
+    @Test
+    void ownershipDoesNotDependOnListingOrder() {
+        int[] first = RetryShards.owned(List.of("b", "a", "c"), "b", 16);
+        int[] second = RetryShards.owned(List.of("c", "b", "a"), "b", 16);
+
+        assertEquals(Arrays.toString(first), Arrays.toString(second));
+    }
+
+    @Test
+    void unknownInstancesOwnNothingAndSurplusInstancesIdle() {
+        assertEquals(0, RetryShards.owned(List.of("a", "b"), "z", 16).length);
+        assertEquals(0, RetryShards.owned(List.of("a", "b", "c"), "c", 2).length);
+        assertArrayEquals(new int[] { 1 }, RetryShards.owned(List.of("a", "b", "c"), "b", 2));
+    }
+
+    @Test
+    void retriesOfARunShareAShard() {
+        String runId = "0190f5e2-7c1a-7000-8000-000000000001";
+        int shard = RetryShards.shardOf(runId, 16);
+
+        assertTrue(shard >= 0 && shard < 16);
+        assertEquals(shard, RetryShards.shardOf(runId, 16));
+    }
+}
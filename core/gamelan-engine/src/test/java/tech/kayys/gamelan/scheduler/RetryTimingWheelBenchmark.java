@@ -0,0 +1,117 @@
+package tech.kayys.gamelan.scheduler;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost per retry of holding {@link #PENDING} retries with deadlines spread
+ * over ten minutes and firing each one on time, advancing the clock a
+ * millisecond at a time as the retry timer does.
+ *
+ * {@code wheel} is TimingWheel. {@code sorted} keeps them in a skip list keyed
+ * by deadline, the in-process equivalent of the Redis sorted set the scheduler
+ * used to poll, so it shows the O(log n) insert and expire the wheel replaces
+ * without the network round trips.
+ *
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main RetryTimingWheelBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RetryTimingWheelBenchmark {
+
+    private static final int PENDING = 1_000_000;
+    private static final long SPREAD_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long START = 1_700_000_000_000L;
+
+    @Param({ "wheel", "sorted" })
+    String mode;
+
+    private long[] deadlines;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        deadlines = new long[PENDING];
+        for (int i = 0; i < PENDING; i++) {
+            deadlines[i] = START + (long) (random.nextDouble() * SPREAD_MS);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PENDING)
+    public int schedule() {
+        if ("wheel".equals(mode)) {
+            TimingWheel<Integer> wheel = new TimingWheel<>(START);
+            for (int i = 0; i < PENDING; i++) {
+                wheel.schedule(i, deadlines[i]);
+            }
+            return wheel.size();
+        }
+        ConcurrentSkipListMap<Long, Integer> sorted = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < PENDING; i++) {
+            sorted.put(key(deadlines[i], i), i);
+        }
+        return sorted.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PENDING)
+    public int scheduleAndFire() {
+        int fired = 0;
+        if ("wheel".equals(mode)) {
+            TimingWheel<Integer> wheel = new TimingWheel<>(START);
+            for (int i = 0; i < PENDING; i++) {
+                wheel.schedule(i, deadlines[i]);
+            }
+            for (long now = START; fired < PENDING; now++) {
+                fired += wheel.advance(now).size();
+            }
+            return fired;
+        }
+        ConcurrentSkipListMap<Long, Integer> sorted = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < PENDING; i++) {
+            sorted.put(key(deadlines[i], i), i);
+        }
+        for (long now = START; fired < PENDING; now++) {
+            long due = key(now + 1, 0);
+            Map.Entry<Long, Integer> first;
+            while ((first = sorted.firstEntry()) != null && first.getKey() < due) {
+                sorted.remove(first.getKey());
+                fired++;
+            }
+        }
+        return fired;
+    }
+
+    /** Deadline in the high bits, index below so equal deadlines stay distinct */
+    private static long key(long deadline, int index) {
+        return ((deadline - START) << 20) | index;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RetryTimingWheelBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package tech.kayys.gamelan.scheduler;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.node.NodeExecutionTask;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ScheduledTasksTest {
+
+    private final ScheduledTasks tasks = new ScheduledTasks();
+
+    @Test
+    void tracksEachTaskOnce() {
+        ScheduledTask first = track("run-1", "a");
+        ScheduledTask again = track("run-1", "a");
+
+        assertSame(first, again);
+        assertEquals(1, tasks.size());
+        assertEquals(1, tasks.count(TaskStatus.PENDING));
+    }
+
+    @Test
+    void countsFollowTransitions() {
+        ScheduledTask a = track("run-1", "a");
+        ScheduledTask b = track("run-1", "b");
+        track("run-2", "c");
+
+        tasks.markRunning(a);
+        tasks.markFailed(b, new RuntimeException("boom"));
+        tasks.markRunning(b);
+
+        assertEquals(2, tasks.activeCount());
+        assertEquals(1, tasks.count(TaskStatus.RUNNING));
+        assertEquals(1, tasks.count(TaskStatus.FAILED));
+        assertEquals(TaskStatus.FAILED, b.status());
+    }
+
+    @Test
+    void cancelsOnlyTheRunsUnfinishedTasks() {
+        ScheduledTask a = track("run-1", "a");
+        ScheduledTask b = track("run-1", "b");
+        ScheduledTask c = track("run-2", "c");
+        tasks.markFailed(b, new RuntimeException("boom"));
+
+        assertEquals(1, tasks.cancelRun(WorkflowRunId.of("run-1")));
+        assertEquals(TaskStatus.CANCELLED, a.status());
+        assertEquals(TaskStatus.FAILED, b.status());
+        assertEquals(TaskStatus.PENDING, c.status());
+        assertEquals(1, tasks.activeCount());
+        assertEquals(0, tasks.cancelRun(WorkflowRunId.of("run-3")));
+    }
+
+    @Test
+    void expiresOnlyTasksFinishedBeforeTheCutoff() throws InterruptedException {
+        ScheduledTask a = track("run-1", "a");
+        ScheduledTask b = track("run-1", "b");
+        track("run-1", "c");
+        tasks.markFailed(a, new RuntimeException("boom"));
+        Thread.sleep(5);
+        Instant cutoff = Instant.now();
+        Thread.sleep(5);
+        tasks.cancelRun(WorkflowRunId.of("run-2"));
+        tasks.markFailed(b, new RuntimeException("boom"));
+
+        assertEquals(1, tasks.expire(cutoff));
+        assertEquals(2, tasks.size());
+        assertEquals(1, tasks.count(TaskStatus.FAILED));
+        assertEquals(1, tasks.activeCount());
+
+        assertEquals(1, tasks.expire(Instant.now().plusSeconds(1)));
+        assertEquals(1, tasks.cancelRun(WorkflowRunId.of("run-1")));
+        assertEquals(1, tasks.expire(Instant.now().plusSeconds(1)));
+        assertEquals(0, tasks.size());
+    }
+
+    private ScheduledTask track(String runId, String nodeId) {
+        NodeExecutionTask task = new NodeExecutionTask(
+                WorkflowRunId.of(runId), NodeId.of(nodeId), 1, null, Map.of(), null);
+        String taskId = runId + ":" + nodeId + ":1";
+        return tasks.track(taskId, () -> new ScheduledTask(taskId, task, Instant.now(), 1, TaskStatus.PENDING));
+    }
+}
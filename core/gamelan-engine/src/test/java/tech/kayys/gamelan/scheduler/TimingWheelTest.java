@@ -0,0 +1,118 @@
+package tech.kayys.gamelan.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final long START = 1_700_000_000_123L;
+
+    @Test
+    void firesEachValueAtItsDeadline() {
+        TimingWheel<Long> wheel = new TimingWheel<>(START);
+        long[] delays = { 0, 1, 255, 256, 257, 65_535, 65_536, 70_000, 16_777_216, 20_000_001 };
+        for (long delay : delays) {
+            wheel.schedule(delay, START + delay);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long delay : delays) {
+            assertEquals(List.of(), wheel.advance(START + delay - 1), "fired early: " + delay);
+            fired.addAll(wheel.advance(START + delay));
+        }
+        assertEquals(Arrays.stream(delays).boxed().toList(), fired);
+    }
+
+    @Test
+    void catchesUpAfterAPause() {
+        TimingWheel<String> wheel = new TimingWheel<>(START);
+        wheel.schedule("a", START + 10);
+        wheel.schedule("b", START + 300);
+        wheel.schedule("c", START + 100_000);
+
+        assertEquals(List.of("a", "b"), wheel.advance(START + 5_000));
+        assertEquals(List.of(), wheel.advance(START + 99_999));
+        assertEquals(List.of("c"), wheel.advance(START + 100_000));
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void overdueValuesFireOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(START);
+        wheel.advance(START + 1_000);
+        wheel.schedule("late", START);
+
+        assertEquals(List.of("late"), wheel.advance(START + 1_001));
+    }
+
+    @Test
+    void cancelledValuesNeverFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(START);
+        TimingWheel.Timeout near = wheel.schedule("near", START + 5);
+        TimingWheel.Timeout far = wheel.schedule("far", START + 500_000);
+        wheel.schedule("kept", START + 500_000);
+
+        assertTrue(near.cancel());
+        assertTrue(far.cancel());
+        assertFalse(far.cancel());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("kept"), wheel.advance(START + 500_000));
+    }
+
+    @Test
+    void deadlinesBeyondTheRangeWaitAtTheTop() {
+        TimingWheel<String> wheel = new TimingWheel<>(START);
+        long beyond = START + (1L << 32) + 1_000;
+        wheel.schedule("later", beyond);
+
+        assertEquals(List.of(), wheel.advance(beyond - 1));
+        assertEquals(List.of("later"), wheel.advance(beyond));
+    }
+
+    @Test
+    void nextTickIsTheEarliestDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(START);
+        assertEquals(Long.MAX_VALUE, wheel.nextTick());
+
+        wheel.schedule("far", START + 70_000);
+        assertEquals(START + 65_536 - (START & 0xFFFF), wheel.nextTick(), "next cascade of the far value");
+
+        TimingWheel.Timeout near = wheel.schedule("near", START + 40);
+        wheel.schedule("later", START + 200);
+        assertEquals(START + 40, wheel.nextTick());
+
+        near.cancel();
+        assertEquals(START + 200, wheel.nextTick());
+        assertEquals(List.of("later"), wheel.advance(wheel.nextTick()));
+    }
+
+    @Test
+    void neverFiresEarlyOrLateUnderRandomAdvances() {
+        Random random = new Random(42);
+        TimingWheel<Long> wheel = new TimingWheel<>(START);
+        int count = 20_000;
+        for (int i = 0; i < count; i++) {
+            long deadline = START + (long) (random.nextDouble() * random.nextDouble() * (1L << 26));
+            wheel.schedule(deadline, deadline);
+        }
+
+        int fired = 0;
+        long previous = START - 1;
+        for (long now = START; !wheel.isEmpty(); now += 1 + random.nextInt(5_000)) {
+            for (long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now && deadline > previous, "fired at " + now + " for " + deadline);
+                fired++;
+            }
+            previous = now;
+        }
+        assertEquals(count, fired);
+    }
+}
@@ -0,0 +1,95 @@
+package tech.kayys.gamelan.security;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutionTokenSignerTest {
+
+    private static final String OLD_KEY = "k1:" + Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String NEW_KEY = "k2:" + Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private final WorkflowRunId runId = WorkflowRunId.of("run-1");
+    private final NodeId nodeId = NodeId.of("node-1");
+
+    @Test
+    void verifiesItsOwnTokens() {
+        ExecutionTokenSigner signer = new ExecutionTokenSigner(List.of(OLD_KEY), 16);
+        ExecutionToken issued = signer.issue(runId, nodeId, 2, now.plusSeconds(300));
+
+        ExecutionToken verified = signer.verify(issued.value(), now).orElseThrow();
+
+        assertEquals(runId, verified.runId());
+        assertEquals(nodeId, verified.nodeId());
+        assertEquals(2, verified.attempt());
+        assertEquals(issued.expiresAt(), verified.expiresAt());
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        ExecutionTokenSigner signer = new ExecutionTokenSigner(List.of(OLD_KEY), 16);
+        String token = signer.issue(runId, nodeId, 1, now.plusSeconds(300)).value();
+        String otherClaims = signer.issue(WorkflowRunId.of("run-2"), nodeId, 1, now.plusSeconds(300)).value();
+        String forged = otherClaims.substring(0, otherClaims.lastIndexOf('.'))
+                + token.substring(token.lastIndexOf('.'));
+
+        assertTrue(signer.verify(forged, now).isEmpty());
+        assertTrue(signer.verify("k1.bm9wZQ.bm9wZQ", now).isEmpty());
+        assertTrue(signer.verify("not a token", now).isEmpty());
+        assertTrue(signer.verify(token, now.plusSeconds(301)).isEmpty());
+    }
+
+    @Test
+    void expiryAppliesToCachedTokens() {
+        ExecutionTokenSigner signer = new ExecutionTokenSigner(List.of(OLD_KEY), 16);
+        String token = signer.issue(runId, nodeId, 1, now.plusSeconds(300)).value();
+
+        assertTrue(signer.verify(token, now).isPresent());
+        assertEquals(1, signer.verifiedCacheSize());
+        assertTrue(signer.verify(token, now.plusSeconds(301)).isEmpty());
+    }
+
+    @Test
+    void verifiedCacheStaysBounded() {
+        ExecutionTokenSigner signer = new ExecutionTokenSigner(List.of(OLD_KEY), 4);
+        for (int attempt = 0; attempt < 10; attempt++) {
+            String token = signer.issue(runId, nodeId, attempt, now.plusSeconds(300)).value();
+            assertTrue(signer.verify(token, now).isPresent());
+        }
+        assertTrue(signer.verifiedCacheSize() <= 4);
+    }
+
+    @Test
+    void rotatedKeysStillVerify() {
+        ExecutionTokenSigner before = new ExecutionTokenSigner(List.of(OLD_KEY), 16);
+        ExecutionTokenSigner after = new ExecutionTokenSigner(List.of(NEW_KEY, OLD_KEY), 16);
+        ExecutionTokenSigner retired = new ExecutionTokenSigner(List.of(NEW_KEY), 16);
+        String oldToken = before.issue(runId, nodeId, 1, now.plusSeconds(300)).value();
+
+        assertTrue(after.verify(oldToken, now).isPresent());
+        assertTrue(after.issue(runId, nodeId, 1, now.plusSeconds(300)).value().startsWith("k2."));
+        assertTrue(retired.verify(oldToken, now).isEmpty());
+    }
+
+    @Test
+    void signsRequestFields() {
+        ExecutionTokenSigner signer = new ExecutionTokenSigner(List.of(OLD_KEY), 16);
+        String signature = signer.sign("run-1", "node-1", "1", "executor-a");
+
+        assertTrue(signer.verifySignature(signature, "run-1", "node-1", "1", "executor-a"));
+        assertFalse(signer.verifySignature(signature, "run-1", "node-1", "1", "executor-b"));
+        assertFalse(new ExecutionTokenSigner(List.of(NEW_KEY), 16)
+                .verifySignature(signature, "run-1", "node-1", "1", "executor-a"));
+    }
+}
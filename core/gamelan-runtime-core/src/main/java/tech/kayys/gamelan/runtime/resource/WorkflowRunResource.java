@@ -1,8 +1,14 @@
 package tech.kayys.gamelan.runtime.resource;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.jboss.resteasy.reactive.RestMediaType;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
@@ -14,8 +20,13 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import tech.kayys.gamelan.engine.execution.ExecutionHistory;
+import tech.kayys.gamelan.engine.execution.HistoryEntry;
+import tech.kayys.gamelan.engine.execution.HistoryPage;
+import tech.kayys.gamelan.engine.execution.HistoryQuery;
 import tech.kayys.gamelan.engine.signal.Signal;
+import tech.kayys.gamelan.engine.run.RunQuery;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunSummaryPage;
 import tech.kayys.gamelan.engine.run.CreateRunRequest;
 import tech.kayys.gamelan.engine.tenant.TenantId;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
@@ -69,6 +80,40 @@ public class WorkflowRunResource {
         return runManager.getExecutionHistory(WorkflowRunId.of(id), tenantId);
     }
 
+    @GET
+    @Path("/{id}/history/events")
+    public Uni<HistoryPage> getHistoryPage(
+            @PathParam("id") String id,
+            @QueryParam("after") @jakarta.ws.rs.DefaultValue("0") long after,
+            @QueryParam("type") Set<String> types,
+            @QueryParam("from") Instant from,
+            @QueryParam("to") Instant to,
+            @QueryParam("limit") @jakarta.ws.rs.DefaultValue("100") int limit) {
+        TenantId tenantId = securityContext.getCurrentTenant();
+        return runManager.getExecutionHistoryPage(WorkflowRunId.of(id), tenantId,
+                new HistoryQuery(after, types, from, to, limit));
+    }
+
+    /**
+     * All matching events as newline-delimited JSON, read from the store page
+     * by page ({@code limit} events at a time) while the client consumes them
+     */
+    @GET
+    @Path("/{id}/history/stream")
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<HistoryEntry> streamHistory(
+            @PathParam("id") String id,
+            @QueryParam("after") @jakarta.ws.rs.DefaultValue("0") long after,
+            @QueryParam("type") Set<String> types,
+            @QueryParam("from") Instant from,
+            @QueryParam("to") Instant to,
+            @QueryParam("limit") @jakarta.ws.rs.DefaultValue("500") int limit) {
+        TenantId tenantId = securityContext.getCurrentTenant();
+        return runManager.streamExecutionHistory(WorkflowRunId.of(id), tenantId,
+                new HistoryQuery(after, types, from, to, limit));
+    }
+
     @POST
     @Path("/{id}/start")
     public Uni<WorkflowRun> start(@PathParam("id") String id) {
@@ -112,6 +157,23 @@ public class WorkflowRunResource {
         return runManager.queryRuns(tenantId, wfDefId, status, page, size);
     }
 
+    /**
+     * Keyset-paginated listing of run summaries, newest first. Pass the
+     * returned {@code nextCursor} back as {@code cursor} for the next page;
+     * it remembers the filters.
+     */
+    @GET
+    @Path("/summaries")
+    public Uni<RunSummaryPage> querySummaries(
+            @QueryParam("definitionId") String definitionId,
+            @QueryParam("status") RunStatus status,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("limit") @jakarta.ws.rs.DefaultValue("50") int limit) {
+        TenantId tenantId = securityContext.getCurrentTenant();
+        WorkflowDefinitionId wfDefId = definitionId != null ? new WorkflowDefinitionId(definitionId) : null;
+        return runManager.queryRuns(RunQuery.of(tenantId, wfDefId, status, cursor, limit));
+    }
+
     @GET
     @Path("/active-count")
     public Uni<Long> getActiveCount() {
@@ -2,11 +2,12 @@ package tech.kayys.gamelan.sdk.executor.core;
 
 import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.core.Vertx;
-import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
+import tech.kayys.gamelan.engine.protocol.LocalMessageCodecs;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import jakarta.inject.Inject;
@@ -36,6 +37,11 @@ public class ExecutorRegistrationService {
     private final AtomicBoolean registered = new AtomicBoolean(false);
     private long heartbeatTimerId = -1;
 
+    @PostConstruct
+    void init() {
+        LocalMessageCodecs.register(vertx.eventBus().getDelegate());
+    }
+
     /**
      * Register the executor with the engine
      */
@@ -53,10 +59,8 @@ public class ExecutorRegistrationService {
                 Map.of("version", "1.0.0") // Default metadata
         );
 
-        // Convert to JsonObject for Vert.x event bus
-        JsonObject json = JsonObject.mapFrom(info);
-
-        return vertx.eventBus().request(TOPIC_REGISTER, json)
+        return vertx.eventBus().request(TOPIC_REGISTER, info,
+                LocalMessageCodecs.deliveryOptions(LocalMessageCodecs.EXECUTOR_INFO))
                 .invoke(() -> {
                     LOG.info("Registered executor {} with engine", executorId);
                     registered.set(true);
@@ -1,18 +1,22 @@
 package tech.kayys.gamelan.sdk.executor.core;
 
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.mutiny.core.Vertx;
 import io.vertx.mutiny.core.eventbus.EventBus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import tech.kayys.gamelan.engine.executor.ExecutorInfo;
 import tech.kayys.gamelan.engine.protocol.CommunicationType;
+import tech.kayys.gamelan.engine.protocol.LocalMessageCodecs;
 
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +37,8 @@ public class ExecutorRegistrationServiceTest {
         io.vertx.mutiny.core.eventbus.Message<Object> mockMessage = mock(io.vertx.mutiny.core.eventbus.Message.class);
         when(mockMessage.body()).thenReturn("success");
         when(eventBus.request(anyString(), any())).thenReturn(Uni.createFrom().item(mockMessage));
+        when(eventBus.request(anyString(), any(), any(DeliveryOptions.class)))
+                .thenReturn(Uni.createFrom().item(mockMessage));
         when(vertx.setPeriodic(anyLong(), any())).thenReturn(1L);
 
         service = new ExecutorRegistrationService();
@@ -44,7 +50,12 @@ public class ExecutorRegistrationServiceTest {
         ExecutorConfig config = new ExecutorConfig(10, Collections.emptyList(), CommunicationType.GRPC, null);
         service.register(config, "test-type", "test-id").await().indefinitely();
 
-        verify(eventBus).request(eq("gamelan.executor.register"), any());
+        verify(eventBus).request(eq("gamelan.executor.register"),
+                argThat(body -> body instanceof ExecutorInfo info
+                        && info.executorId().equals("test-id")
+                        && info.executorType().equals("test-type")
+                        && info.communicationType() == CommunicationType.GRPC),
+                argThat((DeliveryOptions options) -> LocalMessageCodecs.EXECUTOR_INFO.equals(options.getCodecName())));
         verify(vertx).setPeriodic(anyLong(), any());
     }
 
@@ -13,7 +13,10 @@ import jakarta.enterprise.inject.Alternative;
 import io.smallrye.mutiny.Uni;
 import tech.kayys.gamelan.engine.callback.CallbackRegistration;
 import tech.kayys.gamelan.engine.execution.ExecutionToken;
+import tech.kayys.gamelan.engine.run.RunQuery;
 import tech.kayys.gamelan.engine.run.RunStatus;
+import tech.kayys.gamelan.engine.run.RunStatusCount;
+import tech.kayys.gamelan.engine.run.RunSummaryPage;
 import tech.kayys.gamelan.engine.tenant.TenantId;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinitionId;
 import tech.kayys.gamelan.engine.workflow.WorkflowRun;
@@ -74,11 +77,21 @@ public class InMemoryWorkflowRunRepository implements WorkflowRunRepository {
         return Uni.createFrom().item(Collections.emptyList());
     }
 
+    @Override
+    public Uni<RunSummaryPage> querySummaries(RunQuery query) {
+        return Uni.createFrom().item(new RunSummaryPage(List.of(), null));
+    }
+
     @Override
     public Uni<Long> countActiveRuns(TenantId tenantId) {
         return Uni.createFrom().item(0L);
     }
 
+    @Override
+    public Uni<List<RunStatusCount>> countRunsByStatus() {
+        return Uni.createFrom().item(List.of());
+    }
+
     @Override
     public Uni<Void> storeToken(ExecutionToken token) {
         return Uni.createFrom().voidItem();
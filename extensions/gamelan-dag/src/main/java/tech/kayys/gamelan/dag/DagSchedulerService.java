@@ -3,6 +3,7 @@ package tech.kayys.gamelan.dag;
 import java.util.List;
 
 import tech.kayys.gamelan.engine.node.NodeId;
+import tech.kayys.gamelan.engine.workflow.CompiledWorkflowPlan;
 import tech.kayys.gamelan.engine.workflow.WorkflowDefinition;
 
 /**
@@ -10,4 +11,11 @@ import tech.kayys.gamelan.engine.workflow.WorkflowDefinition;
  */
 public interface DagSchedulerService {
     List<NodeId> orderReadyNodes(WorkflowDefinition definition, List<NodeId> readyNodes);
+
+    /**
+     * Order ready nodes using a precompiled plan, avoiding a per-call graph rebuild.
+     */
+    default List<NodeId> orderReadyNodes(CompiledWorkflowPlan plan, List<NodeId> readyNodes) {
+        return orderReadyNodes(plan.definition(), readyNodes);
+    }
 }
@@ -10,6 +10,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import tech.kayys.gamelan.engine.execution.ExecutionHistory;
+import tech.kayys.gamelan.engine.execution.HistoryEntry;
+import tech.kayys.gamelan.engine.execution.HistoryPage;
+import tech.kayys.gamelan.engine.run.RunSummaryPage;
 import tech.kayys.gamelan.engine.node.NodeExecutionResult;
 import tech.kayys.gamelan.engine.execution.ExecutionContext;
 import tech.kayys.gamelan.engine.execution.ExecutionError;
@@ -114,6 +117,43 @@ public class GrpcMapper {
 
     // ==================== HISTORY MAPPING ====================
 
+    public QueryRunsResponse toProtoQueryRunsResponse(RunSummaryPage page) {
+
+        QueryRunsResponse.Builder builder = QueryRunsResponse.newBuilder()
+                .setSize(page.runs().size())
+                .setHasMore(page.hasMore());
+
+        if (page.nextCursor() != null) {
+            builder.setNextCursor(page.nextCursor());
+        }
+
+        page.runs().forEach(summary -> builder.addSummaries(toProtoRunSummary(summary)));
+
+        return builder.build();
+    }
+
+    public RunSummary toProtoRunSummary(tech.kayys.gamelan.engine.run.RunSummary summary) {
+
+        RunSummary.Builder builder = RunSummary.newBuilder()
+                .setRunId(summary.runId().value())
+                .setTenantId(summary.tenantId().value())
+                .setWorkflowDefinitionId(summary.definitionId().value())
+                .setStatus(toProtoRunStatus(summary.status()))
+                .setCreatedAt(toProtoTimestamp(summary.createdAt()));
+
+        if (summary.definitionVersion() != null) {
+            builder.setWorkflowVersion(summary.definitionVersion());
+        }
+        if (summary.startedAt() != null) {
+            builder.setStartedAt(toProtoTimestamp(summary.startedAt()));
+        }
+        if (summary.completedAt() != null) {
+            builder.setCompletedAt(toProtoTimestamp(summary.completedAt()));
+        }
+
+        return builder.build();
+    }
+
     public ExecutionHistoryResponse toProtoHistoryResponse(
             ExecutionHistory history) {
 
@@ -138,6 +178,42 @@ public class GrpcMapper {
                 .build();
     }
 
+    public ExecutionHistoryResponse toProtoHistoryResponse(HistoryPage page) {
+
+        ExecutionHistoryResponse.Builder builder = ExecutionHistoryResponse.newBuilder()
+                .setRunId(page.runId().value())
+                .setTotalEvents(page.entries().size())
+                .setNextCursor(page.nextCursor())
+                .setHasMore(page.hasMore());
+
+        page.entries().forEach(entry -> builder.addEvents(toProtoExecutionEvent(entry)));
+
+        return builder.build();
+    }
+
+    public ExecutionEvent toProtoExecutionEvent(HistoryEntry entry) {
+
+        tech.kayys.gamelan.engine.event.ExecutionEvent event = entry.event();
+        ExecutionEvent.Builder builder = ExecutionEvent.newBuilder()
+                .setEventId(event.eventId())
+                .setEventType(event.eventType())
+                .setSequenceNumber(entry.sequence());
+
+        if (event.occurredAt() != null) {
+            builder.setOccurredAt(toProtoTimestamp(event.occurredAt()));
+        }
+
+        try {
+            builder.setEventData(mapToStruct(objectMapper.convertValue(event,
+                    new com.fasterxml.jackson.core.type.TypeReference<Map<String, Object>>() {
+                    })));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Failed to convert event {} to Struct", event.eventId(), e);
+        }
+
+        return builder.build();
+    }
+
     // ==================== NODE RESULT MAPPING ====================
 
     public NodeExecutionResult toDomainNodeResult(
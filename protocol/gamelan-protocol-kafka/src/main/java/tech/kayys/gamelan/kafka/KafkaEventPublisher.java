@@ -16,6 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.Record;
 import tech.kayys.gamelan.engine.context.WorkflowContext;
 import tech.kayys.gamelan.engine.event.EventPublisher;
 import tech.kayys.gamelan.engine.event.ExecutionEvent;
@@ -35,9 +36,10 @@ public class KafkaEventPublisher implements EventPublisher {
 
     private static final Logger LOG = LoggerFactory.getLogger(KafkaEventPublisher.class);
 
+    // Keyed by run id, so a run's events stay in order on one partition
     @Inject
     @Channel("workflow-events")
-    Emitter<WorkflowEventMessage> eventEmitter;
+    Emitter<Record<String, WorkflowEventMessage>> eventEmitter;
 
     @Override
     public void publish(String eventType, Object payload, WorkflowContext workflowContext) {
@@ -50,7 +52,7 @@ public class KafkaEventPublisher implements EventPublisher {
                 java.time.Instant.now(),
                 (payload instanceof Map) ? (Map<String, Object>) payload : Map.of("data", payload));
 
-        eventEmitter.send(message);
+        eventEmitter.send(Record.of(message.runId(), message));
     }
 
     @Override
@@ -64,7 +66,8 @@ public class KafkaEventPublisher implements EventPublisher {
                 java.time.Instant.now(),
                 (payload instanceof Map) ? (Map<String, Object>) payload : Map.of("data", payload));
 
-        eventEmitter.send(message);
+        // Not tied to a run: left unkeyed to spread over the partitions
+        eventEmitter.send(Record.of(null, message));
     }
 
     @Override
@@ -90,7 +93,7 @@ public class KafkaEventPublisher implements EventPublisher {
                 serializeEvent(event));
 
         return Uni.createFrom().completionStage(
-                eventEmitter.send(message));
+                eventEmitter.send(Record.of(message.runId(), message)));
     }
 
     private String extractTenantId(ExecutionEvent event) {
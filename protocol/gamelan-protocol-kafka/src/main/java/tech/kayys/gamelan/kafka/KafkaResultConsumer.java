@@ -3,11 +3,13 @@ package tech.kayys.gamelan.kafka;
 import java.time.Instant;
 import java.util.Map;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import tech.kayys.gamelan.engine.error.ErrorInfo;
@@ -21,6 +23,10 @@ import tech.kayys.gamelan.engine.workflow.WorkflowRunManager;
 
 /**
  * Consumes task results from Kafka (engine side)
+ *
+ * Results are keyed by run, so a partition carries all results of its runs.
+ * Each result is handled before the next one is taken, which keeps a run's
+ * results in the order they were produced.
  */
 @ApplicationScoped
 public class KafkaResultConsumer {
@@ -30,19 +36,25 @@ public class KafkaResultConsumer {
         @Inject
         WorkflowRunManager runManager;
 
+        @Inject
+        ResultPartitionAffinity affinity;
+
         /**
          * Consume task results from Kafka
          */
         @Incoming("workflow-results")
-        @Blocking
-        public void consumeResult(TaskResultMessage result) {
-                LOG.info("Received result from Kafka: run={}, node={}",
-                                result.runId(), result.nodeId());
+        public Uni<Void> consumeResult(ConsumerRecord<String, TaskResultMessage> record) {
+                TaskResultMessage result = record.value();
+                LOG.info("Received result from Kafka: run={}, node={}, partition={}",
+                                result.runId(), result.nodeId(), record.partition());
 
                 try {
+                        WorkflowRunId runId = WorkflowRunId.of(result.runId());
+                        affinity.track(new TopicPartition(record.topic(), record.partition()), runId);
+
                         // Convert to domain object
                         NodeExecutionResult executionResult = new DefaultNodeExecutionResult(
-                                        WorkflowRunId.of(result.runId()),
+                                        runId,
                                         NodeId.of(result.nodeId()),
                                         result.attempt(),
                                         NodeExecutionStatus.valueOf(result.status()),
@@ -54,21 +66,23 @@ public class KafkaResultConsumer {
                                                         Map.of()) : null,
                                         new ExecutionToken(
                                                         result.executionToken(),
-                                                        WorkflowRunId.of(result.runId()),
+                                                        runId,
                                                         NodeId.of(result.nodeId()),
                                                         result.attempt(),
                                                         Instant.now().plusSeconds(3600)));
 
                         // Submit to run manager
-                        runManager.handleNodeResult(
-                                        WorkflowRunId.of(result.runId()),
-                                        executionResult).subscribe().with(
-                                                        v -> LOG.info("Result processed: run={}, node={}",
-                                                                        result.runId(), result.nodeId()),
-                                                        error -> LOG.error("Failed to process result", error));
+                        return runManager.handleNodeResult(runId, executionResult)
+                                        .invoke(() -> LOG.info("Result processed: run={}, node={}",
+                                                        result.runId(), result.nodeId()))
+                                        .onFailure().recoverWithItem(error -> {
+                                                LOG.error("Failed to process result", error);
+                                                return null;
+                                        });
 
                 } catch (Exception e) {
                         LOG.error("Failed to consume result", e);
+                        return Uni.createFrom().voidItem();
                 }
         }
-}
\ No newline at end of file
+}
@@ -1,7 +1,5 @@
 package tech.kayys.gamelan.kafka;
 
-import java.time.Instant;
-
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,9 +8,7 @@ import io.smallrye.reactive.messaging.annotations.Blocking;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import tech.kayys.gamelan.engine.node.NodeExecutionTask;
-import tech.kayys.gamelan.engine.execution.ExecutionToken;
-import tech.kayys.gamelan.engine.node.NodeId;
-import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+import tech.kayys.gamelan.engine.protocol.TaskMessageCodec;
 
 /**
  * Consumes tasks from Kafka (executor side)
@@ -27,35 +23,31 @@ public class KafkaTaskConsumer {
     ExecutorTaskHandler taskHandler;
 
     /**
-     * Consume tasks from Kafka
+     * Consume tasks from Kafka, in the binary task format or the older JSON
      */
     @Incoming("workflow-tasks")
     @Blocking
-    public void consumeTask(TaskMessage task) {
-        LOG.info("Received task from Kafka: {}", task.taskId());
-
+    public void consumeTask(byte[] payload) {
+        NodeExecutionTask executionTask;
         try {
-            // Convert to domain object
-            NodeExecutionTask executionTask = new NodeExecutionTask(
-                    WorkflowRunId.of(task.runId()),
-                    NodeId.of(task.nodeId()),
-                    task.attempt(),
-                    new ExecutionToken(
-                            task.executionToken(),
-                            WorkflowRunId.of(task.runId()),
-                            NodeId.of(task.nodeId()),
-                            task.attempt(),
-                            Instant.now().plusSeconds(3600)),
-                    task.context(), null);
+            executionTask = TaskMessageCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Failed to decode task message of {} bytes", payload.length, e);
+            return;
+        }
+        String taskId = executionTask.runId().value() + ":" + executionTask.nodeId().value() + ":"
+                + executionTask.attempt();
+        LOG.info("Received task from Kafka: {}", taskId);
 
+        try {
             // Hand off to executor
             taskHandler.executeTask(executionTask)
                     .subscribe().with(
-                            result -> LOG.info("Task completed: {}", task.taskId()),
-                            error -> LOG.error("Task failed: {}", task.taskId(), error));
+                            result -> LOG.info("Task completed: {}", taskId),
+                            error -> LOG.error("Task failed: {}", taskId, error));
 
         } catch (Exception e) {
-            LOG.error("Failed to process task: {}", task.taskId(), e);
+            LOG.error("Failed to process task: {}", taskId, e);
         }
     }
 }
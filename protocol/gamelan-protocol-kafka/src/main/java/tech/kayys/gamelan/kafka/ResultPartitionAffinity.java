@@ -0,0 +1,100 @@
+package tech.kayys.gamelan.kafka;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.common.annotation.Identifier;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumerRebalanceListener;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
+import tech.kayys.gamelan.engine.workflow.WorkflowRunManager;
+
+/**
+ * Tracks which runs' results arrive on which of this instance's partitions
+ *
+ * Results are keyed by run id, so every result of a run comes through the
+ * same partition and the consumer group hands that partition to one engine
+ * instance, which can keep the run hot in memory. When a rebalance takes a
+ * partition away, the runs last seen on it are released so a stale copy is
+ * not used should the partition come back later.
+ *
+ * Enabled with
+ * {@code mp.messaging.incoming.workflow-results.consumer-rebalance-listener.name=workflow-results-affinity}.
+ */
+@ApplicationScoped
+@Identifier(ResultPartitionAffinity.NAME)
+public class ResultPartitionAffinity implements KafkaConsumerRebalanceListener {
+
+    public static final String NAME = "workflow-results-affinity";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResultPartitionAffinity.class);
+
+    @Inject
+    WorkflowRunManager runManager;
+
+    /**
+     * Most recently seen runs remembered per partition
+     */
+    @ConfigProperty(name = "gamelan.kafka.results.tracked-runs-per-partition", defaultValue = "4096")
+    int trackedRuns;
+
+    private final Map<TopicPartition, Set<WorkflowRunId>> runsByPartition = new ConcurrentHashMap<>();
+
+    /**
+     * Note that a result for {@code runId} arrived on {@code partition}
+     */
+    void track(TopicPartition partition, WorkflowRunId runId) {
+        runsByPartition.computeIfAbsent(partition, p -> recentRuns(trackedRuns)).add(runId);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        LOG.info("Result partitions assigned: {}", partitions);
+        for (TopicPartition partition : partitions) {
+            runsByPartition.computeIfAbsent(partition, p -> recentRuns(trackedRuns));
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        List<WorkflowRunId> released = new ArrayList<>();
+        for (TopicPartition partition : partitions) {
+            Set<WorkflowRunId> runs = runsByPartition.remove(partition);
+            if (runs != null) {
+                synchronized (runs) {
+                    released.addAll(runs);
+                }
+            }
+        }
+        LOG.info("Result partitions revoked: {}, releasing {} runs", partitions, released.size());
+        if (!released.isEmpty()) {
+            runManager.releaseRuns(released).subscribe().with(
+                    ignored -> {
+                    },
+                    error -> LOG.warn("Failed to release runs of revoked partitions: {}", error.getMessage()));
+        }
+    }
+
+    private static Set<WorkflowRunId> recentRuns(int capacity) {
+        return Collections.synchronizedSet(Collections.newSetFromMap(
+                new LinkedHashMap<WorkflowRunId, Boolean>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<WorkflowRunId, Boolean> eldest) {
+                        return size() > capacity;
+                    }
+                }));
+    }
+}
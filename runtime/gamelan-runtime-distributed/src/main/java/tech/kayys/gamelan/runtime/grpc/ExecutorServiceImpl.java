@@ -10,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import tech.kayys.gamelan.grpc.v1.*;
 import tech.kayys.gamelan.engine.protocol.CommunicationType;
 import tech.kayys.gamelan.grpc.CommunicationTypeConverter;
+import tech.kayys.gamelan.grpc.ExecutorStreams;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
 import tech.kayys.gamelan.registry.ExecutorRegistryService;
 
@@ -24,6 +25,9 @@ public class ExecutorServiceImpl extends MutinyExecutorServiceGrpc.ExecutorServi
     @Inject
     ExecutorRegistryService executorRegistry;
 
+    @Inject
+    ExecutorStreams executorStreams;
+
     public ExecutorServiceImpl() {
         System.out.println("ExecutorServiceImpl initialized!");
         LOG.info("ExecutorServiceImpl initialized!");
@@ -86,7 +90,7 @@ public class ExecutorServiceImpl extends MutinyExecutorServiceGrpc.ExecutorServi
 
     @Override
     public Multi<EngineMessage> executeStream(Multi<ExecutorMessage> request) {
-        return Multi.createFrom().empty();
+        return executorStreams.connect(request);
     }
 
     private CommunicationType mapCommunicationType(tech.kayys.gamelan.grpc.v1.CommunicationType grpcType) {
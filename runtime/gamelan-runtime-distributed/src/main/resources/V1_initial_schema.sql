@@ -61,6 +61,14 @@ CREATE TABLE workflow_runs (
     -- Optimistic locking
     version BIGINT NOT NULL DEFAULT 0,
     
+    -- Snapshot position: state columns reflect events up to this sequence number,
+    -- later events are replayed from workflow_events on load
+    snapshot_sequence BIGINT NOT NULL DEFAULT 0,
+    snapshot_status VARCHAR(32),
+    snapshot_suspension JSONB,
+    snapshot_signals JSONB,
+    snapshot_compensation JSONB,
+    
     -- Metadata and tags
     metadata JSONB,
     labels JSONB,
@@ -78,7 +86,15 @@ CREATE TABLE workflow_runs (
 );
 
 -- Indexes for efficient querying
-CREATE INDEX idx_workflow_run_tenant_status ON workflow_runs(tenant_id, status);
+-- Keyset run listings: filters as equality prefix, (created_at, run_id) as the
+-- cursor, the summary columns included so pages are index-only scans.
+-- last_updated_at is left out on purpose, it changes on every write.
+CREATE INDEX idx_workflow_run_tenant_created ON workflow_runs(tenant_id, created_at DESC, run_id DESC)
+    INCLUDE (definition_id, definition_version, status, started_at, completed_at);
+CREATE INDEX idx_workflow_run_tenant_status ON workflow_runs(tenant_id, status, created_at DESC, run_id DESC)
+    INCLUDE (definition_id, definition_version, started_at, completed_at);
+CREATE INDEX idx_workflow_run_tenant_definition ON workflow_runs(tenant_id, definition_id, created_at DESC, run_id DESC)
+    INCLUDE (definition_version, status, started_at, completed_at);
 CREATE INDEX idx_workflow_run_definition ON workflow_runs(definition_id);
 CREATE INDEX idx_workflow_run_created_at ON workflow_runs(created_at DESC);
 CREATE INDEX idx_workflow_run_status ON workflow_runs(status);
@@ -86,8 +102,19 @@ CREATE INDEX idx_workflow_run_parent ON workflow_runs(parent_run_id);
 CREATE INDEX idx_workflow_run_labels ON workflow_runs USING gin(labels);
 CREATE INDEX idx_workflow_run_metadata ON workflow_runs USING gin(metadata);
 
--- Partitioning by tenant (optional, for very large deployments)
--- CREATE TABLE workflow_runs_partition_template (LIKE workflow_runs INCLUDING ALL);
+-- Time-partitioned variant for large deployments: V1_1_partitioned_runs_and_events.sql
+
+-- Runs per tenant and status, maintained by trg_workflow_run_counts in the
+-- same transaction as the run change. Each run is counted in one of 16
+-- shard rows (by run id hash) so concurrent transitions of one tenant's
+-- runs rarely wait on the same row; readers sum the shards.
+CREATE TABLE workflow_run_counts (
+    tenant_id VARCHAR(64) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    shard SMALLINT NOT NULL,
+    run_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, status, shard)
+);
 
 -- ==================== EVENT STORE ====================
 
@@ -110,6 +137,9 @@ CREATE TABLE workflow_events (
     correlation_id VARCHAR(64),
     causation_id VARCHAR(64),
     
+    -- Creation time of the run, the partition key in the partitioned variant
+    run_created_at TIMESTAMP WITH TIME ZONE,
+    
     CONSTRAINT uk_event_run_sequence 
         UNIQUE (run_id, sequence_number)
 );
@@ -121,9 +151,7 @@ CREATE INDEX idx_event_occurred_at ON workflow_events(occurred_at DESC);
 CREATE INDEX idx_event_tenant ON workflow_events(tenant_id);
 CREATE INDEX idx_event_correlation ON workflow_events(correlation_id);
 
--- Partition by time for event archival
--- CREATE TABLE workflow_events_2025_01 PARTITION OF workflow_events
---     FOR VALUES FROM ('2025-01-01') TO ('2025-02-01');
+-- Partitioned by run creation time in V1_1_partitioned_runs_and_events.sql
 
 -- ==================== EXECUTION TOKENS ====================
 
@@ -386,6 +414,39 @@ CREATE TRIGGER trg_workflow_run_update
     FOR EACH ROW
     EXECUTE FUNCTION update_workflow_run_snapshot();
 
+-- Function to keep workflow_run_counts in step with workflow_runs
+CREATE OR REPLACE FUNCTION count_workflow_run_status()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE workflow_run_counts
+        SET run_count = run_count - 1
+        WHERE tenant_id = OLD.tenant_id
+        AND status = OLD.status
+        AND shard = hashtext(OLD.run_id) & 15;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO workflow_run_counts (tenant_id, status, shard, run_count)
+        VALUES (NEW.tenant_id, NEW.status, hashtext(NEW.run_id) & 15, 1)
+        ON CONFLICT (tenant_id, status, shard)
+        DO UPDATE SET run_count = workflow_run_counts.run_count + 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Triggers for run counters (status changes only, not every snapshot write)
+CREATE TRIGGER trg_workflow_run_counts
+    AFTER INSERT OR DELETE ON workflow_runs
+    FOR EACH ROW
+    EXECUTE FUNCTION count_workflow_run_status();
+
+CREATE TRIGGER trg_workflow_run_status_counts
+    AFTER UPDATE OF status ON workflow_runs
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status)
+    EXECUTE FUNCTION count_workflow_run_status();
+
 -- Function to get workflow run history
 CREATE OR REPLACE FUNCTION get_workflow_run_history(p_run_id VARCHAR)
 RETURNS TABLE (
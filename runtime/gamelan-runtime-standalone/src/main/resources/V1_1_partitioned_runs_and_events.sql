@@ -0,0 +1,317 @@
+-- ============================================================================
+-- GAMELAN WORKFLOW ENGINE - PARTITIONED RUNS AND EVENTS
+-- ============================================================================
+-- Migration: V1_1__partitioned_runs_and_events.sql
+-- Description: Optional variant of workflow_runs and workflow_events for large
+--              deployments. Apply right after V1 on an empty database, then set
+--              gamelan.persistence.partitioning.enabled=true so the engine keeps
+--              creating partitions ahead and archiving old ones.
+--
+-- Both tables are range-partitioned by the creation time of the run:
+-- workflow_runs by created_at, workflow_events by run_created_at, a copy of it
+-- on every event. All rows of a run live in partitions of the same range, so
+-- index and vacuum work stays within the recent partitions, and a whole range
+-- can be detached once all of its runs have finished. Run ids are time-ordered
+-- and carry their creation time, which lets the engine add the partition key to
+-- every run-keyed query. Each range can be hash-subpartitioned by run_id.
+--
+-- Differences to the heap tables of V1:
+-- - primary keys include the partition key: (run_id, created_at) for runs and
+--   (run_id, sequence_number, run_created_at) for events, which takes over
+--   from uk_event_run_sequence
+-- - run_id alone is no longer unique, so the foreign keys referencing
+--   workflow_runs(run_id) (parent run, tokens, callbacks, task queue) are
+--   dropped
+-- - DEFAULT partitions take rows no range covers yet, such as events of runs
+--   whose id carries no creation time
+
+-- ==================== REPLACE HEAP TABLES ====================
+
+DROP VIEW IF EXISTS v_active_workflows;
+DROP VIEW IF EXISTS v_workflow_statistics;
+DROP TABLE IF EXISTS workflow_events;
+-- CASCADE also drops the foreign keys of execution_tokens, workflow_callbacks and task_queue
+DROP TABLE IF EXISTS workflow_runs CASCADE;
+
+-- ==================== WORKFLOW RUNS ====================
+
+CREATE TABLE workflow_runs (
+    run_id VARCHAR(64) NOT NULL,
+    tenant_id VARCHAR(64) NOT NULL,
+    definition_id VARCHAR(128) NOT NULL,
+    definition_version VARCHAR(32),
+    status VARCHAR(32) NOT NULL,
+
+    -- Context and state
+    context_variables JSONB,
+    node_executions JSONB,
+    execution_path JSONB,
+
+    -- Temporal tracking
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    started_at TIMESTAMP WITH TIME ZONE,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    last_updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    -- Optimistic locking
+    version BIGINT NOT NULL DEFAULT 0,
+
+    -- Snapshot position: state columns reflect events up to this sequence number,
+    -- later events are replayed from workflow_events on load
+    snapshot_sequence BIGINT NOT NULL DEFAULT 0,
+    snapshot_status VARCHAR(32),
+    snapshot_suspension JSONB,
+    snapshot_signals JSONB,
+    snapshot_compensation JSONB,
+
+    -- Metadata and tags
+    metadata JSONB,
+    labels JSONB,
+
+    -- Parent-child relationships (for sub-workflows), not enforced
+    parent_run_id VARCHAR(64),
+
+    PRIMARY KEY (run_id, created_at),
+
+    CONSTRAINT fk_workflow_run_definition
+        FOREIGN KEY (definition_id)
+        REFERENCES workflow_definitions(definition_id)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_workflow_run_tenant_created ON workflow_runs(tenant_id, created_at DESC, run_id DESC)
+    INCLUDE (definition_id, definition_version, status, started_at, completed_at);
+CREATE INDEX idx_workflow_run_tenant_status ON workflow_runs(tenant_id, status, created_at DESC, run_id DESC)
+    INCLUDE (definition_id, definition_version, started_at, completed_at);
+CREATE INDEX idx_workflow_run_tenant_definition ON workflow_runs(tenant_id, definition_id, created_at DESC, run_id DESC)
+    INCLUDE (definition_version, status, started_at, completed_at);
+CREATE INDEX idx_workflow_run_definition ON workflow_runs(definition_id);
+CREATE INDEX idx_workflow_run_created_at ON workflow_runs(created_at DESC);
+CREATE INDEX idx_workflow_run_status ON workflow_runs(status);
+CREATE INDEX idx_workflow_run_parent ON workflow_runs(parent_run_id);
+CREATE INDEX idx_workflow_run_labels ON workflow_runs USING gin(labels);
+CREATE INDEX idx_workflow_run_metadata ON workflow_runs USING gin(metadata);
+
+CREATE TABLE workflow_runs_default PARTITION OF workflow_runs DEFAULT;
+
+-- ==================== EVENT STORE ====================
+
+CREATE TABLE workflow_events (
+    event_id VARCHAR(64) NOT NULL,
+    run_id VARCHAR(64) NOT NULL,
+    tenant_id VARCHAR(64) NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    sequence_number BIGINT NOT NULL,
+
+    -- Event payload
+    event_data JSONB NOT NULL,
+
+    -- Metadata
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    metadata JSONB,
+
+    -- Correlation for distributed tracing
+    correlation_id VARCHAR(64),
+    causation_id VARCHAR(64),
+
+    -- Creation time of the run, the partition key
+    run_created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    PRIMARY KEY (run_id, sequence_number, run_created_at)
+) PARTITION BY RANGE (run_created_at);
+
+CREATE INDEX idx_event_id ON workflow_events(event_id);
+CREATE INDEX idx_event_type ON workflow_events(event_type);
+CREATE INDEX idx_event_occurred_at ON workflow_events(occurred_at DESC);
+CREATE INDEX idx_event_tenant ON workflow_events(tenant_id);
+CREATE INDEX idx_event_correlation ON workflow_events(correlation_id);
+
+CREATE TABLE workflow_events_default PARTITION OF workflow_events DEFAULT;
+
+-- ==================== TRIGGERS ====================
+
+CREATE TRIGGER trg_workflow_run_update
+    BEFORE UPDATE ON workflow_runs
+    FOR EACH ROW
+    EXECUTE FUNCTION update_workflow_run_snapshot();
+
+CREATE TRIGGER trg_workflow_run_counts
+    AFTER INSERT OR DELETE ON workflow_runs
+    FOR EACH ROW
+    EXECUTE FUNCTION count_workflow_run_status();
+
+CREATE TRIGGER trg_workflow_run_status_counts
+    AFTER UPDATE OF status ON workflow_runs
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status)
+    EXECUTE FUNCTION count_workflow_run_status();
+
+-- ==================== PARTITION MAINTENANCE ====================
+
+-- Create the partitions of p_count consecutive ranges of one p_unit ('day',
+-- 'week' or 'month'), starting with the range containing p_from, for both
+-- tables. With p_hash_partitions > 1 each range is split by hash of run_id.
+-- Existing partitions are left alone. Rows already in a DEFAULT partition
+-- that fall into a new range make its creation fail, so create ranges ahead
+-- of time rather than after the fact.
+CREATE OR REPLACE FUNCTION create_run_partitions(
+    p_from TIMESTAMP WITH TIME ZONE,
+    p_count INTEGER,
+    p_unit TEXT DEFAULT 'month',
+    p_hash_partitions INTEGER DEFAULT 0)
+RETURNS INTEGER AS $$
+DECLARE
+    range_start TIMESTAMP WITH TIME ZONE;
+    range_end TIMESTAMP WITH TIME ZONE;
+    parent TEXT;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    IF p_unit NOT IN ('day', 'week', 'month') THEN
+        RAISE EXCEPTION 'Unsupported partition unit: %', p_unit;
+    END IF;
+    -- One maintainer at a time across engine instances
+    PERFORM pg_advisory_xact_lock(hashtext('gamelan_run_partitions'));
+
+    range_start := date_trunc(p_unit, p_from AT TIME ZONE 'UTC') AT TIME ZONE 'UTC';
+    FOR i IN 1..p_count LOOP
+        range_end := range_start + ('1 ' || p_unit)::INTERVAL;
+        FOREACH parent IN ARRAY ARRAY['workflow_runs', 'workflow_events'] LOOP
+            partition_name := parent || '_p' || to_char(range_start AT TIME ZONE 'UTC', 'YYYYMMDD');
+            CONTINUE WHEN to_regclass(partition_name) IS NOT NULL;
+
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)%s',
+                    partition_name, parent, range_start, range_end,
+                    CASE WHEN p_hash_partitions > 1 THEN ' PARTITION BY HASH (run_id)' ELSE '' END);
+            IF p_hash_partitions > 1 THEN
+                FOR h IN 0..p_hash_partitions - 1 LOOP
+                    EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                            partition_name || '_h' || h, partition_name, p_hash_partitions, h);
+                END LOOP;
+            END IF;
+            created := created + 1;
+        END LOOP;
+        range_start := range_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detach the run and event partitions of every range that ended before
+-- p_before and holds finished runs only, and move them (with any hash
+-- subpartitions) to p_archive_schema, optionally onto p_tablespace. Archived
+-- runs are taken out of workflow_run_counts. Archived tables stay queryable
+-- in the archive schema until an operator drops or exports them.
+CREATE OR REPLACE FUNCTION archive_run_partitions(
+    p_before TIMESTAMP WITH TIME ZONE,
+    p_archive_schema TEXT DEFAULT 'gamelan_archive',
+    p_tablespace TEXT DEFAULT NULL)
+RETURNS INTEGER AS $$
+DECLARE
+    part RECORD;
+    events_name TEXT;
+    has_active BOOLEAN;
+    tables TEXT[];
+    table_name TEXT;
+    archived INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('gamelan_run_partitions'));
+    EXECUTE format('CREATE SCHEMA IF NOT EXISTS %I', p_archive_schema);
+
+    FOR part IN
+        SELECT c.relname,
+               substring(pg_get_expr(c.relpartbound, c.oid) FROM 'TO \(''([^'']+)''\)')::TIMESTAMP WITH TIME ZONE
+                   AS range_end
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'workflow_runs'::regclass
+        AND c.relname LIKE 'workflow\_runs\_p%'
+        ORDER BY c.relname
+    LOOP
+        CONTINUE WHEN part.range_end IS NULL OR part.range_end > p_before;
+
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE status NOT IN '
+                || '(''COMPLETED'', ''FAILED'', ''CANCELLED'', ''COMPENSATED''))', part.relname)
+            INTO has_active;
+        CONTINUE WHEN has_active;
+
+        EXECUTE format('UPDATE workflow_run_counts c SET run_count = c.run_count - r.runs '
+                || 'FROM (SELECT tenant_id, status, hashtext(run_id) & 15 AS shard, COUNT(*) AS runs '
+                || 'FROM %I GROUP BY 1, 2, 3) r '
+                || 'WHERE c.tenant_id = r.tenant_id AND c.status = r.status AND c.shard = r.shard',
+                part.relname);
+
+        events_name := 'workflow_events_p' || substring(part.relname FROM length('workflow_runs_p') + 1);
+        tables := ARRAY[part.relname];
+        EXECUTE format('ALTER TABLE workflow_runs DETACH PARTITION %I', part.relname);
+        IF to_regclass(events_name) IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE workflow_events DETACH PARTITION %I', events_name);
+            tables := tables || events_name;
+        END IF;
+        -- Hash subpartitions stay attached to their detached parent but are moved too
+        tables := tables || ARRAY(
+            SELECT c.relname::TEXT
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent IN (SELECT to_regclass(t) FROM unnest(tables) AS t));
+
+        FOREACH table_name IN ARRAY tables LOOP
+            IF p_tablespace IS NOT NULL THEN
+                EXECUTE format('ALTER TABLE %I SET TABLESPACE %I', table_name, p_tablespace);
+            END IF;
+            EXECUTE format('ALTER TABLE %I SET SCHEMA %I', table_name, p_archive_schema);
+        END LOOP;
+        archived := archived + 1;
+    END LOOP;
+    RETURN archived;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Current range and the next two
+SELECT create_run_partitions(NOW(), 3);
+
+-- ==================== VIEWS ====================
+
+-- Active workflows view
+CREATE VIEW v_active_workflows AS
+SELECT
+    wr.run_id,
+    wr.tenant_id,
+    wd.name as workflow_name,
+    wr.status,
+    wr.created_at,
+    wr.started_at,
+    EXTRACT(EPOCH FROM (NOW() - wr.started_at)) as running_duration_seconds,
+    jsonb_array_length(COALESCE(wr.node_executions, '[]'::jsonb)) as total_nodes,
+    (SELECT COUNT(*) FROM jsonb_object_keys(wr.node_executions)
+     WHERE (wr.node_executions->key->>'status') = 'COMPLETED') as completed_nodes
+FROM workflow_runs wr
+JOIN workflow_definitions wd ON wr.definition_id = wd.definition_id
+WHERE wr.status IN ('RUNNING', 'SUSPENDED', 'PENDING');
+
+-- Workflow statistics view
+CREATE VIEW v_workflow_statistics AS
+SELECT
+    wr.tenant_id,
+    wd.name as workflow_name,
+    wd.version,
+    COUNT(*) as total_executions,
+    COUNT(*) FILTER (WHERE wr.status = 'COMPLETED') as successful_executions,
+    COUNT(*) FILTER (WHERE wr.status = 'FAILED') as failed_executions,
+    COUNT(*) FILTER (WHERE wr.status IN ('RUNNING', 'PENDING', 'SUSPENDED')) as active_executions,
+    AVG(EXTRACT(EPOCH FROM (wr.completed_at - wr.started_at))) as avg_duration_seconds,
+    MIN(wr.created_at) as first_execution,
+    MAX(wr.created_at) as last_execution
+FROM workflow_runs wr
+JOIN workflow_definitions wd ON wr.definition_id = wd.definition_id
+GROUP BY wr.tenant_id, wd.name, wd.version;
+
+-- ==================== PERFORMANCE OPTIMIZATIONS ====================
+
+ALTER TABLE workflow_runs ALTER COLUMN tenant_id SET STATISTICS 1000;
+ALTER TABLE workflow_runs ALTER COLUMN status SET STATISTICS 1000;
+ALTER TABLE workflow_events ALTER COLUMN run_id SET STATISTICS 1000;
+
+-- ==================== COMMENTS ====================
+
+COMMENT ON TABLE workflow_runs IS 'Workflow run snapshots, partitioned by run creation time (CQRS read model)';
+COMMENT ON TABLE workflow_events IS 'Immutable event log, partitioned by run creation time - source of truth for event sourcing';
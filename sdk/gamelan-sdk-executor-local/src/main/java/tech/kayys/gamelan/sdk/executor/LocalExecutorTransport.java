@@ -14,6 +14,8 @@ import org.slf4j.LoggerFactory;
 import tech.kayys.gamelan.engine.node.NodeExecutionResult;
 import tech.kayys.gamelan.engine.node.NodeExecutionTask;
 import tech.kayys.gamelan.engine.protocol.CommunicationType;
+import tech.kayys.gamelan.engine.protocol.LocalMessageCodecs;
+import tech.kayys.gamelan.engine.protocol.TaskBatch;
 import tech.kayys.gamelan.sdk.executor.core.ExecutorTransport;
 import tech.kayys.gamelan.sdk.executor.core.WorkflowExecutor;
 import tech.kayys.gamelan.engine.executor.ExecutorInfo;
@@ -27,6 +29,7 @@ public class LocalExecutorTransport implements ExecutorTransport {
 
     private static final Logger LOG = LoggerFactory.getLogger(LocalExecutorTransport.class);
     private static final String TOPIC_TASKS = "gamelan.tasks";
+    private static final String TOPIC_TASK_BATCHES = "gamelan.tasks.batch";
     private static final String TOPIC_RESULTS = "gamelan.results";
     private static final String TOPIC_REGISTER = "gamelan.executor.register";
     private static final String TOPIC_UNREGISTER = "gamelan.executor.unregister";
@@ -37,6 +40,11 @@ public class LocalExecutorTransport implements ExecutorTransport {
     @Inject
     EventBus eventBus;
 
+    @jakarta.annotation.PostConstruct
+    void init() {
+        LocalMessageCodecs.register(eventBus.getDelegate());
+    }
+
     @Override
     public CommunicationType getCommunicationType() {
         return CommunicationType.LOCAL;
@@ -59,7 +67,8 @@ public class LocalExecutorTransport implements ExecutorTransport {
                         Duration.ofSeconds(30),
                         Map.of());
 
-                eventBus.publish(TOPIC_REGISTER, io.vertx.core.json.JsonObject.mapFrom(info));
+                eventBus.publish(TOPIC_REGISTER, info,
+                        LocalMessageCodecs.deliveryOptions(LocalMessageCodecs.EXECUTOR_INFO));
             });
             return null;
         });
@@ -77,15 +86,19 @@ public class LocalExecutorTransport implements ExecutorTransport {
 
     @Override
     public Multi<NodeExecutionTask> receiveTasks() {
-        return eventBus.<io.vertx.core.json.JsonObject>consumer(TOPIC_TASKS)
+        Multi<NodeExecutionTask> single = eventBus.<NodeExecutionTask>consumer(TOPIC_TASKS)
+                .toMulti()
+                .map(msg -> msg.body());
+        Multi<NodeExecutionTask> batched = eventBus.<TaskBatch>consumer(TOPIC_TASK_BATCHES)
                 .toMulti()
-                .map(msg -> msg.body().mapTo(NodeExecutionTask.class));
+                .onItem().transformToIterable(msg -> msg.body().tasks());
+        return Multi.createBy().merging().streams(single, batched);
     }
 
     @Override
     public Uni<Void> sendResult(NodeExecutionResult result) {
         return Uni.createFrom().item(() -> {
-            eventBus.publish(TOPIC_RESULTS, io.vertx.core.json.JsonObject.mapFrom(result));
+            eventBus.publish(TOPIC_RESULTS, result, LocalMessageCodecs.deliveryOptions(LocalMessageCodecs.RESULT));
             return null;
         });
     }
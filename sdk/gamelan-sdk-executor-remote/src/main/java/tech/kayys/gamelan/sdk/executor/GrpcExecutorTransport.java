@@ -11,6 +11,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
@@ -27,6 +28,7 @@ import io.netty.handler.ssl.SslContextBuilder;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.smallrye.mutiny.subscription.MultiEmitter;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -40,8 +42,12 @@ import tech.kayys.gamelan.grpc.v1.RegisterExecutorRequest;
 import tech.kayys.gamelan.grpc.v1.UnregisterExecutorRequest;
 import tech.kayys.gamelan.sdk.executor.core.ExecutorTransport;
 import tech.kayys.gamelan.sdk.executor.core.WorkflowExecutor;
+import tech.kayys.gamelan.grpc.v1.CreditGrant;
+import tech.kayys.gamelan.grpc.v1.EngineMessage;
+import tech.kayys.gamelan.grpc.v1.ExecutionTask;
+import tech.kayys.gamelan.grpc.v1.ExecutorMessage;
 import tech.kayys.gamelan.grpc.v1.HeartbeatRequest;
-import tech.kayys.gamelan.grpc.v1.StreamTasksRequest;
+import tech.kayys.gamelan.grpc.v1.TaskAcknowledgement;
 import tech.kayys.gamelan.grpc.v1.TaskResult;
 import tech.kayys.gamelan.engine.execution.ExecutionToken;
 import tech.kayys.gamelan.engine.node.NodeId;
@@ -49,6 +55,12 @@ import tech.kayys.gamelan.engine.workflow.WorkflowRunId;
 
 /**
  * gRPC-based executor transport
+ *
+ * Tasks arrive over one long-lived ExecuteStream. The transport advertises
+ * its free slots as credits and the engine pushes no more tasks than that;
+ * acks and results go back on the same stream. The stream opens once
+ * {@link #register} succeeds, since the engine refuses streams of executors
+ * it does not know.
  */
 @ApplicationScoped
 public class GrpcExecutorTransport implements ExecutorTransport {
@@ -72,6 +84,13 @@ public class GrpcExecutorTransport implements ExecutorTransport {
     @ConfigProperty(name = "grpc.retry.delay", defaultValue = "5s")
     Duration retryDelay;
 
+    /**
+     * Slots advertised until {@link #register} supplies the executor's own
+     * maxConcurrentTasks
+     */
+    @ConfigProperty(name = "grpc.stream.max-concurrent-tasks", defaultValue = "10")
+    int maxConcurrentTasks;
+
     @ConfigProperty(name = "security.mtls.enabled", defaultValue = "false")
     boolean mtlsEnabled;
 
@@ -116,14 +135,26 @@ public class GrpcExecutorTransport implements ExecutorTransport {
     // Task streaming state
     private volatile CompletableFuture<Void> taskStreamingFuture;
 
+    // Our side of the open ExecuteStream, null while disconnected
+    private volatile MultiEmitter<? super ExecutorMessage> outbound;
+
+    // Slots advertised as credits on the task stream
+    private volatile int slots;
+
+    // Tasks taken but not yet answered with a result
+    private final AtomicInteger activeTasks = new AtomicInteger();
+
+    // Tasks taken off the current stream; the engine counts what it sent against it
+    private final AtomicLong receivedTasks = new AtomicLong();
+
     public GrpcExecutorTransport() {
         this.executorId = UUID.randomUUID().toString();
     }
 
     @PostConstruct
     public void init() {
+        slots = maxConcurrentTasks;
         initializeChannel();
-        startTaskStream(); // Start task streaming after initialization
     }
 
     private void initializeChannel() {
@@ -213,6 +244,7 @@ public class GrpcExecutorTransport implements ExecutorTransport {
         }
 
         WorkflowExecutor first = executors.get(0);
+        slots = first.getMaxConcurrentTasks();
         RegisterExecutorRequest request = RegisterExecutorRequest.newBuilder()
                 .setExecutorId(executorId)
                 .setExecutorType(first.getExecutorType())
@@ -225,7 +257,14 @@ public class GrpcExecutorTransport implements ExecutorTransport {
         LOG.info("Registering executor {} via gRPC", executorId);
 
         return stub.registerExecutor(request)
-                .onItem().invoke(resp -> LOG.info("Executor registered successfully with ID: {}", resp.getExecutorId()))
+                .onItem().invoke(resp -> {
+                    LOG.info("Executor registered successfully with ID: {}", resp.getExecutorId());
+                    if (taskStreamingFuture == null || taskStreamingFuture.isDone()) {
+                        startTaskStream();
+                    } else {
+                        grantCredits();
+                    }
+                })
                 .onFailure().retry().withBackOff(retryDelay, Duration.ofSeconds(1)).atMost(maxRetries)
                 .onFailure()
                 .invoke(error -> LOG.error("Failed to register executor {} after {} retries", executorId, maxRetries,
@@ -284,38 +323,17 @@ public class GrpcExecutorTransport implements ExecutorTransport {
 
         LOG.info("Attempting to establish task stream, attempt #{}", retryCount + 1);
 
-        StreamTasksRequest request = StreamTasksRequest.newBuilder()
-                .setExecutorId(executorId)
-                .build();
+        Multi<ExecutorMessage> messages = Multi.createFrom().emitter(emitter -> {
+            receivedTasks.set(0);
+            outbound = emitter;
+            grantCredits();
+        });
 
-        // Create the stream and handle items/errors
-        stub.streamTasks(request)
-                .onItem().transform(protoTask -> {
-                    WorkflowRunId runId = WorkflowRunId.of(protoTask.getRunId());
-                    NodeId nodeId = NodeId.of(protoTask.getNodeId());
-                    int attempt = protoTask.getAttempt();
-                    ExecutionToken token = new ExecutionToken(
-                            protoTask.getExecutionToken(),
-                            runId,
-                            nodeId,
-                            attempt,
-                            Instant.now().plus(Duration.ofHours(1)));
-
-                    return new NodeExecutionTask(
-                            runId,
-                            nodeId,
-                            attempt,
-                            token,
-                            mapper.structToMap(protoTask.getContext()),
-                            null // retryPolicy not provided in proto
-                    );
-                })
+        stub.executeStream(messages)
                 .subscribe().with(
-                        task -> {
-                            LOG.debug("Received task {} for execution", task.nodeId().value());
-                            taskProcessor.onNext(task);
-                        },
+                        this::onEngineMessage,
                         error -> {
+                            outbound = null;
                             LOG.error("Error in task stream for executor {}: {}", executorId, error.getMessage());
 
                             if (isShutdown.get()) {
@@ -340,6 +358,7 @@ public class GrpcExecutorTransport implements ExecutorTransport {
                             }
                         },
                         () -> {
+                            outbound = null;
                             LOG.info("Task stream completed for executor: {}", executorId);
                             if (!isShutdown.get()) {
                                 LOG.info("Restarting task stream for executor: {}", executorId);
@@ -350,6 +369,75 @@ public class GrpcExecutorTransport implements ExecutorTransport {
                         });
     }
 
+    private void onEngineMessage(EngineMessage message) {
+        switch (message.getMessageCase()) {
+            case TASK -> {
+                ExecutionTask protoTask = message.getTask();
+                // Active before received, so a concurrent grant never counts a task as done
+                activeTasks.incrementAndGet();
+                receivedTasks.incrementAndGet();
+                send(ExecutorMessage.newBuilder()
+                        .setAck(TaskAcknowledgement.newBuilder()
+                                .setTaskId(protoTask.getTaskId())
+                                .setAcknowledgedAt(mapper.toProtoTimestamp(Instant.now())))
+                        .build());
+
+                NodeExecutionTask task = toTask(protoTask);
+                LOG.debug("Received task {} for execution", task.nodeId().value());
+                taskProcessor.onNext(task);
+            }
+            case CANCELLATION -> LOG.info("Engine cancelled task {}: {}",
+                    message.getCancellation().getTaskId(), message.getCancellation().getReason());
+            default -> LOG.debug("Ignoring engine message: {}", message.getMessageCase());
+        }
+    }
+
+    private NodeExecutionTask toTask(ExecutionTask protoTask) {
+        WorkflowRunId runId = WorkflowRunId.of(protoTask.getRunId());
+        NodeId nodeId = NodeId.of(protoTask.getNodeId());
+        int attempt = protoTask.getAttempt();
+        ExecutionToken token = new ExecutionToken(
+                protoTask.getExecutionToken(),
+                runId,
+                nodeId,
+                attempt,
+                Instant.now().plus(Duration.ofHours(1)));
+
+        return new NodeExecutionTask(
+                runId,
+                nodeId,
+                attempt,
+                token,
+                mapper.structToMap(protoTask.getContext()),
+                null // retryPolicy not provided in proto
+        );
+    }
+
+    /**
+     * Tell the engine how many more tasks we can take. Received is read
+     * before active so a task arriving in between is counted as busy rather
+     * than as a free slot.
+     */
+    private void grantCredits() {
+        long received = receivedTasks.get();
+        int free = Math.max(0, slots - activeTasks.get());
+        send(ExecutorMessage.newBuilder()
+                .setCredit(CreditGrant.newBuilder()
+                        .setExecutorId(executorId)
+                        .setFreeSlots(free)
+                        .setReceivedTasks(received))
+                .build());
+    }
+
+    private boolean send(ExecutorMessage message) {
+        MultiEmitter<? super ExecutorMessage> stream = outbound;
+        if (stream == null || stream.isCancelled()) {
+            return false;
+        }
+        stream.emit(message);
+        return true;
+    }
+
     private boolean isRetryableError(Throwable error) {
         if (error instanceof StatusRuntimeException) {
             Status status = ((StatusRuntimeException) error).getStatus();
@@ -373,6 +461,15 @@ public class GrpcExecutorTransport implements ExecutorTransport {
                 .setOutput(mapper.mapToStruct(result.getUpdatedContext().getVariables()))
                 .build();
 
+        // The slot is free again whichever way the result travels
+        activeTasks.updateAndGet(active -> Math.max(0, active - 1));
+
+        if (send(ExecutorMessage.newBuilder().setResult(protoResult).build())) {
+            LOG.debug("Result sent on task stream for task: {}", result.getNodeId());
+            grantCredits();
+            return Uni.createFrom().voidItem();
+        }
+
         return stub.reportResults(Multi.createFrom().item(protoResult))
                 .onItem().invoke(() -> LOG.debug("Result sent successfully for task: {}", result.getNodeId()))
                 .onFailure().retry().withBackOff(retryDelay, Duration.ofSeconds(1)).atMost(maxRetries)
@@ -390,8 +487,12 @@ public class GrpcExecutorTransport implements ExecutorTransport {
 
         HeartbeatRequest request = HeartbeatRequest.newBuilder()
                 .setExecutorId(executorId)
+                .setCurrentTaskCount(activeTasks.get())
                 .build();
 
+        // Re-advertise credits too, in case a grant was lost
+        grantCredits();
+
         return stub.heartbeat(request)
                 .onItem().invoke(() -> LOG.trace("Heartbeat sent successfully for executor: {}", executorId))
                 .onFailure().invoke(error -> LOG.warn("Heartbeat failed for executor: {}", executorId, error))
@@ -409,6 +510,13 @@ public class GrpcExecutorTransport implements ExecutorTransport {
             taskStreamingFuture.cancel(true);
         }
 
+        // Close our side of the task stream
+        MultiEmitter<? super ExecutorMessage> stream = outbound;
+        outbound = null;
+        if (stream != null) {
+            stream.complete();
+        }
+
         // Shutdown processors
         taskProcessor.onComplete();
 
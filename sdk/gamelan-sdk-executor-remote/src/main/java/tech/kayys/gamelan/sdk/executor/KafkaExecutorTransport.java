@@ -17,9 +17,11 @@ import org.slf4j.LoggerFactory;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.smallrye.reactive.messaging.kafka.Record;
 import tech.kayys.gamelan.engine.node.NodeExecutionResult;
 import tech.kayys.gamelan.engine.node.NodeExecutionTask;
 import tech.kayys.gamelan.engine.protocol.CommunicationType;
+import tech.kayys.gamelan.engine.protocol.TaskMessageCodec;
 import tech.kayys.gamelan.sdk.executor.core.ExecutorTransport;
 import tech.kayys.gamelan.sdk.executor.core.WorkflowExecutor;
 
@@ -43,8 +45,9 @@ public class KafkaExecutorTransport implements ExecutorTransport {
     private final BroadcastProcessor<NodeExecutionTask> taskProcessor = BroadcastProcessor.create();
 
     // Kafka producers for different topics
+    // Keyed by run id, so a run's results reach the engine in order
     @Channel("execution-results")
-    private Emitter<NodeExecutionResult> resultEmitter;
+    private Emitter<Record<String, NodeExecutionResult>> resultEmitter;
 
     @Channel("executor-heartbeats")
     private Emitter<ExecutorHeartbeat> heartbeatEmitter;
@@ -59,8 +62,19 @@ public class KafkaExecutorTransport implements ExecutorTransport {
         this.executorId = UUID.randomUUID().toString();
     }
 
+    /**
+     * Tasks arrive in the binary task format, or as JSON from engines that
+     * still send it
+     */
     @Incoming("workflow-tasks")
-    public void consumeTask(NodeExecutionTask task) {
+    public void consumeTask(byte[] payload) {
+        NodeExecutionTask task;
+        try {
+            task = TaskMessageCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Failed to decode task message of {} bytes", payload.length, e);
+            return;
+        }
         LOG.debug("Received task: {} from Kafka", task.nodeId());
         taskProcessor.onNext(task);
     }
@@ -115,7 +129,7 @@ public class KafkaExecutorTransport implements ExecutorTransport {
         return Uni.createFrom().emitter(emitter -> {
             try {
                 // Send result to Kafka
-                resultEmitter.send(result);
+                resultEmitter.send(Record.of(result.runId().value(), result));
 
                 LOG.debug("Result sent to Kafka for task: {}", result.getNodeId());
                 emitter.complete(null);